@@ -0,0 +1,108 @@
+/*******************************************************************************
+ * Copyright (c) 2013 BSI Business Systems Integration AG.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     BSI Business Systems Integration AG - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.scout.commons;
+
+import static org.junit.Assert.assertEquals;
+
+import org.eclipse.scout.commons.annotations.Order;
+import org.eclipse.scout.commons.logger.IScoutLogger;
+import org.eclipse.scout.commons.logger.ScoutLogManager;
+import org.junit.Test;
+
+/**
+ * Timing harness comparing the per instance filtering and sorting of inner classes (as done by the model classes
+ * before the class structure was cached) with the cached {@link ConfigurationUtility} variants.
+ * <p>
+ * Elapsed times are logged (level INFO). The test does not assert on timings.
+ */
+public class ConfigurationUtilityPerformanceTest {
+  private static final IScoutLogger LOG = ScoutLogManager.getLogger(ConfigurationUtilityPerformanceTest.class);
+  private static final int WARMUP = 2000;
+  private static final int ITERATIONS = 20000;
+
+  @Test
+  public void testCompareWithUncached() {
+    int uncachedCount = 0;
+    int cachedCount = 0;
+    for (int i = 0; i < WARMUP; i++) {
+      uncachedCount += uncached();
+      cachedCount += cached();
+    }
+    long t0 = System.nanoTime();
+    for (int i = 0; i < ITERATIONS; i++) {
+      uncachedCount += uncached();
+    }
+    long t1 = System.nanoTime();
+    for (int i = 0; i < ITERATIONS; i++) {
+      cachedCount += cached();
+    }
+    long t2 = System.nanoTime();
+    assertEquals(uncachedCount, cachedCount);
+    LOG.info("inner classes of " + Container.class.getSimpleName() + ", " + ITERATIONS + " iterations: uncached " + (t1 - t0) / 1000000L + "ms, cached " + (t2 - t1) / 1000000L + "ms");
+  }
+
+  private static int uncached() {
+    Class[] dca = ConfigurationUtility.getDeclaredPublicClasses(Container.class);
+    return ConfigurationUtility.sortFilteredClassesByOrderAnnotation(dca, IItem.class).length
+        + ConfigurationUtility.filterClassesWithInjectFieldAnnotation(dca, IItem.class).length
+        + ConfigurationUtility.filterClasses(dca, Runnable.class).length;
+  }
+
+  private static int cached() {
+    return ConfigurationUtility.sortFilteredInnerClassesByOrderAnnotation(Container.class, IItem.class).length
+        + ConfigurationUtility.filterInnerClassesWithInjectFieldAnnotation(Container.class, IItem.class).length
+        + ConfigurationUtility.filterInnerClasses(Container.class, Runnable.class).length;
+  }
+
+  public interface IItem {
+  }
+
+  public static class Container {
+
+    @Order(10)
+    public class Item10 implements IItem {
+    }
+
+    @Order(20)
+    public class Item20 implements IItem {
+    }
+
+    @Order(30)
+    public class Item30 implements IItem {
+    }
+
+    @Order(40)
+    public class Item40 implements IItem {
+    }
+
+    @Order(50)
+    public class Item50 implements IItem {
+    }
+
+    @Order(60)
+    public class Item60 implements IItem {
+    }
+
+    @Order(70)
+    public class Item70 implements IItem {
+    }
+
+    @Order(80)
+    public class Item80 implements IItem {
+    }
+
+    public class Other1 {
+    }
+
+    public class Other2 {
+    }
+  }
+}
@@ -282,6 +282,66 @@ public class ConfigurationUtilityTest {
     assertSame(Replacement3.class, actual.get(Replacement2.class));
   }
 
+  @Test
+  public void getOrderedInnerClasses() {
+    Class<? extends IItem>[] expected = new Class[]{Container.Item10.class, Container.ReplacementItem20.class, Container.AbstractItem30.class};
+    Class<? extends IItem>[] actual = ConfigurationUtility.getOrderedInnerClasses(Container.class, IItem.class);
+    assertArrayEquals(expected, actual);
+    // cached result is not affected by changes of the returned array
+    actual[0] = null;
+    assertArrayEquals(expected, ConfigurationUtility.getOrderedInnerClasses(Container.class, IItem.class));
+  }
+
+  @Test
+  public void getFilteredInnerClasses() {
+    Class<? extends IItem>[] actual = ConfigurationUtility.getFilteredInnerClasses(Container.class, IItem.class);
+    assertEquals(new HashSet<Class<?>>(Arrays.asList(Container.Item10.class, Container.ReplacementItem20.class)), new HashSet<Class<?>>(Arrays.asList(actual)));
+    assertEquals(0, ConfigurationUtility.getFilteredInnerClasses(Container.class, String.class).length);
+  }
+
+  @Test
+  public void sortFilteredInnerClassesByOrderAnnotation() {
+    Class<?>[] dca = ConfigurationUtility.getDeclaredPublicClasses(Container.class);
+    Class<? extends IItem>[] expected = ConfigurationUtility.sortFilteredClassesByOrderAnnotation(dca, IItem.class);
+    Class<? extends IItem>[] actual = ConfigurationUtility.sortFilteredInnerClassesByOrderAnnotation(Container.class, IItem.class);
+    assertArrayEquals(expected, actual);
+    // replaced classes are not removed
+    assertEquals(4, actual.length);
+    actual[0] = null;
+    assertArrayEquals(expected, ConfigurationUtility.sortFilteredInnerClassesByOrderAnnotation(Container.class, IItem.class));
+  }
+
+  @Test
+  public void filterInnerClasses() {
+    Class<?>[] dca = ConfigurationUtility.getDeclaredPublicClasses(Container.class);
+    assertArrayEquals(ConfigurationUtility.filterClasses(dca, IItem.class), ConfigurationUtility.filterInnerClasses(Container.class, IItem.class));
+    assertArrayEquals(ConfigurationUtility.filterClassesIgnoringInjectFieldAnnotation(dca, IItem.class), ConfigurationUtility.filterInnerClassesIgnoringInjectFieldAnnotation(Container.class, IItem.class));
+    assertArrayEquals(ConfigurationUtility.filterClassesWithInjectFieldAnnotation(dca, IItem.class), ConfigurationUtility.filterInnerClassesWithInjectFieldAnnotation(Container.class, IItem.class));
+    // the replacement is an inject field class
+    assertArrayEquals(new Class[]{Container.ReplacementItem20.class}, ConfigurationUtility.filterInnerClassesWithInjectFieldAnnotation(Container.class, IItem.class));
+    // the selections are cached separately
+    assertEquals(3, ConfigurationUtility.filterInnerClasses(Container.class, IItem.class).length);
+    assertEquals(2, ConfigurationUtility.filterInnerClassesIgnoringInjectFieldAnnotation(Container.class, IItem.class).length);
+  }
+
+  @Test
+  public void getDeclaredPublicClasses() {
+    Class<?>[] actual = ConfigurationUtility.getDeclaredPublicClasses(Container.class);
+    assertEquals(new HashSet<Class<?>>(Arrays.asList(Container.class.getClasses())), new HashSet<Class<?>>(Arrays.asList(actual)));
+    assertNotSame(actual, ConfigurationUtility.getDeclaredPublicClasses(Container.class));
+  }
+
+  @Test
+  public void newInnerInstance() throws Exception {
+    Container container = new Container();
+    Container.Item10 a = ConfigurationUtility.newInnerInstance(container, Container.Item10.class);
+    Container.Item10 b = ConfigurationUtility.newInnerInstance(container, Container.Item10.class);
+    assertNotSame(a, b);
+    assertSame(container, a.getContainer());
+    assertSame(container, b.getContainer());
+    assertNotNull(ConfigurationUtility.newInnerInstance(container, OrderStatic10.class));
+  }
+
   public static class InnerA {
     public InnerB b = new InnerB();
 
@@ -335,6 +395,31 @@ public class ConfigurationUtilityTest {
     }
   }
 
+  public interface IItem {
+  }
+
+  public static class Container {
+
+    @Order(20)
+    public class Item20 implements IItem {
+    }
+
+    @Order(10)
+    public class Item10 implements IItem {
+      public Container getContainer() {
+        return Container.this;
+      }
+    }
+
+    @Replace
+    public class ReplacementItem20 extends Item20 {
+    }
+
+    @Order(30)
+    public abstract class AbstractItem30 implements IItem {
+    }
+  }
+
   public static class Original {
   }
 
@@ -0,0 +1,64 @@
+/*******************************************************************************
+ * Copyright (c) 2013 BSI Business Systems Integration AG.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     BSI Business Systems Integration AG - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.scout.commons;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Tests for {@link LatencyHistogram}
+ */
+public class LatencyHistogramTest {
+
+  @Test
+  public void testEmpty() {
+    LatencyHistogram h = new LatencyHistogram();
+    assertEquals(0, h.getCount());
+    assertEquals(0, h.getPercentile(99));
+    assertEquals(0d, h.getMean(), 0d);
+  }
+
+  @Test
+  public void testBucketBounds() {
+    for (long v = 0; v < 100000; v++) {
+      int index = LatencyHistogram.bucketIndex(v);
+      assertTrue(v <= LatencyHistogram.bucketUpperBound(index));
+      if (index > 0) {
+        assertTrue(v > LatencyHistogram.bucketUpperBound(index - 1));
+      }
+    }
+    assertTrue(LatencyHistogram.bucketUpperBound(LatencyHistogram.bucketIndex(Long.MAX_VALUE)) == Long.MAX_VALUE);
+  }
+
+  @Test
+  public void testPercentiles() {
+    LatencyHistogram h = new LatencyHistogram();
+    for (int i = 1; i <= 1000; i++) {
+      h.record(i);
+    }
+    assertEquals(1000, h.getCount());
+    assertEquals(1000, h.getMax());
+    assertEquals(500.5d, h.getMean(), 0.001d);
+    assertRelative(500, h.getPercentile(50));
+    assertRelative(900, h.getPercentile(90));
+    assertRelative(990, h.getPercentile(99));
+    assertEquals(1000, h.getPercentile(100));
+    h.reset();
+    assertEquals(0, h.getCount());
+    assertEquals(0, h.getMax());
+  }
+
+  private static void assertRelative(long expected, long actual) {
+    assertTrue("expected about " + expected + " but was " + actual, actual >= expected && actual <= expected * 1.125d);
+  }
+}
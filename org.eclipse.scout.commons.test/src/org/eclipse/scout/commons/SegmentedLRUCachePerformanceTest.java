@@ -0,0 +1,122 @@
+/*******************************************************************************
+ * Copyright (c) 2013 BSI Business Systems Integration AG.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     BSI Business Systems Integration AG - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.scout.commons;
+
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.scout.commons.logger.IScoutLogger;
+import org.eclipse.scout.commons.logger.ScoutLogManager;
+import org.junit.Test;
+
+/**
+ * Timing harness comparing {@link SegmentedLRUCache} with {@link LRUCache} under concurrent get/put load with a
+ * skewed key distribution (80% of the accesses hit 20% of the keys, the key space is four times the cache size).
+ * <p>
+ * Elapsed time and hit ratio of both caches are logged (level INFO). The test does not assert on timings.
+ */
+public class SegmentedLRUCachePerformanceTest {
+  private static final IScoutLogger LOG = ScoutLogManager.getLogger(SegmentedLRUCachePerformanceTest.class);
+  private static final int THREADS = 4;
+  private static final int OPERATIONS_PER_THREAD = 100000;
+  private static final int TARGET_SIZE = 1000;
+  private static final int KEY_SPACE = 4 * TARGET_SIZE;
+
+  @Test
+  public void testCompareWithLRUCache() throws Exception {
+    final LRUCache<Integer, Integer> lru = new LRUCache<Integer, Integer>(TARGET_SIZE, 0L);
+    final SegmentedLRUCache<Integer, Integer> slru = new SegmentedLRUCache<Integer, Integer>(TARGET_SIZE, 0L);
+    P_CacheAdapter lruAdapter = new P_CacheAdapter() {
+      @Override
+      public boolean getOrPut(Integer key) {
+        if (lru.get(key) != null) {
+          return true;
+        }
+        lru.put(key, key);
+        return false;
+      }
+    };
+    P_CacheAdapter slruAdapter = new P_CacheAdapter() {
+      @Override
+      public boolean getOrPut(Integer key) {
+        if (slru.get(key) != null) {
+          return true;
+        }
+        slru.put(key, key);
+        return false;
+      }
+    };
+    // warm up both implementations before measuring
+    run(lruAdapter);
+    run(slruAdapter);
+    lru.clear();
+    slru.clear();
+    long[] lruResult = run(lruAdapter);
+    long[] slruResult = run(slruAdapter);
+    LOG.info("LRUCache:          " + format(lruResult));
+    LOG.info("SegmentedLRUCache: " + format(slruResult));
+    assertTrue(lruResult[1] > 0);
+    assertTrue(slruResult[1] > 0);
+  }
+
+  /**
+   * @return elapsed nanos and number of hits
+   */
+  private static long[] run(final P_CacheAdapter cache) throws InterruptedException {
+    final CountDownLatch start = new CountDownLatch(1);
+    final CountDownLatch done = new CountDownLatch(THREADS);
+    final AtomicLong hits = new AtomicLong();
+    for (int t = 0; t < THREADS; t++) {
+      final Random random = new Random(t);
+      new Thread("SegmentedLRUCachePerformanceTest-" + t) {
+        @Override
+        public void run() {
+          try {
+            start.await();
+            long n = 0;
+            for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+              int key = random.nextInt(5) < 4 ? random.nextInt(KEY_SPACE / 5) : random.nextInt(KEY_SPACE);
+              if (cache.getOrPut(Integer.valueOf(key))) {
+                n++;
+              }
+            }
+            hits.addAndGet(n);
+          }
+          catch (InterruptedException e) {
+            // stop
+          }
+          finally {
+            done.countDown();
+          }
+        }
+      }.start();
+    }
+    long begin = System.nanoTime();
+    start.countDown();
+    done.await();
+    return new long[]{System.nanoTime() - begin, hits.get()};
+  }
+
+  private static String format(long[] result) {
+    long operations = (long) THREADS * OPERATIONS_PER_THREAD;
+    return operations + " operations in " + (result[0] / 1000000L) + " ms, hit ratio " + (result[1] * 100L / operations) + "%";
+  }
+
+  private interface P_CacheAdapter {
+    /**
+     * @return true if the key was cached, otherwise it is put into the cache
+     */
+    boolean getOrPut(Integer key);
+  }
+}
@@ -0,0 +1,135 @@
+/*******************************************************************************
+ * Copyright (c) 2013 BSI Business Systems Integration AG.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     BSI Business Systems Integration AG - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.scout.commons;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+/**
+ * Tests for {@link SegmentedLRUCache}
+ */
+public class SegmentedLRUCacheTest {
+
+  @Test
+  public void testBoundedAndDisposed() {
+    SegmentedLRUCache<Integer, String> cache = new SegmentedLRUCache<Integer, String>(100, -1);
+    final List<Object> disposed = new ArrayList<Object>();
+    cache.addDisposeListener(new SegmentedLRUCache.DisposeListener() {
+      @Override
+      public void valueDisposed(Object key, Object value) {
+        disposed.add(key);
+      }
+    });
+    for (int i = 0; i < 1000; i++) {
+      cache.put(i, "v" + i);
+    }
+    assertEquals(100, cache.size());
+    assertEquals(900, disposed.size());
+    assertEquals(900, cache.getEvictionCount());
+    // least recently added entries are evicted first
+    assertEquals(Integer.valueOf(0), disposed.get(0));
+    assertEquals("v999", cache.get(999));
+    cache.remove(999);
+    assertEquals(901, disposed.size());
+    cache.clear();
+    assertEquals(1000, disposed.size());
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  public void testScanResistant() {
+    SegmentedLRUCache<Integer, Integer> cache = new SegmentedLRUCache<Integer, Integer>(100, -1);
+    for (int i = 0; i < 50; i++) {
+      cache.put(i, i);
+    }
+    for (int i = 0; i < 50; i++) {
+      cache.get(i);
+    }
+    // a scan of keys used only once
+    for (int i = 1000; i < 2000; i++) {
+      cache.put(i, i);
+    }
+    for (int i = 0; i < 50; i++) {
+      assertEquals(Integer.valueOf(i), cache.get(i));
+    }
+    assertEquals(100, cache.size());
+  }
+
+  @Test
+  public void testTimeout() throws Exception {
+    SegmentedLRUCache<String, String> cache = new SegmentedLRUCache<String, String>(10, 50);
+    cache.put("a", "A");
+    assertTrue(cache.containsKey("a"));
+    Thread.sleep(100);
+    assertFalse(cache.containsKey("a"));
+    assertNull(cache.get("a"));
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  public void testStatistics() {
+    SegmentedLRUCache<String, String> cache = new SegmentedLRUCache<String, String>(10, -1);
+    cache.put("a", "A");
+    cache.get("a");
+    cache.get("a");
+    cache.get("b");
+    assertEquals(2, cache.getHitCount());
+    assertEquals(1, cache.getMissCount());
+    assertEquals(2d / 3d, cache.getHitRatio(), 0.0001d);
+    assertTrue(cache.containsValue("A"));
+  }
+
+  @Test
+  public void testConcurrentAccess() throws Exception {
+    final SegmentedLRUCache<Integer, Integer> cache = new SegmentedLRUCache<Integer, Integer>(64, -1);
+    final AtomicInteger disposed = new AtomicInteger();
+    cache.addDisposeListener(new SegmentedLRUCache.DisposeListener() {
+      @Override
+      public void valueDisposed(Object key, Object value) {
+        disposed.incrementAndGet();
+      }
+    });
+    final AtomicInteger puts = new AtomicInteger();
+    List<Thread> threads = new ArrayList<Thread>();
+    for (int t = 0; t < 8; t++) {
+      final int seed = t;
+      Thread thread = new Thread() {
+        @Override
+        public void run() {
+          for (int i = 0; i < 20000; i++) {
+            Integer key = Integer.valueOf((i * 31 + seed) % 256);
+            if (cache.get(key) == null) {
+              cache.put(key, key);
+              puts.incrementAndGet();
+            }
+          }
+        }
+      };
+      thread.start();
+      threads.add(thread);
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    assertTrue(cache.size() <= 64);
+    // every value put is either cached, replaced or disposed
+    assertTrue(puts.get() >= cache.size() + cache.getEvictionCount());
+    assertTrue(disposed.get() >= cache.getEvictionCount());
+  }
+}
@@ -0,0 +1,182 @@
+/*******************************************************************************
+ * Copyright (c) 2013 BSI Business Systems Integration AG.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     BSI Business Systems Integration AG - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.scout.commons.csv;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.scout.commons.logger.IScoutLogger;
+import org.eclipse.scout.commons.logger.ScoutLogManager;
+import org.junit.Test;
+
+/**
+ * Timing harness comparing {@link CsvReader} and {@link CsvWriter} with the former per row tokenizing and encoding of
+ * {@link CsvHelper} (kept in {@link P_LegacyCsv}, which reads char by char and builds a string per row).
+ * <p>
+ * Elapsed times are logged (level INFO). The test does not assert on timings.
+ */
+public class CsvPerformanceTest {
+  private static final IScoutLogger LOG = ScoutLogManager.getLogger(CsvPerformanceTest.class);
+  private static final int ROWS = 50000;
+  private static final int RUNS = 5;
+
+  @Test
+  public void testCompareWithLegacy() throws Exception {
+    Object[][] data = createData();
+    String csv = null;
+    long legacyWrite = 0;
+    long streamingWrite = 0;
+    long legacyRead = 0;
+    long streamingRead = 0;
+    // the first run warms up and is not measured
+    for (int run = 0; run <= RUNS; run++) {
+      long t0 = System.nanoTime();
+      String legacyCsv = new P_LegacyCsv().write(data);
+      long t1 = System.nanoTime();
+      csv = writeStreaming(data);
+      long t2 = System.nanoTime();
+      assertEquals(ROWS, new P_LegacyCsv().read(csv));
+      long t3 = System.nanoTime();
+      assertEquals(ROWS, readStreaming(csv));
+      long t4 = System.nanoTime();
+      assertEquals(legacyCsv, csv);
+      if (run > 0) {
+        legacyWrite += t1 - t0;
+        streamingWrite += t2 - t1;
+        legacyRead += t3 - t2;
+        streamingRead += t4 - t3;
+      }
+    }
+    LOG.info(ROWS + " rows, " + csv.length() + " chars, average of " + RUNS + " runs: "
+        + "write legacy " + legacyWrite / RUNS / 1000000L + "ms, streaming " + streamingWrite / RUNS / 1000000L + "ms; "
+        + "read legacy " + legacyRead / RUNS / 1000000L + "ms, streaming " + streamingRead / RUNS / 1000000L + "ms");
+  }
+
+  private static Object[][] createData() {
+    Object[][] data = new Object[ROWS][];
+    for (int i = 0; i < ROWS; i++) {
+      data[i] = new Object[]{Integer.valueOf(i), "name " + i, (i % 10 == 0 ? "quoted; \"" + i + "\"" : "plain"), Long.valueOf(i * 1000L), null};
+    }
+    return data;
+  }
+
+  private static String writeStreaming(Object[][] data) throws IOException {
+    StringWriter out = new StringWriter();
+    CsvWriter w = new CsvWriter(out, ';', '"', "\n");
+    for (Object[] row : data) {
+      w.writeRow(row);
+    }
+    w.flush();
+    return out.toString();
+  }
+
+  private static int readStreaming(String csv) throws IOException {
+    CsvReader r = new CsvReader(new StringReader(csv), ';', '"');
+    int n = 0;
+    while (r.nextRow()) {
+      r.getCell(2);
+      n++;
+    }
+    return n;
+  }
+
+  /**
+   * Former algorithm of {@link CsvHelper}
+   */
+  private static class P_LegacyCsv {
+    private static final char SEPARATOR = ';';
+    private static final char DELIMITER = '"';
+
+    public String write(Object[][] data) throws IOException {
+      StringWriter out = new StringWriter();
+      for (Object[] row : data) {
+        List<String> cells = new ArrayList<String>(row.length);
+        for (Object o : row) {
+          cells.add(o == null ? "" : o.toString());
+        }
+        writeRow(out, cells);
+      }
+      return out.toString();
+    }
+
+    private void writeRow(Writer out, List<String> cells) throws IOException {
+      StringBuffer buf = new StringBuffer();
+      for (int i = 0; i < cells.size(); i++) {
+        if (i > 0) {
+          buf.append(SEPARATOR);
+        }
+        String text = cells.get(i).replace("" + DELIMITER, "" + DELIMITER + DELIMITER);
+        if (text.indexOf(SEPARATOR) >= 0 || text.indexOf(DELIMITER) >= 0) {
+          text = DELIMITER + text + DELIMITER;
+        }
+        buf.append(text);
+      }
+      out.write(buf.toString());
+      out.write("\n");
+    }
+
+    public int read(String csv) throws IOException {
+      Reader reader = new StringReader(csv);
+      int n = 0;
+      while (readRow(reader) != null) {
+        n++;
+      }
+      return n;
+    }
+
+    private List<String> readRow(Reader reader) throws IOException {
+      List<String> cells = new ArrayList<String>();
+      boolean inString = false;
+      StringBuffer curBuf = new StringBuffer();
+      int ch = reader.read();
+      while (ch == '\n' || ch == '\r') {
+        ch = reader.read();
+      }
+      if (ch < 0) {
+        return null;
+      }
+      while (true) {
+        if (ch >= 0 && inString) {
+          if (ch == DELIMITER) {
+            inString = false;
+          }
+          curBuf.append((char) ch);
+        }
+        else if (ch == SEPARATOR || ch < 0 || ch == '\n' || ch == '\r') {
+          String token = curBuf.toString();
+          curBuf.setLength(0);
+          if (token.length() > 1 && token.charAt(0) == DELIMITER && token.charAt(token.length() - 1) == DELIMITER) {
+            token = token.substring(1, token.length() - 1).replace("" + DELIMITER + DELIMITER, "" + DELIMITER);
+          }
+          cells.add(token.length() > 0 ? token : null);
+          if (ch < 0 || ch == '\n' || ch == '\r') {
+            break;
+          }
+        }
+        else {
+          if (ch == DELIMITER) {
+            inString = true;
+          }
+          curBuf.append((char) ch);
+        }
+        ch = reader.read();
+      }
+      return cells;
+    }
+  }
+}
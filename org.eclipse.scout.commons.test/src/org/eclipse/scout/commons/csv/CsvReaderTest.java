@@ -0,0 +1,80 @@
+/*******************************************************************************
+ * Copyright (c) 2013 BSI Business Systems Integration AG.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     BSI Business Systems Integration AG - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.scout.commons.csv;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Tests for {@link CsvReader} and {@link CsvWriter}
+ */
+public class CsvReaderTest {
+
+  @Test
+  public void testRead() throws Exception {
+    CsvReader r = new CsvReader(new StringReader("a;b;;\"c;d\"\r\n\n\"e\"\"f\";\"g\nh\"\n"), ';', '"');
+    assertTrue(r.nextRow());
+    assertEquals(4, r.getCellCount());
+    assertEquals("a", r.getCell(0));
+    assertEquals("b", r.getCell(1));
+    assertNull(r.getCell(2));
+    assertEquals("c;d", r.getCell(3));
+    assertNull(r.getCell(4));
+    // empty lines are skipped
+    assertTrue(r.nextRow());
+    assertEquals(Arrays.asList("e\"f", "g\nh"), r.getRow());
+    assertEquals(2, r.getRowNumber());
+    assertFalse(r.nextRow());
+  }
+
+  @Test
+  public void testRoundTrip() throws Exception {
+    StringWriter out = new StringWriter();
+    CsvWriter w = new CsvWriter(out, ',', '"', "\n");
+    w.writeRow(new Object[]{"x", null, 1, "a,b", "q\"q", "line\nbreak"});
+    w.writeRow(Arrays.asList("y", ""));
+    assertEquals(2, w.getRowCount());
+    assertEquals("x,,1,\"a,b\",\"q\"\"q\",\"line\nbreak\"\ny,\n", out.toString());
+
+    CsvReader r = new CsvReader(new StringReader(out.toString()), ',', '"');
+    assertTrue(r.nextRow());
+    List<String> row = r.getRow();
+    assertEquals(Arrays.asList("x", null, "1", "a,b", "q\"q", "line\nbreak"), row);
+    assertTrue(r.nextRow());
+    assertEquals(Arrays.asList("y", null), r.getRow());
+    assertFalse(r.nextRow());
+  }
+
+  @Test
+  public void testLargeInput() throws Exception {
+    StringBuilder b = new StringBuilder();
+    for (int i = 0; i < 10000; i++) {
+      b.append(i).append(",\"v").append(i).append("\"\n");
+    }
+    CsvReader r = new CsvReader(new StringReader(b.toString()), ',', '"');
+    int n = 0;
+    while (r.nextRow()) {
+      assertEquals(String.valueOf(n), r.getCell(0));
+      assertEquals("v" + n, r.getCell(1));
+      n++;
+    }
+    assertEquals(10000, n);
+  }
+}
@@ -0,0 +1,221 @@
+/*******************************************************************************
+ * Copyright (c) 2013 BSI Business Systems Integration AG.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     BSI Business Systems Integration AG - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.scout.commons;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Constructor;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per class cache of the reflective structure used by {@link ConfigurationUtility}: the public inner classes, the
+ * filtered, ordered and replacement-resolved inner classes and the constructor of inner classes.
+ * <p>
+ * Classes are weakly referenced. Since the cached structure references the class loader of the class, it is
+ * softly referenced, so that the classes of an uninstalled bundle can be garbage collected.
+ * <p>
+ * Cached arrays are shared and must not be returned to callers without a copy.
+ *
+ * @since 3.9.0
+ */
+final class ClassStructureCache {
+  private static final ConcurrentHashMap<Object, P_StructureReference> CACHE = new ConcurrentHashMap<Object, P_StructureReference>();
+  private static final ReferenceQueue<Class<?>> QUEUE = new ReferenceQueue<Class<?>>();
+
+  private ClassStructureCache() {
+  }
+
+  /**
+   * @return the cached structure of the class, never null
+   */
+  static Structure get(Class<?> c) {
+    P_StructureReference ref = CACHE.get(new P_LookupKey(c));
+    Structure s = (ref != null ? ref.get() : null);
+    if (s != null) {
+      return s;
+    }
+    expungeStaleEntries();
+    s = new Structure();
+    if (ref == null) {
+      P_ClassKey key = new P_ClassKey(c, QUEUE);
+      ref = CACHE.putIfAbsent(key, new P_StructureReference(key, s));
+      if (ref == null) {
+        return s;
+      }
+      // concurrently added
+      Structure existing = ref.get();
+      if (existing != null) {
+        return existing;
+      }
+    }
+    // the structure was cleared, keep the existing key
+    CACHE.put(ref.m_key, new P_StructureReference(ref.m_key, s));
+    return s;
+  }
+
+  /**
+   * Removes all cached structures
+   */
+  static void clear() {
+    CACHE.clear();
+  }
+
+  static int size() {
+    return CACHE.size();
+  }
+
+  private static void expungeStaleEntries() {
+    Reference<?> ref;
+    while ((ref = QUEUE.poll()) != null) {
+      CACHE.remove(ref);
+    }
+  }
+
+  /**
+   * Reflective structure of one class. All values are computed lazily; concurrent computation of the same value is
+   * harmless since the results are equal.
+   */
+  static final class Structure {
+    private volatile Class[] m_declaredPublicClasses;
+    private volatile Constructor<?> m_innerConstructor;
+    private final ConcurrentHashMap<P_InnerClassesKey, Class[]> m_innerClasses = new ConcurrentHashMap<P_InnerClassesKey, Class[]>();
+
+    private Structure() {
+    }
+
+    Class[] getDeclaredPublicClasses() {
+      return m_declaredPublicClasses;
+    }
+
+    void setDeclaredPublicClasses(Class[] declaredPublicClasses) {
+      m_declaredPublicClasses = declaredPublicClasses;
+    }
+
+    Constructor<?> getInnerConstructor() {
+      return m_innerConstructor;
+    }
+
+    void setInnerConstructor(Constructor<?> innerConstructor) {
+      m_innerConstructor = innerConstructor;
+    }
+
+    /**
+     * @param selection
+     *          identifies how the inner classes of the filter type were selected, see the constants in
+     *          {@link ConfigurationUtility}
+     * @return the cached inner classes or null
+     */
+    Class[] getInnerClasses(int selection, Class<?> filter) {
+      return m_innerClasses.get(new P_InnerClassesKey(selection, filter));
+    }
+
+    void setInnerClasses(int selection, Class<?> filter, Class[] innerClasses) {
+      m_innerClasses.put(new P_InnerClassesKey(selection, filter), innerClasses);
+    }
+  }
+
+  private static final class P_InnerClassesKey {
+    private final int m_selection;
+    private final Class<?> m_filter;
+
+    P_InnerClassesKey(int selection, Class<?> filter) {
+      m_selection = selection;
+      m_filter = filter;
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * m_selection + System.identityHashCode(m_filter);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (!(obj instanceof P_InnerClassesKey)) {
+        return false;
+      }
+      P_InnerClassesKey other = (P_InnerClassesKey) obj;
+      return other.m_selection == m_selection && other.m_filter == m_filter;
+    }
+  }
+
+  private static final class P_StructureReference extends SoftReference<Structure> {
+    private final P_ClassKey m_key;
+
+    P_StructureReference(P_ClassKey key, Structure s) {
+      super(s);
+      m_key = key;
+    }
+  }
+
+  /**
+   * Weak map key, equal to {@link P_LookupKey} of the same class
+   */
+  private static final class P_ClassKey extends WeakReference<Class<?>> {
+    private final int m_hash;
+
+    P_ClassKey(Class<?> c, ReferenceQueue<Class<?>> queue) {
+      super(c, queue);
+      m_hash = System.identityHashCode(c);
+    }
+
+    @Override
+    public int hashCode() {
+      return m_hash;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (obj == this) {
+        return true;
+      }
+      Class<?> c = get();
+      if (c == null) {
+        return false;
+      }
+      if (obj instanceof P_ClassKey) {
+        return ((P_ClassKey) obj).get() == c;
+      }
+      if (obj instanceof P_LookupKey) {
+        return ((P_LookupKey) obj).m_class == c;
+      }
+      return false;
+    }
+  }
+
+  /**
+   * Map key used for lookups, avoids creating a reference object for each access
+   */
+  private static final class P_LookupKey {
+    private final Class<?> m_class;
+
+    P_LookupKey(Class<?> c) {
+      m_class = c;
+    }
+
+    @Override
+    public int hashCode() {
+      return System.identityHashCode(m_class);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (obj instanceof P_ClassKey) {
+        return ((P_ClassKey) obj).get() == m_class;
+      }
+      if (obj instanceof P_LookupKey) {
+        return ((P_LookupKey) obj).m_class == m_class;
+      }
+      return false;
+    }
+  }
+}
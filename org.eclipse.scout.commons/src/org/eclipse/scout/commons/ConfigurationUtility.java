@@ -35,6 +35,15 @@ import org.eclipse.scout.commons.logger.ScoutLogManager;
  */
 public final class ConfigurationUtility {
   private static final IScoutLogger LOG = ScoutLogManager.getLogger(ConfigurationUtility.class);
+  /*
+   * selections of inner classes cached by the ClassStructureCache
+   */
+  private static final int ORDERED_WITHOUT_REPLACED = 1;
+  private static final int FILTERED_WITHOUT_REPLACED = 2;
+  private static final int ORDERED = 3;
+  private static final int FILTERED = 4;
+  private static final int FILTERED_IGNORING_INJECT_FIELD = 5;
+  private static final int FILTERED_WITH_INJECT_FIELD = 6;
 
   private ConfigurationUtility() {
   }
@@ -226,14 +235,139 @@ public final class ConfigurationUtility {
   /**
    * get all declared classes (inner types) of the specified class and all its
    * super classes
+   * <p>
+   * The result is cached per class, the returned array is a copy.
    */
   public static Class[] getDeclaredPublicClasses(Class c) {
-    return c.getClasses();
+    return getCachedDeclaredPublicClasses(c).clone();
+  }
+
+  /**
+   * Same as
+   * <code>removeReplacedClasses(sortFilteredClassesByOrderAnnotation(getDeclaredPublicClasses(c), filter))</code>.
+   * <p>
+   * The result is cached per class, the returned array is a copy.
+   *
+   * @since 3.9.0
+   */
+  public static <T> Class<? extends T>[] getOrderedInnerClasses(Class<?> c, Class<T> filter) {
+    return getCachedInnerClasses(c, filter, ORDERED_WITHOUT_REPLACED);
+  }
+
+  /**
+   * Same as <code>removeReplacedClasses(filterClasses(getDeclaredPublicClasses(c), filter))</code>.
+   * <p>
+   * The result is cached per class, the returned array is a copy.
+   *
+   * @since 3.9.0
+   */
+  public static <T> Class<? extends T>[] getFilteredInnerClasses(Class<?> c, Class<T> filter) {
+    return getCachedInnerClasses(c, filter, FILTERED_WITHOUT_REPLACED);
+  }
+
+  /**
+   * Same as <code>sortFilteredClassesByOrderAnnotation(getDeclaredPublicClasses(c), filter)</code>.
+   * <p>
+   * The result is cached per class, the returned array is a copy.
+   *
+   * @since 3.9.0
+   */
+  public static <T> Class<? extends T>[] sortFilteredInnerClassesByOrderAnnotation(Class<?> c, Class<T> filter) {
+    return getCachedInnerClasses(c, filter, ORDERED);
+  }
+
+  /**
+   * Same as <code>filterClasses(getDeclaredPublicClasses(c), filter)</code>.
+   * <p>
+   * The result is cached per class, the returned array is a copy.
+   *
+   * @since 3.9.0
+   */
+  public static <T> Class<? extends T>[] filterInnerClasses(Class<?> c, Class<T> filter) {
+    return getCachedInnerClasses(c, filter, FILTERED);
+  }
+
+  /**
+   * Same as <code>filterClassesIgnoringInjectFieldAnnotation(getDeclaredPublicClasses(c), filter)</code>.
+   * <p>
+   * The result is cached per class, the returned array is a copy.
+   *
+   * @since 3.9.0
+   */
+  public static <T> Class<? extends T>[] filterInnerClassesIgnoringInjectFieldAnnotation(Class<?> c, Class<T> filter) {
+    return getCachedInnerClasses(c, filter, FILTERED_IGNORING_INJECT_FIELD);
+  }
+
+  /**
+   * Same as <code>filterClassesWithInjectFieldAnnotation(getDeclaredPublicClasses(c), filter)</code>.
+   * <p>
+   * The result is cached per class, the returned array is a copy.
+   *
+   * @since 3.9.0
+   */
+  public static <T> Class<? extends T>[] filterInnerClassesWithInjectFieldAnnotation(Class<?> c, Class<T> filter) {
+    return getCachedInnerClasses(c, filter, FILTERED_WITH_INJECT_FIELD);
   }
 
+  @SuppressWarnings("unchecked")
+  private static <T> Class<? extends T>[] getCachedInnerClasses(Class<?> c, Class<T> filter, int selection) {
+    ClassStructureCache.Structure s = ClassStructureCache.get(c);
+    Class[] innerClasses = s.getInnerClasses(selection, filter);
+    if (innerClasses == null) {
+      Class[] dca = getCachedDeclaredPublicClasses(c);
+      switch (selection) {
+        case ORDERED_WITHOUT_REPLACED: {
+          innerClasses = removeReplacedClasses(sortFilteredClassesByOrderAnnotation(dca, filter));
+          break;
+        }
+        case FILTERED_WITHOUT_REPLACED: {
+          innerClasses = removeReplacedClasses(filterClasses(dca, filter));
+          break;
+        }
+        case ORDERED: {
+          innerClasses = sortFilteredClassesByOrderAnnotation(dca, filter);
+          break;
+        }
+        case FILTERED_IGNORING_INJECT_FIELD: {
+          innerClasses = filterClassesIgnoringInjectFieldAnnotation(dca, filter);
+          break;
+        }
+        case FILTERED_WITH_INJECT_FIELD: {
+          innerClasses = filterClassesWithInjectFieldAnnotation(dca, filter);
+          break;
+        }
+        default: {
+          innerClasses = filterClasses(dca, filter);
+        }
+      }
+      s.setInnerClasses(selection, filter, innerClasses);
+    }
+    return innerClasses.clone();
+  }
+
+  private static Class[] getCachedDeclaredPublicClasses(Class<?> c) {
+    ClassStructureCache.Structure s = ClassStructureCache.get(c);
+    Class[] dca = s.getDeclaredPublicClasses();
+    if (dca == null) {
+      dca = c.getClasses();
+      s.setDeclaredPublicClasses(dca);
+    }
+    return dca;
+  }
+
+  /**
+   * Creates a new instance of the inner class. Non-static inner classes are created with the given enclosing instance,
+   * the constructor is cached per class.
+   */
+  @SuppressWarnings("unchecked")
   public static <T> T newInnerInstance(Object instance, Class<T> innerClass) throws Exception {
     if (innerClass.getDeclaringClass() != null && (innerClass.getModifiers() & Modifier.STATIC) == 0) {
-      Constructor<T> c = innerClass.getDeclaredConstructor(new Class[]{innerClass.getDeclaringClass()});
+      ClassStructureCache.Structure s = ClassStructureCache.get(innerClass);
+      Constructor<T> c = (Constructor<T>) s.getInnerConstructor();
+      if (c == null) {
+        c = innerClass.getDeclaredConstructor(new Class[]{innerClass.getDeclaringClass()});
+        s.setInnerConstructor(c);
+      }
       return c.newInstance(new Object[]{instance});
     }
     else {
@@ -24,6 +24,9 @@ import java.util.TreeSet;
  * Default implementation of a last recently used cache mechanism using a HashMap. This implementation is thread-safe.
  * {@link #setTargetSize(int)} is the number of items remaining in the cache, superfluous items are discarded and
  * notified by the DisposeListener
+ * <p>
+ * All operations are serialized and reducing the cache size sorts all entries. For large or highly concurrent caches
+ * use {@link SegmentedLRUCache}.
  */
 public class LRUCache<K, V> {
   private long m_nextSecondarySeq = 1;
@@ -0,0 +1,161 @@
+/*******************************************************************************
+ * Copyright (c) 2013 BSI Business Systems Integration AG.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     BSI Business Systems Integration AG - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.scout.commons;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free histogram of non-negative long values (typically durations).
+ * <p>
+ * Values are counted in log-linear buckets: values below 16 are counted exactly, larger values in 8 buckets per power
+ * of two. Therefore percentiles are accurate to about 12.5% while recording costs one atomic increment and the memory
+ * footprint is constant.
+ * <p>
+ * This class is thread-safe. Concurrent reads see a consistent state of every single bucket but not necessarily of the
+ * histogram as a whole.
+ *
+ * @since 3.9.0
+ */
+public class LatencyHistogram {
+  private static final int EXACT_LIMIT = 16;
+  private static final int SUB_BUCKET_BITS = 3;
+  private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+  private static final int EXACT_EXPONENT = 4;
+  private static final int BUCKET_COUNT = EXACT_LIMIT + (63 - EXACT_EXPONENT) * SUB_BUCKET_COUNT;
+
+  private final AtomicLongArray m_buckets;
+  private final AtomicLong m_count;
+  private final AtomicLong m_sum;
+  private final AtomicLong m_max;
+
+  public LatencyHistogram() {
+    m_buckets = new AtomicLongArray(BUCKET_COUNT);
+    m_count = new AtomicLong();
+    m_sum = new AtomicLong();
+    m_max = new AtomicLong();
+  }
+
+  /**
+   * Records a value. Negative values are recorded as 0.
+   */
+  public void record(long value) {
+    if (value < 0) {
+      value = 0;
+    }
+    m_buckets.incrementAndGet(bucketIndex(value));
+    m_count.incrementAndGet();
+    m_sum.addAndGet(value);
+    long max = m_max.get();
+    while (value > max) {
+      if (m_max.compareAndSet(max, value)) {
+        break;
+      }
+      max = m_max.get();
+    }
+  }
+
+  public long getCount() {
+    return m_count.get();
+  }
+
+  public long getSum() {
+    return m_sum.get();
+  }
+
+  public long getMax() {
+    return m_max.get();
+  }
+
+  public double getMean() {
+    long count = m_count.get();
+    if (count == 0) {
+      return 0;
+    }
+    return (double) m_sum.get() / (double) count;
+  }
+
+  /**
+   * @param percentile
+   *          in the range [0, 100]
+   * @return the upper bound of the bucket containing the given percentile, at most {@link #getMax()}
+   */
+  public long getPercentile(double percentile) {
+    long count = 0;
+    long[] snapshot = new long[BUCKET_COUNT];
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      snapshot[i] = m_buckets.get(i);
+      count += snapshot[i];
+    }
+    if (count == 0) {
+      return 0;
+    }
+    long rank = (long) Math.ceil(Math.max(0d, Math.min(100d, percentile)) / 100d * count);
+    if (rank < 1) {
+      rank = 1;
+    }
+    long seen = 0;
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      seen += snapshot[i];
+      if (seen >= rank) {
+        return Math.min(bucketUpperBound(i), getMax());
+      }
+    }
+    return getMax();
+  }
+
+  /**
+   * Resets all counters.
+   */
+  public void reset() {
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      m_buckets.set(i, 0);
+    }
+    m_count.set(0);
+    m_sum.set(0);
+    m_max.set(0);
+  }
+
+  static int bucketIndex(long value) {
+    if (value < EXACT_LIMIT) {
+      return (int) value;
+    }
+    int exponent = 63 - Long.numberOfLeadingZeros(value);
+    int sub = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKET_COUNT - 1);
+    return EXACT_LIMIT + (exponent - EXACT_EXPONENT) * SUB_BUCKET_COUNT + sub;
+  }
+
+  static long bucketUpperBound(int index) {
+    if (index < EXACT_LIMIT) {
+      return index;
+    }
+    int exponent = (index - EXACT_LIMIT) / SUB_BUCKET_COUNT + EXACT_EXPONENT;
+    long sub = (index - EXACT_LIMIT) % SUB_BUCKET_COUNT;
+    long width = 1L << (exponent - SUB_BUCKET_BITS);
+    long lower = (SUB_BUCKET_COUNT + sub) * width;
+    return lower + width - 1;
+  }
+
+  /**
+   * @return a one-line summary with count, mean, 50th, 90th, 99th percentile and maximum
+   */
+  @Override
+  public String toString() {
+    StringBuilder buf = new StringBuilder();
+    buf.append("count=").append(getCount());
+    buf.append(", mean=").append(Math.round(getMean()));
+    buf.append(", p50=").append(getPercentile(50));
+    buf.append(", p90=").append(getPercentile(90));
+    buf.append(", p99=").append(getPercentile(99));
+    buf.append(", max=").append(getMax());
+    return buf.toString();
+  }
+}
@@ -0,0 +1,467 @@
+/*******************************************************************************
+ * Copyright (c) 2013 BSI Business Systems Integration AG.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     BSI Business Systems Integration AG - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.scout.commons;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EventListener;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Concurrent bounded cache with a segmented LRU eviction policy. This implementation is thread-safe and may be used
+ * instead of {@link LRUCache}.
+ * <p>
+ * New entries are added to the probation segment, an entry accessed again is promoted to the protected segment
+ * (at most 80% of {@link #getTargetSize()}). Entries are evicted from the tail of the probation segment first, so a
+ * scan over many keys accessed only once does not flush the frequently used entries. Eviction is O(1) per entry.
+ * <p>
+ * {@link #get(Object)} does not block: accesses are recorded in a bounded buffer which is applied to the eviction
+ * order by the next thread holding the policy lock. When the buffer is full, accesses are not recorded.
+ * <p>
+ * {@link #setTimeout(long)} is the time an entry remains in the cache after its last access. Evicted, expired,
+ * replaced and removed values are notified by the {@link DisposeListener}.
+ *
+ * @since 3.9.0
+ */
+public class SegmentedLRUCache<K, V> {
+  private static final int READ_BUFFER_SIZE = 256;
+  private static final int READ_BUFFER_DRAIN_THRESHOLD = 32;
+  private static final int PROBATION = 1;
+  private static final int PROTECTED = 2;
+
+  private final ConcurrentHashMap<K, Node<K, V>> m_map;
+  private final ReentrantLock m_policyLock = new ReentrantLock();
+  private final ConcurrentLinkedQueue<Node<K, V>> m_readBuffer = new ConcurrentLinkedQueue<Node<K, V>>();
+  private final AtomicInteger m_readBufferSize = new AtomicInteger();
+  private final EventListenerList m_listenerList = new EventListenerList();
+  // guarded by m_policyLock
+  private final Node<K, V> m_probation = new Node<K, V>(null, null, 0L);
+  private final Node<K, V> m_protected = new Node<K, V>(null, null, 0L);
+  private int m_protectedSize;
+  //
+  private volatile int m_targetSize;
+  private volatile long m_timeout;
+  private final AtomicLong m_hitCount = new AtomicLong();
+  private final AtomicLong m_missCount = new AtomicLong();
+  private final AtomicLong m_evictionCount = new AtomicLong();
+
+  /**
+   * @param targetSize
+   *          maximum number of entries, 0 disables the cache
+   * @param timeout
+   *          time in milliseconds an entry remains in the cache after its last access, a value &lt;= 0 means no
+   *          timeout
+   */
+  public SegmentedLRUCache(int targetSize, long timeout) {
+    m_map = new ConcurrentHashMap<K, Node<K, V>>(Math.min(Math.max(16, targetSize), 4096));
+    m_targetSize = targetSize;
+    m_timeout = timeout;
+    m_probation.m_prev = m_probation.m_next = m_probation;
+    m_protected.m_prev = m_protected.m_next = m_protected;
+  }
+
+  public V get(K key) {
+    Node<K, V> node = m_map.get(key);
+    if (node == null) {
+      m_missCount.incrementAndGet();
+      return null;
+    }
+    long now = System.currentTimeMillis();
+    if (isTimeout(node, now)) {
+      m_missCount.incrementAndGet();
+      List<Node<K, V>> disposed = new ArrayList<Node<K, V>>(1);
+      m_policyLock.lock();
+      try {
+        if (m_map.remove(key, node)) {
+          unlink(node);
+          m_evictionCount.incrementAndGet();
+          disposed.add(node);
+        }
+      }
+      finally {
+        m_policyLock.unlock();
+      }
+      fireValuesDisposed(disposed);
+      return null;
+    }
+    node.m_accessTime = now;
+    m_hitCount.incrementAndGet();
+    recordAccess(node);
+    return node.m_value;
+  }
+
+  public void put(K key, V value) {
+    if (m_targetSize <= 0) {
+      return;
+    }
+    List<Node<K, V>> disposed = new ArrayList<Node<K, V>>(1);
+    m_policyLock.lock();
+    try {
+      drainReadBuffer();
+      Node<K, V> node = m_map.get(key);
+      if (node != null) {
+        V oldValue = node.m_value;
+        node.m_value = value;
+        node.m_accessTime = System.currentTimeMillis();
+        onAccess(node);
+        if (oldValue != value) {
+          disposed.add(new Node<K, V>(key, oldValue, 0L));
+        }
+      }
+      else {
+        node = new Node<K, V>(key, value, System.currentTimeMillis());
+        m_map.put(key, node);
+        linkFirst(m_probation, node, PROBATION);
+        evict(disposed);
+      }
+    }
+    finally {
+      m_policyLock.unlock();
+    }
+    fireValuesDisposed(disposed);
+  }
+
+  public void remove(K key) {
+    Node<K, V> node;
+    m_policyLock.lock();
+    try {
+      node = m_map.remove(key);
+      if (node != null) {
+        unlink(node);
+      }
+    }
+    finally {
+      m_policyLock.unlock();
+    }
+    if (node != null) {
+      fireValueDisposed(node.m_key, node.m_value);
+    }
+  }
+
+  public void clear() {
+    List<Node<K, V>> disposed;
+    m_policyLock.lock();
+    try {
+      disposed = new ArrayList<Node<K, V>>(m_map.values());
+      m_map.clear();
+      m_readBuffer.clear();
+      m_readBufferSize.set(0);
+      for (Node<K, V> node : disposed) {
+        node.m_segment = 0;
+      }
+      m_probation.m_prev = m_probation.m_next = m_probation;
+      m_protected.m_prev = m_protected.m_next = m_protected;
+      m_protectedSize = 0;
+    }
+    finally {
+      m_policyLock.unlock();
+    }
+    fireValuesDisposed(disposed);
+  }
+
+  public void setTimeout(long timeout) {
+    m_timeout = timeout;
+  }
+
+  public long getTimeout() {
+    return m_timeout;
+  }
+
+  /**
+   * Sets the maximum number of entries, superfluous entries are evicted immediately
+   */
+  public void setTargetSize(int size) {
+    List<Node<K, V>> disposed = new ArrayList<Node<K, V>>();
+    m_policyLock.lock();
+    try {
+      m_targetSize = size;
+      evict(disposed);
+    }
+    finally {
+      m_policyLock.unlock();
+    }
+    fireValuesDisposed(disposed);
+  }
+
+  public int getTargetSize() {
+    return m_targetSize;
+  }
+
+  /**
+   * @return the number of entries including entries that timed out but were not yet removed
+   */
+  public int size() {
+    return m_map.size();
+  }
+
+  public Map<K, V> entries() {
+    return getCacheContent();
+  }
+
+  public Map<K, V> getCacheContent() {
+    long now = System.currentTimeMillis();
+    HashMap<K, V> map = new HashMap<K, V>();
+    for (Node<K, V> node : m_map.values()) {
+      if (!isTimeout(node, now)) {
+        map.put(node.m_key, node.m_value);
+      }
+    }
+    return map;
+  }
+
+  public Set<K> keySet() {
+    long now = System.currentTimeMillis();
+    HashSet<K> set = new HashSet<K>();
+    for (Node<K, V> node : m_map.values()) {
+      if (!isTimeout(node, now)) {
+        set.add(node.m_key);
+      }
+    }
+    return set;
+  }
+
+  public Collection<V> values() {
+    long now = System.currentTimeMillis();
+    ArrayList<V> list = new ArrayList<V>();
+    for (Node<K, V> node : m_map.values()) {
+      if (!isTimeout(node, now)) {
+        list.add(node.m_value);
+      }
+    }
+    return list;
+  }
+
+  /**
+   * Does not count as access of the entry
+   */
+  public boolean containsKey(K key) {
+    Node<K, V> node = m_map.get(key);
+    return node != null && !isTimeout(node, System.currentTimeMillis());
+  }
+
+  /**
+   * This operation is linear in the size of the cache but does not block other threads
+   */
+  public boolean containsValue(V value) {
+    for (Node<K, V> node : m_map.values()) {
+      if (node.m_value == value || (node.m_value != null && node.m_value.equals(value))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * @return number of {@link #get(Object)} calls which returned a cached value
+   */
+  public long getHitCount() {
+    return m_hitCount.get();
+  }
+
+  /**
+   * @return number of {@link #get(Object)} calls which returned null
+   */
+  public long getMissCount() {
+    return m_missCount.get();
+  }
+
+  /**
+   * @return number of entries removed because the cache was full or the entry timed out
+   */
+  public long getEvictionCount() {
+    return m_evictionCount.get();
+  }
+
+  /**
+   * @return hits / (hits + misses) or 0 if there was no access yet
+   */
+  public double getHitRatio() {
+    long hits = getHitCount();
+    long total = hits + getMissCount();
+    return total > 0 ? (double) hits / (double) total : 0d;
+  }
+
+  @Override
+  public String toString() {
+    return getClass().getSimpleName() + "[size=" + size() + ", targetSize=" + getTargetSize() + ", hits=" + getHitCount() + ", misses=" + getMissCount() + ", evictions=" + getEvictionCount() + "]";
+  }
+
+  private boolean isTimeout(Node<K, V> node, long now) {
+    long timeout = m_timeout;
+    return timeout > 0 && node.m_accessTime + timeout < now;
+  }
+
+  private void recordAccess(Node<K, V> node) {
+    if (m_readBufferSize.incrementAndGet() <= READ_BUFFER_SIZE) {
+      m_readBuffer.offer(node);
+    }
+    else {
+      // buffer full, lose this access
+      m_readBufferSize.decrementAndGet();
+    }
+    if (m_readBufferSize.get() >= READ_BUFFER_DRAIN_THRESHOLD && m_policyLock.tryLock()) {
+      try {
+        drainReadBuffer();
+      }
+      finally {
+        m_policyLock.unlock();
+      }
+    }
+  }
+
+  /**
+   * must be called holding the policy lock
+   */
+  private void drainReadBuffer() {
+    Node<K, V> node;
+    while ((node = m_readBuffer.poll()) != null) {
+      m_readBufferSize.decrementAndGet();
+      onAccess(node);
+    }
+  }
+
+  /**
+   * must be called holding the policy lock
+   */
+  private void onAccess(Node<K, V> node) {
+    switch (node.m_segment) {
+      case PROBATION: {
+        unlink(node);
+        linkFirst(m_protected, node, PROTECTED);
+        int maxProtected = Math.max(1, m_targetSize * 4 / 5);
+        while (m_protectedSize > maxProtected) {
+          Node<K, V> demoted = m_protected.m_prev;
+          unlink(demoted);
+          linkFirst(m_probation, demoted, PROBATION);
+        }
+        break;
+      }
+      case PROTECTED: {
+        unlink(node);
+        linkFirst(m_protected, node, PROTECTED);
+        break;
+      }
+      default: {
+        // removed in the meantime
+      }
+    }
+  }
+
+  /**
+   * must be called holding the policy lock
+   */
+  private void evict(List<Node<K, V>> disposed) {
+    long now = System.currentTimeMillis();
+    // expired entries are mostly found at the tails
+    evictTimeouts(m_probation, now, disposed);
+    evictTimeouts(m_protected, now, disposed);
+    while (m_map.size() > Math.max(0, m_targetSize)) {
+      Node<K, V> victim = m_probation.m_prev != m_probation ? m_probation.m_prev : m_protected.m_prev;
+      if (victim == m_protected) {
+        break;
+      }
+      evictNode(victim, disposed);
+    }
+  }
+
+  private void evictTimeouts(Node<K, V> head, long now, List<Node<K, V>> disposed) {
+    while (head.m_prev != head && isTimeout(head.m_prev, now)) {
+      evictNode(head.m_prev, disposed);
+    }
+  }
+
+  private void evictNode(Node<K, V> node, List<Node<K, V>> disposed) {
+    unlink(node);
+    m_map.remove(node.m_key, node);
+    m_evictionCount.incrementAndGet();
+    disposed.add(node);
+  }
+
+  private void linkFirst(Node<K, V> head, Node<K, V> node, int segment) {
+    node.m_next = head.m_next;
+    node.m_prev = head;
+    head.m_next.m_prev = node;
+    head.m_next = node;
+    node.m_segment = segment;
+    if (segment == PROTECTED) {
+      m_protectedSize++;
+    }
+  }
+
+  private void unlink(Node<K, V> node) {
+    if (node.m_segment == 0) {
+      return;
+    }
+    if (node.m_segment == PROTECTED) {
+      m_protectedSize--;
+    }
+    node.m_prev.m_next = node.m_next;
+    node.m_next.m_prev = node.m_prev;
+    node.m_prev = null;
+    node.m_next = null;
+    node.m_segment = 0;
+  }
+
+  /**
+   * Cache entry, the links are guarded by the policy lock
+   */
+  private static final class Node<K, V> {
+    private final K m_key;
+    private volatile V m_value;
+    private volatile long m_accessTime;
+    private Node<K, V> m_prev;
+    private Node<K, V> m_next;
+    private int m_segment;
+
+    Node(K key, V value, long accessTime) {
+      m_key = key;
+      m_value = value;
+      m_accessTime = accessTime;
+    }
+  }// end class
+
+  /**
+   * Dispose observer
+   */
+  public interface DisposeListener extends EventListener {
+    void valueDisposed(Object key, Object value);
+  }
+
+  public void addDisposeListener(DisposeListener listener) {
+    m_listenerList.add(DisposeListener.class, listener);
+  }
+
+  public void removeDisposeListener(DisposeListener listener) {
+    m_listenerList.remove(DisposeListener.class, listener);
+  }
+
+  private void fireValuesDisposed(List<Node<K, V>> nodes) {
+    for (Node<K, V> node : nodes) {
+      fireValueDisposed(node.m_key, node.m_value);
+    }
+  }
+
+  private void fireValueDisposed(Object key, Object value) {
+    EventListener[] a = m_listenerList.getListeners(DisposeListener.class);
+    for (int i = 0; i < a.length; i++) {
+      ((DisposeListener) a[i]).valueDisposed(key, value);
+    }
+  }
+}
@@ -33,7 +33,6 @@ import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
@@ -193,38 +192,38 @@ public class CsvHelper {
       rowCount = Integer.MAX_VALUE;
     }
     try {
+      CsvReader csvReader = createCsvReader(reader);
       if (readNameHeader) {
-        List<String> list = importRow(reader);
-        if (list != null) {
-          setColumnNames(list);
+        if (csvReader.nextRow()) {
+          setColumnNames(csvReader.getRow());
         }
         headerRowCount--;
       }
       if (readTypeHeader) {
-        List<String> list = importRow(reader);
-        if (list != null) {
-          setColumnTypes(list);
+        if (csvReader.nextRow()) {
+          setColumnTypes(csvReader.getRow());
         }
         headerRowCount--;
       }
       while (headerRowCount > 0) {
-        importRow(reader);
+        csvReader.nextRow();
         headerRowCount--;
       }
-      // data
-      List<String> cellList;
+      // data, the column formats are resolved once
+      Format[] formats = m_colFormat.toArray(new Format[m_colFormat.size()]);
       lineNr = 1;
-      while ((cellList = importRow(reader)) != null && lineNr <= rowCount) {
+      while (lineNr <= rowCount && csvReader.nextRow()) {
+        int cellCount = csvReader.getCellCount();
         // fill up with empty row if allowed
-        while (allowVariableColumnCount && (cellList.size() < getColumnNames().size())) {
-          cellList.add(cellList.size(), null);
+        if (allowVariableColumnCount && m_colNames != null && cellCount < m_colNames.size()) {
+          cellCount = m_colNames.size();
         }
         // convert data types
-        ArrayList<Object> objList = new ArrayList<Object>(cellList.size());
-        for (colIndex = 0; colIndex < cellList.size(); colIndex++) {
-          if (m_ignoredColumns == null || m_ignoredColumns.length == 0 || m_ignoredColumns.length < colIndex || !m_ignoredColumns[colIndex]) {
-            cell = cellList.get(colIndex);
-            objList.add(importCell(cell, getColumnFormat(colIndex)));
+        ArrayList<Object> objList = new ArrayList<Object>(cellCount);
+        for (colIndex = 0; colIndex < cellCount; colIndex++) {
+          if (m_ignoredColumns == null || m_ignoredColumns.length == 0 || m_ignoredColumns.length <= colIndex || !m_ignoredColumns[colIndex]) {
+            cell = csvReader.getCell(colIndex);
+            objList.add(importCell(cell, colIndex < formats.length ? formats[colIndex] : null));
           }
         }
         // add row to data
@@ -272,9 +271,14 @@ public class CsvHelper {
         setColumnTypes(columnTypes);
       }
       exportHeaderRows(writer, writeColumnNames, writeColumnTypes);
+      CsvWriter csvWriter = createCsvWriter(writer);
       for (Object[] row : data) {
-        exportDataRow(row, writer, false);
+        csvWriter.writeRow(row);
       }
+      csvWriter.flush();
+    }
+    catch (IOException e) {
+      throw new ProcessingException("rows=" + data.length, e);
     }
     finally {
       try {
@@ -295,27 +299,39 @@ public class CsvHelper {
    *           Writes the header rows to the writer.
    */
   public void exportHeaderRows(Writer writer, boolean writeNames, boolean writeTypes) throws ProcessingException {
-    String line = null;
-    int colIndex = 0;
-    Object val = null;
-    String cell = null;
     try {
+      CsvWriter csvWriter = new CsvWriter(writer, m_separatorChar, m_textDelimiterChar, m_lineSeparator);
       if (writeNames) {
-        line = exportRow(m_colNames);
-        writer.write(line);
-        writer.write(m_lineSeparator);
+        csvWriter.writeRow(m_colNames != null ? m_colNames : Collections.<String> emptyList());
       }
       if (writeTypes) {
-        line = exportRow(m_colTypes);
-        writer.write(line);
-        writer.write(m_lineSeparator);
+        csvWriter.writeRow(m_colTypes != null ? m_colTypes : Collections.<String> emptyList());
       }
     }
     catch (IOException e) {
-      throw new ProcessingException("line=" + line + " colIndex=" + colIndex + " value=" + val + " cell=" + cell, e);
+      throw new ProcessingException("names=" + m_colNames + " types=" + m_colTypes, e);
     }
   }
 
+  /**
+   * @return a streaming reader using the separator and text delimiter of this helper
+   * @since 3.9.0
+   */
+  public CsvReader createCsvReader(Reader reader) {
+    return new CsvReader(reader, m_separatorChar, m_textDelimiterChar);
+  }
+
+  /**
+   * @return a streaming writer using the separator, text delimiter, line separator and column types of this helper. The
+   *         writer should be buffered.
+   * @since 3.9.0
+   */
+  public CsvWriter createCsvWriter(Writer writer) {
+    CsvWriter csvWriter = new CsvWriter(writer, m_separatorChar, m_textDelimiterChar, m_lineSeparator);
+    csvWriter.setColumnFormats(m_colFormat.toArray(new Format[m_colFormat.size()]));
+    return csvWriter;
+  }
+
   /**
    * @param writer
    * @throws ProcessingException
@@ -333,20 +349,8 @@ public class CsvHelper {
    *           Writes data rows to the writer.
    */
   public void exportDataRow(Object[] row, Writer writer, boolean closeWriter) throws ProcessingException {
-    String line = null;
-    Object val = null;
-    String cell = null;
     try {
-      ArrayList<String> rowStrings = new ArrayList<String>();
-      rowStrings.clear();
-      for (int i = 0; i < row.length; i++) {
-        val = row[i];
-        cell = exportCell(val, getColumnFormat(i));
-        rowStrings.add(cell);
-      }
-      line = exportRow(rowStrings);
-      writer.write(line);
-      writer.write(m_lineSeparator);
+      createCsvWriter(writer).writeRow(row);
     }
     catch (IOException e) {
       throw new ProcessingException("line=" + Arrays.asList(row), e);
@@ -362,98 +366,6 @@ public class CsvHelper {
     }
   }
 
-  private Format getColumnFormat(int colIndex) {
-    if (colIndex < m_colFormat.size()) {
-      return m_colFormat.get(colIndex);
-    }
-    else {
-      return null;
-    }
-  }
-
-  private List<String> importRow(Reader reader) throws IOException {
-    List<String> cellList = new ArrayList<String>(Math.max(m_colCount, 2));
-    boolean inString = false;
-    StringBuffer curBuf = new StringBuffer();
-    String token;
-    int ch = reader.read();
-
-    while (ch == '\n' || ch == '\r') {
-      ch = reader.read();
-    }
-    if (ch < 0) {
-      return null;
-    }
-    while (true) {
-      if (ch >= 0 && inString) {
-        if (ch == m_textDelimiterChar) {
-          inString = false;
-        }
-        else {
-          // still in string
-        }
-        curBuf.append((char) ch);
-      }
-      else {// ch<0 or out of string or end of line
-        if (ch == m_separatorChar || ch < 0 || ch == '\n' || ch == '\r') {
-          // consume token
-          token = curBuf.toString();
-          curBuf.setLength(0);
-          int tokenLen = token.length();
-          if (tokenLen > 0) {
-            // remove delimiters
-            if (token.charAt(0) == m_textDelimiterChar && token.charAt(tokenLen - 1) == m_textDelimiterChar) {
-              token = token.substring(1, tokenLen - 1);
-            }
-            if (token.length() == 0) {
-              token = null;
-            }
-          }
-          else {
-            token = null;
-          }
-          // decode and add token
-          token = decodeText(token);
-          cellList.add(token);
-          // check if end of current line
-          if (ch < 0 || ch == '\n' || ch == '\r') {
-            break;
-          }
-        }
-        else if (ch == m_textDelimiterChar) {
-          inString = true;
-          curBuf.append((char) ch);
-        }
-        else {
-          // normal character
-          curBuf.append((char) ch);
-        }
-      }
-      // next character
-      ch = reader.read();
-    }
-    // end of file?
-    if (cellList.size() == 0 && ch < 0) {
-      cellList = null;
-    }
-    return cellList;
-  }
-
-  private String exportRow(Collection<String> strings) {
-    StringBuffer buf = new StringBuffer();
-    if (strings != null) {
-      for (Iterator<String> it = strings.iterator(); it.hasNext();) {
-        buf.append(encodeText(it.next()));
-        if (it.hasNext()) {
-          if (m_separatorChar != 0x00) {
-            buf.append(m_separatorChar);
-          }
-        }
-      }
-    }
-    return buf.toString();
-  }
-
   private Object importCell(String text, Format f) throws ProcessingException {
     if (text != null && f != null) {
       try {
@@ -468,61 +380,6 @@ public class CsvHelper {
     }
   }
 
-  private String exportCell(Object o, Format f) {
-    if (f != null && o != null) {
-      return f.format(o);
-    }
-    else if (o == null) {
-      return "";
-    }
-    else {
-      return o.toString();
-    }
-  }
-
-  private String encodeText(String text) {
-    if (m_textDelimiterChar != 0x00) {
-      if (text != null) {
-        text = stringReplace(text, "" + m_textDelimiterChar, "" + m_textDelimiterChar + m_textDelimiterChar);
-        if (text.indexOf(m_separatorChar) >= 0 || text.indexOf(m_textDelimiterChar) >= 0) {
-          text = m_textDelimiterChar + text + m_textDelimiterChar;
-        }
-      }
-    }
-    return text;
-  }
-
-  private String decodeText(String text) {
-    if (text != null && text.length() > 0) {
-      if (m_textDelimiterChar != 0x00) {
-        if (text.charAt(0) == m_textDelimiterChar && text.charAt(text.length() - 1) == m_textDelimiterChar) {
-          text = text.substring(1, text.length() - 1);
-        }
-        text = stringReplace(text, "" + m_textDelimiterChar + m_textDelimiterChar, "" + m_textDelimiterChar);
-      }
-    }
-    return text;
-  }
-
-  private String stringReplace(String s, String sOld, String sNew) {
-    sNew = (sNew == null ? "" : sNew);
-    if (s == null || sOld == null) {
-      return s;
-    }
-    StringBuffer buf = new StringBuffer();
-    int oldLen = sOld.length();
-    int pos = 0;
-    int i = s.indexOf(sOld);
-    while (i >= 0) {
-      buf.append(s.substring(pos, i));
-      buf.append(sNew);
-      pos = i + oldLen;
-      i = s.indexOf(sOld, pos);
-    }
-    buf.append(s.substring(pos));
-    return buf.toString();
-  }
-
   /**
    * @param file
    * @return the the first line of the file, expecting it to be the column names
@@ -560,7 +417,8 @@ public class CsvHelper {
     BufferedReader bufferedReader = null;
     try {
       bufferedReader = new BufferedReader(reader);
-      return importRow(bufferedReader);
+      CsvReader csvReader = createCsvReader(bufferedReader);
+      return csvReader.nextRow() ? csvReader.getRow() : null;
     }
     catch (Exception e) {
       throw new ProcessingException("reading header row", e);
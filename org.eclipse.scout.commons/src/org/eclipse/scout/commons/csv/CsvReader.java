@@ -0,0 +1,186 @@
+/*******************************************************************************
+ * Copyright (c) 2013 BSI Business Systems Integration AG.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     BSI Business Systems Integration AG - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.scout.commons.csv;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming csv tokenizer. Rows are pulled one by one with {@link #nextRow()}, the cells of the current row are
+ * accessed with {@link #getCell(int)}.
+ * <p>
+ * The input is read in blocks into a char buffer, the cell and row buffers are reused for all rows, so only the cell
+ * strings are allocated per row. Empty lines are skipped, empty cells are returned as null. Text delimited cells may
+ * contain separators and line breaks, a doubled text delimiter is read as one.
+ * <p>
+ * This class is not thread safe.
+ *
+ * @since 3.9.0
+ */
+public class CsvReader {
+  private static final int BUFFER_SIZE = 8192;
+
+  private final Reader m_reader;
+  private final char m_separatorChar;
+  private final char m_textDelimiterChar;
+  private final char[] m_buf;
+  private int m_pos;
+  private int m_len;
+  private final StringBuilder m_cellBuf;
+  private String[] m_cells;
+  private int m_cellCount;
+  private int m_rowNumber;
+
+  public CsvReader(Reader reader, char separatorChar, char textDelimiterChar) {
+    m_reader = reader;
+    m_separatorChar = separatorChar;
+    m_textDelimiterChar = textDelimiterChar;
+    m_buf = new char[BUFFER_SIZE];
+    m_cellBuf = new StringBuilder();
+    m_cells = new String[16];
+  }
+
+  /**
+   * Reads the next row
+   *
+   * @return false if the end of the input was reached
+   */
+  public boolean nextRow() throws IOException {
+    m_cellCount = 0;
+    int ch = read();
+    while (ch == '\n' || ch == '\r') {
+      ch = read();
+    }
+    if (ch < 0) {
+      return false;
+    }
+    boolean inText = false;
+    m_cellBuf.setLength(0);
+    while (true) {
+      if (inText) {
+        if (ch < 0) {
+          // unterminated text, take what we have
+          addCell();
+          break;
+        }
+        if (ch == m_textDelimiterChar) {
+          int next = peek();
+          if (next == m_textDelimiterChar) {
+            m_cellBuf.append((char) ch);
+            m_pos++;
+          }
+          else {
+            inText = false;
+          }
+        }
+        else {
+          m_cellBuf.append((char) ch);
+        }
+      }
+      else if (ch == m_separatorChar) {
+        addCell();
+      }
+      else if (ch < 0 || ch == '\n' || ch == '\r') {
+        addCell();
+        break;
+      }
+      else if (ch == m_textDelimiterChar) {
+        inText = true;
+      }
+      else {
+        m_cellBuf.append((char) ch);
+      }
+      ch = read();
+    }
+    m_rowNumber++;
+    return true;
+  }
+
+  /**
+   * @return the number of cells of the current row
+   */
+  public int getCellCount() {
+    return m_cellCount;
+  }
+
+  /**
+   * @return the cell of the current row, null if the cell is empty or the row has fewer cells
+   */
+  public String getCell(int index) {
+    if (index < 0 || index >= m_cellCount) {
+      return null;
+    }
+    return m_cells[index];
+  }
+
+  /**
+   * @return a new list with the cells of the current row
+   */
+  public List<String> getRow() {
+    ArrayList<String> list = new ArrayList<String>(m_cellCount);
+    for (int i = 0; i < m_cellCount; i++) {
+      list.add(m_cells[i]);
+    }
+    return list;
+  }
+
+  /**
+   * @return the number of rows read so far, starting with 1 for the first row
+   */
+  public int getRowNumber() {
+    return m_rowNumber;
+  }
+
+  public void close() throws IOException {
+    m_reader.close();
+  }
+
+  private void addCell() {
+    if (m_cellCount == m_cells.length) {
+      String[] a = new String[m_cells.length * 2];
+      System.arraycopy(m_cells, 0, a, 0, m_cellCount);
+      m_cells = a;
+    }
+    m_cells[m_cellCount++] = (m_cellBuf.length() > 0 ? m_cellBuf.toString() : null);
+    m_cellBuf.setLength(0);
+  }
+
+  private int read() throws IOException {
+    if (m_pos >= m_len && !fill()) {
+      return -1;
+    }
+    return m_buf[m_pos++];
+  }
+
+  private int peek() throws IOException {
+    if (m_pos >= m_len && !fill()) {
+      return -1;
+    }
+    return m_buf[m_pos];
+  }
+
+  private boolean fill() throws IOException {
+    int n = m_reader.read(m_buf, 0, m_buf.length);
+    while (n == 0) {
+      n = m_reader.read(m_buf, 0, m_buf.length);
+    }
+    if (n < 0) {
+      m_pos = 0;
+      m_len = 0;
+      return false;
+    }
+    m_pos = 0;
+    m_len = n;
+    return true;
+  }
+}
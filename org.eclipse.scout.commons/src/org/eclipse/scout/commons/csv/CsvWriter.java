@@ -0,0 +1,126 @@
+/*******************************************************************************
+ * Copyright (c) 2013 BSI Business Systems Integration AG.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     BSI Business Systems Integration AG - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.scout.commons.csv;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.text.Format;
+import java.util.List;
+
+/**
+ * Streaming csv writer. Cells are written one by one with {@link #writeCell(Object)}, {@link #endRow()} terminates the
+ * row. No row or line string is built, cells are encoded directly into the writer, which therefore should be buffered.
+ * <p>
+ * Cells containing the separator, the text delimiter or a line break are text delimited.
+ * <p>
+ * This class is not thread safe.
+ *
+ * @since 3.9.0
+ */
+public class CsvWriter {
+  private final Writer m_writer;
+  private final char m_separatorChar;
+  private final char m_textDelimiterChar;
+  private final String m_lineSeparator;
+  private Format[] m_columnFormats;
+  private int m_cellIndex;
+  private long m_rowCount;
+
+  public CsvWriter(Writer writer, char separatorChar, char textDelimiterChar, String lineSeparator) {
+    m_writer = writer;
+    m_separatorChar = separatorChar;
+    m_textDelimiterChar = textDelimiterChar;
+    m_lineSeparator = (lineSeparator != null ? lineSeparator : "\n");
+  }
+
+  /**
+   * @param formats
+   *          format per column used to convert non-null values, a null format writes {@link Object#toString()}
+   */
+  public void setColumnFormats(Format[] formats) {
+    m_columnFormats = formats;
+  }
+
+  public void writeCell(Object value) throws IOException {
+    if (m_cellIndex > 0 && m_separatorChar != 0x00) {
+      m_writer.write(m_separatorChar);
+    }
+    if (value != null) {
+      Format f = (m_columnFormats != null && m_cellIndex < m_columnFormats.length ? m_columnFormats[m_cellIndex] : null);
+      writeText(f != null ? f.format(value) : value.toString());
+    }
+    m_cellIndex++;
+  }
+
+  public void endRow() throws IOException {
+    m_writer.write(m_lineSeparator);
+    m_cellIndex = 0;
+    m_rowCount++;
+  }
+
+  public void writeRow(Object[] row) throws IOException {
+    for (Object o : row) {
+      writeCell(o);
+    }
+    endRow();
+  }
+
+  public void writeRow(List<?> row) throws IOException {
+    for (Object o : row) {
+      writeCell(o);
+    }
+    endRow();
+  }
+
+  /**
+   * @return the number of rows written so far
+   */
+  public long getRowCount() {
+    return m_rowCount;
+  }
+
+  public void flush() throws IOException {
+    m_writer.flush();
+  }
+
+  public void close() throws IOException {
+    m_writer.close();
+  }
+
+  private void writeText(String s) throws IOException {
+    int n = s.length();
+    boolean delimit = false;
+    if (m_textDelimiterChar != 0x00) {
+      for (int i = 0; i < n; i++) {
+        char c = s.charAt(i);
+        if (c == m_separatorChar || c == m_textDelimiterChar || c == '\n' || c == '\r') {
+          delimit = true;
+          break;
+        }
+      }
+    }
+    if (!delimit) {
+      m_writer.write(s, 0, n);
+      return;
+    }
+    m_writer.write(m_textDelimiterChar);
+    int start = 0;
+    for (int i = 0; i < n; i++) {
+      if (s.charAt(i) == m_textDelimiterChar) {
+        // write up to and including the delimiter, it is doubled by starting the next run with it
+        m_writer.write(s, start, i - start + 1);
+        start = i;
+      }
+    }
+    m_writer.write(s, start, n - start);
+    m_writer.write(m_textDelimiterChar);
+  }
+}
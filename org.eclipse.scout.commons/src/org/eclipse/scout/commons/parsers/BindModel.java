@@ -12,6 +12,7 @@ package org.eclipse.scout.commons.parsers;
 
 import java.util.ArrayList;
 
+import org.eclipse.scout.commons.parsers.token.DatabaseSpecificToken;
 import org.eclipse.scout.commons.parsers.token.FunctionInputToken;
 import org.eclipse.scout.commons.parsers.token.IToken;
 import org.eclipse.scout.commons.parsers.token.ValueInputToken;
@@ -65,4 +66,37 @@ public class BindModel {
     return b.toString();
   }
 
+  /**
+   * @return a new model with copies of all tokens that carry state. The copy can be modified (replace tokens, plain
+   *         value flags) without affecting this model. Used to create models from a cached parse result instead of
+   *         parsing the statement again.
+   * @since 3.9.0
+   */
+  public BindModel copy() {
+    IToken[] tokens = new IToken[m_allTokens.length];
+    for (int i = 0; i < tokens.length; i++) {
+      tokens[i] = copyToken(m_allTokens[i]);
+    }
+    return new BindModel(tokens);
+  }
+
+  /**
+   * @return a copy of the token or the token itself if it is immutable or of an unknown type
+   * @since 3.9.0
+   */
+  public static IToken copyToken(IToken t) {
+    if (t instanceof ValueInputToken) {
+      return ((ValueInputToken) t).copy();
+    }
+    if (t instanceof FunctionInputToken) {
+      return ((FunctionInputToken) t).copy();
+    }
+    if (t instanceof ValueOutputToken) {
+      return ((ValueOutputToken) t).copy();
+    }
+    if (t instanceof DatabaseSpecificToken) {
+      return ((DatabaseSpecificToken) t).copy();
+    }
+    return t;
+  }
 }
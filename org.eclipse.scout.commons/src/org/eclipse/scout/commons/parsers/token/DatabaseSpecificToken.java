@@ -56,4 +56,13 @@ public class DatabaseSpecificToken implements IToken {
     return m_name;
   }
 
+  /**
+   * @return a new token with the same parse result and state
+   * @since 3.9.0
+   */
+  public DatabaseSpecificToken copy() {
+    DatabaseSpecificToken t = new DatabaseSpecificToken(m_parsedToken, m_name);
+    t.m_replaceToken = m_replaceToken;
+    return t;
+  }
 }
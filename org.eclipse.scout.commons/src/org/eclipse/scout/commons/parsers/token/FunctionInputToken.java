@@ -93,4 +93,15 @@ public class FunctionInputToken implements IToken {
   public void setPlainSql(boolean b) {
     m_plainSql = b;
   }
+
+  /**
+   * @return a new token with the same parse result and state
+   * @since 3.9.0
+   */
+  public FunctionInputToken copy() {
+    FunctionInputToken t = new FunctionInputToken(m_parsedToken, m_name, m_args, m_plainValue, m_plainSql);
+    t.m_plainToken = m_plainToken;
+    t.m_replaceToken = m_replaceToken;
+    return t;
+  }
 }
@@ -98,4 +98,15 @@ public class ValueOutputToken implements IToken {
     return b.toString();
   }
 
+  /**
+   * @return a new token with the same parse result and state
+   * @since 3.9.0
+   */
+  public ValueOutputToken copy() {
+    ValueOutputToken t = new ValueOutputToken(m_parsedToken, m_name, m_selectInto);
+    t.m_name = m_name;
+    t.m_batch = m_batch;
+    t.m_replaceToken = m_replaceToken;
+    return t;
+  }
 }
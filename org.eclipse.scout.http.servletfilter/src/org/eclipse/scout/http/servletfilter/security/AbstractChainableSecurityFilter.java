@@ -11,10 +11,14 @@
 package org.eclipse.scout.http.servletfilter.security;
 
 import java.io.IOException;
+import java.io.UnsupportedEncodingException;
 import java.security.AccessController;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.security.Principal;
 import java.security.PrivilegedActionException;
 import java.security.PrivilegedExceptionAction;
+import java.security.SecureRandom;
 
 import javax.security.auth.Subject;
 import javax.servlet.Filter;
@@ -26,6 +30,8 @@ import javax.servlet.ServletResponse;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
+import org.eclipse.scout.commons.Base64Utility;
+import org.eclipse.scout.commons.SegmentedLRUCache;
 import org.eclipse.scout.commons.logger.IScoutLogger;
 import org.eclipse.scout.commons.logger.ScoutLogManager;
 import org.eclipse.scout.commons.security.SimplePrincipal;
@@ -38,8 +44,17 @@ import org.eclipse.scout.http.servletfilter.FilterConfigInjection;
  * <li><code>&lt;fully qualified name of class&gt;#active=true/false</code></li>
  * <li><code>&lt;fully qualified name of class&gt;#realm=abcde</code> <b>required</b></li>
  * <li><code>&lt;fully qualified name of class&gt;#failover=true/false</code> <b>default false</b></li>
+ * <li><code>&lt;fully qualified name of class&gt;#credentialCacheTimeout=millis</code> <b>default 0</b>, time a
+ * successful credential verification is cached, 0 disables the cache</li>
+ * <li><code>&lt;fully qualified name of class&gt;#credentialCacheNegativeTimeout=millis</code> <b>default
+ * credentialCacheTimeout</b>, time a failed credential verification is cached</li>
+ * <li><code>&lt;fully qualified name of class&gt;#credentialCacheSize=n</code> <b>default 1000</b>, maximum number of
+ * cached verifications</li>
  * </ul>
  * <p>
+ * The credential cache is used by filters calling {@link #isValidCredentials(String, String)}. Only salted hashes of
+ * the credentials are kept in memory.
+ * <p>
  * <h5>NOTE</h5> All security filters inheriting from {@link AbstractChainableSecurityFilter} are chainable. What means
  * can be used together with other Filters. The <code>runOrder</code> flag of the extension point defines the run order
  * of chainable security filters. To make this filter chainable set the flag failover to true. <b>Ensure to set the
@@ -64,6 +79,11 @@ public abstract class AbstractChainableSecurityFilter implements Filter {
   private boolean m_failover;
   private String m_realm;
   private FilterConfigInjection m_injection;
+  // credential cache
+  private long m_credentialCacheTimeout;
+  private long m_credentialCacheNegativeTimeout;
+  private byte[] m_credentialCacheSalt;
+  private SegmentedLRUCache<String, P_VerificationResult> m_credentialCache;
 
   public AbstractChainableSecurityFilter() {
   }
@@ -88,11 +108,107 @@ public abstract class AbstractChainableSecurityFilter implements Filter {
       realmParam = "Default";
     }
     m_realm = realmParam;
+    m_credentialCacheTimeout = getLongInitParameter(config, "credentialCacheTimeout", 0L);
+    m_credentialCacheNegativeTimeout = getLongInitParameter(config, "credentialCacheNegativeTimeout", m_credentialCacheTimeout);
+    if (m_credentialCacheTimeout > 0 || m_credentialCacheNegativeTimeout > 0) {
+      int size = (int) getLongInitParameter(config, "credentialCacheSize", 1000L);
+      m_credentialCacheSalt = new byte[16];
+      new SecureRandom().nextBytes(m_credentialCacheSalt);
+      m_credentialCache = new SegmentedLRUCache<String, P_VerificationResult>(Math.max(1, size), -1);
+    }
+    else {
+      m_credentialCache = null;
+    }
+  }
+
+  private long getLongInitParameter(FilterConfig config, String name, long defaultValue) throws ServletException {
+    String s = config.getInitParameter(name);
+    if (s == null || s.trim().length() == 0) {
+      return defaultValue;
+    }
+    try {
+      return Long.parseLong(s.trim());
+    }
+    catch (NumberFormatException e) {
+      throw new ServletException("Invalid init-param '" + name + "': " + s, e);
+    }
   }
 
   @Override
   public void destroy() {
     m_injection = null;
+    if (m_credentialCache != null) {
+      m_credentialCache.clear();
+    }
+  }
+
+  /**
+   * Verifies the credentials using {@link #verifyCredentials(String, String)}. The result is cached if the credential
+   * cache is enabled, exceptions of {@link #verifyCredentials(String, String)} are not cached.
+   *
+   * @since 3.9.0
+   */
+  protected boolean isValidCredentials(String username, String password) throws ServletException {
+    SegmentedLRUCache<String, P_VerificationResult> cache = m_credentialCache;
+    if (cache == null) {
+      return verifyCredentials(username, password);
+    }
+    String key = createCredentialCacheKey(username, password);
+    long now = System.currentTimeMillis();
+    P_VerificationResult result = cache.get(key);
+    if (result != null && result.m_expiry > now) {
+      return result.m_valid;
+    }
+    boolean valid = verifyCredentials(username, password);
+    long timeout = (valid ? m_credentialCacheTimeout : m_credentialCacheNegativeTimeout);
+    if (timeout > 0) {
+      cache.put(key, new P_VerificationResult(valid, now + timeout));
+    }
+    else {
+      cache.remove(key);
+    }
+    return valid;
+  }
+
+  /**
+   * Override this method to verify the credentials against the user store. This default implementation returns false.
+   * <p>
+   * Return false only if the user store rejected the credentials. If they could not be verified, e.g. because the user
+   * store is not available, throw an exception instead. Exceptions are not cached, whereas a false result is cached as
+   * failed verification.
+   *
+   * @since 3.9.0
+   */
+  protected boolean verifyCredentials(String username, String password) throws ServletException {
+    return false;
+  }
+
+  /**
+   * Removes all cached credential verifications
+   *
+   * @since 3.9.0
+   */
+  public void clearCredentialCache() {
+    if (m_credentialCache != null) {
+      m_credentialCache.clear();
+    }
+  }
+
+  private String createCredentialCacheKey(String username, String password) throws ServletException {
+    try {
+      MessageDigest md = MessageDigest.getInstance("SHA-256");
+      md.update(m_credentialCacheSalt);
+      md.update(username.getBytes("UTF-8"));
+      md.update((byte) 0);
+      md.update(password.getBytes("UTF-8"));
+      return Base64Utility.encode(md.digest());
+    }
+    catch (NoSuchAlgorithmException e) {
+      throw new ServletException("credential cache", e);
+    }
+    catch (UnsupportedEncodingException e) {
+      throw new ServletException("credential cache", e);
+    }
   }
 
   @Override
@@ -228,4 +344,14 @@ public abstract class AbstractChainableSecurityFilter implements Filter {
     return m_failover;
   }
 
+  private static class P_VerificationResult {
+    private final boolean m_valid;
+    private final long m_expiry;
+
+    public P_VerificationResult(boolean valid, long expiry) {
+      m_valid = valid;
+      m_expiry = expiry;
+    }
+  }
+
 }
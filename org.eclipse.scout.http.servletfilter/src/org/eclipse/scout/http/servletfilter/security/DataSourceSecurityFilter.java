@@ -18,6 +18,8 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.Hashtable;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 
 import javax.naming.Context;
 import javax.naming.InitialContext;
@@ -60,6 +62,9 @@ import org.eclipse.scout.http.servletfilter.FilterConfigInjection;
  * <code>&lt;fully qualified name of class&gt;#jndiInitialContextFactory=</code></li>
  * <li><code>&lt;fully qualified name of class&gt;#jndiProviderUrl=</code></li>
  * <li><code>&lt;fully qualified name of class&gt;#jndiUrlPkgPrefixes=</code></li>
+ * <li><code>&lt;fully qualified name of class&gt;#connectionPoolSize=n</code> <b>default 0</b>, number of idle
+ * connections kept for reuse. For JNDI the looked up {@link DataSource} is reused as well.</li>
+ * <li>the credential cache properties of {@link AbstractChainableSecurityFilter}</li>
  * </ul>
  * <p>
  * , Michael Rudolf
@@ -70,6 +75,10 @@ public class DataSourceSecurityFilter extends AbstractChainableSecurityFilter {
 
   private static final IScoutLogger LOG = ScoutLogManager.getLogger(DataSourceSecurityFilter.class);
   public static final String PROP_BASIC_ATTEMPT = "DataSourceSecurityFilter.basicAttempt";
+  /**
+   * seconds to wait for the validation of an idle pooled connection
+   */
+  private static final int VALIDATION_TIMEOUT = 5;
 
   // init params
   private String m_jdbcUserName;
@@ -85,6 +94,10 @@ public class DataSourceSecurityFilter extends AbstractChainableSecurityFilter {
   private String m_jndiProviderUrl;
   private String m_jndiUrlPkgPrefixes;
 
+  private int m_connectionPoolSize;
+  private BlockingQueue<Connection> m_idleConnections;
+  private volatile DataSource m_dataSource;
+
   @Override
   public void init(FilterConfig config0) throws ServletException {
     super.init(config0);
@@ -102,6 +115,27 @@ public class DataSourceSecurityFilter extends AbstractChainableSecurityFilter {
     m_jndiInitialContextFactory = config.getInitParameter("jndiInitialContextFactory");
     m_jndiProviderUrl = config.getInitParameter("jndiProviderUrl");
     m_jndiUrlPkgPrefixes = config.getInitParameter("jndiUrlPkgPrefixes");
+    String poolSizeString = config.getInitParameter("connectionPoolSize");
+    try {
+      m_connectionPoolSize = (poolSizeString != null ? Integer.parseInt(poolSizeString.trim()) : 0);
+    }
+    catch (NumberFormatException e) {
+      throw new ServletException("Invalid init-param 'connectionPoolSize': " + poolSizeString, e);
+    }
+    m_idleConnections = (m_connectionPoolSize > 0 ? new ArrayBlockingQueue<Connection>(m_connectionPoolSize) : null);
+    m_dataSource = null;
+  }
+
+  @Override
+  public void destroy() {
+    if (m_idleConnections != null) {
+      Connection conn;
+      while ((conn = m_idleConnections.poll()) != null) {
+        closeConnection(conn);
+      }
+    }
+    m_dataSource = null;
+    super.destroy();
   }
 
   private String getInitParam(FilterConfig filterConfig, String paramName, boolean requierd) throws ServletException {
@@ -120,8 +154,7 @@ public class DataSourceSecurityFilter extends AbstractChainableSecurityFilter {
       String user = a[0].toLowerCase();
       String pass = a[1];
       if (user != null && pass != null) {
-        String passEncrypted = encryptPass(pass);
-        if (isValidUser(user, passEncrypted)) {
+        if (isValidCredentials(user, pass)) {
           holder.setPrincipal(new SimplePrincipal(user));
           return STATUS_CONTINUE_WITH_PRINCIPAL;
         }
@@ -151,34 +184,103 @@ public class DataSourceSecurityFilter extends AbstractChainableSecurityFilter {
     req.getSession().setAttribute(PROP_BASIC_ATTEMPT, attempts);
   }
 
+  @Override
+  protected boolean verifyCredentials(String username, String password) throws ServletException {
+    return isValidUser(username, encryptPass(password));
+  }
+
   protected boolean isValidUser(String username, String password) throws ServletException {
     Connection databaseConnection = null;
+    boolean reusable = false;
     try {
-
-      if (m_useJndiConnection) {
-        databaseConnection = createJndiConnection();
-      }
-      else {
-        databaseConnection = createJdbcDirectConnection();
-      }
-      return isValidUser(username, password, databaseConnection);
-
+      databaseConnection = acquireConnection();
+      boolean valid = isValidUser(username, password, databaseConnection);
+      reusable = true;
+      return valid;
     }
     catch (Exception e) {
       LOG.error("Cannot SELECT user/pass.", e);
       throw new ServletException(e.getMessage(), e);
     }
     finally {
+      if (databaseConnection != null) {
+        releaseConnection(databaseConnection, reusable);
+        databaseConnection = null;
+      }
+    }
+  }
+
+  /**
+   * @return an idle pooled connection that passed {@link Connection#isValid(int)} or a new connection
+   */
+  private Connection acquireConnection() throws Exception {
+    if (m_idleConnections != null) {
+      Connection conn;
+      while ((conn = m_idleConnections.poll()) != null) {
+        if (isValidConnection(conn)) {
+          return conn;
+        }
+        closeConnection(conn);
+      }
+    }
+    if (m_useJndiConnection) {
+      return createJndiConnection();
+    }
+    else {
+      return createJdbcDirectConnection();
+    }
+  }
+
+  /**
+   * A pooled connection may have been dropped by the database or a firewall while it was idle, {@link Connection#isClosed()}
+   * does not detect that.
+   */
+  private boolean isValidConnection(Connection conn) {
+    try {
+      return conn.isValid(VALIDATION_TIMEOUT);
+    }
+    catch (SQLException e) {
+      return false;
+    }
+    catch (AbstractMethodError e) {
+      // pre JDBC 4 driver
+      try {
+        return !conn.isClosed();
+      }
+      catch (SQLException e2) {
+        return false;
+      }
+    }
+  }
+
+  /**
+   * @param reusable
+   *          false if the connection failed, it is closed in that case
+   */
+  private void releaseConnection(Connection conn, boolean reusable) {
+    if (reusable && m_idleConnections != null) {
       try {
-        if (databaseConnection != null) {
-          databaseConnection.close();
-          databaseConnection = null;
+        if (!conn.getAutoCommit()) {
+          conn.rollback();
+        }
+        if (m_idleConnections.offer(conn)) {
+          return;
         }
       }
       catch (SQLException e) {
-        LOG.warn("Exception in close connection!", e);
+        LOG.warn("Exception in reset connection!", e);
       }
     }
+    closeConnection(conn);
+  }
+
+  private void closeConnection(Connection conn) {
+    try {
+      conn.close();
+    }
+    catch (SQLException e) {
+      LOG.warn("Exception in close connection!", e);
+    }
   }
 
   protected boolean isValidUser(String username, String password, Connection connection) throws SQLException {
@@ -249,14 +351,19 @@ public class DataSourceSecurityFilter extends AbstractChainableSecurityFilter {
     if (jndiUrlPkgPrefixes != null) {
       ht.put(Context.URL_PKG_PREFIXES, jndiUrlPkgPrefixes);
     }
-    DataSource dataSource = null;
-    if (ht.size() > 0) {
-      initialContext = new InitialContext(ht);
-    }
-    else {
-      initialContext = new InitialContext();
+    DataSource dataSource = m_dataSource;
+    if (dataSource == null) {
+      if (ht.size() > 0) {
+        initialContext = new InitialContext(ht);
+      }
+      else {
+        initialContext = new InitialContext();
+      }
+      dataSource = (DataSource) initialContext.lookup(jndiName);
+      if (m_connectionPoolSize > 0) {
+        m_dataSource = dataSource;
+      }
     }
-    dataSource = (DataSource) initialContext.lookup(jndiName);
     // Grab a connection
     Connection conn;
     if (m_jdbcUserName != null && m_jdbcPassword != null) {
@@ -14,6 +14,8 @@ import java.io.IOException;
 import java.util.Enumeration;
 import java.util.Hashtable;
 
+import javax.naming.AuthenticationException;
+import javax.naming.CommunicationException;
 import javax.naming.Context;
 import javax.naming.NamingEnumeration;
 import javax.naming.NamingException;
@@ -46,6 +48,11 @@ import org.eclipse.scout.commons.security.SimplePrincipal;
  * <code>&lt;fully qualified name of class&gt;#lDAPgroupDN=[e.g. ou=bsi_baden,ou=bsi_bern]</code> <b>required</b></li>
  * <li>
  * <code>&lt;fully qualified name of class&gt;#lDAPgroupAttributeId=[e.g. cn]</code> <b>required</b></li>
+ * <li>
+ * <code>&lt;fully qualified name of class&gt;#ldapConnectionPool=true/false</code> <b>default false</b>, reuse the
+ * anonymous LDAP connections of the user DN lookup using the connection pool of the JNDI LDAP provider. The bind with
+ * the credentials of the user always uses a new connection.</li>
+ * <li>the credential cache properties of {@link AbstractChainableSecurityFilter}</li>
  * </ul>
  * <p>
  * 
@@ -59,6 +66,7 @@ public class LDAPSecurityFilter extends AbstractChainableSecurityFilter {
   private String m_baseDn;
   private String m_groupDn;
   private String m_groupAttr;
+  private boolean m_connectionPool;
 
   public LDAPSecurityFilter() {
   }
@@ -71,6 +79,7 @@ public class LDAPSecurityFilter extends AbstractChainableSecurityFilter {
     m_baseDn = getParam(config, "ldapBaseDN", true);
     m_groupDn = getParam(config, "lDAPgroupDN", true);
     m_groupAttr = getParam(config, "lDAPgroupAttributeId", true);
+    m_connectionPool = "true".equals(config.getInitParameter("ldapConnectionPool"));
   }
 
   protected String getParam(FilterConfig filterConfig, String paramName, boolean nullAllowed) throws ServletException {
@@ -97,10 +106,7 @@ public class LDAPSecurityFilter extends AbstractChainableSecurityFilter {
       String user = a[0].toLowerCase();
       String pass = a[1];
       if (user != null && pass != null) {
-        if (ldapLogin(m_serverUrl, m_baseDn, m_groupDn, m_groupAttr, user, pass, false/*
-                                                                                       * show
-                                                                                       * exceptions
-                                                                                       */)) {
+        if (isValidCredentials(user, pass)) {
           // success
           holder.setPrincipal(new SimplePrincipal(user));
           return STATUS_CONTINUE_WITH_PRINCIPAL;
@@ -118,6 +124,11 @@ public class LDAPSecurityFilter extends AbstractChainableSecurityFilter {
     }
   }
 
+  @Override
+  protected boolean verifyCredentials(String username, String password) throws ServletException {
+    return ldapLogin(m_serverUrl, m_baseDn, m_groupDn, m_groupAttr, username, password, false/* show exceptions */);
+  }
+
   private int getBasicAttempt(HttpServletRequest req) {
     int basicAtttempt = 0;
     Object attribute = req.getSession().getAttribute(PROP_BASIC_ATTEMPT);
@@ -158,10 +169,29 @@ public class LDAPSecurityFilter extends AbstractChainableSecurityFilter {
     env.put(Context.SECURITY_PRINCIPAL, "" + "=" + "" + "," + "" + "," + baseDN);
     env.put(Context.SECURITY_CREDENTIALS, "");
     env.put(Context.LANGUAGE, "de");
+    if (m_connectionPool) {
+      env.put("com.sun.jndi.ldap.connect.pool", "true");
+    }
 
+    DirContext ldap = null;
     try {
-      DirContext ldap = new InitialDirContext(env);
-      Attributes attrs = ldap.getAttributes(groupDN, new String[]{attributeId});
+      ldap = createDirContext(env);
+      Attributes attrs;
+      try {
+        attrs = ldap.getAttributes(groupDN, new String[]{attributeId});
+      }
+      catch (CommunicationException ce) {
+        if (!m_connectionPool) {
+          throw ce;
+        }
+        // the pooled connection went stale while it was idle, retry once on a new connection
+        LOG.debug("Pooled LDAP connection failed, retrying with a new connection", ce);
+        discardContext(ldap);
+        ldap = null;
+        env.remove("com.sun.jndi.ldap.connect.pool");
+        ldap = createDirContext(env);
+        attrs = ldap.getAttributes(groupDN, new String[]{attributeId});
+      }
       NamingEnumeration<? extends Attribute> equivalentToMe = attrs.getAll();
 
       Attribute attr = null;
@@ -198,6 +228,9 @@ public class LDAPSecurityFilter extends AbstractChainableSecurityFilter {
       LOG.error("Exception in getting user DN from LDAP: " + ne);
       throw new SecurityException(ne.getMessage(), ne);
     }
+    finally {
+      closeContext(ldap);
+    }
     return userDN;
   }
 
@@ -221,17 +254,62 @@ public class LDAPSecurityFilter extends AbstractChainableSecurityFilter {
     env.put(Context.SECURITY_PRINCIPAL, userDN);
     env.put(Context.SECURITY_CREDENTIALS, password);
     env.put(Context.LANGUAGE, "de");
+    // never pool the connections bound with the credentials of a user
 
+    DirContext ldap = null;
     try {
-      new InitialDirContext(env);
+      ldap = createDirContext(env);
       return true;
     }
-    catch (NamingException ne) {
+    catch (AuthenticationException ae) {
       if (showexceptions) {
-        ne.printStackTrace();
+        ae.printStackTrace();
       }
       return false;
     }
+    catch (NamingException ne) {
+      // the credentials could not be verified, e.g. the server is not available, this is not a failed login
+      LOG.error("Exception in LDAP login of " + userDN + ": " + ne);
+      throw new ServletException(ne.getMessage(), ne);
+    }
+    finally {
+      closeContext(ldap);
+    }
+  }
 
+  /**
+   * Creates the LDAP context, the environment contains the connection pool property only for the user DN lookup.
+   *
+   * @since 3.9.0
+   */
+  protected DirContext createDirContext(Hashtable env) throws NamingException {
+    return new InitialDirContext(env);
+  }
+
+  /**
+   * closes a context whose connection failed, a broken pooled connection is removed from the pool by the JNDI LDAP
+   * provider
+   */
+  private void discardContext(DirContext ldap) {
+    try {
+      ldap.close();
+    }
+    catch (NamingException ne) {
+      // nop, the connection is already broken
+    }
+  }
+
+  /**
+   * closing the context releases the connection, resp. returns it to the pool
+   */
+  private void closeContext(DirContext ldap) {
+    if (ldap != null) {
+      try {
+        ldap.close();
+      }
+      catch (NamingException ne) {
+        LOG.warn("Exception in close LDAP context", ne);
+      }
+    }
   }
 }
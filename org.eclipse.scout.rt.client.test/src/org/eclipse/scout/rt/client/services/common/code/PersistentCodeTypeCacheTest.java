@@ -0,0 +1,86 @@
+/*******************************************************************************
+ * Copyright (c) 2013 BSI Business Systems Integration AG.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     BSI Business Systems Integration AG - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.scout.rt.client.services.common.code;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.Locale;
+
+import org.eclipse.scout.commons.IOUtility;
+import org.eclipse.scout.rt.shared.services.common.code.AbstractCodeType;
+import org.eclipse.scout.rt.shared.services.common.code.VersionedCodeType;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for {@link PersistentCodeTypeCache}
+ */
+public class PersistentCodeTypeCacheTest {
+  private File m_rootDir;
+
+  @Before
+  public void setUp() throws Exception {
+    m_rootDir = IOUtility.createTempDirectory("codetypes");
+  }
+
+  @After
+  public void tearDown() {
+    IOUtility.deleteDirectory(m_rootDir);
+  }
+
+  @Test
+  public void testStoreLoadRemove() throws Exception {
+    PersistentCodeTypeCache cache = new PersistentCodeTypeCache(m_rootDir, 7L, Locale.GERMAN);
+    assertNull(cache.load(TestCodeType.class));
+
+    cache.store(TestCodeType.class, "v1", new TestCodeType());
+    cache.store(TestCodeType.class, "v1", new TestCodeType());
+    // no temporary files are left behind
+    assertEquals(1, cache.getDirectory().listFiles().length);
+    VersionedCodeType entry = cache.load(TestCodeType.class);
+    assertNotNull(entry);
+    assertEquals("v1", entry.getVersion());
+    assertTrue(entry.getCodeType() instanceof TestCodeType);
+
+    // other partition and locale do not see the entry
+    assertNull(new PersistentCodeTypeCache(m_rootDir, null, Locale.GERMAN).load(TestCodeType.class));
+    assertNull(new PersistentCodeTypeCache(m_rootDir, 7L, Locale.FRENCH).load(TestCodeType.class));
+
+    cache.remove(TestCodeType.class);
+    assertNull(cache.load(TestCodeType.class));
+  }
+
+  @Test
+  public void testCorruptFileIsDiscarded() throws Exception {
+    PersistentCodeTypeCache cache = new PersistentCodeTypeCache(m_rootDir, null, null);
+    cache.store(TestCodeType.class, "v1", new TestCodeType());
+    File f = new File(cache.getDirectory(), TestCodeType.class.getName() + ".ser");
+    assertTrue(f.isFile());
+    IOUtility.writeContent(new FileOutputStream(f), new byte[]{1, 2, 3});
+    assertNull(cache.load(TestCodeType.class));
+    assertTrue(!f.exists());
+  }
+
+  public static class TestCodeType extends AbstractCodeType<String> {
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public String getId() {
+      return "TestCodeType";
+    }
+  }
+}
@@ -0,0 +1,296 @@
+/*******************************************************************************
+ * Copyright (c) 2013 BSI Business Systems Integration AG.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     BSI Business Systems Integration AG - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.scout.rt.client.services.lookup;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+
+import java.util.List;
+
+import org.eclipse.scout.commons.exception.ProcessingException;
+import org.eclipse.scout.rt.client.Activator;
+import org.eclipse.scout.rt.client.services.lookup.LookupCallResultCacheService.P_CacheKey;
+import org.eclipse.scout.rt.client.services.lookup.LookupCallResultCacheService.P_SessionCache;
+import org.eclipse.scout.rt.shared.services.lookup.BatchLookupCall;
+import org.eclipse.scout.rt.shared.services.lookup.IBatchLookupService;
+import org.eclipse.scout.rt.shared.services.lookup.ILookupCallResultCacheService;
+import org.eclipse.scout.rt.shared.services.lookup.ILookupService;
+import org.eclipse.scout.rt.shared.services.lookup.LookupCall;
+import org.eclipse.scout.rt.shared.services.lookup.LookupRow;
+import org.eclipse.scout.rt.testing.shared.TestingUtility;
+import org.eclipse.scout.rt.testing.shared.services.lookup.TestingLookupService;
+import org.eclipse.scout.service.SERVICES;
+import org.eclipse.scout.testing.client.runner.ScoutClientTestRunner;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.osgi.framework.ServiceRegistration;
+
+/**
+ * Tests for {@link LookupCallResultCacheService}
+ */
+@RunWith(ScoutClientTestRunner.class)
+public class LookupCallResultCacheServiceTest {
+  private P_LookupService m_lookupService;
+  private List<ServiceRegistration> m_reg;
+
+  @Before
+  public void setUp() {
+    m_lookupService = new P_LookupService();
+    m_lookupService.setRows(new LookupRow[]{new LookupRow(1L, "one"), new LookupRow(2L, "two"), new LookupRow(3L, "three")});
+    m_reg = TestingUtility.registerServices(Activator.getDefault().getBundle(), 1000, m_lookupService);
+  }
+
+  @After
+  public void tearDown() {
+    SERVICES.getService(ILookupCallResultCacheService.class).invalidate();
+    TestingUtility.unregisterServices(m_reg);
+  }
+
+  @Test
+  public void testLru() {
+    P_SessionCache cache = new P_SessionCache();
+    cache.put(createKey(1L), m_lookupService, rows(1), 60000L, 2, 100);
+    cache.put(createKey(2L), m_lookupService, rows(1), 60000L, 2, 100);
+    // use the first entry, the second one is the least recently used now
+    assertNotNull(cache.get(createKey(1L)));
+    cache.put(createKey(3L), m_lookupService, rows(1), 60000L, 2, 100);
+    assertEquals(2, cache.size());
+    assertNotNull(cache.get(createKey(1L)));
+    assertNull(cache.get(createKey(2L)));
+    assertNotNull(cache.get(createKey(3L)));
+  }
+
+  @Test
+  public void testTimeToLive() throws Exception {
+    P_SessionCache cache = new P_SessionCache();
+    cache.put(createKey(1L), m_lookupService, rows(2), 1L, 10, 100);
+    Thread.sleep(20L);
+    assertNull(cache.get(createKey(1L)));
+    assertEquals(0, cache.size());
+    assertEquals(0, cache.getRowCount());
+    // no time to live disables the cache
+    cache.put(createKey(1L), m_lookupService, rows(2), 0L, 10, 100);
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  public void testRowAccounting() {
+    P_SessionCache cache = new P_SessionCache();
+    cache.put(createKey(1L), m_lookupService, rows(3), 60000L, 10, 5);
+    assertEquals(3, cache.getRowCount());
+    // replacing an entry does not count its rows twice
+    cache.put(createKey(1L), m_lookupService, rows(2), 60000L, 10, 5);
+    assertEquals(2, cache.getRowCount());
+    // the rows bound evicts the least recently used entries
+    cache.put(createKey(2L), m_lookupService, rows(3), 60000L, 10, 5);
+    assertEquals(5, cache.getRowCount());
+    cache.put(createKey(3L), m_lookupService, rows(1), 60000L, 10, 5);
+    assertEquals(4, cache.getRowCount());
+    assertNull(cache.get(createKey(1L)));
+    // results larger than the bound are not cached
+    cache.put(createKey(4L), m_lookupService, rows(6), 60000L, 10, 5);
+    assertNull(cache.get(createKey(4L)));
+    assertEquals(4, cache.getRowCount());
+    cache.invalidate(new Class[]{ILookupService.class});
+    assertEquals(0, cache.size());
+    assertEquals(0, cache.getRowCount());
+  }
+
+  @Test
+  public void testRouting() throws Exception {
+    P_CachedLookupCall call = new P_CachedLookupCall();
+    call.setKey(2L);
+    assertEquals("two", call.getDataByKey()[0].getText());
+    assertEquals("two", call.getDataByKey()[0].getText());
+    assertEquals(1, m_lookupService.getKeyLookupCount());
+    // another key is another entry
+    call.setKey(3L);
+    assertEquals("three", call.getDataByKey()[0].getText());
+    assertEquals(2, m_lookupService.getKeyLookupCount());
+    // "all" lookups are only cached if enabled separately
+    call.getDataByAll();
+    call.getDataByAll();
+    assertEquals(2, m_lookupService.getAllLookupCount());
+    // lookup calls without the result cache go to the lookup service directly
+    P_LookupCall uncached = new P_LookupCall();
+    uncached.setKey(2L);
+    uncached.getDataByKey();
+    uncached.getDataByKey();
+    assertEquals(4, m_lookupService.getKeyLookupCount());
+  }
+
+  @Test
+  public void testRowsAreCopied() throws Exception {
+    P_CachedLookupCall call = new P_CachedLookupCall();
+    call.setKey(2L);
+    LookupRow[] rows = call.getDataByKey();
+    // changes of the caller do not reach the cache
+    rows[0].setText("changed");
+    LookupRow[] cachedRows = call.getDataByKey();
+    assertEquals(1, m_lookupService.getKeyLookupCount());
+    assertNotSame(rows[0], cachedRows[0]);
+    assertEquals("two", cachedRows[0].getText());
+    cachedRows[0].setText("changed");
+    assertEquals("two", call.getDataByKey()[0].getText());
+  }
+
+  @Test
+  public void testBatchDataByKey() throws Exception {
+    P_CachedLookupCall cached = new P_CachedLookupCall();
+    cached.setKey(2L);
+    cached.getDataByKey();
+    assertEquals(1, m_lookupService.getKeyLookupCount());
+    P_BatchLookupServiceClientProxy proxy = new P_BatchLookupServiceClientProxy(m_lookupService);
+    LookupRow[][] result = proxy.getBatchDataByKey(new BatchLookupCall(new LookupCall[]{cachedCall(2L), cachedCall(3L), uncachedCall(1L)}));
+    assertEquals("two", result[0][0].getText());
+    assertEquals("three", result[1][0].getText());
+    assertEquals("one", result[2][0].getText());
+    // only the misses are sent to the server
+    assertEquals(1, proxy.getBatchCount());
+    assertEquals(3, m_lookupService.getKeyLookupCount());
+    // the results of the batch are cached, calls without the result cache are always sent
+    result = proxy.getBatchDataByKey(new BatchLookupCall(new LookupCall[]{cachedCall(3L), cachedCall(2L)}));
+    assertEquals("three", result[0][0].getText());
+    assertEquals("two", result[1][0].getText());
+    assertEquals(1, proxy.getBatchCount());
+    result = proxy.getBatchDataByKey(new BatchLookupCall(new LookupCall[]{cachedCall(3L), uncachedCall(1L)}));
+    assertEquals("one", result[1][0].getText());
+    assertEquals(2, proxy.getBatchCount());
+    assertEquals(4, m_lookupService.getKeyLookupCount());
+  }
+
+  private static P_CachedLookupCall cachedCall(long key) {
+    P_CachedLookupCall call = new P_CachedLookupCall();
+    call.setKey(key);
+    return call;
+  }
+
+  private static P_LookupCall uncachedCall(long key) {
+    P_LookupCall call = new P_LookupCall();
+    call.setKey(key);
+    return call;
+  }
+
+  private static P_CacheKey createKey(long key) {
+    P_CachedLookupCall call = new P_CachedLookupCall();
+    call.setKey(key);
+    return new P_CacheKey(false, call);
+  }
+
+  private static LookupRow[] rows(int n) {
+    LookupRow[] rows = new LookupRow[n];
+    for (int i = 0; i < n; i++) {
+      rows[i] = new LookupRow((long) i, "row" + i);
+    }
+    return rows;
+  }
+
+  /**
+   * Answers the batches with the lookup service of the test instead of the server
+   */
+  private static class P_BatchLookupServiceClientProxy extends BatchLookupServiceClientProxy {
+    private final ILookupService m_service;
+    private int m_batchCount;
+
+    public P_BatchLookupServiceClientProxy(ILookupService service) {
+      m_service = service;
+    }
+
+    public int getBatchCount() {
+      return m_batchCount;
+    }
+
+    @Override
+    protected IBatchLookupService getTargetService() {
+      return new IBatchLookupService() {
+        @Override
+        public LookupRow[][] getBatchDataByKey(BatchLookupCall batch) throws ProcessingException {
+          m_batchCount++;
+          LookupCall[] calls = batch.getCallBatch();
+          LookupRow[][] result = new LookupRow[calls.length][];
+          for (int i = 0; i < calls.length; i++) {
+            result[i] = m_service.getDataByKey(calls[i]);
+          }
+          return result;
+        }
+
+        @Override
+        public LookupRow[][] getBatchDataByText(BatchLookupCall batch) throws ProcessingException {
+          throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public LookupRow[][] getBatchDataByAll(BatchLookupCall batch) throws ProcessingException {
+          throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public LookupRow[][] getBatchDataByRec(BatchLookupCall batch) throws ProcessingException {
+          throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void initializeService() {
+        }
+      };
+    }
+  }
+
+  public interface IP_LookupService extends ILookupService {
+  }
+
+  public static class P_LookupService extends TestingLookupService implements IP_LookupService {
+    private int m_keyLookupCount;
+    private int m_allLookupCount;
+
+    @Override
+    public synchronized LookupRow[] getDataByKey(LookupCall call) throws ProcessingException {
+      m_keyLookupCount++;
+      return super.getDataByKey(call);
+    }
+
+    @Override
+    public synchronized LookupRow[] getDataByAll(LookupCall call) throws ProcessingException {
+      m_allLookupCount++;
+      return super.getDataByAll(call);
+    }
+
+    public synchronized int getKeyLookupCount() {
+      return m_keyLookupCount;
+    }
+
+    public synchronized int getAllLookupCount() {
+      return m_allLookupCount;
+    }
+  }
+
+  public static class P_LookupCall extends LookupCall {
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    protected Class<? extends ILookupService> getConfiguredService() {
+      return IP_LookupService.class;
+    }
+  }
+
+  public static class P_CachedLookupCall extends P_LookupCall {
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    protected boolean getConfiguredResultCacheEnabled() {
+      return true;
+    }
+  }
+}
@@ -0,0 +1,119 @@
+/*******************************************************************************
+ * Copyright (c) 2013 BSI Business Systems Integration AG.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     BSI Business Systems Integration AG - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.scout.rt.client.servicetunnel.http.internal;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.scout.commons.exception.ProcessingException;
+import org.eclipse.scout.rt.client.IClientSession;
+import org.eclipse.scout.rt.client.services.common.session.IClientSessionRegistryService;
+import org.eclipse.scout.rt.client.testenvironment.TestEnvironmentClientSession;
+import org.eclipse.scout.rt.shared.services.common.clientnotification.IClientNotification;
+import org.eclipse.scout.rt.shared.ui.UserAgent;
+import org.eclipse.scout.service.SERVICES;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the switch between {@link ClientNotificationPollingJob} and {@link ClientNotificationLongPollingJob} in
+ * {@link InternalHttpServiceTunnel}
+ */
+public class ClientNotificationLongPollingTest {
+  private P_Tunnel m_tunnel;
+
+  @Before
+  public void setUp() throws Exception {
+    IClientSession session = SERVICES.getService(IClientSessionRegistryService.class).newClientSession(TestEnvironmentClientSession.class, UserAgent.createDefault());
+    m_tunnel = new P_Tunnel(session);
+    m_tunnel.setClientNotificationPollInterval(60000L);
+  }
+
+  @After
+  public void tearDown() {
+    // stops all jobs
+    m_tunnel.setClientNotificationPollInterval(-1L);
+  }
+
+  @Test
+  public void testPolling() {
+    assertNotNull(m_tunnel.getClientNotificationPollingJob());
+    assertNull(m_tunnel.getClientNotificationLongPollingJob());
+  }
+
+  @Test
+  public void testLongPolling() {
+    m_tunnel.setClientNotificationLongPollingSupported(true);
+    assertNull(m_tunnel.getClientNotificationPollingJob());
+    assertNotNull(m_tunnel.getClientNotificationLongPollingJob());
+    // the server no longer advertises long polling
+    m_tunnel.setClientNotificationLongPollingSupported(false);
+    assertNotNull(m_tunnel.getClientNotificationPollingJob());
+    assertNull(m_tunnel.getClientNotificationLongPollingJob());
+  }
+
+  @Test
+  public void testFallbackOnFailure() throws Exception {
+    m_tunnel.m_failLongPolling = true;
+    m_tunnel.setClientNotificationLongPollingSupported(true);
+    long deadline = System.currentTimeMillis() + 10000L;
+    while (m_tunnel.getClientNotificationLongPollingJob() != null && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10L);
+    }
+    assertNull(m_tunnel.getClientNotificationLongPollingJob());
+    assertNotNull(m_tunnel.getClientNotificationPollingJob());
+    // further responses advertising long polling do not switch back before the retry interval elapsed
+    m_tunnel.setClientNotificationLongPollingSupported(true);
+    assertNull(m_tunnel.getClientNotificationLongPollingJob());
+    assertNotNull(m_tunnel.getClientNotificationPollingJob());
+  }
+
+  private static class P_Tunnel extends InternalHttpServiceTunnel {
+    private volatile boolean m_failLongPolling;
+
+    public P_Tunnel(IClientSession session) throws ProcessingException {
+      super(session, "http://localhost/test", "1.0.0");
+    }
+
+    @Override
+    protected ClientNotificationPollingJob createClientNotificationPollingJob(long pollInterval, boolean analyzeNetworkLatency) {
+      return new ClientNotificationPollingJob(getClientSession(), pollInterval, analyzeNetworkLatency) {
+        @Override
+        protected IStatus runStatus(IProgressMonitor monitor) {
+          return Status.OK_STATUS;
+        }
+      };
+    }
+
+    @Override
+    protected ClientNotificationLongPollingJob createClientNotificationLongPollingJob(long pollInterval) {
+      return new ClientNotificationLongPollingJob(getClientSession(), pollInterval, this) {
+        @Override
+        protected IClientNotification[] waitForNotifications(long waitTimeout) {
+          if (m_failLongPolling) {
+            throw new SecurityException("refused");
+          }
+          try {
+            Thread.sleep(50L);
+          }
+          catch (InterruptedException e) {
+            // nop
+          }
+          return null;
+        }
+      };
+    }
+  }
+}
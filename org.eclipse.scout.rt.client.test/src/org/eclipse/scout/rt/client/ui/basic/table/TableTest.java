@@ -12,10 +12,15 @@ package org.eclipse.scout.rt.client.ui.basic.table;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.sql.Timestamp;
+import java.util.Date;
 
 import org.eclipse.scout.commons.annotations.Order;
 import org.eclipse.scout.commons.exception.ProcessingException;
 import org.eclipse.scout.rt.client.ui.basic.table.columns.AbstractIntegerColumn;
+import org.eclipse.scout.rt.client.ui.basic.table.columns.AbstractObjectColumn;
 import org.eclipse.scout.rt.client.ui.basic.table.columns.AbstractStringColumn;
 import org.eclipse.scout.testing.client.runner.ScoutClientTestRunner;
 import org.junit.Test;
@@ -155,6 +160,61 @@ public class TableTest {
     assertRowCount(0, 0, table2);
   }
 
+  /**
+   * Test that rows are found by their key after rows are updated, deleted and replaced.
+   */
+  @Test
+  public void testFindRowByKey() throws Exception {
+    P_Table table = createTable(ITableRow.STATUS_NON_CHANGED);
+    table.addRowsByMatrix(new Object[][]{new Object[]{12, "Dolor"}, new Object[]{13, "Sit"}});
+    ITableRow row11 = table.getRow(1);
+    assertSame(row11, table.findRowByKey(new Object[]{11}));
+    assertNull(table.findRowByKey(new Object[]{14}));
+
+    table.getFirstColumn().setValue(row11, 14);
+    assertNull(table.findRowByKey(new Object[]{11}));
+    assertSame(row11, table.findRowByKey(new Object[]{14}));
+
+    table.deleteRows(new ITableRow[]{table.getRow(0), table.getRow(2)});
+    assertEquals(2, table.getRowCount());
+    assertNull(table.findRowByKey(new Object[]{10}));
+    assertNull(table.findRowByKey(new Object[]{12}));
+    assertEquals(0, table.getRow(0).getRowIndex());
+    assertEquals(1, table.getRow(1).getRowIndex());
+    assertEquals(1, table.getFilteredRowIndex(table.findRowByKey(new Object[]{13})));
+
+    ITableRow[] rows = table.findRowsByKeys(new Object[][]{new Object[]{13}, new Object[]{99}, new Object[]{14}});
+    assertEquals(2, rows.length);
+    assertSame(table.getRow(1), rows[0]);
+    assertSame(row11, rows[1]);
+
+    ITableRow row13 = table.findRowByKey(new Object[]{13});
+    table.replaceRowsByMatrix(new Object[][]{new Object[]{13, "Amet"}, new Object[]{15, "Consetetur"}});
+    assertEquals(2, table.getRowCount());
+    assertSame(row13, table.findRowByKey(new Object[]{13}));
+    assertNull(table.findRowByKey(new Object[]{14}));
+    assertSame(table.getRow(1), table.findRowByKey(new Object[]{15}));
+  }
+
+  /**
+   * Test that a {@link Timestamp} key matches a {@link Date} key of the same instant when rows are replaced.
+   */
+  @Test
+  public void testReplaceRowsWithTimestampKeys() throws Exception {
+    P_DateKeyTable table = new P_DateKeyTable();
+    table.addRowsByMatrix(new Object[][]{new Object[]{new Date(1000L), "Lorem"}, new Object[]{new Date(2000L), "Ipsum"}}, ITableRow.STATUS_NON_CHANGED);
+    ITableRow row1 = table.getRow(0);
+    assertSame(row1, table.findRowByKey(new Object[]{new Timestamp(1000L)}));
+
+    table.replaceRowsByMatrix(new Object[][]{new Object[]{new Timestamp(1000L), "Dolor"}, new Object[]{new Timestamp(3000L), "Sit"}});
+    assertEquals(2, table.getRowCount());
+    assertEquals(1, table.getDeletedRowCount());
+    assertSame(row1, table.findRowByKey(new Object[]{new Date(1000L)}));
+    // the existing row was updated
+    assertEquals("Dolor", row1.getCellValue(1));
+    assertNull(table.findRowByKey(new Object[]{new Date(2000L)}));
+  }
+
   private P_Table createTable(int status) throws ProcessingException {
     P_Table table = new P_Table();
 
@@ -207,4 +267,24 @@ public class TableTest {
     public class SecondColumn extends AbstractStringColumn {
     }
   }
+
+  public static class P_DateKeyTable extends AbstractTable {
+
+    @Override
+    protected boolean getConfiguredAutoDiscardOnDelete() {
+      return false;
+    }
+
+    @Order(10)
+    public class FirstColumn extends AbstractObjectColumn {
+      @Override
+      protected boolean getConfiguredPrimaryKey() {
+        return true;
+      }
+    }
+
+    @Order(20)
+    public class SecondColumn extends AbstractStringColumn {
+    }
+  }
 }
@@ -0,0 +1,272 @@
+/*******************************************************************************
+ * Copyright (c) 2013 BSI Business Systems Integration AG.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     BSI Business Systems Integration AG - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.scout.rt.client.ui.desktop.outline.pages;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.scout.commons.annotations.Order;
+import org.eclipse.scout.commons.exception.ProcessingException;
+import org.eclipse.scout.rt.client.Activator;
+import org.eclipse.scout.rt.client.ClientSyncJob;
+import org.eclipse.scout.rt.client.IClientSession;
+import org.eclipse.scout.rt.client.services.common.session.IClientSessionRegistryService;
+import org.eclipse.scout.rt.client.testenvironment.TestEnvironmentClientSession;
+import org.eclipse.scout.rt.client.ui.basic.table.AbstractTable;
+import org.eclipse.scout.rt.client.ui.basic.table.columns.AbstractStringColumn;
+import org.eclipse.scout.rt.shared.services.common.jdbc.ITableDataCursorService;
+import org.eclipse.scout.rt.shared.services.common.jdbc.SearchFilter;
+import org.eclipse.scout.rt.shared.services.common.jdbc.TableDataChunk;
+import org.eclipse.scout.rt.shared.ui.UserAgent;
+import org.eclipse.scout.rt.testing.shared.TestingUtility;
+import org.eclipse.scout.service.AbstractService;
+import org.eclipse.scout.service.SERVICES;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.osgi.framework.ServiceRegistration;
+
+/**
+ * Tests the incremental loading of {@link AbstractPageWithTable} with
+ * {@link AbstractPageWithTable#execLoadTableDataChunk(SearchFilter)}.
+ * <p>
+ * The next chunks are appended by a model job, therefore the test itself does not run in the model thread but runs
+ * every step in its own {@link ClientSyncJob}.
+ */
+public class PageWithTableChunkTest {
+  private IClientSession m_session;
+  private P_TableDataCursorService m_cursorService;
+  private List<ServiceRegistration> m_reg;
+
+  @Before
+  public void setUp() throws Exception {
+    m_session = SERVICES.getService(IClientSessionRegistryService.class).newClientSession(TestEnvironmentClientSession.class, UserAgent.createDefault());
+    m_cursorService = new P_TableDataCursorService();
+    m_reg = TestingUtility.registerServices(Activator.getDefault().getBundle(), 1000, m_cursorService);
+  }
+
+  @After
+  public void tearDown() {
+    TestingUtility.unregisterServices(m_reg);
+  }
+
+  @Test
+  public void testAppendChunks() throws Exception {
+    final P_Page page = createPage(false);
+    runModelJob(new P_ModelRunnable() {
+      @Override
+      public void run() throws Exception {
+        page.loadChildren();
+        assertEquals(1, page.getTable().getRowCount());
+        assertTrue(page.hasMoreTableData());
+        // without auto load the next chunk is only loaded on demand
+        page.loadMoreTableData();
+      }
+    });
+    awaitRowCount(page, 2);
+    runModelJob(new P_ModelRunnable() {
+      @Override
+      public void run() throws Exception {
+        assertTrue(page.hasMoreTableData());
+        page.loadMoreTableData();
+      }
+    });
+    awaitRowCount(page, 3);
+    runModelJob(new P_ModelRunnable() {
+      @Override
+      public void run() throws Exception {
+        assertFalse(page.hasMoreTableData());
+        assertEquals("a", page.getTable().getFirstColumn().getValue(0));
+        assertEquals("c", page.getTable().getFirstColumn().getValue(2));
+      }
+    });
+    // the server closes the cursor after the last chunk
+    assertTrue(m_cursorService.getClosedCursors().isEmpty());
+  }
+
+  @Test
+  public void testAutoLoadChunks() throws Exception {
+    final P_Page page = createPage(true);
+    runModelJob(new P_ModelRunnable() {
+      @Override
+      public void run() throws Exception {
+        page.loadChildren();
+      }
+    });
+    awaitRowCount(page, 3);
+    runModelJob(new P_ModelRunnable() {
+      @Override
+      public void run() throws Exception {
+        assertFalse(page.hasMoreTableData());
+        assertEquals(null, page.getPagePopulateStatus());
+      }
+    });
+  }
+
+  @Test
+  public void testCancelOnReload() throws Exception {
+    final P_Page page = createPage(false);
+    runModelJob(new P_ModelRunnable() {
+      @Override
+      public void run() throws Exception {
+        page.loadChildren();
+        assertTrue(page.hasMoreTableData());
+        // the reload replaces the rows and closes the cursor of the first load
+        page.loadChildren();
+        assertEquals(1, page.getTable().getRowCount());
+        assertTrue(page.hasMoreTableData());
+      }
+    });
+    awaitClosedCursor("cursor1");
+    runModelJob(new P_ModelRunnable() {
+      @Override
+      public void run() throws Exception {
+        page.cancelLoadMoreTableData();
+        assertFalse(page.hasMoreTableData());
+        assertEquals(1, page.getTable().getRowCount());
+      }
+    });
+    awaitClosedCursor("cursor2");
+  }
+
+  private P_Page createPage(final boolean autoLoad) throws Exception {
+    final P_Page[] holder = new P_Page[1];
+    runModelJob(new P_ModelRunnable() {
+      @Override
+      public void run() throws Exception {
+        holder[0] = new P_Page(autoLoad);
+      }
+    });
+    return holder[0];
+  }
+
+  private void awaitRowCount(final P_Page page, final int rowCount) throws Exception {
+    final int[] count = new int[1];
+    long deadline = System.currentTimeMillis() + 10000L;
+    do {
+      runModelJob(new P_ModelRunnable() {
+        @Override
+        public void run() throws Exception {
+          count[0] = page.getTable().getRowCount();
+        }
+      });
+      if (count[0] >= rowCount) {
+        break;
+      }
+      Thread.sleep(10L);
+    }
+    while (System.currentTimeMillis() < deadline);
+    assertEquals(rowCount, count[0]);
+  }
+
+  private void awaitClosedCursor(String cursorId) throws Exception {
+    long deadline = System.currentTimeMillis() + 10000L;
+    while (!m_cursorService.getClosedCursors().contains(cursorId) && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10L);
+    }
+    assertTrue(m_cursorService.getClosedCursors().contains(cursorId));
+  }
+
+  private void runModelJob(final P_ModelRunnable r) throws Exception {
+    final Throwable[] error = new Throwable[1];
+    ClientSyncJob job = new ClientSyncJob("test", m_session) {
+      @Override
+      protected void runVoid(IProgressMonitor monitor) throws Throwable {
+        try {
+          r.run();
+        }
+        catch (Throwable t) {
+          error[0] = t;
+        }
+      }
+    };
+    job.schedule();
+    job.join();
+    if (error[0] instanceof Error) {
+      throw (Error) error[0];
+    }
+    if (error[0] instanceof Exception) {
+      throw (Exception) error[0];
+    }
+  }
+
+  private interface P_ModelRunnable {
+    void run() throws Exception;
+  }
+
+  private static class P_Page extends AbstractPageWithTable<P_Page.Table> {
+    private final boolean m_autoLoad;
+    private int m_loadCount;
+
+    public P_Page(boolean autoLoad) {
+      super(false);
+      m_autoLoad = autoLoad;
+      callInitializer();
+    }
+
+    @Override
+    protected boolean getConfiguredAutoLoadMoreTableData() {
+      return m_autoLoad;
+    }
+
+    @Override
+    protected TableDataChunk execLoadTableDataChunk(SearchFilter filter) throws ProcessingException {
+      m_loadCount++;
+      return new TableDataChunk("cursor" + m_loadCount, new Object[][]{new Object[]{"a"}}, false);
+    }
+
+    public class Table extends AbstractTable {
+
+      public FirstColumn getFirstColumn() {
+        return getColumnSet().getColumnByClass(FirstColumn.class);
+      }
+
+      @Order(10)
+      public class FirstColumn extends AbstractStringColumn {
+      }
+    }
+  }
+
+  /**
+   * Delivers the chunks "b" and "c" for every cursor
+   */
+  private static class P_TableDataCursorService extends AbstractService implements ITableDataCursorService {
+    private final Map<String, Integer> m_fetchCount = new HashMap<String, Integer>();
+    private final List<String> m_closedCursors = new ArrayList<String>();
+
+    @Override
+    public synchronized TableDataChunk fetchNextChunk(String cursorId) throws ProcessingException {
+      Integer n = m_fetchCount.get(cursorId);
+      n = (n == null ? 1 : n + 1);
+      m_fetchCount.put(cursorId, n);
+      if (n == 1) {
+        return new TableDataChunk(cursorId, new Object[][]{new Object[]{"b"}}, false);
+      }
+      return new TableDataChunk(cursorId, new Object[][]{new Object[]{"c"}}, true);
+    }
+
+    @Override
+    public synchronized void closeCursor(String cursorId) throws ProcessingException {
+      m_closedCursors.add(cursorId);
+    }
+
+    public synchronized List<String> getClosedCursors() {
+      return new ArrayList<String>(m_closedCursors);
+    }
+  }
+}
@@ -46,6 +46,7 @@ import org.eclipse.scout.rt.client.ui.desktop.internal.VirtualDesktop;
 import org.eclipse.scout.rt.shared.OfflineState;
 import org.eclipse.scout.rt.shared.ScoutTexts;
 import org.eclipse.scout.rt.shared.TextsThreadLocal;
+import org.eclipse.scout.rt.shared.services.common.code.ICodeService;
 import org.eclipse.scout.rt.shared.services.common.context.SharedContextChangedNotification;
 import org.eclipse.scout.rt.shared.services.common.context.SharedVariableMap;
 import org.eclipse.scout.rt.shared.services.common.prefs.IUserPreferencesStorageService;
@@ -74,6 +75,8 @@ public abstract class AbstractClientSession implements IClientSession {
   private Subject m_subject;
   private final SharedVariableMap m_sharedVariableMap;
   private boolean m_singleThreadSession;
+  private String m_preloadCodeTypesClassPrefix;
+  private boolean m_codeTypesPreloaded;
   private String m_virtualSessionId;
   private IMemoryPolicy m_memoryPolicy;
   private IIconLocator m_iconLocator;
@@ -108,6 +111,24 @@ public abstract class AbstractClientSession implements IClientSession {
     return false;
   }
 
+  /**
+   * Configures the code types that are loaded in one call when the session is started, typically the symbolic name of
+   * the shared bundle. The code types are loaded before the desktop is initialized, or after
+   * {@link #execLoadSession()} if no desktop is set.
+   * <p>
+   * Subclasses can override this method. Default is {@code null}.
+   * 
+   * @return the class prefix passed to {@link ICodeService#getAllCodeTypes(String)} or {@code null} to not preload
+   *         code types
+   * @since 3.9.0
+   */
+  @ConfigProperty(ConfigProperty.STRING)
+  @Order(110)
+  @ConfigPropertyValue("null")
+  protected String getConfiguredPreloadCodeTypesClassPrefix() {
+    return null;
+  }
+
   @Override
   public String getUserId() {
     return getSharedContextVariable("userId", String.class);
@@ -202,6 +223,7 @@ public abstract class AbstractClientSession implements IClientSession {
 
   protected void initConfig() {
     m_singleThreadSession = getConfiguredSingleThreadSession();
+    m_preloadCodeTypesClassPrefix = getConfiguredPreloadCodeTypesClassPrefix();
     m_virtualDesktop = new VirtualDesktop();
     setMemoryPolicy(new LargeMemoryPolicy());
     // add client notification listener
@@ -257,6 +279,7 @@ public abstract class AbstractClientSession implements IClientSession {
       // explicitly set the just created instance to the ThreadLocal because it was not available yet, when the job was started.
       TextsThreadLocal.set(m_scoutTexts);
       execLoadSession();
+      preloadCodeTypes();
       setActive(true);
     }
     catch (Throwable t) {
@@ -270,6 +293,26 @@ public abstract class AbstractClientSession implements IClientSession {
   protected void execLoadSession() throws ProcessingException {
   }
 
+  /**
+   * Loads the code types configured by {@link #getConfiguredPreloadCodeTypesClassPrefix()} once the service tunnel is
+   * available
+   */
+  private void preloadCodeTypes() {
+    if (m_codeTypesPreloaded || m_preloadCodeTypesClassPrefix == null || getServiceTunnel() == null) {
+      return;
+    }
+    m_codeTypesPreloaded = true;
+    try {
+      ICodeService service = SERVICES.getService(ICodeService.class);
+      if (service != null) {
+        service.getAllCodeTypes(m_preloadCodeTypesClassPrefix);
+      }
+    }
+    catch (Throwable t) {
+      LOG.warn("preloading code types " + m_preloadCodeTypesClassPrefix, t);
+    }
+  }
+
   @ConfigOperation
   @Order(20)
   protected void execStoreSession() throws ProcessingException {
@@ -293,6 +336,7 @@ public abstract class AbstractClientSession implements IClientSession {
     if (m_desktop != null) {
       throw new IllegalStateException("desktop is active");
     }
+    preloadCodeTypes();
     m_desktop = a;
     if (m_desktop != null) {
       if (m_virtualDesktop != null) {
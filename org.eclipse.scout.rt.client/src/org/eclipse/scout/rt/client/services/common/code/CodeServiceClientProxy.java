@@ -10,9 +10,11 @@
  ******************************************************************************/
 package org.eclipse.scout.rt.client.services.common.code;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Locale;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.Platform;
@@ -34,7 +36,9 @@ import org.eclipse.scout.rt.shared.services.common.code.CodeTypeChangedNotificat
 import org.eclipse.scout.rt.shared.services.common.code.ICode;
 import org.eclipse.scout.rt.shared.services.common.code.ICodeService;
 import org.eclipse.scout.rt.shared.services.common.code.ICodeType;
+import org.eclipse.scout.rt.shared.services.common.code.ICodeTypeVersionService;
 import org.eclipse.scout.rt.shared.services.common.code.ICodeVisitor;
+import org.eclipse.scout.rt.shared.services.common.code.VersionedCodeType;
 import org.eclipse.scout.service.AbstractService;
 import org.eclipse.scout.service.SERVICES;
 
@@ -44,6 +48,15 @@ import org.eclipse.scout.service.SERVICES;
  * partitionId, cache is not used.
  * <p>
  * Service state is per [{@link IClientSession}.class,{@link LocaleThreadLocal#get()},partitionId]
+ * <p>
+ * Missing code types are loaded in one remote call by {@link ICodeTypeVersionService}, the remote call is made without
+ * holding a lock. Unless disabled by {@link #setPersistentCacheEnabled(boolean)} (config.ini:
+ * <code>org.eclipse.scout.rt.client.services.common.code.CodeServiceClientProxy#persistentCacheEnabled=false</code>),
+ * loaded code types are also kept in a {@link PersistentCodeTypeCache} in the state location of the client bundle. The
+ * versions of the code types on disk are sent along, so the server only returns the code types that changed since the
+ * last session. A {@link CodeTypeChangedNotification} removes the code types from both caches, loads that were started
+ * before are not cached. If the server does not provide an {@link ICodeTypeVersionService}, the code types are loaded
+ * by {@link ICodeService} without persistent cache.
  */
 @Priority(-3)
 public class CodeServiceClientProxy extends AbstractService implements ICodeService {
@@ -51,6 +64,8 @@ public class CodeServiceClientProxy extends AbstractService implements ICodeServ
 
   private final Object m_stateLock = new Object();
   private final HashMap<CompositeObject, ServiceState> m_stateMap = new HashMap<CompositeObject, ServiceState>();
+  private boolean m_persistentCacheEnabled = true;
+  private volatile boolean m_versionServiceUnavailable;
 
   public CodeServiceClientProxy() {
   }
@@ -70,17 +85,54 @@ public class CodeServiceClientProxy extends AbstractService implements ICodeServ
         partitionId = (Long) session.getSharedVariableMap().get(ICodeType.PROP_PARTITION_ID);
       }
     }
-    CompositeObject key = new CompositeObject(session.getClass(), LocaleThreadLocal.get(), partitionId);
+    Locale locale = LocaleThreadLocal.get();
+    CompositeObject key = new CompositeObject(session.getClass(), locale, partitionId);
     synchronized (m_stateLock) {
       ServiceState data = (ServiceState) m_stateMap.get(key);
       if (data == null) {
-        data = new ServiceState();
+        data = new ServiceState(createPersistentCache(session, partitionId, locale));
         m_stateMap.put(key, data);
       }
       return data;
     }
   }
 
+  /**
+   * @return true if code types are kept on disk across sessions, default is true
+   * @since 3.9.0
+   */
+  public boolean isPersistentCacheEnabled() {
+    return m_persistentCacheEnabled;
+  }
+
+  /**
+   * @since 3.9.0
+   */
+  public void setPersistentCacheEnabled(boolean persistentCacheEnabled) {
+    m_persistentCacheEnabled = persistentCacheEnabled;
+  }
+
+  /**
+   * Creates the on-disk cache of a partition and locale in the directory <code>codetypes</code> of the state location
+   * of the session bundle.
+   * 
+   * @return the cache or null if code types are not cached on disk
+   * @since 3.9.0
+   */
+  protected PersistentCodeTypeCache createPersistentCache(IClientSession session, Long partitionId, Locale locale) {
+    if (!isPersistentCacheEnabled() || session.getBundle() == null) {
+      return null;
+    }
+    try {
+      File rootDir = new File(Platform.getStateLocation(session.getBundle()).toFile(), "codetypes");
+      return new PersistentCodeTypeCache(rootDir, partitionId, locale);
+    }
+    catch (Throwable t) {
+      LOG.warn("code types are not cached on disk", t);
+      return null;
+    }
+  }
+
   @SuppressWarnings("deprecation")
   @Override
   public void initializeService() {
@@ -113,19 +165,9 @@ public class CodeServiceClientProxy extends AbstractService implements ICodeServ
   }
 
   @Override
+  @SuppressWarnings("unchecked")
   public <T extends ICodeType> T getCodeType(Class<T> type) {
-    ServiceState state = getServiceState();
-    synchronized (state.m_cacheLock) {
-      @SuppressWarnings("unchecked")
-      T instance = (T) state.m_cache.get(type);
-      if (instance == null) {
-        instance = getRemoteService().getCodeType(type);
-        if (instance != null) {
-          state.m_cache.put(type, instance);
-        }
-      }
-      return instance;
-    }
+    return (T) getCodeTypes(type)[0];
   }
 
   @Override
@@ -198,7 +240,9 @@ public class CodeServiceClientProxy extends AbstractService implements ICodeServ
     ArrayList<Class> missingTypes = new ArrayList<Class>();
     ICodeType[] instances = new ICodeType[types.length];
     ServiceState state = getServiceState();
+    long generation;
     synchronized (state.m_cacheLock) {
+      generation = state.m_generation;
       for (int i = 0; i < types.length; i++) {
         instances[i] = state.m_cache.get(types[i]);
         if (instances[i] == null) {
@@ -207,14 +251,23 @@ public class CodeServiceClientProxy extends AbstractService implements ICodeServ
       }
     }
     if (missingTypes.size() > 0) {
-      ICodeType[] newInstances = getRemoteService().getCodeTypes(missingTypes.toArray(new Class[0]));
+      // the remote call is made without holding the lock, concurrent callers may load the same code type twice
+      ICodeType[] newInstances = loadCodeTypes(state, missingTypes.toArray(new Class[missingTypes.size()]), generation);
       synchronized (state.m_cacheLock) {
+        // code types unloaded while loading are returned but not cached, they may be outdated
+        boolean current = (generation == state.m_generation);
         int k = 0;
         for (int i = 0; i < types.length; i++) {
           if (instances[i] == null) {
             instances[i] = newInstances[k];
-            if (instances[i] != null) {
-              state.m_cache.put(types[i], instances[i]);
+            if (instances[i] != null && current) {
+              ICodeType existing = state.m_cache.get(types[i]);
+              if (existing != null) {
+                instances[i] = existing;
+              }
+              else {
+                state.m_cache.put(types[i], instances[i]);
+              }
             }
             k++;
           }
@@ -224,6 +277,62 @@ public class CodeServiceClientProxy extends AbstractService implements ICodeServ
     return instances;
   }
 
+  /**
+   * Loads the code types in one remote call, code types cached on disk are only transferred if their version is
+   * outdated. Modified code types are only stored on disk if no code type was unloaded since generation.
+   */
+  @SuppressWarnings("unchecked")
+  private ICodeType[] loadCodeTypes(ServiceState state, Class[] types, long generation) {
+    if (m_versionServiceUnavailable) {
+      return getRemoteService().getCodeTypes(types);
+    }
+    PersistentCodeTypeCache persistentCache = state.m_persistentCache;
+    VersionedCodeType[] cached = new VersionedCodeType[types.length];
+    String[] knownVersions = new String[types.length];
+    if (persistentCache != null) {
+      for (int i = 0; i < types.length; i++) {
+        if (types[i] != null) {
+          cached[i] = persistentCache.load(types[i]);
+          if (cached[i] != null) {
+            knownVersions[i] = cached[i].getVersion();
+          }
+        }
+      }
+    }
+    VersionedCodeType[] result;
+    try {
+      result = getRemoteVersionService().getCodeTypesIfModified(types, knownVersions);
+    }
+    catch (RuntimeException e) {
+      // the server is reachable but does not provide the version service if the plain code service answers
+      ICodeType[] instances = getRemoteService().getCodeTypes(types);
+      LOG.warn("code types are loaded without version check, " + ICodeTypeVersionService.class.getSimpleName() + " failed", e);
+      m_versionServiceUnavailable = true;
+      return instances;
+    }
+    ICodeType[] instances = new ICodeType[types.length];
+    for (int i = 0; i < types.length; i++) {
+      VersionedCodeType v = result[i];
+      if (v == null) {
+        continue;
+      }
+      if (v.isModified()) {
+        instances[i] = v.getCodeType();
+        if (persistentCache != null) {
+          synchronized (state.m_cacheLock) {
+            if (generation == state.m_generation) {
+              persistentCache.store(types[i], v.getVersion(), v.getCodeType());
+            }
+          }
+        }
+      }
+      else if (cached[i] != null) {
+        instances[i] = cached[i].getCodeType();
+      }
+    }
+    return instances;
+  }
+
   @Override
   public ICodeType[] getCodeTypes(Long partitionId, Class... types) {
     ICodeType[] codeTypes = getRemoteService().getCodeTypes(partitionId, types);
@@ -288,20 +397,9 @@ public class CodeServiceClientProxy extends AbstractService implements ICodeServ
   }
 
   @Override
+  @SuppressWarnings("unchecked")
   public <T extends ICodeType> T reloadCodeType(Class<T> type) {
-    unloadCodeType(type);
-    // do NOT call reload on the backend service, clients can not reload codes,
-    // they can just refresh their local cache
-    // In order to reload a code, the call to reload has to be placed on the
-    // server
-    T instance = getRemoteService().getCodeType(type);
-    ServiceState state = getServiceState();
-    synchronized (state.m_cacheLock) {
-      if (instance != null) {
-        state.m_cache.put(type, instance);
-      }
-    }
-    return instance;
+    return (T) reloadCodeTypes(type)[0];
   }
 
   @Override
@@ -314,12 +412,18 @@ public class CodeServiceClientProxy extends AbstractService implements ICodeServ
     // they can just refresh their local cache
     // In order to reload a code, the call to reload has to be placed on the
     // server
-    ICodeType[] instances = getRemoteService().getCodeTypes(types);
     ServiceState state = getServiceState();
+    long generation;
     synchronized (state.m_cacheLock) {
-      for (int i = 0; i < types.length; i++) {
-        if (instances[i] != null) {
-          state.m_cache.put(types[i], instances[i]);
+      generation = state.m_generation;
+    }
+    ICodeType[] instances = loadCodeTypes(state, types, generation);
+    synchronized (state.m_cacheLock) {
+      if (generation == state.m_generation) {
+        for (int i = 0; i < types.length; i++) {
+          if (instances[i] != null) {
+            state.m_cache.put(types[i], instances[i]);
+          }
         }
       }
     }
@@ -380,7 +484,11 @@ public class CodeServiceClientProxy extends AbstractService implements ICodeServ
   private <T extends ICodeType> void unloadCodeType(Class<T> type) {
     ServiceState state = getServiceState();
     synchronized (state.m_cacheLock) {
+      state.m_generation++;
       state.m_cache.remove(type);
+      if (state.m_persistentCache != null && type != null) {
+        state.m_persistentCache.remove(type);
+      }
     }
   }
 
@@ -388,11 +496,25 @@ public class CodeServiceClientProxy extends AbstractService implements ICodeServ
     return ServiceTunnelUtility.createProxy(ICodeService.class, ClientSyncJob.getCurrentSession().getServiceTunnel());
   }
 
+  private ICodeTypeVersionService getRemoteVersionService() {
+    return ServiceTunnelUtility.createProxy(ICodeTypeVersionService.class, ClientSyncJob.getCurrentSession().getServiceTunnel());
+  }
+
   private static class ServiceState {
+    final PersistentCodeTypeCache m_persistentCache;
+    //
     final Object m_cacheLock = new Object();
     final HashMap<Class<? extends ICodeType>, ICodeType> m_cache = new HashMap<Class<? extends ICodeType>, ICodeType>();
+    /**
+     * incremented on every unload, guarded by m_cacheLock
+     */
+    long m_generation;
     //
     final Object m_codeTypeClassDescriptorMapLock = new Object();
     final HashMap<String, BundleClassDescriptor[]> m_codeTypeClassDescriptorMap = new HashMap<String, BundleClassDescriptor[]>();
+
+    ServiceState(PersistentCodeTypeCache persistentCache) {
+      m_persistentCache = persistentCache;
+    }
   }
 }
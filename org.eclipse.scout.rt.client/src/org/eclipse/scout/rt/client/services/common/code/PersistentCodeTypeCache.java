@@ -0,0 +1,142 @@
+/*******************************************************************************
+ * Copyright (c) 2013 BSI Business Systems Integration AG.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     BSI Business Systems Integration AG - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.scout.rt.client.services.common.code;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Locale;
+
+import org.eclipse.scout.commons.logger.IScoutLogger;
+import org.eclipse.scout.commons.logger.ScoutLogManager;
+import org.eclipse.scout.commons.serialization.SerializationUtility;
+import org.eclipse.scout.rt.shared.services.common.code.ICodeType;
+import org.eclipse.scout.rt.shared.services.common.code.VersionedCodeType;
+
+/**
+ * On-disk cache of the code types of one partition and locale. Every code type is stored in its own file together with
+ * the version the server reported, see {@link org.eclipse.scout.rt.shared.services.common.code.ICodeTypeVersionService
+ * ICodeTypeVersionService}. Cached code types are only used after the server confirmed that their version is still
+ * current.
+ * <p>
+ * All io errors are logged and treated like a cache miss, a file that cannot be read (for example because the code type
+ * class changed) is deleted.
+ * 
+ * @since 3.9.0
+ */
+public class PersistentCodeTypeCache {
+  private static final IScoutLogger LOG = ScoutLogManager.getLogger(PersistentCodeTypeCache.class);
+  private static final String FILE_SUFFIX = ".ser";
+
+  private final File m_dir;
+
+  /**
+   * @param rootDir
+   *          the root directory of the code type cache
+   * @param partitionId
+   *          the partition or null
+   * @param locale
+   *          the locale or null
+   */
+  public PersistentCodeTypeCache(File rootDir, Long partitionId, Locale locale) {
+    m_dir = new File(rootDir, (partitionId != null ? "p" + partitionId : "default") + "_" + (locale != null ? locale.toString() : "default"));
+  }
+
+  public File getDirectory() {
+    return m_dir;
+  }
+
+  /**
+   * @return the cached code type and its version or null if the code type is not cached
+   */
+  public VersionedCodeType load(Class<? extends ICodeType> type) {
+    File f = getFile(type);
+    if (!f.isFile()) {
+      return null;
+    }
+    InputStream in = null;
+    try {
+      in = new BufferedInputStream(new FileInputStream(f));
+      Object[] entry = SerializationUtility.createObjectSerializer().deserialize(in, Object[].class);
+      if (entry != null && entry.length == 2 && entry[0] instanceof String && type.isInstance(entry[1])) {
+        return new VersionedCodeType((String) entry[0], (ICodeType) entry[1]);
+      }
+    }
+    catch (Throwable t) {
+      LOG.info("discarding cached code type " + type.getName() + ": " + t);
+    }
+    finally {
+      close(in);
+    }
+    f.delete();
+    return null;
+  }
+
+  public void store(Class<? extends ICodeType> type, String version, ICodeType codeType) {
+    if (version == null || codeType == null) {
+      remove(type);
+      return;
+    }
+    if (!m_dir.isDirectory() && !m_dir.mkdirs()) {
+      LOG.warn("cannot create code type cache directory " + m_dir);
+      return;
+    }
+    File f = getFile(type);
+    File tmp = null;
+    OutputStream out = null;
+    try {
+      // unique per call, concurrent stores of the same code type must not write into the same file
+      tmp = File.createTempFile(type.getName() + ".", ".tmp", m_dir);
+      out = new BufferedOutputStream(new FileOutputStream(tmp));
+      SerializationUtility.createObjectSerializer().serialize(out, new Object[]{version, codeType});
+      out.close();
+      out = null;
+      // replace the old file only after the new one was written completely
+      if ((f.exists() && !f.delete()) || !tmp.renameTo(f)) {
+        tmp.delete();
+      }
+    }
+    catch (Throwable t) {
+      LOG.warn("storing code type " + type.getName(), t);
+      close(out);
+      if (tmp != null) {
+        tmp.delete();
+      }
+    }
+  }
+
+  public void remove(Class<? extends ICodeType> type) {
+    File f = getFile(type);
+    if (f.exists() && !f.delete()) {
+      LOG.warn("cannot delete cached code type " + f);
+    }
+  }
+
+  private File getFile(Class<? extends ICodeType> type) {
+    return new File(m_dir, type.getName() + FILE_SUFFIX);
+  }
+
+  private static void close(Closeable c) {
+    if (c != null) {
+      try {
+        c.close();
+      }
+      catch (Throwable t) {
+        // nop
+      }
+    }
+  }
+}
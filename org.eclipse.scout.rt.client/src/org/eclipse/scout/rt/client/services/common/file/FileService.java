@@ -15,8 +15,8 @@ import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.FilenameFilter;
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.channels.FileChannel;
 import java.util.ArrayList;
 import java.util.Locale;
 
@@ -112,6 +112,32 @@ public class FileService extends AbstractService implements IFileService {
     return f;
   }
 
+  @Override
+  public void streamRemoteFile(String dir, String simpleName, OutputStream out) throws ProcessingException {
+    IRemoteFileService svc = SERVICES.getService(IRemoteFileService.class);
+    RemoteFile spec = new RemoteFile(dir, simpleName, null, 0L);
+    RemoteFile part = svc.getRemoteFilePart(spec, 0);
+    if (!part.exists()) {
+      throw new ProcessingException("remote file does not exist: " + spec.getPath());
+    }
+    try {
+      int counter = 0;
+      while (true) {
+        if (part.hasContent()) {
+          part.transferData(out);
+        }
+        if (!part.hasMoreParts()) {
+          break;
+        }
+        counter++;
+        part = svc.getRemoteFilePart(spec, counter);
+      }
+    }
+    catch (IOException e) {
+      throw new ProcessingException("error streaming remote file " + spec.getPath(), e);
+    }
+  }
+
   private String[][] getFiles(String folderBase, FilenameFilter filter, boolean useServerFolderStructureOnClient) throws ProcessingException {
     File path = getFileLocation(useServerFolderStructureOnClient ? folderBase : "", null, false);
     ArrayList<String> dirList = new ArrayList<String>();
@@ -198,17 +224,22 @@ public class FileService extends AbstractService implements IFileService {
             // put together
             counter = 0;
             f = getFileLocation(fileDirectory, spec.getName(), false);
-            OutputStream out = new FileOutputStream(f);
+            FileOutputStream out = new FileOutputStream(f);
+            FileChannel outChannel = out.getChannel();
             part = getFileLocation(fileDirectory, spec.getName() + "." + counter, false);
             while (part.exists()) {
-              InputStream in = new FileInputStream(part);
-              byte[] buf = new byte[102400];
-              int len;
-              while ((len = in.read(buf)) > 0) {
-                out.write(buf, 0, len);
+              FileInputStream in = new FileInputStream(part);
+              try {
+                FileChannel inChannel = in.getChannel();
+                long pos = 0;
+                long size = inChannel.size();
+                while (pos < size) {
+                  pos += inChannel.transferTo(pos, size - pos, outChannel);
+                }
+              }
+              finally {
+                in.close();
               }
-              out.flush();
-              in.close();
               part.delete();
               counter++;
               part = getFileLocation(fileDirectory, spec.getName() + "." + counter, false);
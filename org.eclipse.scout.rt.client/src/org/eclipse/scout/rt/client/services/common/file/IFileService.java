@@ -12,6 +12,7 @@ package org.eclipse.scout.rt.client.services.common.file;
 
 import java.io.File;
 import java.io.FilenameFilter;
+import java.io.OutputStream;
 import java.util.Locale;
 
 import org.eclipse.scout.commons.annotations.Priority;
@@ -50,6 +51,14 @@ public interface IFileService extends IService {
    */
   File getRemoteFile(String dir, String simpleName, Locale locale, boolean checkCache) throws ProcessingException;
 
+  /**
+   * Streams the remote file block by block into the output stream without storing it in the local file store. Only
+   * one block is held in memory at a time. The output stream is not closed.
+   *
+   * @since 3.9.0
+   */
+  void streamRemoteFile(String dir, String simpleName, OutputStream out) throws ProcessingException;
+
   /**
    * @since 21.10.2009
    */
@@ -11,10 +11,8 @@
 package org.eclipse.scout.rt.client.services.common.security;
 
 import java.lang.reflect.Method;
-import java.security.AllPermission;
 import java.security.Permission;
 import java.security.Permissions;
-import java.util.Enumeration;
 import java.util.List;
 
 import org.eclipse.scout.commons.TTLCache;
@@ -30,6 +28,7 @@ import org.eclipse.scout.rt.client.services.common.clientnotification.IClientNot
 import org.eclipse.scout.rt.client.servicetunnel.ServiceTunnelUtility;
 import org.eclipse.scout.rt.shared.security.BasicHierarchyPermission;
 import org.eclipse.scout.rt.shared.security.FineGrainedAccessCheckRequiredException;
+import org.eclipse.scout.rt.shared.security.PermissionIndex;
 import org.eclipse.scout.rt.shared.services.common.security.AccessControlChangedNotification;
 import org.eclipse.scout.rt.shared.services.common.security.IAccessControlService;
 import org.eclipse.scout.rt.shared.services.common.security.ResetAccessControlChangedNotification;
@@ -74,7 +73,7 @@ public class AccessControlServiceClientProxy extends AbstractService implements
         if (e.getClientNotification().getClass() == AccessControlChangedNotification.class) {
           ServiceState state = getServiceState();
           synchronized (state.m_cacheLock) {
-            state.m_permissions = ((AccessControlChangedNotification) e.getClientNotification()).getPermissions();
+            state.setPermissions(((AccessControlChangedNotification) e.getClientNotification()).getPermissions());
           }
         }
         else if (e.getClientNotification().getClass() == ResetAccessControlChangedNotification.class) {
@@ -91,14 +90,15 @@ public class AccessControlServiceClientProxy extends AbstractService implements
     if (p == null) {
       return true;
     }
-    if (state.m_permissions == null) {
+    PermissionIndex index = state.m_permissionIndex;
+    if (index == null) {
       return true;
     }
     else {
       Boolean b = state.m_checkPermissionCache.get(p.getName());
       if (b == null) {
         try {
-          b = state.m_permissions.implies(p);
+          b = index.implies(p);
         }
         catch (FineGrainedAccessCheckRequiredException e) {
           // must be checked online
@@ -126,33 +126,13 @@ public class AccessControlServiceClientProxy extends AbstractService implements
       }
     }
     BasicHierarchyPermission hp = (BasicHierarchyPermission) p;
-    if (state.m_permissions == null) {
+    PermissionIndex index = state.m_permissionIndex;
+    if (index == null) {
       List<Integer> levels = hp.getValidLevels();
       return levels.get(levels.size() - 1);
     }
     else {
-      int maxLevel = BasicHierarchyPermission.LEVEL_UNDEFINED;
-      Enumeration<Permission> en = state.m_permissions.elements();
-      while (en.hasMoreElements()) {
-        Permission grantedPermission = en.nextElement();
-
-        // catch AllPermission
-        if (grantedPermission instanceof AllPermission) {
-          return BasicHierarchyPermission.LEVEL_ALL;
-        }
-
-        // process basic hierarchy permissions
-        if (grantedPermission instanceof BasicHierarchyPermission) {
-          BasicHierarchyPermission hgrantedPermission = (BasicHierarchyPermission) grantedPermission;
-          if (hgrantedPermission.getClass().isAssignableFrom(hp.getClass())) {
-            maxLevel = Math.max(maxLevel, hgrantedPermission.getLevel());
-            if (maxLevel >= BasicHierarchyPermission.LEVEL_ALL) {
-              break;
-            }
-          }
-        }
-      }
-      return maxLevel;
+      return index.getPermissionLevel(hp);
     }
   }
 
@@ -169,7 +149,7 @@ public class AccessControlServiceClientProxy extends AbstractService implements
         // clear cache
         state.m_checkPermissionCache = new TTLCache<String, Boolean>(BasicHierarchyPermission.getCacheTimeoutMillis());
         // load permissions from backend
-        state.m_permissions = getRemoteService().getPermissions();
+        state.setPermissions(getRemoteService().getPermissions());
       }
     }
   }
@@ -188,7 +168,7 @@ public class AccessControlServiceClientProxy extends AbstractService implements
   public void clearCache() {
     ServiceState state = getServiceState();
     synchronized (state.m_cacheLock) {
-      state.m_permissions = null;
+      state.setPermissions(null);
     }
   }
 
@@ -223,8 +203,14 @@ public class AccessControlServiceClientProxy extends AbstractService implements
   private static class ServiceState {
     final Object m_cacheLock = new Object();
     // permissions cache
-    Permissions m_permissions;
+    volatile Permissions m_permissions;
+    volatile PermissionIndex m_permissionIndex;
     // query cache
     TTLCache<String, Boolean> m_checkPermissionCache = new TTLCache<String, Boolean>();
+
+    void setPermissions(Permissions permissions) {
+      m_permissionIndex = (permissions != null ? new PermissionIndex(permissions) : null);
+      m_permissions = permissions;
+    }
   }
 }
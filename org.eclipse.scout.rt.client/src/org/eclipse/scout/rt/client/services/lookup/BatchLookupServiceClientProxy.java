@@ -18,9 +18,12 @@ import org.eclipse.scout.rt.shared.services.lookup.BatchLookupCall;
 import org.eclipse.scout.rt.shared.services.lookup.BatchLookupNormalizer;
 import org.eclipse.scout.rt.shared.services.lookup.BatchLookupResultCache;
 import org.eclipse.scout.rt.shared.services.lookup.IBatchLookupService;
+import org.eclipse.scout.rt.shared.services.lookup.ILookupCallResultCacheService;
+import org.eclipse.scout.rt.shared.services.lookup.LocalLookupCall;
 import org.eclipse.scout.rt.shared.services.lookup.LookupCall;
 import org.eclipse.scout.rt.shared.services.lookup.LookupRow;
 import org.eclipse.scout.service.AbstractService;
+import org.eclipse.scout.service.SERVICES;
 
 @Priority(-3)
 public class BatchLookupServiceClientProxy extends AbstractService implements IBatchLookupService {
@@ -37,7 +40,24 @@ public class BatchLookupServiceClientProxy extends AbstractService implements IB
         allCalls[i] = null;
       }
     }
-    BatchSplit split = new BatchSplit(allCalls);
+    // remote calls with result cache are answered by the cache if possible, only the misses are loaded
+    ILookupCallResultCacheService resultCache = SERVICES.getService(ILookupCallResultCacheService.class);
+    LookupRow[][] cachedResults = new LookupRow[allCalls.length][];
+    boolean[] resultCacheMiss = new boolean[allCalls.length];
+    LookupCall[] missingCalls = new LookupCall[allCalls.length];
+    for (int i = 0; i < allCalls.length; i++) {
+      missingCalls[i] = allCalls[i];
+      if (resultCache != null && allCalls[i] != null && !(allCalls[i] instanceof LocalLookupCall) && allCalls[i].isResultCacheEnabled()) {
+        cachedResults[i] = resultCache.getCachedDataByKey(allCalls[i]);
+        if (cachedResults[i] != null) {
+          missingCalls[i] = null;
+        }
+        else {
+          resultCacheMiss[i] = true;
+        }
+      }
+    }
+    BatchSplit split = new BatchSplit(missingCalls);
     if (split.getLocalCallCount() > 0) {
       BatchLookupResultCache cache = new BatchLookupResultCache();
       LookupCall[] calls = split.getLocalCalls();
@@ -55,6 +75,14 @@ public class BatchLookupServiceClientProxy extends AbstractService implements IB
       split.setRemoteResults(resultArray);
     }
     LookupRow[][] results = split.getCombinedResults();
+    for (int i = 0; i < results.length; i++) {
+      if (cachedResults[i] != null) {
+        results[i] = cachedResults[i];
+      }
+      else if (resultCacheMiss[i] && results[i] != null) {
+        resultCache.putDataByKey(allCalls[i], results[i]);
+      }
+    }
     //set null results to LookupRow[0]
     for (int i = 0; i < results.length; i++) {
       if (results[i] == null) {
@@ -121,7 +149,10 @@ public class BatchLookupServiceClientProxy extends AbstractService implements IB
     return split.getCombinedResults();
   }
 
-  private IBatchLookupService getTargetService() {
+  /**
+   * @return the remote batch lookup service
+   */
+  protected IBatchLookupService getTargetService() {
     return ServiceTunnelUtility.createProxy(IBatchLookupService.class, ClientSyncJob.getCurrentSession().getServiceTunnel());
   }
 
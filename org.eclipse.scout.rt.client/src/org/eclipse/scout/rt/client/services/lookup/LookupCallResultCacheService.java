@@ -0,0 +1,321 @@
+/*******************************************************************************
+ * Copyright (c) 2013 BSI Business Systems Integration AG.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     BSI Business Systems Integration AG - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.scout.rt.client.services.lookup;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.scout.commons.annotations.Priority;
+import org.eclipse.scout.commons.exception.ProcessingException;
+import org.eclipse.scout.commons.logger.IScoutLogger;
+import org.eclipse.scout.commons.logger.ScoutLogManager;
+import org.eclipse.scout.commons.serialization.IObjectSerializer;
+import org.eclipse.scout.commons.serialization.SerializationUtility;
+import org.eclipse.scout.rt.client.ClientJob;
+import org.eclipse.scout.rt.client.ClientSyncJob;
+import org.eclipse.scout.rt.client.IClientSession;
+import org.eclipse.scout.rt.client.services.common.clientnotification.ClientNotificationConsumerEvent;
+import org.eclipse.scout.rt.client.services.common.clientnotification.IClientNotificationConsumerListener;
+import org.eclipse.scout.rt.client.services.common.clientnotification.IClientNotificationConsumerService;
+import org.eclipse.scout.rt.shared.services.lookup.BatchLookupResultCache;
+import org.eclipse.scout.rt.shared.services.lookup.ILookupCallResultCacheService;
+import org.eclipse.scout.rt.shared.services.lookup.ILookupService;
+import org.eclipse.scout.rt.shared.services.lookup.LookupCall;
+import org.eclipse.scout.rt.shared.services.lookup.LookupChangedNotification;
+import org.eclipse.scout.rt.shared.services.lookup.LookupRow;
+import org.eclipse.scout.service.AbstractService;
+import org.eclipse.scout.service.SERVICES;
+
+/**
+ * Keeps the lookup results per client session in a bounded LRU cache. The bounds can be set in the config.ini, for
+ * example <code>org.eclipse.scout.rt.client.services.lookup.LookupCallResultCacheService#timeToLive=60000</code>:
+ * <ul>
+ * <li>timeToLive: milliseconds a result is used, default 5 minutes</li>
+ * <li>maxEntries: number of cached results per session, default 1000</li>
+ * <li>maxRows: number of cached lookup rows per session, default 10000, bounds the memory used by results of "all"
+ * lookups</li>
+ * </ul>
+ * The remote lookup is made without holding a lock. A {@link LookupChangedNotification} removes the results of the
+ * lookup services it names. Lookup rows are mutable, therefore the cache keeps its own copies and every caller gets
+ * new copies.
+ * 
+ * @since 3.9.0
+ */
+@Priority(-1)
+public class LookupCallResultCacheService extends AbstractService implements ILookupCallResultCacheService {
+  private static final IScoutLogger LOG = ScoutLogManager.getLogger(LookupCallResultCacheService.class);
+  private static final String SESSION_DATA_KEY = LookupCallResultCacheService.class.getName();
+
+  private final Object m_sessionCacheLock = new Object();
+  private long m_timeToLive = 300000L;
+  private int m_maxEntries = 1000;
+  private int m_maxRows = 10000;
+
+  public LookupCallResultCacheService() {
+  }
+
+  @SuppressWarnings("deprecation")
+  @Override
+  public void initializeService() {
+    super.initializeService();
+    // add client notification listener
+    SERVICES.getService(IClientNotificationConsumerService.class).addGlobalClientNotificationConsumerListener(new IClientNotificationConsumerListener() {
+      @Override
+      public void handleEvent(final ClientNotificationConsumerEvent e, boolean sync) {
+        if (e.getClientNotification().getClass() == LookupChangedNotification.class) {
+          if (sync) {
+            try {
+              invalidate(((LookupChangedNotification) e.getClientNotification()).getLookupServices());
+            }
+            catch (Throwable t) {
+              LOG.error("update due to client notification", t);
+              // nop
+            }
+          }
+          else {
+            new ClientSyncJob("Invalidate lookup results", ClientSyncJob.getCurrentSession()) {
+              @Override
+              protected void runVoid(IProgressMonitor monitor) throws Throwable {
+                invalidate(((LookupChangedNotification) e.getClientNotification()).getLookupServices());
+              }
+            }.schedule();
+          }
+        }
+      }
+    });
+  }
+
+  public long getTimeToLive() {
+    return m_timeToLive;
+  }
+
+  public void setTimeToLive(long timeToLive) {
+    m_timeToLive = timeToLive;
+  }
+
+  public int getMaxEntries() {
+    return m_maxEntries;
+  }
+
+  public void setMaxEntries(int maxEntries) {
+    m_maxEntries = maxEntries;
+  }
+
+  public int getMaxRows() {
+    return m_maxRows;
+  }
+
+  public void setMaxRows(int maxRows) {
+    m_maxRows = maxRows;
+  }
+
+  @Override
+  public LookupRow[] getDataByKey(LookupCall call) throws ProcessingException {
+    return getData(call, false);
+  }
+
+  @Override
+  public LookupRow[] getDataByAll(LookupCall call) throws ProcessingException {
+    return getData(call, true);
+  }
+
+  @Override
+  public LookupRow[] getCachedDataByKey(LookupCall call) throws ProcessingException {
+    P_SessionCache cache = (BatchLookupResultCache.isCacheable(call.getClass()) ? getSessionCache(false) : null);
+    if (cache == null) {
+      return null;
+    }
+    LookupRow[] rows = cache.get(new P_CacheKey(false, call));
+    return rows != null ? copyRows(rows) : null;
+  }
+
+  @Override
+  public void putDataByKey(LookupCall call, LookupRow[] rows) throws ProcessingException {
+    P_SessionCache cache = (BatchLookupResultCache.isCacheable(call.getClass()) ? getSessionCache(true) : null);
+    if (cache == null || rows == null) {
+      return;
+    }
+    cache.put(new P_CacheKey(false, (LookupCall) call.clone()), call.getLookupService(), copyRows(rows), getTimeToLive(), getMaxEntries(), getMaxRows());
+  }
+
+  @Override
+  public void invalidate(Class<? extends ILookupService>... lookupServices) {
+    P_SessionCache cache = getSessionCache(false);
+    if (cache != null) {
+      cache.invalidate(lookupServices);
+    }
+  }
+
+  private LookupRow[] getData(LookupCall call, boolean byAll) throws ProcessingException {
+    ILookupService service = call.getLookupService();
+    P_SessionCache cache = (BatchLookupResultCache.isCacheable(call.getClass()) ? getSessionCache(true) : null);
+    if (cache == null) {
+      return byAll ? service.getDataByAll(call) : service.getDataByKey(call);
+    }
+    // the call is mutable, the cache keeps a copy
+    P_CacheKey key = new P_CacheKey(byAll, (LookupCall) call.clone());
+    LookupRow[] rows = cache.get(key);
+    if (rows != null) {
+      return copyRows(rows);
+    }
+    rows = byAll ? service.getDataByAll(call) : service.getDataByKey(call);
+    if (rows != null) {
+      cache.put(key, service, copyRows(rows), getTimeToLive(), getMaxEntries(), getMaxRows());
+    }
+    return rows;
+  }
+
+  private static LookupRow[] copyRows(LookupRow[] rows) throws ProcessingException {
+    LookupRow[] copy = new LookupRow[rows.length];
+    for (int i = 0; i < rows.length; i++) {
+      copy[i] = copyRow(rows[i]);
+    }
+    return copy;
+  }
+
+  private static LookupRow copyRow(LookupRow row) throws ProcessingException {
+    if (row == null) {
+      return null;
+    }
+    if (row.getClass() == LookupRow.class) {
+      return new LookupRow(row.getKey(), row.getText(), row.getIconId(), row.getTooltipText(), row.getBackgroundColor(), row.getForegroundColor(), row.getFont(), row.isEnabled(), row.getParentKey(), row.isActive());
+    }
+    // subclasses may have additional members
+    try {
+      IObjectSerializer serializer = SerializationUtility.createObjectSerializer();
+      return serializer.deserialize(serializer.serialize(row), LookupRow.class);
+    }
+    catch (Exception e) {
+      throw new ProcessingException("copying lookup row " + row, e);
+    }
+  }
+
+  private P_SessionCache getSessionCache(boolean create) {
+    IClientSession session = ClientJob.getCurrentSession();
+    if (session == null) {
+      return null;
+    }
+    synchronized (m_sessionCacheLock) {
+      P_SessionCache cache = (P_SessionCache) session.getData(SESSION_DATA_KEY);
+      if (cache == null && create) {
+        cache = new P_SessionCache();
+        session.setData(SESSION_DATA_KEY, cache);
+      }
+      return cache;
+    }
+  }
+
+  static class P_CacheKey {
+    private final boolean m_byAll;
+    private final LookupCall m_call;
+
+    public P_CacheKey(boolean byAll, LookupCall call) {
+      m_byAll = byAll;
+      m_call = call;
+    }
+
+    @Override
+    public int hashCode() {
+      return m_call.hashCode() ^ (m_byAll ? 1 : 0);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (!(obj instanceof P_CacheKey)) {
+        return false;
+      }
+      P_CacheKey other = (P_CacheKey) obj;
+      return m_byAll == other.m_byAll && m_call.equals(other.m_call);
+    }
+  }
+
+  private static class P_CacheEntry {
+    private final ILookupService m_service;
+    private final LookupRow[] m_rows;
+    private final long m_expiryTime;
+
+    public P_CacheEntry(ILookupService service, LookupRow[] rows, long expiryTime) {
+      m_service = service;
+      m_rows = rows;
+      m_expiryTime = expiryTime;
+    }
+  }
+
+  /**
+   * LRU cache of one session, bounded by the number of entries and the total number of rows
+   */
+  static class P_SessionCache {
+    private final LinkedHashMap<P_CacheKey, P_CacheEntry> m_entries = new LinkedHashMap<P_CacheKey, P_CacheEntry>(16, 0.75f, true);
+    private int m_rowCount;
+
+    public synchronized LookupRow[] get(P_CacheKey key) {
+      P_CacheEntry e = m_entries.get(key);
+      if (e == null) {
+        return null;
+      }
+      if (e.m_expiryTime <= System.currentTimeMillis()) {
+        remove(key);
+        return null;
+      }
+      return e.m_rows;
+    }
+
+    public synchronized void put(P_CacheKey key, ILookupService service, LookupRow[] rows, long timeToLive, int maxEntries, int maxRows) {
+      if (timeToLive <= 0 || rows.length > maxRows) {
+        return;
+      }
+      remove(key);
+      m_entries.put(key, new P_CacheEntry(service, rows, System.currentTimeMillis() + timeToLive));
+      m_rowCount += rows.length;
+      // evict the least recently used entries
+      Iterator<Map.Entry<P_CacheKey, P_CacheEntry>> it = m_entries.entrySet().iterator();
+      while ((m_entries.size() > maxEntries || m_rowCount > maxRows) && it.hasNext()) {
+        m_rowCount -= it.next().getValue().m_rows.length;
+        it.remove();
+      }
+    }
+
+    public synchronized void invalidate(Class<? extends ILookupService>[] lookupServices) {
+      if (lookupServices == null || lookupServices.length == 0) {
+        m_entries.clear();
+        m_rowCount = 0;
+        return;
+      }
+      for (Iterator<P_CacheEntry> it = m_entries.values().iterator(); it.hasNext();) {
+        P_CacheEntry e = it.next();
+        for (Class<? extends ILookupService> c : lookupServices) {
+          if (c != null && c.isInstance(e.m_service)) {
+            m_rowCount -= e.m_rows.length;
+            it.remove();
+            break;
+          }
+        }
+      }
+    }
+
+    public synchronized int size() {
+      return m_entries.size();
+    }
+
+    public synchronized int getRowCount() {
+      return m_rowCount;
+    }
+
+    private void remove(P_CacheKey key) {
+      P_CacheEntry e = m_entries.remove(key);
+      if (e != null) {
+        m_rowCount -= e.m_rows.length;
+      }
+    }
+  }
+}
@@ -129,7 +129,8 @@ public class HttpServiceTunnel extends InternalHttpServiceTunnel {
   /**
    * Override this method to decide when background jobs to the backend should be presented to the user or not (for
    * cancelling)
-   * The default makes all jobs cancellable except IPingService (used for client notification polling)
+   * The default makes all jobs cancellable except IPingService and IClientNotificationLongPollingService (used for
+   * client notification polling)
    */
   @Override
   protected void decorateBackgroundJob(ServiceTunnelRequest call, Job backgroundJob) {
@@ -0,0 +1,107 @@
+/*******************************************************************************
+ * Copyright (c) 2013 BSI Business Systems Integration AG.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     BSI Business Systems Integration AG - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.scout.rt.client.servicetunnel.http.internal;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.scout.commons.logger.IScoutLogger;
+import org.eclipse.scout.commons.logger.ScoutLogManager;
+import org.eclipse.scout.rt.client.ClientAsyncJob;
+import org.eclipse.scout.rt.client.IClientSession;
+import org.eclipse.scout.rt.client.services.common.clientnotification.IClientNotificationConsumerService;
+import org.eclipse.scout.rt.shared.services.common.clientnotification.IClientNotification;
+import org.eclipse.scout.rt.shared.services.common.clientnotification.IClientNotificationLongPollingService;
+import org.eclipse.scout.service.SERVICES;
+
+/**
+ * Fetches client notifications using {@link IClientNotificationLongPollingService}. The job is rescheduled
+ * immediately after each answer of the server. If the call fails, the tunnel is told to fall back to the
+ * {@link ClientNotificationPollingJob}. Without a tunnel the job waits for the poll interval before trying again.
+ *
+ * @since 3.9.0
+ */
+public class ClientNotificationLongPollingJob extends ClientAsyncJob {
+  private static final IScoutLogger LOG = ScoutLogManager.getLogger(ClientNotificationLongPollingJob.class);
+
+  /**
+   * Wait time requested from the server, short enough not to be cut by common proxy idle timeouts
+   */
+  public static final long DEFAULT_WAIT_TIMEOUT = 30000L;
+
+  private final InternalHttpServiceTunnel m_tunnel;
+  private long m_pollInterval;
+  private long m_waitTimeout;
+
+  public ClientNotificationLongPollingJob(IClientSession session, long pollInterval) {
+    this(session, pollInterval, null);
+  }
+
+  /**
+   * @param tunnel
+   *          the tunnel that is told when long polling fails, may be null
+   */
+  public ClientNotificationLongPollingJob(IClientSession session, long pollInterval, InternalHttpServiceTunnel tunnel) {
+    super("Client notification long polling", session, true);
+    m_tunnel = tunnel;
+    m_waitTimeout = DEFAULT_WAIT_TIMEOUT;
+    updatePollingValues(pollInterval);
+  }
+
+  public void updatePollingValues(long pollInterval) {
+    m_pollInterval = Math.max(1000L, pollInterval);
+  }
+
+  public long getWaitTimeout() {
+    return m_waitTimeout;
+  }
+
+  public void setWaitTimeout(long waitTimeout) {
+    m_waitTimeout = waitTimeout;
+  }
+
+  @Override
+  protected IStatus runStatus(IProgressMonitor monitor) {
+    boolean failed = false;
+    try {
+      IClientNotification[] notifications = waitForNotifications(m_waitTimeout);
+      if (notifications != null && notifications.length > 0) {
+        SERVICES.getService(IClientNotificationConsumerService.class).dispatchClientNotifications(notifications, getClientSession());
+      }
+    }
+    catch (Throwable t) {
+      failed = true;
+      if (LOG.isInfoEnabled()) {
+        LOG.info("long polling", t);
+      }
+    }
+    if (monitor.isCanceled()) {
+      return Status.CANCEL_STATUS;
+    }
+    else if (failed && m_tunnel != null) {
+      // the tunnel cancels this job and starts polling
+      m_tunnel.clientNotificationLongPollingFailed(this);
+      return Status.OK_STATUS;
+    }
+    else {
+      // re-schedule, after a failure wait as the polling job does
+      schedule(failed ? m_pollInterval : 0L);
+      return Status.OK_STATUS;
+    }
+  }
+
+  /**
+   * Waits on the server for the next client notifications
+   */
+  protected IClientNotification[] waitForNotifications(long waitTimeout) {
+    return SERVICES.getService(IClientNotificationLongPollingService.class).waitForNotifications(waitTimeout);
+  }
+}
@@ -23,6 +23,8 @@ import org.eclipse.scout.commons.logger.ScoutLogManager;
 import org.eclipse.scout.rt.client.Activator;
 import org.eclipse.scout.rt.client.ClientAsyncJob;
 import org.eclipse.scout.rt.client.servicetunnel.http.HttpServiceTunnel;
+import org.eclipse.scout.rt.shared.services.common.clientnotification.IClientNotificationLongPollingService;
+import org.eclipse.scout.rt.shared.servicetunnel.BinaryServiceTunnelContentHandler;
 import org.eclipse.scout.rt.shared.servicetunnel.HttpException;
 import org.eclipse.scout.rt.shared.servicetunnel.ServiceTunnelRequest;
 import org.eclipse.scout.rt.shared.servicetunnel.ServiceTunnelResponse;
@@ -68,13 +70,21 @@ public class HttpBackgroundJob extends ClientAsyncJob {
       if (m_debug) {
         time1 = System.nanoTime();
       }
-      // build soap request
-      ByteArrayOutputStream msgout = new ByteArrayOutputStream();
-      m_tunnel.getContentHandler().writeRequest(msgout, m_req);
-      msgout.close();
-      byte[] callData = msgout.toByteArray();
-      // send
-      m_urlConn = m_tunnel.createURLConnection(m_req, callData);
+      long requestBytes = -1;
+      if (m_tunnel.isBinaryContentNegotiated()) {
+        // stream binary request
+        m_urlConn = m_tunnel.createBinaryURLConnection(m_req);
+      }
+      else {
+        // build soap request
+        ByteArrayOutputStream msgout = new ByteArrayOutputStream();
+        m_tunnel.getContentHandler().writeRequest(msgout, m_req);
+        msgout.close();
+        byte[] callData = msgout.toByteArray();
+        requestBytes = callData.length;
+        // send
+        m_urlConn = m_tunnel.createURLConnection(m_req, callData);
+      }
       // receive
       int code = (m_urlConn instanceof HttpURLConnection ? ((HttpURLConnection) m_urlConn).getResponseCode() : 200);
       m_tunnel.preprocessHttpRepsonse(m_urlConn, m_req, code);
@@ -85,15 +95,22 @@ public class HttpBackgroundJob extends ClientAsyncJob {
         m_res = new ServiceTunnelResponse(code, null, null, new HttpException(code));
         return Status.CANCEL_STATUS;
       }
+      m_tunnel.setClientNotificationLongPollingSupported("true".equals(m_urlConn.getHeaderField(IClientNotificationLongPollingService.HTTP_HEADER)));
       httpin = m_urlConn.getInputStream();
-      m_res = m_tunnel.getContentHandler().readResponse(httpin);
+      if (m_tunnel.getBinaryContentHandler() != null && BinaryServiceTunnelContentHandler.isBinaryContentType(m_urlConn.getContentType())) {
+        m_tunnel.setBinaryContentNegotiated(true);
+        m_res = m_tunnel.getBinaryContentHandler().readResponse(httpin);
+      }
+      else {
+        m_res = m_tunnel.getContentHandler().readResponse(httpin);
+      }
       httpin.close();
       httpin = null;
       if (m_debug) {
         time2 = System.nanoTime();
       }
       if (m_debug) {
-        LOG.debug("TIME " + m_req.getServiceInterfaceClassName() + "." + m_req.getOperation() + " " + (time2 - time1) / 1000000L + "ms " + callData.length + " bytes");
+        LOG.debug("TIME " + m_req.getServiceInterfaceClassName() + "." + m_req.getOperation() + " " + (time2 - time1) / 1000000L + "ms " + (requestBytes >= 0 ? requestBytes + " bytes" : "binary"));
       }
       return Status.OK_STATUS;
     }
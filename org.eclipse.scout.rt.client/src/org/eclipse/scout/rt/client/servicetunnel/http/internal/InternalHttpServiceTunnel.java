@@ -29,7 +29,9 @@ import org.eclipse.scout.rt.client.ClientJob;
 import org.eclipse.scout.rt.client.IClientSession;
 import org.eclipse.scout.rt.client.servicetunnel.AbstractServiceTunnel;
 import org.eclipse.scout.rt.shared.ScoutTexts;
+import org.eclipse.scout.rt.shared.services.common.clientnotification.IClientNotificationLongPollingService;
 import org.eclipse.scout.rt.shared.services.common.processing.IServerProcessingCancelService;
+import org.eclipse.scout.rt.shared.servicetunnel.BinaryServiceTunnelContentHandler;
 import org.eclipse.scout.rt.shared.servicetunnel.DefaultServiceTunnelContentHandler;
 import org.eclipse.scout.rt.shared.servicetunnel.IServiceTunnelContentHandler;
 import org.eclipse.scout.rt.shared.servicetunnel.ServiceTunnelRequest;
@@ -41,9 +43,18 @@ import org.eclipse.scout.rt.shared.servicetunnel.ServiceTunnelResponse;
 public class InternalHttpServiceTunnel extends AbstractServiceTunnel {
 
   private static final IScoutLogger LOG = ScoutLogManager.getLogger(InternalHttpServiceTunnel.class);
+  /**
+   * Time after a failed long polling call until long polling is tried again, meanwhile notifications are polled
+   */
+  private static final long LONG_POLLING_RETRY_INTERVAL = 300000L;
 
   private IServiceTunnelContentHandler m_contentHandler;
+  private IServiceTunnelContentHandler m_binaryContentHandler;
+  private volatile boolean m_binaryContentNegotiated;
+  private volatile boolean m_clientNotificationLongPollingSupported;
+  private volatile long m_clientNotificationLongPollingRetryTime;
   private ClientNotificationPollingJob m_pollingJob;
+  private ClientNotificationLongPollingJob m_longPollingJob;
   private final Object m_pollingJobLock = new Object();
 
   public InternalHttpServiceTunnel(IClientSession session, String url) throws ProcessingException {
@@ -96,24 +107,53 @@ public class InternalHttpServiceTunnel extends AbstractServiceTunnel {
    *           {@link #addCustomHeaders(URLConnection, String)}
    */
   protected URLConnection createURLConnection(ServiceTunnelRequest call, byte[] callData) throws IOException {
+    URLConnection urlConn = openURLConnection("text/xml");
+    OutputStream httpOut = urlConn.getOutputStream();
+    httpOut.write(callData);
+    httpOut.close();
+    httpOut = null;
+    return urlConn;
+  }
+
+  /**
+   * Create url connection and stream the call directly into the post data using the
+   * {@link #getBinaryContentHandler() binary content handler}. This is used as soon as the server answered with
+   * {@link BinaryServiceTunnelContentHandler#CONTENT_TYPE}.
+   * <p>
+   * override this method to customize the creation of the {@link URLConnection} see
+   * {@link #addCustomHeaders(URLConnection, String)}
+   * 
+   * @since 3.9.0
+   */
+  protected URLConnection createBinaryURLConnection(ServiceTunnelRequest call) throws Exception {
+    URLConnection urlConn = openURLConnection(BinaryServiceTunnelContentHandler.CONTENT_TYPE);
+    OutputStream httpOut = urlConn.getOutputStream();
+    try {
+      getBinaryContentHandler().writeRequest(httpOut, call);
+    }
+    finally {
+      httpOut.close();
+    }
+    return urlConn;
+  }
+
+  private URLConnection openURLConnection(String contentType) throws IOException {
     // fast check of dummy URL's
     if (getServerURL().getProtocol().startsWith("file")) {
       throw new IOException("File connection is not supporting HTTP: " + getServerURL());
     }
     URLConnection urlConn;
-    // configure POST with text/xml
+    // configure POST with content type
     urlConn = getServerURL().openConnection();
-    String contentType = "text/xml";
     urlConn.setRequestProperty("Content-type", contentType);
+    if (getBinaryContentHandler() != null) {
+      urlConn.setRequestProperty("Accept", BinaryServiceTunnelContentHandler.CONTENT_TYPE + ", text/xml");
+    }
     urlConn.setDoOutput(true);
     urlConn.setDoInput(true);
     urlConn.setDefaultUseCaches(false);
     urlConn.setUseCaches(false);
     addCustomHeaders(urlConn, "POST");
-    OutputStream httpOut = urlConn.getOutputStream();
-    httpOut.write(callData);
-    httpOut.close();
-    httpOut = null;
     return urlConn;
   }
 
@@ -124,13 +164,20 @@ public class InternalHttpServiceTunnel extends AbstractServiceTunnel {
   protected void addCustomHeaders(URLConnection urlConn, String method) throws IOException {
   }
 
+  /**
+   * Starts, updates or stops the job fetching client notifications. As soon as the server advertised
+   * {@link IClientNotificationLongPollingService} the {@link ClientNotificationLongPollingJob} replaces the
+   * {@link ClientNotificationPollingJob}. If long polling fails the polling job is used again for
+   * {@link #LONG_POLLING_RETRY_INTERVAL} milliseconds.
+   */
   private void updatePollingJobInternal() {
     synchronized (m_pollingJobLock) {
       long p = getClientNotificationPollInterval();
       boolean b = isAnalyzeNetworkLatency();
-      if (p > 0) {
+      boolean longPolling = p > 0 && isClientNotificationLongPollingSupported() && System.currentTimeMillis() >= m_clientNotificationLongPollingRetryTime;
+      if (p > 0 && !longPolling) {
         if (m_pollingJob == null) {
-          m_pollingJob = new ClientNotificationPollingJob(getClientSession(), p, b);
+          m_pollingJob = createClientNotificationPollingJob(p, b);
           m_pollingJob.schedule();
         }
         else {
@@ -143,6 +190,81 @@ public class InternalHttpServiceTunnel extends AbstractServiceTunnel {
           m_pollingJob = null;
         }
       }
+      if (longPolling) {
+        if (m_longPollingJob == null) {
+          m_longPollingJob = createClientNotificationLongPollingJob(p);
+          m_longPollingJob.schedule();
+        }
+        else {
+          m_longPollingJob.updatePollingValues(p);
+        }
+      }
+      else {
+        if (m_longPollingJob != null) {
+          m_longPollingJob.cancel();
+          m_longPollingJob = null;
+        }
+      }
+    }
+  }
+
+  /**
+   * @return true if the server advertised {@link IClientNotificationLongPollingService#HTTP_HEADER}
+   * @since 3.9.0
+   */
+  public boolean isClientNotificationLongPollingSupported() {
+    return m_clientNotificationLongPollingSupported;
+  }
+
+  void setClientNotificationLongPollingSupported(boolean b) {
+    boolean retry = b && m_clientNotificationLongPollingRetryTime > 0L && System.currentTimeMillis() >= m_clientNotificationLongPollingRetryTime;
+    if (retry) {
+      m_clientNotificationLongPollingRetryTime = 0L;
+    }
+    if (m_clientNotificationLongPollingSupported != b || retry) {
+      m_clientNotificationLongPollingSupported = b;
+      updatePollingJobInternal();
+    }
+  }
+
+  /**
+   * Called by the long polling job if waiting for notifications failed, for example because the connection was cut or
+   * the call was refused. Falls back to the polling job.
+   */
+  void clientNotificationLongPollingFailed(ClientNotificationLongPollingJob job) {
+    synchronized (m_pollingJobLock) {
+      if (job != m_longPollingJob) {
+        return;
+      }
+      LOG.info("long polling of client notifications failed, polling for the next " + (LONG_POLLING_RETRY_INTERVAL / 1000L) + " seconds");
+      m_clientNotificationLongPollingRetryTime = System.currentTimeMillis() + LONG_POLLING_RETRY_INTERVAL;
+      updatePollingJobInternal();
+    }
+  }
+
+  /**
+   * @since 3.9.0
+   */
+  protected ClientNotificationPollingJob createClientNotificationPollingJob(long pollInterval, boolean analyzeNetworkLatency) {
+    return new ClientNotificationPollingJob(getClientSession(), pollInterval, analyzeNetworkLatency);
+  }
+
+  /**
+   * @since 3.9.0
+   */
+  protected ClientNotificationLongPollingJob createClientNotificationLongPollingJob(long pollInterval) {
+    return new ClientNotificationLongPollingJob(getClientSession(), pollInterval, this);
+  }
+
+  ClientNotificationPollingJob getClientNotificationPollingJob() {
+    synchronized (m_pollingJobLock) {
+      return m_pollingJob;
+    }
+  }
+
+  ClientNotificationLongPollingJob getClientNotificationLongPollingJob() {
+    synchronized (m_pollingJobLock) {
+      return m_longPollingJob;
     }
   }
 
@@ -159,10 +281,48 @@ public class InternalHttpServiceTunnel extends AbstractServiceTunnel {
    * @param msgEncoder
    *          that can encode and decode a request / response to and from the
    *          binary stream. Default is the {@link DefaultServiceTunnelContentHandler} which handles soap
-   *          style messages
+   *          style messages. Any other handler disables the negotiation of binary content, use
+   *          {@link #setBinaryContentHandler(IServiceTunnelContentHandler)} afterwards to combine them explicitly.
    */
   public void setContentHandler(IServiceTunnelContentHandler e) {
     m_contentHandler = e;
+    if (m_binaryContentHandler != null && !BinaryServiceTunnelContentHandler.isEnabledFor(e)) {
+      // binary content would bypass the customized content handler
+      setBinaryContentHandler(null);
+    }
+  }
+
+  /**
+   * @return the content handler used once the server negotiated {@link BinaryServiceTunnelContentHandler#CONTENT_TYPE}
+   *         or null if binary content is disabled
+   * @since 3.9.0
+   */
+  public IServiceTunnelContentHandler getBinaryContentHandler() {
+    return m_binaryContentHandler;
+  }
+
+  /**
+   * @param e
+   *          the binary content handler, null disables the negotiation of binary content
+   * @since 3.9.0
+   */
+  public void setBinaryContentHandler(IServiceTunnelContentHandler e) {
+    m_binaryContentHandler = e;
+    if (e == null) {
+      m_binaryContentNegotiated = false;
+    }
+  }
+
+  /**
+   * @return true if the server answered with binary content and requests are therefore sent in binary format as well
+   * @since 3.9.0
+   */
+  public boolean isBinaryContentNegotiated() {
+    return m_binaryContentNegotiated && m_binaryContentHandler != null;
+  }
+
+  void setBinaryContentNegotiated(boolean b) {
+    m_binaryContentNegotiated = b;
   }
 
   @Override
@@ -171,6 +331,10 @@ public class InternalHttpServiceTunnel extends AbstractServiceTunnel {
       m_contentHandler = new DefaultServiceTunnelContentHandler();
       String[] bundleOrderPrefixes = SerializationUtility.getBundleOrderPrefixes();
       m_contentHandler.initialize(BundleInspector.getOrderedBundleList(bundleOrderPrefixes), getClientSession().getClass().getClassLoader());
+      if (m_binaryContentHandler == null && BinaryServiceTunnelContentHandler.isEnabledFor(m_contentHandler)) {
+        m_binaryContentHandler = new BinaryServiceTunnelContentHandler();
+        m_binaryContentHandler.initialize(BundleInspector.getOrderedBundleList(bundleOrderPrefixes), getClientSession().getClass().getClassLoader());
+      }
     }
     return super.invokeService(serviceInterfaceClass, operation, callerArgs);
   }
@@ -265,7 +429,8 @@ public class InternalHttpServiceTunnel extends AbstractServiceTunnel {
   /**
    * Override this method to decide when background jobs to the backend should be presented to the user or not (for
    * cancelling)
-   * The default makes all jobs cancellable except IPingService (used for client notification polling)
+   * The default makes all jobs cancellable except IPingService and IClientNotificationLongPollingService (used for
+   * client notification polling)
    */
   protected void decorateBackgroundJob(ServiceTunnelRequest call, Job backgroundJob) {
     backgroundJob.setUser(false);
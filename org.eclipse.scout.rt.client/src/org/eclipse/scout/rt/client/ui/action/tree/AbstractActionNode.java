@@ -37,9 +37,7 @@ public abstract class AbstractActionNode<T extends IActionNode> extends Abstract
    * Configuration
    */
   private Class<? extends IActionNode>[] getConfiguredChildActions() {
-    Class[] dca = ConfigurationUtility.getDeclaredPublicClasses(getClass());
-    Class<IActionNode>[] foca = ConfigurationUtility.sortFilteredClassesByOrderAnnotation(dca, IActionNode.class);
-    return ConfigurationUtility.removeReplacedClasses(foca);
+    return ConfigurationUtility.getOrderedInnerClasses(getClass(), IActionNode.class);
   }
 
   @Override
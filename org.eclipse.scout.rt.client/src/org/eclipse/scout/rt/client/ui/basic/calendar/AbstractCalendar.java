@@ -135,15 +135,11 @@ public abstract class AbstractCalendar extends AbstractPropertyObserver implemen
   }
 
   private Class<? extends ICalendarItemProvider>[] getConfiguredProducers() {
-    Class[] dca = ConfigurationUtility.getDeclaredPublicClasses(getClass());
-    Class<ICalendarItemProvider>[] foca = ConfigurationUtility.sortFilteredClassesByOrderAnnotation(dca, ICalendarItemProvider.class);
-    return ConfigurationUtility.removeReplacedClasses(foca);
+    return ConfigurationUtility.getOrderedInnerClasses(getClass(), ICalendarItemProvider.class);
   }
 
   private Class<? extends IMenu>[] getConfiguredMenus() {
-    Class[] dca = ConfigurationUtility.getDeclaredPublicClasses(getClass());
-    Class<IMenu>[] foca = ConfigurationUtility.sortFilteredClassesByOrderAnnotation(dca, IMenu.class);
-    return ConfigurationUtility.removeReplacedClasses(foca);
+    return ConfigurationUtility.getOrderedInnerClasses(getClass(), IMenu.class);
   }
 
   @ConfigOperation
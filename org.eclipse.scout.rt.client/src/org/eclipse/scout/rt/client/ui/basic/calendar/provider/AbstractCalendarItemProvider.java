@@ -88,9 +88,7 @@ public abstract class AbstractCalendarItemProvider extends AbstractPropertyObser
   }
 
   private Class<? extends IMenu>[] getConfiguredMenus() {
-    Class[] dca = ConfigurationUtility.getDeclaredPublicClasses(getClass());
-    Class<IMenu>[] foca = ConfigurationUtility.sortFilteredClassesByOrderAnnotation(dca, IMenu.class);
-    return ConfigurationUtility.removeReplacedClasses(foca);
+    return ConfigurationUtility.getOrderedInnerClasses(getClass(), IMenu.class);
   }
 
   /**
@@ -10,13 +10,17 @@
  ******************************************************************************/
 package org.eclipse.scout.rt.client.ui.basic.table;
 
+import java.lang.reflect.Array;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Date;
 import java.util.EventListener;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -136,6 +140,9 @@ public abstract class AbstractTable extends AbstractPropertyObserver implements
   //auto filter
   private final Object m_cachedFilteredRowsLock;
   private ITableRow[] m_cachedFilteredRows;
+  private ITableRow[] m_cachedFilteredRowIndexesSource;
+  private IdentityHashMap<ITableRow, Integer> m_cachedFilteredRowIndexes;
+  private final P_RowKeyIndex m_rowKeyIndex;
   private ITableColumnFilterManager m_columnFilterManager;
   private ITableCustomizer m_tableCustomizer;
   private IEventHistory<TableEvent> m_eventHistory;
@@ -155,6 +162,7 @@ public abstract class AbstractTable extends AbstractPropertyObserver implements
     m_cachedFilteredRowsLock = new Object();
     m_rows = Collections.synchronizedList(new ArrayList<ITableRow>(1));
     m_deletedRows = new HashMap<CompositeObject, ITableRow>();
+    m_rowKeyIndex = new P_RowKeyIndex();
     m_keyStrokeBuffer = new KeyStrokeBuffer(500L);
     m_rowFilters = new ArrayList<ITableRowFilter>(1);
     m_initLock = new OptimisticLock();
@@ -707,21 +715,15 @@ public abstract class AbstractTable extends AbstractPropertyObserver implements
   }
 
   private Class<? extends IMenu>[] getConfiguredMenus() {
-    Class[] dca = ConfigurationUtility.getDeclaredPublicClasses(getClass());
-    Class<IMenu>[] foca = ConfigurationUtility.sortFilteredClassesByOrderAnnotation(dca, IMenu.class);
-    return ConfigurationUtility.removeReplacedClasses(foca);
+    return ConfigurationUtility.getOrderedInnerClasses(getClass(), IMenu.class);
   }
 
   private Class<? extends IColumn>[] getConfiguredColumns() {
-    Class[] dca = ConfigurationUtility.getDeclaredPublicClasses(getClass());
-    Class<IColumn>[] foca = ConfigurationUtility.sortFilteredClassesByOrderAnnotation(dca, IColumn.class);
-    return ConfigurationUtility.removeReplacedClasses(foca);
+    return ConfigurationUtility.getOrderedInnerClasses(getClass(), IColumn.class);
   }
 
   private Class<? extends IKeyStroke>[] getConfiguredKeyStrokes() {
-    Class[] dca = ConfigurationUtility.getDeclaredPublicClasses(getClass());
-    Class<IKeyStroke>[] fca = ConfigurationUtility.filterClasses(dca, IKeyStroke.class);
-    return ConfigurationUtility.removeReplacedClasses(fca);
+    return ConfigurationUtility.getFilteredInnerClasses(getClass(), IKeyStroke.class);
   }
 
   protected void initConfig() {
@@ -900,6 +902,7 @@ public abstract class AbstractTable extends AbstractPropertyObserver implements
     ArrayList<IColumn> completeList = new ArrayList<IColumn>();
     completeList.addAll(colList);
     m_columnSet = new ColumnSet(this, completeList);
+    m_rowKeyIndex.invalidate();
     if (getConfiguredCheckableColumn() != null) {
       AbstractBooleanColumn checkableColumn = getColumnSet().getColumnByClass(getConfiguredCheckableColumn());
       setCheckableColumn(checkableColumn);
@@ -1760,17 +1763,17 @@ public abstract class AbstractTable extends AbstractPropertyObserver implements
     try {
       setTableChanging(true);
       //
-      ArrayList<CompositeObject> selectedKeys = new ArrayList<CompositeObject>();
+      HashSet<P_RowKey> selectedKeys = new HashSet<P_RowKey>();
       for (ITableRow r : getSelectedRows()) {
-        selectedKeys.add(new CompositeObject(getRowKeys(r)));
+        selectedKeys.add(new P_RowKey(getRowKeys(r)));
       }
       discardAllRows();
       addRows(newRows, false);
       // restore selection
       ArrayList<ITableRow> selectedRows = new ArrayList<ITableRow>();
       if (selectedKeys.size() > 0) {
-        for (ITableRow r : m_rows) {
-          if (selectedKeys.remove(new CompositeObject(getRowKeys(r)))) {
+        for (ITableRow r : getRows()) {
+          if (selectedKeys.remove(new P_RowKey(getRowKeys(r)))) {
             selectedRows.add(r);
             if (selectedKeys.size() == 0) {
               break;
@@ -1793,18 +1796,17 @@ public abstract class AbstractTable extends AbstractPropertyObserver implements
       int[] newToOld = new int[newRows.length];
       Arrays.fill(oldToNew, -1);
       Arrays.fill(newToOld, -1);
-      HashMap<CompositeObject, Integer> newRowIndexMap = new HashMap<CompositeObject, Integer>();
-      for (int i = newRows.length - 1; i >= 0; i--) {
-        newRowIndexMap.put(new CompositeObject(getRowKeys(newRows[i])), Integer.valueOf(i));
-      }
+      // match by the row key index, the first new row of a key is mapped to the first existing row of that key
       int mappedCount = 0;
-      for (int i = 0, ni = getRowCount(); i < ni; i++) {
-        ITableRow existingRow = m_rows.get(i);
-        Integer newIndex = newRowIndexMap.remove(new CompositeObject(getRowKeys(existingRow)));
-        if (newIndex != null) {
-          oldToNew[i] = newIndex.intValue();
-          newToOld[newIndex.intValue()] = i;
-          mappedCount++;
+      for (int i = 0; i < newRows.length; i++) {
+        ITableRow existingRow = m_rowKeyIndex.find(getRowKeys(newRows[i]));
+        if (existingRow != null) {
+          int oldIndex = existingRow.getRowIndex();
+          if (oldIndex >= 0 && oldIndex < oldToNew.length && oldToNew[oldIndex] < 0) {
+            oldToNew[oldIndex] = i;
+            newToOld[i] = oldIndex;
+            mappedCount++;
+          }
         }
       }
       ITableRow[] updatedRows = new ITableRow[mappedCount];
@@ -1913,6 +1915,7 @@ public abstract class AbstractTable extends AbstractPropertyObserver implements
         ITableRow resolvedRow = resolveRow(rows[i]);
         if (resolvedRow != null) {
           resolvedRowList.add(resolvedRow);
+          m_rowKeyIndex.rowUpdated(resolvedRow);
           updateRowImpl(resolvedRow);
         }
       }
@@ -2331,13 +2334,30 @@ public abstract class AbstractTable extends AbstractPropertyObserver implements
 
   @Override
   public int getFilteredRowIndex(ITableRow row) {
+    if (row == null) {
+      return -1;
+    }
     ITableRow[] filteredRows = getFilteredRows();
-    for (int i = 0; i < filteredRows.length; i++) {
-      if (filteredRows[i].equals(row)) {
+    if (m_rowFilters.size() == 0) {
+      // unfiltered, the row index is the filtered row index
+      int i = row.getRowIndex();
+      if (i >= 0 && i < filteredRows.length && filteredRows[i] == row) {
         return i;
       }
+      return -1;
+    }
+    synchronized (m_cachedFilteredRowsLock) {
+      if (m_cachedFilteredRowIndexes == null || m_cachedFilteredRowIndexesSource != filteredRows) {
+        IdentityHashMap<ITableRow, Integer> map = new IdentityHashMap<ITableRow, Integer>(filteredRows.length);
+        for (int i = 0; i < filteredRows.length; i++) {
+          map.put(filteredRows[i], Integer.valueOf(i));
+        }
+        m_cachedFilteredRowIndexes = map;
+        m_cachedFilteredRowIndexesSource = filteredRows;
+      }
+      Integer i = m_cachedFilteredRowIndexes.get(row);
+      return (i != null ? i.intValue() : -1);
     }
-    return -1;
   }
 
   @Override
@@ -2580,6 +2600,7 @@ public abstract class AbstractTable extends AbstractPropertyObserver implements
     newIRow.setRowIndex(newIndex);
     newIRow.setTableInternal(this);
     m_rows.add(newIRow);
+    m_rowKeyIndex.rowAdded(newIRow);
     enqueueDecorationTasks(newIRow);
     return newIRow;
   }
@@ -2632,6 +2653,7 @@ public abstract class AbstractTable extends AbstractPropertyObserver implements
       }
       ITableRow row = m_rows.remove(sourceIndex);
       m_rows.add(targetIndex, row);
+      m_rowKeyIndex.rowOrderChanged();
       // update row indexes
       int min = Math.min(sourceIndex, targetIndex);
       int max = Math.max(sourceIndex, targetIndex);
@@ -2705,6 +2727,7 @@ public abstract class AbstractTable extends AbstractPropertyObserver implements
           synchronized (m_cachedRowsLock) {
             m_cachedRows = null;
           }
+          m_rowKeyIndex.invalidate();
           for (int i = deletedRows.length - 1; i >= 0; i--) {
             ITableRow candidateRow = deletedRows[i];
             if (candidateRow != null) {
@@ -2713,19 +2736,34 @@ public abstract class AbstractTable extends AbstractPropertyObserver implements
           }
         }
         else {
-          for (int i = deletedRows.length - 1; i >= 0; i--) {
-            ITableRow candidateRow = deletedRows[i];
+          // remove in one pass over the rows, regardless if the row index is right
+          Set<ITableRow> candidateRows = Collections.newSetFromMap(new IdentityHashMap<ITableRow, Boolean>(deletedRows.length));
+          for (ITableRow candidateRow : deletedRows) {
             if (candidateRow != null) {
-              // delete regardless if index is right
-              boolean removed = m_rows.remove(candidateRow);
-              if (removed) {
-                synchronized (m_cachedRowsLock) {
-                  m_cachedRows = null;
-                }
-                deleteRowImpl(candidateRow);
+              candidateRows.add(candidateRow);
+            }
+          }
+          ArrayList<ITableRow> removedRows = new ArrayList<ITableRow>(candidateRows.size());
+          synchronized (m_cachedRowsLock) {
+            ArrayList<ITableRow> remainingRows = new ArrayList<ITableRow>(Math.max(existingRows.length - candidateRows.size(), 0));
+            for (ITableRow row : existingRows) {
+              if (candidateRows.remove(row)) {
+                removedRows.add(row);
               }
+              else {
+                remainingRows.add(row);
+              }
+            }
+            if (removedRows.size() > 0) {
+              m_cachedRows = null;
+              m_rows.clear();
+              m_rows.addAll(remainingRows);
             }
           }
+          m_rowKeyIndex.rowsRemoved(removedRows);
+          for (int i = removedRows.size() - 1; i >= 0; i--) {
+            deleteRowImpl(removedRows.get(i));
+          }
         }
         // get affected rows
         HashSet<ITableRow> selectionRows = new HashSet<ITableRow>(Arrays.asList(getSelectedRows()));
@@ -2878,13 +2916,19 @@ public abstract class AbstractTable extends AbstractPropertyObserver implements
     return keys;
   }
 
+  /**
+   * A complete key is looked up in the row key index, a partial key is matched against the rows in row order.
+   */
   @Override
   public ITableRow findRowByKey(Object[] keys) {
     IColumn<?>[] keyColumns = getColumnSet().getKeyColumns();
     if (keyColumns.length == 0) {
       keyColumns = getColumnSet().getColumns();
     }
-    for (ITableRow row : m_rows) {
+    if (keys != null && keys.length > 0 && keys.length == keyColumns.length) {
+      return m_rowKeyIndex.find(keys);
+    }
+    for (ITableRow row : getRows()) {
       boolean match = true;
       if (keys != null && keys.length > 0) {
         for (int i = 0; i < keyColumns.length && i < keys.length; i++) {
@@ -2901,6 +2945,21 @@ public abstract class AbstractTable extends AbstractPropertyObserver implements
     return null;
   }
 
+  @Override
+  public ITableRow[] findRowsByKeys(Object[][] keysArray) {
+    if (keysArray == null || keysArray.length == 0) {
+      return new ITableRow[0];
+    }
+    ArrayList<ITableRow> list = new ArrayList<ITableRow>(keysArray.length);
+    for (Object[] keys : keysArray) {
+      ITableRow row = findRowByKey(keys);
+      if (row != null) {
+        list.add(row);
+      }
+    }
+    return list.toArray(new ITableRow[list.size()]);
+  }
+
   @Override
   public ITableColumnFilterManager getColumnFilterManager() {
     return m_columnFilterManager;
@@ -2993,6 +3052,7 @@ public abstract class AbstractTable extends AbstractPropertyObserver implements
       m_rows.clear();
       m_rows.addAll(Arrays.asList(resolvedRows));
     }
+    m_rowKeyIndex.rowOrderChanged();
     //sort selection without firing an event
     if (m_selectedRows != null && m_selectedRows.size() > 0) {
       TreeSet<ITableRow> newSelection = new TreeSet<ITableRow>(new RowIndexComparator());
@@ -4422,6 +4482,156 @@ public abstract class AbstractTable extends AbstractPropertyObserver implements
 
   }
 
+  /**
+   * Key of a row, values are compared with {@link CompareUtility#equals(Object, Object)}, so a {@link java.sql.Timestamp}
+   * matches a {@link Date} of the same instant and arrays match by their elements. The hash code is computed from
+   * normalized values (dates by their time, arrays by their elements) to be consistent with that comparison.
+   */
+  private static final class P_RowKey {
+    private final Object[] m_keys;
+    private final int m_hash;
+
+    P_RowKey(Object[] keys) {
+      m_keys = keys;
+      m_hash = hashCodeOf(keys);
+    }
+
+    private static int hashCodeOf(Object o) {
+      if (o == null) {
+        return 0;
+      }
+      if (o instanceof Date) {
+        long t = ((Date) o).getTime();
+        return (int) (t ^ (t >>> 32));
+      }
+      if (o.getClass().isArray()) {
+        int h = 1;
+        for (int i = 0, n = Array.getLength(o); i < n; i++) {
+          h = 31 * h + hashCodeOf(Array.get(o, i));
+        }
+        return h;
+      }
+      return o.hashCode();
+    }
+
+    @Override
+    public int hashCode() {
+      return m_hash;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (obj == this) {
+        return true;
+      }
+      if (!(obj instanceof P_RowKey)) {
+        return false;
+      }
+      P_RowKey other = (P_RowKey) obj;
+      return m_hash == other.m_hash && CompareUtility.equals(m_keys, other.m_keys);
+    }
+  }
+
+  /**
+   * Index of the rows by their key. It is built on the first lookup and then maintained on add, update and delete.
+   * Order changes only matter if several rows have the same key, since then the first row in row order is found.
+   */
+  private class P_RowKeyIndex {
+    private HashMap<P_RowKey, ITableRow> m_rowByKey;
+    private IdentityHashMap<ITableRow, P_RowKey> m_keyByRow;
+    private boolean m_ambiguous;
+
+    synchronized ITableRow find(Object[] keys) {
+      if (m_rowByKey == null) {
+        ITableRow[] rows = getRows();
+        m_rowByKey = new HashMap<P_RowKey, ITableRow>(Math.max(16, rows.length * 4 / 3 + 1));
+        m_keyByRow = new IdentityHashMap<ITableRow, P_RowKey>(rows.length);
+        m_ambiguous = false;
+        for (ITableRow row : rows) {
+          addImpl(row);
+        }
+      }
+      return m_rowByKey.get(new P_RowKey(keys));
+    }
+
+    synchronized void rowAdded(ITableRow row) {
+      if (m_rowByKey != null) {
+        addImpl(row);
+      }
+    }
+
+    synchronized void rowUpdated(ITableRow row) {
+      if (m_rowByKey == null) {
+        return;
+      }
+      P_RowKey oldKey = m_keyByRow.get(row);
+      if (oldKey == null) {
+        return;
+      }
+      P_RowKey newKey = new P_RowKey(getRowKeys(row));
+      if (!newKey.equals(oldKey)) {
+        if (!removeImpl(row)) {
+          return;
+        }
+        if (m_rowByKey.get(newKey) != null) {
+          // the row order decides which of the rows is found
+          invalidate();
+          return;
+        }
+        addImpl(row);
+      }
+    }
+
+    synchronized void rowsRemoved(Collection<ITableRow> rows) {
+      if (m_rowByKey == null) {
+        return;
+      }
+      for (ITableRow row : rows) {
+        if (!removeImpl(row)) {
+          return;
+        }
+      }
+    }
+
+    synchronized void rowOrderChanged() {
+      if (m_ambiguous) {
+        invalidate();
+      }
+    }
+
+    synchronized void invalidate() {
+      m_rowByKey = null;
+      m_keyByRow = null;
+      m_ambiguous = false;
+    }
+
+    private void addImpl(ITableRow row) {
+      P_RowKey key = new P_RowKey(getRowKeys(row));
+      m_keyByRow.put(row, key);
+      if (m_rowByKey.get(key) == null) {
+        m_rowByKey.put(key, row);
+      }
+      else {
+        m_ambiguous = true;
+      }
+    }
+
+    /**
+     * @return false if the index was invalidated since another row with the same key may have to be indexed
+     */
+    private boolean removeImpl(ITableRow row) {
+      P_RowKey key = m_keyByRow.remove(row);
+      if (key != null && m_rowByKey.get(key) == row) {
+        m_rowByKey.remove(key);
+        if (m_ambiguous) {
+          invalidate();
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+
   private class P_TableListener extends TableAdapter {
     @Override
     public void tableChanged(TableEvent e) {
@@ -268,6 +268,14 @@ public interface ITable extends IPropertyObserver, IDNDSupport {
 
   ITableRow findRowByKey(Object[] keys);
 
+  /**
+   * Bulk variant of {@link #findRowByKey(Object[])}
+   *
+   * @return the rows of the keys in the order of the keys, keys without a row are skipped
+   * @since 3.9.0
+   */
+  ITableRow[] findRowsByKeys(Object[][] keysArray);
+
   /*
    * Service aspect
    */
@@ -198,9 +198,7 @@ public abstract class AbstractDesktop extends AbstractPropertyObserver implement
   }
 
   private Class<? extends IAction>[] getConfiguredActions() {
-    Class[] dca = ConfigurationUtility.getDeclaredPublicClasses(getClass());
-    Class<IAction>[] fca = ConfigurationUtility.filterClasses(dca, IAction.class);
-    return ConfigurationUtility.removeReplacedClasses(fca);
+    return ConfigurationUtility.getFilteredInnerClasses(getClass(), IAction.class);
   }
 
   /**
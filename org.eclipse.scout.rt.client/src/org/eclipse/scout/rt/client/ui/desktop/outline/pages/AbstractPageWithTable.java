@@ -14,6 +14,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.concurrent.atomic.AtomicReference;
 
+import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.scout.commons.ConfigurationUtility;
 import org.eclipse.scout.commons.annotations.ConfigOperation;
 import org.eclipse.scout.commons.annotations.ConfigProperty;
@@ -24,6 +25,7 @@ import org.eclipse.scout.commons.exception.ProcessingException;
 import org.eclipse.scout.commons.exception.ProcessingStatus;
 import org.eclipse.scout.commons.logger.IScoutLogger;
 import org.eclipse.scout.commons.logger.ScoutLogManager;
+import org.eclipse.scout.rt.client.ClientAsyncJob;
 import org.eclipse.scout.rt.client.ClientSyncJob;
 import org.eclipse.scout.rt.client.IMemoryPolicy;
 import org.eclipse.scout.rt.client.services.common.search.ISearchFilterService;
@@ -45,7 +47,9 @@ import org.eclipse.scout.rt.client.ui.form.IForm;
 import org.eclipse.scout.rt.shared.ContextMap;
 import org.eclipse.scout.rt.shared.ScoutTexts;
 import org.eclipse.scout.rt.shared.services.common.exceptionhandler.IExceptionHandlerService;
+import org.eclipse.scout.rt.shared.services.common.jdbc.ITableDataCursorService;
 import org.eclipse.scout.rt.shared.services.common.jdbc.SearchFilter;
+import org.eclipse.scout.rt.shared.services.common.jdbc.TableDataChunk;
 import org.eclipse.scout.service.SERVICES;
 
 /**
@@ -62,6 +66,9 @@ public abstract class AbstractPageWithTable<T extends ITable> extends AbstractPa
   private boolean m_searchActive;
   private boolean m_showEmptySpaceMenus;
   private boolean m_showTableRowMenus;
+  private boolean m_autoLoadMoreTableData;
+  private String m_tableDataCursorId;
+  private P_FetchTableDataChunkJob m_tableDataChunkJob;
   private final HashMap<ITableRow, IPage> m_tableRowToPageMap = new HashMap<ITableRow, IPage>();
   private final HashMap<IPage, ITableRow> m_pageToTableRowMap = new HashMap<IPage, ITableRow>();
 
@@ -193,6 +200,23 @@ public abstract class AbstractPageWithTable<T extends ITable> extends AbstractPa
     return true;
   }
 
+  /**
+   * Configures how the remaining rows of an incrementally loaded table are loaded, see
+   * {@link #execLoadTableDataChunk(SearchFilter)}.
+   * <p>
+   * Subclasses can override this method. Default is {@code true}.
+   * 
+   * @return {@code true} to load the next chunks in the background until the last one arrived, {@code false} to load
+   *         the next chunk only when {@link #loadMoreTableData()} is called
+   * @since 3.9.0
+   */
+  @ConfigProperty(ConfigProperty.BOOLEAN)
+  @Order(130)
+  @ConfigPropertyValue("true")
+  protected boolean getConfiguredAutoLoadMoreTableData() {
+    return true;
+  }
+
   /**
    * Fetches and returns tabular data to be displayed in this page's table.
    * Typically this method will query a (backend) service for the data. Make
@@ -215,6 +239,28 @@ public abstract class AbstractPageWithTable<T extends ITable> extends AbstractPa
     return null;
   }
 
+  /**
+   * Fetches the first chunk of the tabular data of an incrementally loaded table page. Typically this method calls a
+   * (backend) service that opens a server-side cursor (e.g. <code>TableDataCursor.open(...)</code>) and returns its
+   * first chunk. The first chunk replaces the rows of the table, the next chunks are fetched by the
+   * {@link ITableDataCursorService} and appended to the table, see {@link #getConfiguredAutoLoadMoreTableData()}.
+   * <p>
+   * This method is called by {@link #execPopulateTable()} before {@link #execLoadTableData(SearchFilter)}, which is
+   * only called if this method returns {@code null}.
+   * <p>
+   * Subclasses can override this method. The default returns {@code null}.
+   * 
+   * @param filter
+   *          a search filter, guaranteed not to be {@code null}
+   * @return the first chunk or {@code null} to load the whole table by {@link #execLoadTableData(SearchFilter)}
+   * @since 3.9.0
+   */
+  @ConfigOperation
+  @Order(91)
+  protected TableDataChunk execLoadTableDataChunk(SearchFilter filter) throws ProcessingException {
+    return null;
+  }
+
   /**
    * Populates this page's table.
    * <p>
@@ -238,24 +284,40 @@ public abstract class AbstractPageWithTable<T extends ITable> extends AbstractPa
         // create a copy of the filter, just in case the subprocess is modifying
         // or extending the filter
         filter = (SearchFilter) filter.clone();
-        //do NOT reference the result data object and warp it into a ref, so the processor is allowed to delete the contents to free up memory sooner
-        getTable().replaceRowsByMatrix(new AtomicReference<Object>(execLoadTableData(filter)));
+        replaceTableData(filter);
       }
     }
     else {
       // searchFilter should never be null
-      //do NOT reference the result data object and warp it into a ref, so the processor is allowed to delete the contents to free up memory sooner
-      getTable().replaceRowsByMatrix(new AtomicReference<Object>(execLoadTableData(new SearchFilter())));
+      replaceTableData(new SearchFilter());
     }
     //update table data status
     if (isSearchActive() && getSearchFilter() != null && (!getSearchFilter().isCompleted()) && isSearchRequired()) {
       setPagePopulateStatus(new ProcessingStatus(ScoutTexts.get("TooManyRows"), ProcessingStatus.WARNING));
     }
+    else if (hasMoreTableData()) {
+      setPagePopulateStatus(createMoreTableDataStatus());
+    }
     else {
       setPagePopulateStatus(null);
     }
   }
 
+  private void replaceTableData(SearchFilter filter) throws ProcessingException {
+    cancelLoadMoreTableData();
+    TableDataChunk chunk = execLoadTableDataChunk(filter);
+    if (chunk != null) {
+      getTable().replaceRowsByMatrix(chunk.getRows());
+      if (!chunk.isLast()) {
+        m_tableDataCursorId = chunk.getCursorId();
+      }
+    }
+    else {
+      //do NOT reference the result data object and warp it into a ref, so the processor is allowed to delete the contents to free up memory sooner
+      getTable().replaceRowsByMatrix(new AtomicReference<Object>(execLoadTableData(filter)));
+    }
+  }
+
   /**
    * Creates a child page for every table row that was added to this page's table. This method is called when
    * resolving a virtual tree node to a real node. Overriding this method is the recommended way to build the
@@ -354,6 +416,7 @@ public abstract class AbstractPageWithTable<T extends ITable> extends AbstractPa
     setSearchRequired(getConfiguredSearchRequired());
     setShowEmptySpaceMenus(getConfiguredShowEmptySpaceMenus());
     setShowTableRowMenus(getConfiguredShowTableRowMenus());
+    setAutoLoadMoreTableData(getConfiguredAutoLoadMoreTableData());
     Class<? extends ITable> tableClass = getConfiguredTable();
     if (tableClass != null) {
       try {
@@ -549,6 +612,94 @@ public abstract class AbstractPageWithTable<T extends ITable> extends AbstractPa
     m_showTableRowMenus = showTableRowMenus;
   }
 
+  @Override
+  public boolean isAutoLoadMoreTableData() {
+    return m_autoLoadMoreTableData;
+  }
+
+  @Override
+  public void setAutoLoadMoreTableData(boolean b) {
+    m_autoLoadMoreTableData = b;
+  }
+
+  @Override
+  public boolean hasMoreTableData() {
+    return m_tableDataCursorId != null;
+  }
+
+  @Override
+  public void loadMoreTableData() {
+    if (m_tableDataCursorId == null || m_tableDataChunkJob != null) {
+      return;
+    }
+    m_tableDataChunkJob = new P_FetchTableDataChunkJob(m_tableDataCursorId);
+    m_tableDataChunkJob.schedule();
+  }
+
+  @Override
+  public void cancelLoadMoreTableData() {
+    final String cursorId = m_tableDataCursorId;
+    if (cursorId == null) {
+      return;
+    }
+    m_tableDataCursorId = null;
+    if (m_tableDataChunkJob != null) {
+      m_tableDataChunkJob.cancel();
+      m_tableDataChunkJob = null;
+    }
+    new ClientAsyncJob("Close table data cursor", ClientSyncJob.getCurrentSession(), true) {
+      @Override
+      protected void runVoid(IProgressMonitor monitor) throws Throwable {
+        SERVICES.getService(ITableDataCursorService.class).closeCursor(cursorId);
+      }
+    }.schedule();
+  }
+
+  private IProcessingStatus createMoreTableDataStatus() {
+    if (isAutoLoadMoreTableData()) {
+      return new ProcessingStatus(ScoutTexts.get("LoadingMoreRows"), ProcessingStatus.INFO);
+    }
+    return new ProcessingStatus(ScoutTexts.get("MoreRowsAvailable"), ProcessingStatus.INFO);
+  }
+
+  /**
+   * Called in the model thread when the next chunk of the table data arrived
+   */
+  private void appendTableDataChunk(P_FetchTableDataChunkJob job, TableDataChunk chunk, Throwable error) {
+    if (job != m_tableDataChunkJob) {
+      // canceled or replaced in the meantime
+      return;
+    }
+    m_tableDataChunkJob = null;
+    try {
+      if (error != null) {
+        m_tableDataCursorId = null;
+        throw error;
+      }
+      getTable().addRowsByMatrix(chunk.getRows(), ITableRow.STATUS_NON_CHANGED);
+      if (chunk.isLast()) {
+        m_tableDataCursorId = null;
+        setPagePopulateStatus(null);
+      }
+      else {
+        setPagePopulateStatus(createMoreTableDataStatus());
+        if (isAutoLoadMoreTableData()) {
+          loadMoreTableData();
+        }
+      }
+    }
+    catch (Throwable t) {
+      ProcessingException pe = (t instanceof ProcessingException ? (ProcessingException) t : new ProcessingException(t.getMessage(), t));
+      if (pe.isInterruption()) {
+        setPagePopulateStatus(new ProcessingStatus(ScoutTexts.get("SearchWasCanceled"), ProcessingStatus.CANCEL));
+      }
+      else {
+        setPagePopulateStatus(new ProcessingStatus(ScoutTexts.get("ErrorWhileLoadingData"), ProcessingStatus.CANCEL));
+        SERVICES.getService(IExceptionHandlerService.class).handleException(pe);
+      }
+    }
+  }
+
   @Override
   public ISearchForm getSearchFormInternal() {
     ensureSearchFormCreated();
@@ -658,8 +809,12 @@ public abstract class AbstractPageWithTable<T extends ITable> extends AbstractPa
         ensureSearchFormCreated();
         ensureSearchFormStarted();
         execPopulateTable();
+        if (hasMoreTableData() && isAutoLoadMoreTableData()) {
+          loadMoreTableData();
+        }
       }
       catch (Throwable t) {
+        cancelLoadMoreTableData();
         m_table.discardAllRows();
         ProcessingException pe;
         if (t instanceof ProcessingException) {
@@ -883,6 +1038,47 @@ public abstract class AbstractPageWithTable<T extends ITable> extends AbstractPa
     return getOutline().getOutlineMediator();
   }
 
+  @Override
+  public void nodeRemovedNotify() {
+    cancelLoadMoreTableData();
+    super.nodeRemovedNotify();
+  }
+
+  /**
+   * Fetches the next chunk of the table data in the background and appends it to the table in the model thread
+   */
+  private class P_FetchTableDataChunkJob extends ClientAsyncJob {
+    private final String m_cursorId;
+
+    public P_FetchTableDataChunkJob(String cursorId) {
+      super("Fetch table data of " + AbstractPageWithTable.this.getClass().getSimpleName(), ClientSyncJob.getCurrentSession());
+      m_cursorId = cursorId;
+    }
+
+    @Override
+    protected void runVoid(IProgressMonitor monitor) throws Throwable {
+      TableDataChunk chunk = null;
+      Throwable error = null;
+      try {
+        chunk = SERVICES.getService(ITableDataCursorService.class).fetchNextChunk(m_cursorId);
+      }
+      catch (Throwable t) {
+        error = t;
+      }
+      if (monitor.isCanceled()) {
+        return;
+      }
+      final TableDataChunk finalChunk = chunk;
+      final Throwable finalError = error;
+      new ClientSyncJob("Append table data of " + AbstractPageWithTable.this.getClass().getSimpleName(), getClientSession()) {
+        @Override
+        protected void runVoid(IProgressMonitor monitor2) throws Throwable {
+          appendTableDataChunk(P_FetchTableDataChunkJob.this, finalChunk, finalError);
+        }
+      }.schedule();
+    }
+  }
+
   /**
    * Table listener and tree controller<br>
    * the table is reflected in tree children only if the tree/page node is not
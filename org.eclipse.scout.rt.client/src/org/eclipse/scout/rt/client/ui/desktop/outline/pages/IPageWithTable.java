@@ -82,4 +82,37 @@ public interface IPageWithTable<T extends ITable> extends IPage {
   boolean isShowEmptySpaceMenus();
 
   void setShowEmptySpaceMenus(boolean showEmptySpaceMenus);
+
+  /**
+   * @return true if the next chunks of an incrementally loaded table are loaded in the background
+   * @since 3.9.0
+   */
+  boolean isAutoLoadMoreTableData();
+
+  /**
+   * @since 3.9.0
+   */
+  void setAutoLoadMoreTableData(boolean b);
+
+  /**
+   * @return true if the table is loaded incrementally and not all chunks have been appended yet
+   * @since 3.9.0
+   */
+  boolean hasMoreTableData();
+
+  /**
+   * Fetches the next chunk of an incrementally loaded table in the background and appends it to the table. Does
+   * nothing if there is no more data or the next chunk is already being fetched.
+   * 
+   * @since 3.9.0
+   */
+  void loadMoreTableData();
+
+  /**
+   * Stops loading the remaining chunks of an incrementally loaded table and closes the server-side cursor. The rows
+   * already loaded remain in the table.
+   * 
+   * @since 3.9.0
+   */
+  void cancelLoadMoreTableData();
 }
@@ -443,18 +443,16 @@ public abstract class AbstractForm extends AbstractPropertyObserver implements I
   }
 
   private Class<? extends IKeyStroke>[] getConfiguredKeyStrokes() {
-    Class[] dca = ConfigurationUtility.getDeclaredPublicClasses(getClass());
-    return ConfigurationUtility.filterClasses(dca, IKeyStroke.class);
+    return ConfigurationUtility.filterInnerClasses(getClass(), IKeyStroke.class);
   }
 
   private Class<? extends IGroupBox> getConfiguredMainBox() {
-    Class[] dca = ConfigurationUtility.getDeclaredPublicClasses(getClass());
-    return ConfigurationUtility.filterClassIgnoringInjectFieldAnnotation(dca, IGroupBox.class);
+    Class<? extends IGroupBox>[] mainBoxes = ConfigurationUtility.filterInnerClassesIgnoringInjectFieldAnnotation(getClass(), IGroupBox.class);
+    return mainBoxes.length > 0 ? mainBoxes[0] : null;
   }
 
   private Class<? extends IFormField>[] getConfiguredInjectedFields() {
-    Class[] dca = ConfigurationUtility.getDeclaredPublicClasses(getClass());
-    return ConfigurationUtility.filterClassesWithInjectFieldAnnotation(dca, IFormField.class);
+    return ConfigurationUtility.filterInnerClassesWithInjectFieldAnnotation(getClass(), IFormField.class);
   }
 
   protected void initConfig() throws ProcessingException {
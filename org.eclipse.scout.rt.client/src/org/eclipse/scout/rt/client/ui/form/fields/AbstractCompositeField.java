@@ -45,8 +45,7 @@ public abstract class AbstractCompositeField extends AbstractFormField implement
   }
 
   protected Class<? extends IFormField>[] getConfiguredFields() {
-    Class[] dca = ConfigurationUtility.getDeclaredPublicClasses(getClass());
-    return ConfigurationUtility.sortFilteredClassesByOrderAnnotation(dca, IFormField.class);
+    return ConfigurationUtility.sortFilteredInnerClassesByOrderAnnotation(getClass(), IFormField.class);
   }
 
   /**
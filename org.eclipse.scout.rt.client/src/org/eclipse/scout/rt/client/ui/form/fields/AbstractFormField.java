@@ -649,9 +649,7 @@ public abstract class AbstractFormField extends AbstractPropertyObserver impleme
   }
 
   private Class<? extends IKeyStroke>[] getConfiguredKeyStrokes() {
-    Class[] dca = ConfigurationUtility.getDeclaredPublicClasses(getClass());
-    Class<IKeyStroke>[] fca = ConfigurationUtility.filterClasses(dca, IKeyStroke.class);
-    return ConfigurationUtility.removeReplacedClasses(fca);
+    return ConfigurationUtility.getFilteredInnerClasses(getClass(), IKeyStroke.class);
   }
 
   @ConfigOperation
@@ -127,9 +127,7 @@ public abstract class AbstractFileChooserField extends AbstractValueField<String
   }
 
   private Class<? extends IMenu>[] getConfiguredMenus() {
-    Class<?>[] dca = ConfigurationUtility.getDeclaredPublicClasses(getClass());
-    Class<IMenu>[] foca = ConfigurationUtility.sortFilteredClassesByOrderAnnotation(dca, IMenu.class);
-    return ConfigurationUtility.removeReplacedClasses(foca);
+    return ConfigurationUtility.getOrderedInnerClasses(getClass(), IMenu.class);
   }
 
   @Override
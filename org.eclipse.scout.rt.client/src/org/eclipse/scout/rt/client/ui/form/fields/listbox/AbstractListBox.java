@@ -147,8 +147,7 @@ public abstract class AbstractListBox<T> extends AbstractValueField<T[]> impleme
   }
 
   private Class<? extends IFormField>[] getConfiguredFields() {
-    Class[] dca = ConfigurationUtility.getDeclaredPublicClasses(getClass());
-    return ConfigurationUtility.sortFilteredClassesByOrderAnnotation(dca, IFormField.class);
+    return ConfigurationUtility.sortFilteredInnerClassesByOrderAnnotation(getClass(), IFormField.class);
   }
 
   /**
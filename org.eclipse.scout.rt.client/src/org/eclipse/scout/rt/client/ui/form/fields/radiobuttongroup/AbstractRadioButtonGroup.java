@@ -257,8 +257,7 @@ public abstract class AbstractRadioButtonGroup<T> extends AbstractValueField<T>
   }
 
   protected Class<? extends IFormField>[] getConfiguredFields() {
-    Class[] dca = ConfigurationUtility.getDeclaredPublicClasses(getClass());
-    return ConfigurationUtility.sortFilteredClassesByOrderAnnotation(dca, IFormField.class);
+    return ConfigurationUtility.sortFilteredInnerClassesByOrderAnnotation(getClass(), IFormField.class);
   }
 
   /*
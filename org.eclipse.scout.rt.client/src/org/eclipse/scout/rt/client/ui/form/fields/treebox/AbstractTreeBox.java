@@ -189,8 +189,7 @@ public abstract class AbstractTreeBox<T> extends AbstractValueField<T[]> impleme
   }
 
   private Class<? extends IFormField>[] getConfiguredFields() {
-    Class[] dca = ConfigurationUtility.getDeclaredPublicClasses(getClass());
-    return ConfigurationUtility.sortFilteredClassesByOrderAnnotation(dca, IFormField.class);
+    return ConfigurationUtility.sortFilteredInnerClassesByOrderAnnotation(getClass(), IFormField.class);
   }
 
   /**
@@ -0,0 +1,48 @@
+/*******************************************************************************
+ * Copyright (c) 2013 BSI Business Systems Integration AG.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     BSI Business Systems Integration AG - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.scout.rt.server;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+/**
+ * Tests for the range handling of {@link RemoteFileServlet}
+ */
+public class RemoteFileServletTest {
+
+  @Test
+  public void testParseRange() {
+    assertArrayEquals(new long[]{0, 99}, RemoteFileServlet.parseRange("bytes=0-99", 1000));
+    assertArrayEquals(new long[]{500, 999}, RemoteFileServlet.parseRange("bytes=500-", 1000));
+    assertArrayEquals(new long[]{900, 999}, RemoteFileServlet.parseRange("bytes=-100", 1000));
+    assertArrayEquals(new long[]{0, 999}, RemoteFileServlet.parseRange("bytes=-2000", 1000));
+    // end is truncated to the content length
+    assertArrayEquals(new long[]{990, 999}, RemoteFileServlet.parseRange("bytes=990-5000", 1000));
+  }
+
+  @Test
+  public void testParseRangeUnsatisfiable() {
+    assertSame(RemoteFileServlet.UNSATISFIABLE_RANGE, RemoteFileServlet.parseRange("bytes=1000-", 1000));
+    assertSame(RemoteFileServlet.UNSATISFIABLE_RANGE, RemoteFileServlet.parseRange("bytes=-0", 1000));
+  }
+
+  @Test
+  public void testParseRangeIgnored() {
+    assertNull(RemoteFileServlet.parseRange("items=0-1", 1000));
+    assertNull(RemoteFileServlet.parseRange("bytes=0-1,5-6", 1000));
+    assertNull(RemoteFileServlet.parseRange("bytes=5-1", 1000));
+    assertNull(RemoteFileServlet.parseRange("bytes=a-b", 1000));
+    assertNull(RemoteFileServlet.parseRange("bytes=-", 1000));
+  }
+}
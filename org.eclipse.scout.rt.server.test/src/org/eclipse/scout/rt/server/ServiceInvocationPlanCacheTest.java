@@ -0,0 +1,168 @@
+/*******************************************************************************
+ * Copyright (c) 2013 BSI Business Systems Integration AG.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     BSI Business Systems Integration AG - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.scout.rt.server;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.lang.reflect.Method;
+
+import org.easymock.EasyMock;
+import org.eclipse.scout.rt.shared.servicetunnel.RemoteServiceAccessDenied;
+import org.eclipse.scout.rt.shared.servicetunnel.ServiceTunnelRequest;
+import org.eclipse.scout.rt.shared.validate.IValidationStrategy;
+import org.eclipse.scout.rt.shared.validate.InputValidation;
+import org.eclipse.scout.service.AbstractService;
+import org.eclipse.scout.service.IService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.Version;
+
+/**
+ * Tests the caching of access checks by {@link DefaultTransactionDelegate} in the {@link ServiceInvocationPlanCache}
+ */
+public class ServiceInvocationPlanCacheTest {
+  private Bundle m_bundle;
+
+  @Before
+  public void setUp() throws Exception {
+    ServiceInvocationPlanCache.getInstance().clear();
+    m_bundle = EasyMock.createNiceMock(Bundle.class);
+    EasyMock.expect(m_bundle.loadClass(IPlanTestService.class.getName())).andReturn((Class) IPlanTestService.class).anyTimes();
+    EasyMock.replay(m_bundle);
+  }
+
+  @After
+  public void tearDown() {
+    ServiceInvocationPlanCache.getInstance().clear();
+  }
+
+  @Test
+  public void testCachedAllowAndDeny() throws Exception {
+    DefaultTransactionDelegate delegate = new DefaultTransactionDelegate(new Bundle[]{m_bundle}, Version.emptyVersion, false);
+    assertTrue(delegate.isAccessCheckCacheable());
+
+    ServiceInvocationPlanCache.InterfacePlan plan = delegate.getInterfacePlan(createRequest("hello", "a"));
+    assertSame(plan, delegate.getInterfacePlan(createRequest("hello", "b")));
+    plan.checkAccess();
+    ServiceInvocationPlanCache.ImplementationPlan implPlan = delegate.getImplementationPlan(plan, new PlanTestService(), new Object[]{"a"});
+    assertSame(implPlan, delegate.getImplementationPlan(plan, new PlanTestService(), new Object[]{"b"}));
+    implPlan.checkAccess();
+
+    // denied verdict is cached as well
+    ServiceInvocationPlanCache.InterfacePlan deniedPlan = delegate.getInterfacePlan(createRequest("internal", "a"));
+    ServiceInvocationPlanCache.ImplementationPlan deniedImplPlan = delegate.getImplementationPlan(deniedPlan, new PlanTestService(), new Object[]{"a"});
+    assertSame(deniedImplPlan, delegate.getImplementationPlan(deniedPlan, new PlanTestService(), new Object[]{"a"}));
+    assertDenied(deniedImplPlan);
+    assertEquals(2, ServiceInvocationPlanCache.getInstance().size());
+  }
+
+  @Test
+  public void testOverriddenChecksAreNotCached() throws Exception {
+    DefaultTransactionDelegate delegate = new ArgumentCheckingDelegate(new Bundle[]{m_bundle});
+    assertFalse(delegate.isAccessCheckCacheable());
+
+    ServiceInvocationPlanCache.InterfacePlan plan = delegate.getInterfacePlan(createRequest("hello", "ok"));
+    // the resolution is cached, the check is run again with the new arguments
+    try {
+      delegate.getInterfacePlan(createRequest("hello", "bad"));
+      fail("should fail");
+    }
+    catch (SecurityException e) {
+      // ok
+    }
+    assertSame(plan, delegate.getInterfacePlan(createRequest("hello", "ok")));
+
+    delegate.getImplementationPlan(plan, new PlanTestService(), new Object[]{"ok"});
+    try {
+      delegate.getImplementationPlan(plan, new PlanTestService(), new Object[]{"bad2"});
+      fail("should fail");
+    }
+    catch (SecurityException e) {
+      // ok
+    }
+  }
+
+  @Test
+  public void testRemoveServiceInterfaces() throws Exception {
+    DefaultTransactionDelegate delegate = new DefaultTransactionDelegate(new Bundle[]{m_bundle}, Version.emptyVersion, false);
+    delegate.getInterfacePlan(createRequest("hello", "a"));
+    assertEquals(1, ServiceInvocationPlanCache.getInstance().size());
+    ServiceInvocationPlanCache.getInstance().removeServiceInterfaces("other.IService");
+    assertEquals(1, ServiceInvocationPlanCache.getInstance().size());
+    ServiceInvocationPlanCache.getInstance().removeServiceInterfaces(IPlanTestService.class.getName());
+    assertEquals(0, ServiceInvocationPlanCache.getInstance().size());
+    assertNull(ServiceInvocationPlanCache.getInstance().get(ServiceInvocationPlanCache.createKey(DefaultTransactionDelegate.class, IPlanTestService.class.getName(), "hello", new Class<?>[]{String.class})));
+  }
+
+  private static ServiceTunnelRequest createRequest(String operation, String arg) throws Exception {
+    Method m = IPlanTestService.class.getMethod(operation, String.class);
+    return new ServiceTunnelRequest("1.0.0", IPlanTestService.class, m, new Object[]{arg});
+  }
+
+  private static void assertDenied(ServiceInvocationPlanCache.ImplementationPlan plan) {
+    try {
+      plan.checkAccess();
+    }
+    catch (SecurityException e) {
+      return;
+    }
+    fail("should fail");
+  }
+
+  private static class ArgumentCheckingDelegate extends DefaultTransactionDelegate {
+
+    public ArgumentCheckingDelegate(Bundle[] loaderBundles) {
+      super(loaderBundles, Version.emptyVersion, false);
+    }
+
+    @Override
+    protected void checkRemoteServiceAccessByInterface(Class<?> interfaceClass, Method interfaceMethod, Object[] args) {
+      super.checkRemoteServiceAccessByInterface(interfaceClass, interfaceMethod, args);
+      if ("bad".equals(args[0])) {
+        throw new SecurityException("denied by argument");
+      }
+    }
+
+    @Override
+    protected void checkRemoteServiceAccessByAnnotations(Class<?> interfaceClass, Class<?> implClass, Method interfaceMethod, Object[] args) {
+      super.checkRemoteServiceAccessByAnnotations(interfaceClass, implClass, interfaceMethod, args);
+      if ("bad2".equals(args[0])) {
+        throw new SecurityException("denied by argument");
+      }
+    }
+  }
+
+  @InputValidation(IValidationStrategy.QUERY.class)
+  public static interface IPlanTestService extends IService {
+    void hello(String s);
+
+    void internal(String s);
+  }
+
+  public static class PlanTestService extends AbstractService implements IPlanTestService {
+
+    @Override
+    public void hello(String s) {
+    }
+
+    @Override
+    @RemoteServiceAccessDenied
+    public void internal(String s) {
+    }
+  }
+}
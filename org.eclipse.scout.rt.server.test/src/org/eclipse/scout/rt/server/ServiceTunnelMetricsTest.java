@@ -0,0 +1,93 @@
+/*******************************************************************************
+ * Copyright (c) 2013 BSI Business Systems Integration AG.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     BSI Business Systems Integration AG - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.scout.rt.server;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.StringWriter;
+
+import org.eclipse.scout.rt.server.ServiceTunnelMetrics.OperationMetrics;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Tests for {@link ServiceTunnelMetrics}
+ */
+public class ServiceTunnelMetricsTest {
+
+  @After
+  public void tearDown() {
+    ServiceTunnelMetrics.getInstance().reset();
+  }
+
+  @Test
+  public void testRecord() throws Exception {
+    ServiceTunnelMetrics registry = ServiceTunnelMetrics.getInstance();
+    OperationMetrics m = registry.getOperationMetrics("a.b.IFooService", "load");
+    assertSame(m, registry.getOperationMetrics("a.b.IFooService", "load"));
+    assertEquals("IFooService.load", m.getName());
+    m.callStarted();
+    m.callStarted();
+    assertEquals(2, m.getInFlightCount());
+    m.callEnded(5000000L, false);
+    m.callEnded(7000000L, true);
+    m.recordRequestSize(100);
+    m.recordResponseSize(2000);
+    assertEquals(0, m.getInFlightCount());
+    assertEquals(2, m.getLatency().getCount());
+    assertEquals(7000, m.getLatency().getMax());
+    assertEquals(1, m.getErrorCount());
+    assertEquals(1, registry.getAllOperationMetrics().length);
+
+    StringWriter w = new StringWriter();
+    registry.writeText(w);
+    String text = w.toString();
+    assertTrue(text, text.contains("scout_service_calls_total{service=\"a.b.IFooService\",operation=\"load\"} 2\n"));
+    assertTrue(text, text.contains("scout_service_errors_total{service=\"a.b.IFooService\",operation=\"load\"} 1\n"));
+    assertTrue(text, text.contains("scout_service_response_bytes_sum{service=\"a.b.IFooService\",operation=\"load\"} 2000\n"));
+
+    registry.reset();
+    assertEquals(0, registry.getAllOperationMetrics().length);
+    assertNotSame(m, registry.getOperationMetrics("a.b.IFooService", "load"));
+  }
+
+  @Test
+  public void testUnknownOperation() throws Exception {
+    ServiceTunnelMetrics registry = ServiceTunnelMetrics.getInstance();
+    OperationMetrics unknown = registry.getUnknownOperationMetrics();
+    // unresolved operations do not create entries
+    assertSame(unknown, registry.findOperationMetrics("a.b.IFooService", "x1"));
+    assertSame(unknown, registry.findOperationMetrics("a.b.IFooService", "x2"));
+    assertEquals(0, registry.getAllOperationMetrics().length);
+    unknown.recordCall(1000000L, true);
+    unknown.recordRequestSize(10);
+    OperationMetrics m = registry.getOperationMetrics("a.b.IFooService", "load");
+    assertSame(m, registry.findOperationMetrics("a.b.IFooService", "load"));
+    OperationMetrics[] all = registry.getAllOperationMetrics();
+    assertEquals(2, all.length);
+    assertSame(m, all[0]);
+    assertSame(unknown, all[1]);
+    assertEquals(ServiceTunnelMetrics.UNKNOWN_OPERATION, unknown.getName());
+    assertEquals(0, unknown.getInFlightCount());
+    assertEquals(1, unknown.getErrorCount());
+
+    StringWriter w = new StringWriter();
+    registry.writeText(w);
+    String text = w.toString();
+    assertTrue(text, text.contains("scout_service_calls_total{service=\"\",operation=\"unknown\"} 1\n"));
+
+    registry.reset();
+    assertNotSame(unknown, registry.getUnknownOperationMetrics());
+  }
+}
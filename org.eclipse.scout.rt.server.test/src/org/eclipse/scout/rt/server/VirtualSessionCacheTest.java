@@ -0,0 +1,128 @@
+/*******************************************************************************
+ * Copyright (c) 2013 BSI Business Systems Integration AG.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     BSI Business Systems Integration AG - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.scout.rt.server;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.easymock.EasyMock;
+import org.eclipse.scout.commons.exception.ProcessingException;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Tests for {@link VirtualSessionCache}
+ */
+public class VirtualSessionCacheTest {
+  private final VirtualSessionCache m_cache = new VirtualSessionCache();
+
+  @After
+  public void tearDown() {
+    m_cache.dispose();
+  }
+
+  @Test
+  public void testSingleCreationPerId() throws Exception {
+    final AtomicInteger creations = new AtomicInteger();
+    final CountDownLatch started = new CountDownLatch(1);
+    final CountDownLatch release = new CountDownLatch(1);
+    final Callable<IServerSession> factory = new Callable<IServerSession>() {
+      @Override
+      public IServerSession call() throws Exception {
+        creations.incrementAndGet();
+        started.countDown();
+        release.await();
+        return EasyMock.createNiceMock(IServerSession.class);
+      }
+    };
+    final List<IServerSession> sessions = new ArrayList<IServerSession>();
+    List<Thread> threads = new ArrayList<Thread>();
+    for (int i = 0; i < 5; i++) {
+      Thread t = new Thread() {
+        @Override
+        public void run() {
+          try {
+            IServerSession s = m_cache.getOrCreate("a", factory);
+            synchronized (sessions) {
+              sessions.add(s);
+            }
+          }
+          catch (ProcessingException e) {
+            // nop
+          }
+        }
+      };
+      t.start();
+      threads.add(t);
+    }
+    started.await();
+    // other ids are not blocked by a pending creation
+    IServerSession b = m_cache.getOrCreate("b", new P_Factory());
+    assertSame(b, m_cache.getOrCreate("b", new P_Factory()));
+    release.countDown();
+    for (Thread t : threads) {
+      t.join();
+    }
+    assertEquals(1, creations.get());
+    assertEquals(5, sessions.size());
+    for (IServerSession s : sessions) {
+      assertSame(sessions.get(0), s);
+    }
+    assertEquals(2, m_cache.getLiveCount());
+    assertEquals(2, m_cache.getCreatedCount());
+  }
+
+  @Test
+  public void testFailedCreationIsRetried() throws Exception {
+    try {
+      m_cache.getOrCreate("a", new Callable<IServerSession>() {
+        @Override
+        public IServerSession call() throws Exception {
+          throw new ProcessingException("failed");
+        }
+      });
+      fail("exception expected");
+    }
+    catch (ProcessingException e) {
+      assertEquals("failed", e.getStatus().getMessage());
+    }
+    assertEquals(0, m_cache.getLiveCount());
+    IServerSession s = m_cache.getOrCreate("a", new P_Factory());
+    assertSame(s, m_cache.getOrCreate("a", new P_Factory()));
+  }
+
+  @Test
+  public void testExpiry() throws Exception {
+    m_cache.setSessionTimeoutMillis(50L);
+    IServerSession s = m_cache.getOrCreate("a", new P_Factory());
+    Thread.sleep(100L);
+    m_cache.removeExpiredSessions();
+    assertEquals(0, m_cache.getLiveCount());
+    assertEquals(1, m_cache.getExpiredCount());
+    assertNotSame(s, m_cache.getOrCreate("a", new P_Factory()));
+    assertEquals(2, m_cache.getCreatedCount());
+  }
+
+  private static class P_Factory implements Callable<IServerSession> {
+    @Override
+    public IServerSession call() throws Exception {
+      return EasyMock.createNiceMock(IServerSession.class);
+    }
+  }
+}
@@ -0,0 +1,206 @@
+/*******************************************************************************
+ * Copyright (c) 2013 BSI Business Systems Integration AG.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     BSI Business Systems Integration AG - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.scout.rt.server.scheduler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+
+import javax.security.auth.Subject;
+
+import org.easymock.EasyMock;
+import org.eclipse.scout.commons.exception.ProcessingException;
+import org.eclipse.scout.rt.server.IServerSession;
+import org.eclipse.scout.rt.server.internal.Activator;
+import org.eclipse.scout.rt.server.services.common.session.IServerSessionRegistryService;
+import org.eclipse.scout.rt.testing.shared.TestingUtility;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.osgi.framework.ServiceRegistration;
+
+/**
+ * Tests the indexed mode of {@link Scheduler}
+ */
+public class SchedulerTest {
+  private List<ServiceRegistration> m_reg;
+  private long m_start;
+
+  @Before
+  public void setUp() throws Exception {
+    IServerSessionRegistryService registry = EasyMock.createNiceMock(IServerSessionRegistryService.class);
+    EasyMock.expect(registry.newServerSession(EasyMock.<Class<IServerSession>> anyObject(), EasyMock.<Subject> anyObject())).andReturn(EasyMock.createNiceMock(IServerSession.class)).anyTimes();
+    EasyMock.replay(registry);
+    m_reg = TestingUtility.registerServices(Activator.getDefault().getBundle(), 1000, registry);
+    Calendar cal = Calendar.getInstance();
+    cal.clear();
+    cal.set(2013, Calendar.JANUARY, 1, 10, 0, 0);
+    m_start = cal.getTimeInMillis();
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    TestingUtility.unregisterServices(m_reg);
+  }
+
+  @Test
+  public void testComputeNextFireTime() throws Exception {
+    P_Scheduler scheduler = createScheduler();
+    ISchedulerJob job = new P_FormulaJob("minute==30");
+    scheduler.addJob(job);
+    assertEquals(m_start + minutes(30), scheduler.getNextFireTime(job));
+    ISchedulerJob hourly = new P_FormulaJob("minute==0");
+    scheduler.addJob(hourly);
+    // the current tick is not a next fire time
+    assertEquals(m_start + minutes(60), scheduler.getNextFireTime(hourly));
+    // jobs without a formula are visited on every tick
+    ISchedulerJob plain = new P_PlainJob();
+    scheduler.addJob(plain);
+    assertEquals(-1L, scheduler.getNextFireTime(plain));
+  }
+
+  @Test
+  public void testIndexedVisit() throws Exception {
+    P_Scheduler scheduler = createScheduler();
+    P_FormulaJob job = new P_FormulaJob("minute==1");
+    scheduler.addJob(job);
+    P_PlainJob plain = new P_PlainJob();
+    scheduler.addJob(plain);
+    scheduler.awaitRuns(1);
+    // the plain job was triggered when it was added
+    assertEquals(1, scheduler.getLaunchCount());
+
+    tick(scheduler, m_start + minutes(1));
+    scheduler.awaitRuns(3);
+    assertEquals(3, scheduler.getLaunchCount());
+    assertEquals(m_start + minutes(61), scheduler.getNextFireTime(job));
+
+    tick(scheduler, m_start + minutes(2));
+    scheduler.awaitRuns(4);
+    // only the plain job ran
+    assertEquals(4, scheduler.getLaunchCount());
+    assertEquals(1, scheduler.getRuns(job));
+  }
+
+  @Test
+  public void testNextFireTimeHorizon() throws Exception {
+    P_Scheduler scheduler = createScheduler();
+    // first accepted tick is months away
+    P_FormulaJob job = new P_FormulaJob("month==6 && day==1 && hour==0 && minute==0");
+    scheduler.addJob(job);
+    long horizon = m_start + minutes(Scheduler.NEXT_FIRE_TIME_MAX_TICKS);
+    assertEquals(horizon, scheduler.getNextFireTime(job));
+    // at the end of the horizon the job is not run but the search continues
+    tick(scheduler, horizon);
+    assertEquals(0, scheduler.getLaunchCount());
+    assertEquals(horizon + minutes(Scheduler.NEXT_FIRE_TIME_MAX_TICKS), scheduler.getNextFireTime(job));
+  }
+
+  @Test
+  public void testRestartPool() throws Exception {
+    P_Scheduler scheduler = createScheduler();
+    // the dispatcher must not tick, the test ticks itself
+    scheduler.setActive(false);
+    scheduler.start();
+    scheduler.stop();
+    scheduler.start();
+    try {
+      P_FormulaJob job = new P_FormulaJob("minute==1");
+      scheduler.addJob(job);
+      tick(scheduler, m_start + minutes(1));
+      scheduler.awaitRuns(1);
+      // run by a worker of the new pool, not by the fallback thread of a stopped scheduler
+      assertTrue(scheduler.m_threadNames.get(0), scheduler.m_threadNames.get(0).startsWith("Scheduler.Worker-"));
+    }
+    finally {
+      scheduler.stop();
+    }
+  }
+
+  private P_Scheduler createScheduler() throws ProcessingException {
+    Ticker ticker = new Ticker(Calendar.MINUTE);
+    ticker.setTime(m_start);
+    return new P_Scheduler(ticker);
+  }
+
+  private static void tick(Scheduler scheduler, long time) {
+    scheduler.getTicker().setTime(time);
+    scheduler.visitAllJobs(scheduler.getTicker().getCurrentTick());
+  }
+
+  private static long minutes(int n) {
+    return n * 60000L;
+  }
+
+  private static class P_Scheduler extends Scheduler {
+    private final List<ISchedulerJob> m_runs = new ArrayList<ISchedulerJob>();
+    private final List<String> m_threadNames = new ArrayList<String>();
+
+    public P_Scheduler(Ticker ticker) throws ProcessingException {
+      super(null, IServerSession.class, ticker, 2);
+    }
+
+    @Override
+    public void handleJobExecution(ISchedulerJob job, TickSignal signal) throws ProcessingException {
+      synchronized (m_runs) {
+        m_runs.add(job);
+        m_threadNames.add(Thread.currentThread().getName());
+        m_runs.notifyAll();
+      }
+    }
+
+    public void awaitRuns(int count) throws InterruptedException {
+      long deadline = System.currentTimeMillis() + 10000L;
+      synchronized (m_runs) {
+        while (m_runs.size() < count && System.currentTimeMillis() < deadline) {
+          m_runs.wait(100L);
+        }
+        assertEquals(count, m_runs.size());
+      }
+      // the runner removes the job from the running jobs after the execution
+      while (getRunningJobCount() > 0 && System.currentTimeMillis() < deadline) {
+        Thread.sleep(10L);
+      }
+    }
+
+    public int getRuns(ISchedulerJob job) {
+      int n = 0;
+      synchronized (m_runs) {
+        for (ISchedulerJob j : m_runs) {
+          if (j == job) {
+            n++;
+          }
+        }
+      }
+      return n;
+    }
+  }
+
+  private static class P_FormulaJob extends AbstractSchedulerJobWithFormula {
+    public P_FormulaJob(String formula) throws ProcessingException {
+      super("test", formula, formula);
+    }
+  }
+
+  private static class P_PlainJob extends AbstractSchedulerJob {
+    public P_PlainJob() {
+      super("test", "plain");
+    }
+
+    @Override
+    protected boolean execAcceptTick(TickSignal signal, int second, int minute, int hour, int day, int week, int month, int year, int dayOfWeek, int dayOfMonthReverse, int dayOfYear, int secondOfDay) {
+      return true;
+    }
+  }
+}
@@ -0,0 +1,176 @@
+/*******************************************************************************
+ * Copyright (c) 2013 BSI Business Systems Integration AG.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     BSI Business Systems Integration AG - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.scout.rt.server.services.common.clientnotification.internal;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.ref.WeakReference;
+import java.util.Locale;
+
+import org.easymock.EasyMock;
+import org.eclipse.scout.rt.server.IServerSession;
+import org.eclipse.scout.rt.server.ThreadContext;
+import org.eclipse.scout.rt.server.services.common.clientnotification.AllUserFilter;
+import org.eclipse.scout.rt.server.services.common.clientnotification.SessionFilter;
+import org.eclipse.scout.rt.server.services.common.clientnotification.SingleUserFilter;
+import org.eclipse.scout.rt.shared.services.common.clientnotification.AbstractClientNotification;
+import org.eclipse.scout.rt.shared.services.common.clientnotification.IClientNotification;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * JUnit test for {@link IndexedClientNotificationQueue}
+ */
+public class IndexedClientNotificationQueueTest {
+  private IServerSession m_alice;
+  private IServerSession m_bob;
+  private IndexedClientNotificationQueue m_queue;
+
+  @Before
+  public void setUp() {
+    m_alice = createSession("Alice");
+    m_bob = createSession("bob");
+    m_queue = new IndexedClientNotificationQueue();
+  }
+
+  @After
+  public void tearDown() {
+    ThreadContext.putServerSession(null);
+  }
+
+  @Test
+  public void testSingleUser() {
+    P_Notification n = new P_Notification(1);
+    m_queue.putNotification(n, new SingleUserFilter("alice", 60000L));
+    assertEquals(0, getNextNotifications(m_bob, 0).length);
+    assertArrayEquals(new IClientNotification[]{n}, getNextNotifications(m_alice, 0));
+    // singlecast is removed
+    assertEquals(0, getNextNotifications(m_alice, 0).length);
+    assertEquals(0, m_queue.getQueueDepth());
+  }
+
+  @Test
+  public void testMulticastAndOrder() {
+    P_Notification n1 = new P_Notification(1);
+    P_Notification n2 = new P_Notification(2);
+    P_Notification n3 = new P_Notification(3);
+    m_queue.putNotification(n1, new AllUserFilter(60000L));
+    m_queue.putNotification(n2, new SessionFilter(m_alice, 60000L));
+    m_queue.putNotification(n3, new SingleUserFilter("ALICE", 60000L));
+    assertArrayEquals(new IClientNotification[]{n1, n2, n3}, getNextNotifications(m_alice, 0));
+    assertArrayEquals(new IClientNotification[]{n1}, getNextNotifications(m_bob, 0));
+    // multicast is consumed once per session but stays queued
+    assertEquals(0, getNextNotifications(m_alice, 0).length);
+    assertEquals(1, m_queue.getQueueDepth());
+    assertEquals(4, m_queue.getDeliveryLatencyHistogram().getCount());
+  }
+
+  @Test
+  public void testCoalesce() {
+    m_queue.putNotification(new P_Notification(1), new SingleUserFilter("alice", 60000L));
+    m_queue.putNotification(new P_Notification(2), new SingleUserFilter("alice", 60000L));
+    IClientNotification[] a = getNextNotifications(m_alice, 0);
+    assertEquals(1, a.length);
+    assertEquals(2, ((P_Notification) a[0]).getValue());
+  }
+
+  @Test
+  public void testTargetedWakeUp() throws Exception {
+    final IClientNotification[][] result = new IClientNotification[1][];
+    Thread waiter = new Thread() {
+      @Override
+      public void run() {
+        result[0] = getNextNotifications(m_alice, 10000L);
+      }
+    };
+    long start = System.currentTimeMillis();
+    waiter.start();
+    while (m_queue.getWaiterCount() == 0) {
+      Thread.sleep(10);
+    }
+    m_queue.putNotification(new P_Notification(1), new SingleUserFilter("bob", 60000L));
+    P_Notification n = new P_Notification(2);
+    m_queue.putNotification(n, new SessionFilter(m_alice, 60000L));
+    waiter.join(10000L);
+    assertArrayEquals(new IClientNotification[]{n}, result[0]);
+    assertTrue(System.currentTimeMillis() - start < 5000L);
+    assertEquals(0, m_queue.getWaiterCount());
+  }
+
+  @Test
+  public void testUserKeyIgnoresDefaultLocale() {
+    Locale defaultLocale = Locale.getDefault();
+    Locale.setDefault(new Locale("tr", "TR"));
+    try {
+      P_Notification n = new P_Notification(1);
+      m_queue.putNotification(n, new SingleUserFilter("ILKA", 60000L));
+      assertArrayEquals(new IClientNotification[]{n}, getNextNotifications(createSession("ilka"), 0));
+    }
+    finally {
+      Locale.setDefault(defaultLocale);
+    }
+  }
+
+  @Test
+  public void testSessionIsNotRetained() throws Exception {
+    IServerSession session = createSession("carol");
+    m_queue.putNotification(new P_Notification(1), new SessionFilter(session, 60000L));
+    assertEquals(1, m_queue.getQueueDepth());
+    WeakReference<IServerSession> ref = new WeakReference<IServerSession>(session);
+    session = null;
+    for (int i = 0; i < 50 && ref.get() != null; i++) {
+      System.gc();
+      Thread.sleep(10);
+    }
+    assertNull(ref.get());
+    // the filter of a collected session is inactive
+    assertEquals(0, getNextNotifications(m_alice, 0).length);
+  }
+
+  private IClientNotification[] getNextNotifications(IServerSession session, long timeout) {
+    ThreadContext.putServerSession(session);
+    try {
+      return m_queue.getNextNotifications(timeout);
+    }
+    finally {
+      ThreadContext.putServerSession(null);
+    }
+  }
+
+  private static IServerSession createSession(String userId) {
+    IServerSession session = EasyMock.createNiceMock(IServerSession.class);
+    EasyMock.expect(session.getUserId()).andReturn(userId).anyTimes();
+    EasyMock.replay(session);
+    return session;
+  }
+
+  private static class P_Notification extends AbstractClientNotification {
+    private static final long serialVersionUID = 1L;
+    private final int m_value;
+
+    public P_Notification(int value) {
+      m_value = value;
+    }
+
+    public int getValue() {
+      return m_value;
+    }
+
+    @Override
+    public boolean coalesce(IClientNotification existingNotification) {
+      return true;
+    }
+  }
+}
@@ -0,0 +1,229 @@
+/*******************************************************************************
+ * Copyright (c) 2013 BSI Business Systems Integration AG.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     BSI Business Systems Integration AG - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.scout.rt.server.services.common.code;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.scout.commons.annotations.Order;
+import org.eclipse.scout.rt.shared.services.common.code.AbstractCode;
+import org.eclipse.scout.rt.shared.services.common.code.AbstractCodeType;
+import org.junit.Test;
+
+/**
+ * JUnit test for {@link CodeTypeCache}
+ */
+public class CodeTypeCacheTest {
+  private static final AtomicInteger LOAD_COUNT = new AtomicInteger();
+  private static CodeTypeCache s_cache;
+  private static CyclicBarrier s_barrier;
+  // the code types below ask for each other only once, a real cycle would not terminate even without a cache
+  private static final AtomicInteger DEPENDENCY_LOOKUPS = new AtomicInteger();
+
+  @Test
+  public void testIndexes() {
+    CodeTypeCache cache = new CodeTypeCache();
+    P_CodeType codeType = cache.getCodeType(P_CodeType.class);
+    assertSame(codeType, cache.findCodeTypeById(P_CodeType.ID));
+    assertSame(codeType.getCode(P_CodeType.ACode.ID), cache.getCode(P_CodeType.ACode.class));
+    assertSame(codeType.getCode(P_CodeType.BCode.ID), cache.getCode(P_CodeType.BCode.class));
+    assertNull(cache.findCodeTypeById("unknown"));
+  }
+
+  @Test
+  public void testReload() {
+    CodeTypeCache cache = new CodeTypeCache();
+    P_CodeType codeType = cache.getCodeType(P_CodeType.class);
+    P_CodeType.ACode code = cache.getCode(P_CodeType.ACode.class);
+    P_CodeType reloaded = cache.reloadCodeType(P_CodeType.class);
+    assertNotSame(codeType, reloaded);
+    assertSame(reloaded, cache.findCodeTypeById(P_CodeType.ID));
+    assertNotSame(code, cache.getCode(P_CodeType.ACode.class));
+    assertSame(reloaded.getCode(P_CodeType.ACode.ID), cache.getCode(P_CodeType.ACode.class));
+  }
+
+  @Test
+  public void testLoadOnce() throws Exception {
+    final CodeTypeCache cache = new CodeTypeCache();
+    final CountDownLatch start = new CountDownLatch(1);
+    final List<Object> results = new ArrayList<Object>();
+    int before = LOAD_COUNT.get();
+    List<Thread> threads = new ArrayList<Thread>();
+    for (int i = 0; i < 8; i++) {
+      Thread t = new Thread() {
+        @Override
+        public void run() {
+          try {
+            start.await();
+            P_CodeType ct = cache.getCodeType(P_CodeType.class);
+            synchronized (results) {
+              results.add(ct);
+            }
+          }
+          catch (InterruptedException e) {
+            // nop
+          }
+        }
+      };
+      t.start();
+      threads.add(t);
+    }
+    start.countDown();
+    for (Thread t : threads) {
+      t.join();
+    }
+    assertEquals(1, LOAD_COUNT.get() - before);
+    assertEquals(8, results.size());
+    for (Object o : results) {
+      assertSame(results.get(0), o);
+    }
+  }
+
+  @Test
+  public void testRecursiveLoad() {
+    s_cache = new CodeTypeCache();
+    DEPENDENCY_LOOKUPS.set(1);
+    P_RecursiveCodeType codeType = s_cache.getCodeType(P_RecursiveCodeType.class);
+    assertNotNull(codeType);
+    // the instance created within the constructor is not cached
+    assertNotNull(codeType.m_self);
+    assertNotSame(codeType, codeType.m_self);
+    assertSame(codeType, s_cache.getCodeType(P_RecursiveCodeType.class));
+    assertSame(codeType, s_cache.findCodeTypeById(P_RecursiveCodeType.ID));
+  }
+
+  @Test(timeout = 10000)
+  public void testCrossLoad() throws Exception {
+    s_cache = new CodeTypeCache();
+    s_barrier = new CyclicBarrier(2);
+    DEPENDENCY_LOOKUPS.set(2);
+    Thread t = new Thread() {
+      @Override
+      public void run() {
+        s_cache.getCodeType(P_CrossBCodeType.class);
+      }
+    };
+    t.start();
+    // A waits for B and B waits for A while both are being loaded
+    P_CrossACodeType a = s_cache.getCodeType(P_CrossACodeType.class);
+    t.join();
+    assertNotNull(a);
+    assertNotNull(a.m_other);
+    P_CrossBCodeType b = s_cache.getCodeType(P_CrossBCodeType.class);
+    assertNotNull(b);
+    assertNotNull(b.m_other);
+    assertSame(a, s_cache.getCodeType(P_CrossACodeType.class));
+  }
+
+  public static class P_CodeType extends AbstractCodeType<String> {
+    private static final long serialVersionUID = 1L;
+    public static final String ID = "CodeTypeCacheTest.P_CodeType";
+
+    public P_CodeType() {
+      super();
+      LOAD_COUNT.incrementAndGet();
+    }
+
+    @Override
+    public String getId() {
+      return ID;
+    }
+
+    @Order(10)
+    public class ACode extends AbstractCode<String> {
+      private static final long serialVersionUID = 1L;
+      public static final String ID = "A";
+
+      @Override
+      public String getId() {
+        return ID;
+      }
+    }
+
+    @Order(20)
+    public class BCode extends AbstractCode<String> {
+      private static final long serialVersionUID = 1L;
+      public static final String ID = "B";
+
+      @Override
+      public String getId() {
+        return ID;
+      }
+    }
+  }
+
+  public static class P_RecursiveCodeType extends AbstractCodeType<String> {
+    private static final long serialVersionUID = 1L;
+    public static final String ID = "CodeTypeCacheTest.P_RecursiveCodeType";
+    private final P_RecursiveCodeType m_self;
+
+    public P_RecursiveCodeType() {
+      super();
+      m_self = (DEPENDENCY_LOOKUPS.getAndDecrement() > 0 ? s_cache.getCodeType(P_RecursiveCodeType.class) : null);
+    }
+
+    @Override
+    public String getId() {
+      return ID;
+    }
+  }
+
+  public static class P_CrossACodeType extends AbstractCodeType<String> {
+    private static final long serialVersionUID = 1L;
+    private final P_CrossBCodeType m_other;
+
+    public P_CrossACodeType() throws Exception {
+      super();
+      if (DEPENDENCY_LOOKUPS.getAndDecrement() > 0) {
+        s_barrier.await();
+        m_other = s_cache.getCodeType(P_CrossBCodeType.class);
+      }
+      else {
+        m_other = null;
+      }
+    }
+
+    @Override
+    public String getId() {
+      return "CodeTypeCacheTest.P_CrossACodeType";
+    }
+  }
+
+  public static class P_CrossBCodeType extends AbstractCodeType<String> {
+    private static final long serialVersionUID = 1L;
+    private final P_CrossACodeType m_other;
+
+    public P_CrossBCodeType() throws Exception {
+      super();
+      if (DEPENDENCY_LOOKUPS.getAndDecrement() > 0) {
+        s_barrier.await();
+        m_other = s_cache.getCodeType(P_CrossACodeType.class);
+      }
+      else {
+        m_other = null;
+      }
+    }
+
+    @Override
+    public String getId() {
+      return "CodeTypeCacheTest.P_CrossBCodeType";
+    }
+  }
+}
@@ -0,0 +1,142 @@
+/*******************************************************************************
+ * Copyright (c) 2013 BSI Business Systems Integration AG.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     BSI Business Systems Integration AG - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.scout.rt.server.services.common.jdbc;
+
+import static org.junit.Assert.assertEquals;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+
+import org.eclipse.scout.rt.server.ThreadContext;
+import org.eclipse.scout.rt.server.transaction.BasicTransaction;
+import org.eclipse.scout.rt.server.transaction.ITransaction;
+import org.junit.After;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Tests the read replica routing of {@link AbstractSqlService} with two in-memory derby databases
+ */
+public class SqlServiceReadReplicaTest {
+  private static final String PRIMARY_URL = "jdbc:derby:memory:scoutReadReplicaTestPrimary";
+  private static final String REPLICA_URL = "jdbc:derby:memory:scoutReadReplicaTestReplica";
+
+  private ITransaction m_transaction;
+
+  @BeforeClass
+  public static void beforeClass() throws Exception {
+    Class.forName("org.apache.derby.jdbc.EmbeddedDriver");
+    createDatabase(PRIMARY_URL, "primary");
+    createDatabase(REPLICA_URL, "replica");
+  }
+
+  private static void createDatabase(String url, String value) throws Exception {
+    Connection conn = DriverManager.getConnection(url + ";create=true");
+    try {
+      Statement s = conn.createStatement();
+      s.executeUpdate("CREATE TABLE T (V VARCHAR(20))");
+      s.executeUpdate("INSERT INTO T (V) VALUES ('" + value + "')");
+      s.close();
+    }
+    finally {
+      conn.close();
+    }
+  }
+
+  @After
+  public void tearDown() {
+    if (m_transaction != null) {
+      m_transaction.rollback();
+      m_transaction.release();
+      m_transaction = null;
+    }
+    ThreadContext.putTransaction(null);
+  }
+
+  @Test
+  public void testReadWriteTransaction() throws Exception {
+    P_SqlService service = new P_SqlService();
+    beginTransaction(false);
+    assertEquals("primary", selectValue(service));
+  }
+
+  @Test
+  public void testReadOnlyTransaction() throws Exception {
+    P_SqlService service = new P_SqlService();
+    beginTransaction(true);
+    assertEquals("replica", selectValue(service));
+    assertEquals("replica", selectValue(service));
+    // modifications run on the primary database, the following reads too
+    service.update("UPDATE T SET V = 'primary2'");
+    assertEquals("primary2", selectValue(service));
+  }
+
+  @Test
+  public void testReplicaLag() throws Exception {
+    P_SqlService service = new P_SqlService();
+    service.m_lag = 60000L;
+    beginTransaction(true);
+    assertEquals("primary", selectValue(service));
+  }
+
+  @Test
+  public void testReplicaNotAvailable() throws Exception {
+    P_SqlService service = new P_SqlService();
+    service.setReadReplicaJdbcMappingName("jdbc:derby:memory:scoutReadReplicaTestMissing");
+    beginTransaction(true);
+    assertEquals("primary", selectValue(service));
+  }
+
+  private void beginTransaction(boolean readOnly) {
+    m_transaction = new BasicTransaction();
+    m_transaction.setReadOnly(readOnly);
+    ThreadContext.putTransaction(m_transaction);
+  }
+
+  private static Object selectValue(AbstractSqlService service) throws Exception {
+    Object[][] data = service.select("SELECT V FROM T");
+    return data[0][0];
+  }
+
+  private static class P_SqlService extends AbstractSqlService {
+    private long m_lag;
+
+    @Override
+    protected boolean getConfiguredDirectJdbcConnection() {
+      return true;
+    }
+
+    @Override
+    protected String getConfiguredJdbcDriverName() {
+      return "org.apache.derby.jdbc.EmbeddedDriver";
+    }
+
+    @Override
+    protected String getConfiguredJdbcMappingName() {
+      return PRIMARY_URL;
+    }
+
+    @Override
+    protected String getConfiguredReadReplicaJdbcMappingName() {
+      return REPLICA_URL;
+    }
+
+    @Override
+    protected void execTestConnection(Connection conn) throws Throwable {
+    }
+
+    @Override
+    protected long execGetReadReplicaLag(Connection conn) throws Throwable {
+      return m_lag;
+    }
+  }
+}
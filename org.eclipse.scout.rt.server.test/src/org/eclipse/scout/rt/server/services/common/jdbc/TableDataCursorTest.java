@@ -0,0 +1,208 @@
+/*******************************************************************************
+ * Copyright (c) 2013 BSI Business Systems Integration AG.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     BSI Business Systems Integration AG - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.scout.rt.server.services.common.jdbc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.sql.Types;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.scout.commons.exception.ProcessingException;
+import org.eclipse.scout.rt.server.AbstractServerSession;
+import org.eclipse.scout.rt.server.IServerSession;
+import org.eclipse.scout.rt.server.ThreadContext;
+import org.eclipse.scout.rt.shared.services.common.jdbc.TableDataChunk;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for {@link TableDataCursor}
+ */
+public class TableDataCursorTest {
+  private Map<Class, Object> m_backup;
+  private IServerSession m_session;
+
+  @Before
+  public void setUp() {
+    m_backup = ThreadContext.backup();
+    m_session = new P_ServerSession();
+    ThreadContext.putServerSession(m_session);
+  }
+
+  @After
+  public void tearDown() {
+    TableDataCursor.closeAbandonedCursors(m_session, Long.MAX_VALUE);
+    ThreadContext.restore(m_backup);
+  }
+
+  @Test
+  public void testChunks() throws Exception {
+    TableDataChunk chunk = TableDataCursor.open(new P_SqlService(5, null), "SELECT", 2);
+    assertRows(chunk, 0, 2, false);
+    assertEquals(1, TableDataCursor.getCursorCount(m_session));
+    String cursorId = chunk.getCursorId();
+    assertRows(TableDataCursor.fetchNextChunk(cursorId), 2, 2, false);
+    assertRows(TableDataCursor.fetchNextChunk(cursorId), 4, 1, true);
+    // the cursor is closed after the last chunk
+    assertEquals(0, TableDataCursor.getCursorCount(m_session));
+    assertFetchFails(cursorId);
+  }
+
+  @Test
+  public void testLastChunkEmpty() throws Exception {
+    TableDataChunk chunk = TableDataCursor.open(new P_SqlService(4, null), "SELECT", 2);
+    assertRows(chunk, 0, 2, false);
+    assertRows(TableDataCursor.fetchNextChunk(chunk.getCursorId()), 2, 2, false);
+    assertRows(TableDataCursor.fetchNextChunk(chunk.getCursorId()), 4, 0, true);
+    assertEquals(0, TableDataCursor.getCursorCount(m_session));
+  }
+
+  @Test
+  public void testSingleChunk() throws Exception {
+    TableDataChunk chunk = TableDataCursor.open(new P_SqlService(3, null), "SELECT", 10);
+    assertRows(chunk, 0, 3, true);
+    assertEquals(0, TableDataCursor.getCursorCount(m_session));
+  }
+
+  @Test
+  public void testCloseCursor() throws Exception {
+    P_SqlService sqlService = new P_SqlService(100, null);
+    TableDataChunk chunk = TableDataCursor.open(sqlService, "SELECT", 2);
+    TableDataCursor.closeCursor(chunk.getCursorId());
+    assertEquals(0, TableDataCursor.getCursorCount(m_session));
+    // the producer stops and releases its connection
+    assertTrue(sqlService.awaitDone());
+    assertTrue(sqlService.getRowCount() < 100);
+    assertFetchFails(chunk.getCursorId());
+    // closing twice does nothing
+    TableDataCursor.closeCursor(chunk.getCursorId());
+  }
+
+  @Test
+  public void testError() throws Exception {
+    ProcessingException failure = new ProcessingException("select failed");
+    TableDataChunk chunk = TableDataCursor.open(new P_SqlService(3, failure), "SELECT", 2);
+    assertRows(chunk, 0, 2, false);
+    try {
+      TableDataCursor.fetchNextChunk(chunk.getCursorId());
+      fail("the failure of the select must be propagated");
+    }
+    catch (ProcessingException e) {
+      assertSame(failure, e);
+    }
+    assertEquals(0, TableDataCursor.getCursorCount(m_session));
+  }
+
+  @Test
+  public void testAbandonedCursors() throws Exception {
+    P_SqlService sqlService = new P_SqlService(100, null);
+    TableDataChunk chunk = TableDataCursor.open(sqlService, "SELECT", 2);
+    TableDataCursor.closeAbandonedCursors(m_session, System.currentTimeMillis());
+    assertEquals(1, TableDataCursor.getCursorCount(m_session));
+    TableDataCursor.closeAbandonedCursors(m_session, System.currentTimeMillis() + TableDataCursor.IDLE_TIMEOUT + 1000L);
+    assertEquals(0, TableDataCursor.getCursorCount(m_session));
+    assertTrue(sqlService.awaitDone());
+    assertFetchFails(chunk.getCursorId());
+  }
+
+  @Test
+  public void testMaxCursorsPerSession() throws Exception {
+    P_SqlService first = new P_SqlService(100, null);
+    String firstId = TableDataCursor.open(first, "SELECT", 2).getCursorId();
+    for (int i = 1; i < TableDataCursor.MAX_CURSORS_PER_SESSION; i++) {
+      TableDataCursor.open(new P_SqlService(100, null), "SELECT", 2);
+    }
+    assertEquals(TableDataCursor.MAX_CURSORS_PER_SESSION, TableDataCursor.getCursorCount(m_session));
+    assertFalse(first.isDone());
+    TableDataCursor.open(new P_SqlService(100, null), "SELECT", 2);
+    // the least recently used cursor was closed
+    assertEquals(TableDataCursor.MAX_CURSORS_PER_SESSION, TableDataCursor.getCursorCount(m_session));
+    assertTrue(first.awaitDone());
+    assertFetchFails(firstId);
+  }
+
+  private static void assertRows(TableDataChunk chunk, int firstValue, int rowCount, boolean last) {
+    assertEquals(rowCount, chunk.getRows().length);
+    for (int i = 0; i < rowCount; i++) {
+      assertEquals(Integer.valueOf(firstValue + i), chunk.getRows()[i][0]);
+    }
+    assertEquals(last, chunk.isLast());
+  }
+
+  private static void assertFetchFails(String cursorId) {
+    try {
+      TableDataCursor.fetchNextChunk(cursorId);
+      fail("cursor " + cursorId + " must be closed");
+    }
+    catch (ProcessingException e) {
+      // expected
+    }
+  }
+
+  private static class P_ServerSession extends AbstractServerSession {
+
+    public P_ServerSession() {
+      super(true);
+    }
+  }
+
+  /**
+   * Streams the rows 0..rowCount-1 and then throws the failure if there is one
+   */
+  private static class P_SqlService extends AbstractSqlService {
+    private final int m_rows;
+    private final ProcessingException m_failure;
+    private final CountDownLatch m_done = new CountDownLatch(1);
+    private volatile int m_rowCount;
+
+    public P_SqlService(int rows, ProcessingException failure) {
+      m_rows = rows;
+      m_failure = failure;
+    }
+
+    @Override
+    public void selectStreaming(String s, ISelectStreamHandler handler, Object... bindBases) throws ProcessingException {
+      try {
+        for (int i = 0; i < m_rows; i++) {
+          handler.handleRow(null, null, null, i, Collections.singletonList(new SqlBind(Types.INTEGER, Integer.valueOf(i))));
+          m_rowCount++;
+        }
+        if (m_failure != null) {
+          throw m_failure;
+        }
+        handler.finished(null, null, null, m_rows);
+      }
+      finally {
+        m_done.countDown();
+      }
+    }
+
+    public int getRowCount() {
+      return m_rowCount;
+    }
+
+    public boolean isDone() {
+      return m_done.getCount() == 0;
+    }
+
+    public boolean awaitDone() throws InterruptedException {
+      return m_done.await(10, TimeUnit.SECONDS);
+    }
+  }
+}
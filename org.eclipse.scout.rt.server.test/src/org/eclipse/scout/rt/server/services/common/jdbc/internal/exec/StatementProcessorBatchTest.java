@@ -0,0 +1,97 @@
+/*******************************************************************************
+ * Copyright (c) 2013 BSI Business Systems Integration AG.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     BSI Business Systems Integration AG - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.scout.rt.server.services.common.jdbc.internal.exec;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+
+import org.easymock.EasyMock;
+import org.eclipse.scout.commons.holders.NVPair;
+import org.eclipse.scout.rt.server.services.common.jdbc.ISqlService;
+import org.eclipse.scout.rt.server.services.common.jdbc.IStatementCache;
+import org.eclipse.scout.rt.server.services.common.jdbc.style.OracleSqlStyle;
+import org.junit.Test;
+
+/**
+ * Tests for {@link StatementProcessor#processModificationBatch(Connection, IStatementCache,
+ * org.eclipse.scout.rt.server.services.common.jdbc.IStatementProcessorMonitor, int)}
+ */
+public class StatementProcessorBatchTest {
+
+  @Test
+  public void testBatchSize() throws Exception {
+    PreparedStatement ps = EasyMock.createNiceMock(PreparedStatement.class);
+    ps.addBatch();
+    EasyMock.expectLastCall().times(5);
+    EasyMock.expect(ps.executeBatch()).andReturn(new int[]{1, 1}).times(2);
+    EasyMock.expect(ps.executeBatch()).andReturn(new int[]{0});
+    EasyMock.replay(ps);
+
+    int[] counts = runBatch(ps, "INSERT INTO T (ID) VALUES (:{ids})", new Long[]{1L, 2L, 3L, 4L, 5L}, 2);
+
+    assertArrayEquals(new int[]{1, 1, 1, 1, 0}, counts);
+    EasyMock.verify(ps);
+  }
+
+  @Test
+  public void testUnlimitedBatchSize() throws Exception {
+    PreparedStatement ps = EasyMock.createNiceMock(PreparedStatement.class);
+    ps.addBatch();
+    EasyMock.expectLastCall().times(3);
+    EasyMock.expect(ps.executeBatch()).andReturn(new int[]{1, 1, 1}).once();
+    EasyMock.replay(ps);
+
+    int[] counts = runBatch(ps, "UPDATE T SET X = 0 WHERE ID = :{ids}", new Long[]{1L, 2L, 3L}, 0);
+
+    assertArrayEquals(new int[]{1, 1, 1}, counts);
+    EasyMock.verify(ps);
+  }
+
+  @Test
+  public void testDriverReturnsFewerCounts() throws Exception {
+    PreparedStatement ps = EasyMock.createNiceMock(PreparedStatement.class);
+    ps.addBatch();
+    EasyMock.expectLastCall().times(3);
+    EasyMock.expect(ps.executeBatch()).andReturn(new int[]{Statement.SUCCESS_NO_INFO}).once();
+    EasyMock.replay(ps);
+
+    int[] counts = runBatch(ps, "UPDATE T SET X = 0 WHERE ID = :{ids}", new Long[]{1L, 2L, 3L}, 0);
+
+    // the counts of the driver are returned as is
+    assertArrayEquals(new int[]{Statement.SUCCESS_NO_INFO}, counts);
+    EasyMock.verify(ps);
+  }
+
+  @Test
+  public void testEmptyBatch() throws Exception {
+    PreparedStatement ps = EasyMock.createMock(PreparedStatement.class);
+    EasyMock.replay(ps);
+
+    int[] counts = runBatch(ps, "DELETE FROM T WHERE ID = :{ids}", new Long[0], 10);
+
+    assertArrayEquals(new int[0], counts);
+    EasyMock.verify(ps);
+  }
+
+  private int[] runBatch(PreparedStatement ps, String statement, Long[] ids, int batchSize) throws Exception {
+    ISqlService callerService = EasyMock.createNiceMock(ISqlService.class);
+    EasyMock.expect(callerService.getSqlStyle()).andReturn(new OracleSqlStyle()).anyTimes();
+    IStatementCache cache = EasyMock.createNiceMock(IStatementCache.class);
+    EasyMock.expect(cache.getPreparedStatement(EasyMock.<Connection> anyObject(), EasyMock.<String> anyObject())).andReturn(ps).anyTimes();
+    EasyMock.replay(callerService, cache);
+
+    StatementProcessor sp = new StatementProcessor(callerService, statement, new Object[]{new NVPair("ids", ids)});
+    return sp.processModificationBatch(null, cache, null, batchSize);
+  }
+}
@@ -0,0 +1,68 @@
+/*******************************************************************************
+ * Copyright (c) 2013 BSI Business Systems Integration AG.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     BSI Business Systems Integration AG - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.scout.rt.server.services.common.jdbc.internal.exec;
+
+import static org.junit.Assert.assertEquals;
+
+import org.easymock.EasyMock;
+import org.eclipse.scout.commons.holders.DateHolder;
+import org.eclipse.scout.commons.holders.LongHolder;
+import org.eclipse.scout.commons.holders.NVPair;
+import org.eclipse.scout.commons.holders.StringHolder;
+import org.eclipse.scout.commons.logger.IScoutLogger;
+import org.eclipse.scout.commons.logger.ScoutLogManager;
+import org.eclipse.scout.rt.server.services.common.jdbc.ISqlService;
+import org.eclipse.scout.rt.server.services.common.jdbc.style.OracleSqlStyle;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Timing harness for the {@link StatementTemplateCache}: creates the same {@link StatementProcessor} repeatedly with
+ * the template parsed on every construction and with the cached template.
+ * <p>
+ * The timings are only logged (level INFO), the test never fails because of them.
+ */
+public class StatementTemplateCachePerformanceTest {
+  private static final IScoutLogger LOG = ScoutLogManager.getLogger(StatementTemplateCachePerformanceTest.class);
+  private static final int WARMUP = 1000;
+  private static final int ITERATIONS = 5000;
+  private static final String STATEMENT = "SELECT A.ID, A.NAME, A.CREATED FROM ADDRESS A WHERE A.ID = :id AND A.CREATED < $$sysdate AND A.NAME LIKE :name INTO :outId, :outName, :outCreated";
+
+  @After
+  public void tearDown() {
+    StatementTemplateCache.getInstance().clear();
+  }
+
+  @Test
+  public void testParseVersusCachedTemplate() throws Exception {
+    ISqlService callerService = EasyMock.createNiceMock(ISqlService.class);
+    EasyMock.expect(callerService.getSqlStyle()).andReturn(new OracleSqlStyle()).anyTimes();
+    EasyMock.replay(callerService);
+
+    run(callerService, WARMUP, false);
+    long parseNanos = run(callerService, ITERATIONS, false);
+    run(callerService, WARMUP, true);
+    long cachedNanos = run(callerService, ITERATIONS, true);
+    LOG.info("StatementProcessor construction, " + ITERATIONS + " iterations: parsed " + (parseNanos / 1000000L) + " ms, cached template " + (cachedNanos / 1000000L) + " ms");
+    assertEquals(1, StatementTemplateCache.getInstance().size());
+  }
+
+  private static long run(ISqlService callerService, int iterations, boolean cached) throws Exception {
+    long begin = System.nanoTime();
+    for (int i = 0; i < iterations; i++) {
+      if (!cached) {
+        StatementTemplateCache.getInstance().clear();
+      }
+      new StatementProcessor(callerService, STATEMENT, new Object[]{new NVPair("id", Long.valueOf(i)), new NVPair("name", "a%"), new NVPair("outId", new LongHolder()), new NVPair("outName", new StringHolder()), new NVPair("outCreated", new DateHolder())});
+    }
+    return System.nanoTime() - begin;
+  }
+}
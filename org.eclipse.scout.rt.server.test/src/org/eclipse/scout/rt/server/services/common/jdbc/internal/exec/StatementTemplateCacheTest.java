@@ -0,0 +1,87 @@
+/*******************************************************************************
+ * Copyright (c) 2013 BSI Business Systems Integration AG.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     BSI Business Systems Integration AG - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.scout.rt.server.services.common.jdbc.internal.exec;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.easymock.EasyMock;
+import org.eclipse.scout.commons.CompositeObject;
+import org.eclipse.scout.commons.holders.NVPair;
+import org.eclipse.scout.commons.parsers.BindModel;
+import org.eclipse.scout.commons.parsers.token.IToken;
+import org.eclipse.scout.commons.parsers.token.ValueOutputToken;
+import org.eclipse.scout.rt.server.services.common.jdbc.ISqlService;
+import org.eclipse.scout.rt.server.services.common.jdbc.internal.exec.StatementTemplateCache.StatementTemplate;
+import org.eclipse.scout.rt.server.services.common.jdbc.style.OracleSqlStyle;
+import org.junit.Test;
+
+/**
+ * Tests for {@link StatementTemplateCache}
+ */
+public class StatementTemplateCacheTest {
+
+  @Test
+  public void testTemplateIsNotModifiedByExecution() throws Exception {
+    ISqlService callerService = EasyMock.createNiceMock(ISqlService.class);
+    EasyMock.expect(callerService.getSqlStyle()).andReturn(new OracleSqlStyle()).anyTimes();
+    EasyMock.replay(callerService);
+    String stm = "SELECT $$sysdate FROM DUAL WHERE ID = :id";
+    CompositeObject key = StatementTemplateCache.createKey(StatementProcessor.class, OracleSqlStyle.class, stm);
+    StatementTemplateCache.getInstance().clear();
+
+    StatementProcessor sp = new StatementProcessor(callerService, stm, new Object[]{new NVPair("id", 7L)});
+    assertNotNull(StatementTemplateCache.getInstance().get(key));
+    assertEquals("SELECT SYSDATE FROM DUAL WHERE ID = 7", sp.createPlainText());
+
+    // the plain text flag of the first execution must not leak into the cached template
+    sp = new StatementProcessor(callerService, stm, new Object[]{new NVPair("id", 8L)});
+    assertEquals(1, StatementTemplateCache.getInstance().size());
+    assertTrue(sp.createSqlDump(true, false).contains(":id => ? [BIGINT 8]"));
+  }
+
+  @Test
+  public void testBounded() {
+    StatementTemplateCache cache = new StatementTemplateCache(20);
+    for (int i = 0; i < 100; i++) {
+      cache.put(StatementTemplateCache.createKey(StatementProcessor.class, null, "SELECT " + i + " FROM DUAL"), createTemplate());
+    }
+    assertTrue(cache.size() <= 20);
+  }
+
+  @Test
+  public void testFrequentTemplatesSurviveScan() {
+    StatementTemplateCache cache = new StatementTemplateCache(20);
+    CompositeObject hot = StatementTemplateCache.createKey(StatementProcessor.class, null, "SELECT HOT FROM DUAL");
+    cache.put(hot, createTemplate());
+    assertNotNull(cache.get(hot));
+    // statements executed only once do not evict the frequently executed one
+    for (int i = 0; i < 100; i++) {
+      cache.put(StatementTemplateCache.createKey(StatementProcessor.class, null, "SELECT " + i + " FROM DUAL"), createTemplate());
+    }
+    assertNotNull(cache.get(hot));
+  }
+
+  @Test
+  public void testDisabled() {
+    StatementTemplateCache cache = new StatementTemplateCache(0);
+    CompositeObject key = StatementTemplateCache.createKey(StatementProcessor.class, null, "SELECT 1 FROM DUAL");
+    cache.put(key, createTemplate());
+    assertNull(cache.get(key));
+    assertEquals(0, cache.size());
+  }
+
+  private static StatementTemplate createTemplate() {
+    return new StatementTemplate(new BindModel(new IToken[0]), new ValueOutputToken[0]);
+  }
+}
@@ -0,0 +1,154 @@
+/*******************************************************************************
+ * Copyright (c) 2013 BSI Business Systems Integration AG.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     BSI Business Systems Integration AG - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.scout.rt.server.services.common.jdbc.internal.pool;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.sql.Connection;
+
+import org.eclipse.scout.rt.server.services.common.jdbc.AbstractSqlService;
+import org.junit.Test;
+
+/**
+ * Tests for {@link ConcurrentSqlConnectionPool} with an in-memory derby database
+ */
+public class ConcurrentSqlConnectionPoolTest {
+  private static final String URL = "jdbc:derby:memory:scoutConcurrentPoolTest;create=true";
+
+  @Test
+  public void testLeaseAndRelease() throws Exception {
+    P_SqlService service = new P_SqlService();
+    ConcurrentSqlConnectionPool pool = new ConcurrentSqlConnectionPool(P_SqlService.class, null, 2, 0, 60000L, 60000L);
+    Connection c1 = pool.leaseConnection(service);
+    Connection c2 = pool.leaseConnection(service);
+    assertNotSame(c1, c2);
+    assertEquals(2, pool.getBusyCount());
+    pool.releaseConnection(c1);
+    assertEquals(1, pool.getBusyCount());
+    assertEquals(1, pool.getIdleCount());
+    // the idle connection is reused
+    assertSame(c1, pool.leaseConnection(service));
+    assertEquals(0, pool.getIdleCount());
+    pool.releaseConnection(c1);
+    pool.releaseConnection(c2);
+    assertEquals(0, pool.getBusyCount());
+    assertEquals(2, pool.getIdleCount());
+    pool.dispose();
+    assertTrue(c1.isClosed());
+    assertTrue(c2.isClosed());
+  }
+
+  @Test
+  public void testBusyTimeout() throws Exception {
+    P_SqlService service = new P_SqlService();
+    ConcurrentSqlConnectionPool pool = new ConcurrentSqlConnectionPool(P_SqlService.class, null, 1, 0, 60000L, 0L);
+    Connection c1 = pool.leaseConnection(service);
+    pool.managePool(System.currentTimeMillis() + 1L);
+    // the timed out connection is evicted and its permit is available again
+    assertEquals(0, pool.getBusyCount());
+    Connection c2 = pool.leaseConnection(service);
+    assertNotSame(c1, c2);
+    // releasing the evicted connection neither returns it to the pool nor releases another permit
+    pool.releaseConnection(c1);
+    assertEquals(0, pool.getIdleCount());
+    assertEquals(1, pool.getBusyCount());
+    pool.releaseConnection(c2);
+    assertEquals(1, pool.getIdleCount());
+    assertSame(c2, pool.leaseConnection(service));
+    pool.releaseConnection(c2);
+    pool.dispose();
+  }
+
+  @Test
+  public void testLifetime() throws Exception {
+    P_SqlService service = new P_SqlService();
+    ConcurrentSqlConnectionPool pool = new ConcurrentSqlConnectionPool(P_SqlService.class, null, 1, 0, 0L, 60000L);
+    Connection c1 = pool.leaseConnection(service);
+    pool.releaseConnection(c1);
+    pool.managePool(System.currentTimeMillis() + 1L);
+    assertEquals(0, pool.getIdleCount());
+    assertTrue(c1.isClosed());
+    pool.dispose();
+  }
+
+  @Test
+  public void testMinIdleWarmUp() throws Exception {
+    P_SqlService service = new P_SqlService();
+    ConcurrentSqlConnectionPool pool = ConcurrentSqlConnectionPool.getPool(service, URL, 3, 2, 60000L, 60000L);
+    try {
+      // the manager thread opens the min idle connections without waiting for a first lease
+      long deadline = System.currentTimeMillis() + 10000L;
+      while (pool.getIdleCount() < 2 && System.currentTimeMillis() < deadline) {
+        Thread.sleep(10L);
+      }
+      assertEquals(2, pool.getIdleCount());
+      assertEquals(0, pool.getBusyCount());
+      assertSame(pool, ConcurrentSqlConnectionPool.getPool(service, URL, 3, 2, 60000L, 60000L));
+    }
+    finally {
+      pool.dispose();
+    }
+  }
+
+  @Test
+  public void testDispose() throws Exception {
+    P_SqlService service = new P_SqlService();
+    ConcurrentSqlConnectionPool pool = ConcurrentSqlConnectionPool.getPool(service, URL, 2, 0, 60000L, 60000L);
+    Connection busy = pool.leaseConnection(service);
+    Connection idle = pool.leaseConnection(service);
+    pool.releaseConnection(idle);
+    pool.dispose();
+    assertTrue(idle.isClosed());
+    assertEquals(0, pool.getIdleCount());
+    // busy connections are closed on release
+    assertFalse(busy.isClosed());
+    pool.releaseConnection(busy);
+    assertTrue(busy.isClosed());
+    assertEquals(0, pool.getIdleCount());
+    try {
+      pool.leaseConnection(service);
+      fail("disposed pool must not lease connections");
+    }
+    catch (IllegalStateException e) {
+      // expected
+    }
+    ConcurrentSqlConnectionPool pool2 = ConcurrentSqlConnectionPool.getPool(service, URL, 2, 0, 60000L, 60000L);
+    assertNotSame(pool, pool2);
+    pool2.dispose();
+  }
+
+  private static class P_SqlService extends AbstractSqlService {
+
+    @Override
+    protected boolean getConfiguredDirectJdbcConnection() {
+      return true;
+    }
+
+    @Override
+    protected String getConfiguredJdbcDriverName() {
+      return "org.apache.derby.jdbc.EmbeddedDriver";
+    }
+
+    @Override
+    protected String getConfiguredJdbcMappingName() {
+      return URL;
+    }
+
+    @Override
+    protected void execTestConnection(Connection conn) throws Throwable {
+    }
+  }
+}
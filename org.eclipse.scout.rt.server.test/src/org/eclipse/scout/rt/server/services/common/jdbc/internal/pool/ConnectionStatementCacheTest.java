@@ -0,0 +1,88 @@
+/*******************************************************************************
+ * Copyright (c) 2013 BSI Business Systems Integration AG.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     BSI Business Systems Integration AG - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.scout.rt.server.services.common.jdbc.internal.pool;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+
+import org.easymock.EasyMock;
+import org.junit.Test;
+
+/**
+ * Tests for {@link ConnectionStatementCache}
+ */
+public class ConnectionStatementCacheTest {
+
+  @Test
+  public void testReuseAndEviction() throws Exception {
+    Connection conn = EasyMock.createMock(Connection.class);
+    PreparedStatement psA = createStatement();
+    PreparedStatement psB = createStatement();
+    PreparedStatement psA2 = createStatement();
+    EasyMock.expect(conn.prepareStatement("A")).andReturn(psA);
+    EasyMock.expect(conn.prepareStatement("B")).andReturn(psB);
+    EasyMock.expect(conn.prepareStatement("A")).andReturn(psA2);
+    EasyMock.replay(conn);
+
+    ConnectionStatementCache cache = new ConnectionStatementCache(conn, 1);
+    assertSame(psA, cache.getPreparedStatement(conn, "A"));
+    cache.releasePreparedStatement(psA);
+    // cached on first use, reused across releases
+    assertSame(psA, cache.getPreparedStatement(conn, "A"));
+    cache.releasePreparedStatement(psA);
+    assertEquals(1, cache.getHitCount());
+    assertEquals(1, cache.getMissCount());
+    // B evicts and closes A
+    assertSame(psB, cache.getPreparedStatement(conn, "B"));
+    cache.releasePreparedStatement(psB);
+    assertEquals(1, cache.getSize());
+    assertSame(psA2, cache.getPreparedStatement(conn, "A"));
+    cache.releasePreparedStatement(psA2);
+    // dispose closes the cached statement
+    cache.dispose();
+    assertEquals(0, cache.getSize());
+    EasyMock.verify(conn, psA, psB, psA2);
+  }
+
+  @Test
+  public void testStatementInUseIsNotShared() throws Exception {
+    Connection conn = EasyMock.createMock(Connection.class);
+    PreparedStatement ps1 = createStatement();
+    PreparedStatement ps2 = createStatement();
+    EasyMock.expect(conn.prepareStatement("A")).andReturn(ps1);
+    EasyMock.expect(conn.prepareStatement("A")).andReturn(ps2);
+    EasyMock.replay(conn);
+
+    ConnectionStatementCache cache = new ConnectionStatementCache(conn, 10);
+    assertSame(ps1, cache.getPreparedStatement(conn, "A"));
+    // nested use of the same sql gets an uncached statement, which is closed on release
+    PreparedStatement nested = cache.getPreparedStatement(conn, "A");
+    assertNotSame(ps1, nested);
+    cache.releasePreparedStatement(nested);
+    cache.releasePreparedStatement(ps1);
+    assertSame(ps1, cache.getPreparedStatement(conn, "A"));
+    cache.releasePreparedStatement(ps1);
+    cache.dispose();
+    EasyMock.verify(conn, ps1, ps2);
+  }
+
+  private static PreparedStatement createStatement() throws Exception {
+    PreparedStatement ps = EasyMock.createNiceMock(PreparedStatement.class);
+    ps.close();
+    EasyMock.expectLastCall().once();
+    EasyMock.replay(ps);
+    return ps;
+  }
+}
@@ -0,0 +1,218 @@
+/*******************************************************************************
+ * Copyright (c) 2013 BSI Business Systems Integration AG.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     BSI Business Systems Integration AG - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.scout.rt.server.services.lookup;
+
+import static org.junit.Assert.assertEquals;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+import org.easymock.EasyMock;
+import org.eclipse.scout.commons.exception.ProcessingException;
+import org.eclipse.scout.rt.server.internal.Activator;
+import org.eclipse.scout.rt.server.services.common.jdbc.ISqlService;
+import org.eclipse.scout.rt.server.services.common.jdbc.style.OracleSqlStyle;
+import org.eclipse.scout.rt.shared.services.lookup.BatchLookupCall;
+import org.eclipse.scout.rt.shared.services.lookup.ILookupService;
+import org.eclipse.scout.rt.shared.services.lookup.LookupCall;
+import org.eclipse.scout.rt.shared.services.lookup.LookupRow;
+import org.eclipse.scout.rt.testing.shared.TestingUtility;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.osgi.framework.ServiceRegistration;
+
+/**
+ * Test {@link BatchLookupService} grouping calls of {@link AbstractSqlLookupService#isBatchDataByKeySupported()}
+ */
+public class SqlBatchLookupTest {
+  private List<ServiceRegistration> m_reg;
+
+  @Before
+  public void setUp() throws Exception {
+    ISqlService sqlService = EasyMock.createNiceMock(ISqlService.class);
+    EasyMock.expect(sqlService.getSqlStyle()).andReturn(new OracleSqlStyle()).anyTimes();
+    EasyMock.replay(sqlService);
+    m_reg = TestingUtility.registerServices(Activator.getDefault().getBundle(), 1000, sqlService);
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    TestingUtility.unregisterServices(m_reg);
+  }
+
+  @Test
+  public void testGroupedByNonKeyProperties() throws Exception {
+    P_SqlLookupService service = new P_SqlLookupService("F.FLOWER_NR");
+    BatchLookupCall batchCall = new BatchLookupCall();
+    for (int i = 0; i < 100; i++) {
+      P_LookupCall call = new P_LookupCall(service);
+      call.setKey((i % 10) + 1L);
+      call.setMaster(i < 50 ? "red" : "blue");
+      batchCall.addLookupCall(call);
+    }
+    LookupCall[] calls = batchCall.getCallBatch();
+    LookupRow[][] result = new BatchLookupService().getBatchDataByKey(batchCall);
+    // one statement per master value, ten keys are bound as sixteen binds
+    assertEquals(2, service.m_statements.size());
+    assertEquals(10, service.m_statements.get(0).length);
+    assertEquals("SELECT F.FLOWER_NR, F.NAME FROM FLOWER F WHERE 1=1  AND F.FLOWER_NR IN (:batchKey0,:batchKey1,:batchKey2,:batchKey3,:batchKey4,:batchKey5,:batchKey6,:batchKey7,:batchKey8,:batchKey9,:batchKey10,:batchKey11,:batchKey12,:batchKey13,:batchKey14,:batchKey15) ", service.m_sql.get(0));
+    for (int i = 0; i < calls.length; i++) {
+      assertEquals(1, result[i].length);
+      assertEquals(calls[i].getKey(), result[i][0].getKey());
+      assertEquals(calls[i].getMaster() + "-" + calls[i].getKey(), result[i][0].getText());
+    }
+  }
+
+  @Test
+  public void testMissingKey() throws Exception {
+    P_SqlLookupService service = new P_SqlLookupService("F.FLOWER_NR");
+    BatchLookupCall batchCall = new BatchLookupCall();
+    P_LookupCall a = new P_LookupCall(service);
+    a.setKey(1L);
+    P_LookupCall b = new P_LookupCall(service);
+    b.setKey(-1L);
+    batchCall.addLookupCall(a);
+    batchCall.addLookupCall(b);
+    LookupRow[][] result = new BatchLookupService().getBatchDataByKey(batchCall);
+    assertEquals(1, service.m_statements.size());
+    assertEquals(1, result[0].length);
+    assertEquals(0, result[1].length);
+  }
+
+  @Test
+  public void testRowKeyTypeDiffersFromCallKeyType() throws Exception {
+    P_SqlLookupService service = new P_SqlLookupService("F.FLOWER_NR");
+    // the database returns NUMBER columns as BigDecimal, the calls use Long keys
+    service.m_rowKeysAsBigDecimal = true;
+    BatchLookupCall batchCall = new BatchLookupCall();
+    for (int i = 0; i < 3; i++) {
+      P_LookupCall call = new P_LookupCall(service);
+      call.setKey(i + 1L);
+      batchCall.addLookupCall(call);
+    }
+    LookupRow[][] result = new BatchLookupService().getBatchDataByKey(batchCall);
+    assertEquals(1, service.m_statements.size());
+    for (int i = 0; i < 3; i++) {
+      assertEquals(1, result[i].length);
+      assertEquals(new BigDecimal(i + 1), result[i][0].getKey());
+    }
+  }
+
+  @Test
+  public void testKeysAreBound() throws Exception {
+    P_SqlLookupService service = new P_SqlLookupService("F.FLOWER_NR");
+    BatchLookupCall batchCall = new BatchLookupCall();
+    for (int i = 0; i < 600; i++) {
+      P_LookupCall call = new P_LookupCall(service);
+      call.setKey(i + 1L);
+      batchCall.addLookupCall(call);
+    }
+    LookupRow[][] result = new BatchLookupService().getBatchDataByKey(batchCall);
+    // at most 512 keys per statement, the key values are never part of the statement text
+    assertEquals(2, service.m_statements.size());
+    assertEquals(512, service.m_statements.get(0).length);
+    assertEquals(88, service.m_statements.get(1).length);
+    assertEquals(false, service.m_sql.get(1).contains("600"));
+    assertEquals(true, service.m_sql.get(1).contains(":batchKey127)"));
+    for (int i = 0; i < 600; i++) {
+      assertEquals(1, result[i].length);
+      assertEquals(i + 1L, result[i][0].getKey());
+    }
+  }
+
+  @Test
+  public void testNotSupported() throws Exception {
+    P_SqlLookupService service = new P_SqlLookupService(null);
+    BatchLookupCall batchCall = new BatchLookupCall();
+    for (int i = 0; i < 3; i++) {
+      P_LookupCall call = new P_LookupCall(service);
+      call.setKey(i + 1L);
+      batchCall.addLookupCall(call);
+    }
+    new BatchLookupService().getBatchDataByKey(batchCall);
+    assertEquals(3, service.m_statements.size());
+  }
+
+  private static class P_LookupCall extends LookupCall {
+    private static final long serialVersionUID = 1L;
+    private final transient ILookupService m_service;
+
+    public P_LookupCall(ILookupService service) {
+      m_service = service;
+    }
+
+    @Override
+    public ILookupService getLookupService() {
+      return m_service;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      return super.equals(obj) && ((P_LookupCall) obj).m_service == m_service;
+    }
+
+    @Override
+    public int hashCode() {
+      return super.hashCode();
+    }
+  }
+
+  private static class P_SqlLookupService extends AbstractSqlLookupService {
+    private final String m_keyColumn;
+    private final List<Object[]> m_statements = new ArrayList<Object[]>();
+    private final List<String> m_sql = new ArrayList<String>();
+    private boolean m_rowKeysAsBigDecimal;
+
+    public P_SqlLookupService(String keyColumn) {
+      m_keyColumn = keyColumn;
+    }
+
+    @Override
+    protected String getConfiguredBatchKeyColumn() {
+      return m_keyColumn;
+    }
+
+    @Override
+    protected String getConfiguredSqlSelect() {
+      return "SELECT F.FLOWER_NR, F.NAME FROM FLOWER F WHERE 1=1 <key>AND F.FLOWER_NR = :key</key>";
+    }
+
+    @Override
+    public LookupRow[] getDataByKey(LookupCall call) throws ProcessingException {
+      m_statements.add(new Object[]{call.getKey()});
+      return new LookupRow[]{new LookupRow(call.getKey(), call.getMaster() + "-" + call.getKey())};
+    }
+
+    @Override
+    protected LookupRow[] execLoadBatchLookupRows(String originalSql, String preprocessedSql, LookupCall call, Map<String, Object> keyBinds) throws ProcessingException {
+      // the padding binds repeat the last key
+      LinkedHashSet<Object> keys = new LinkedHashSet<Object>();
+      for (int i = 0; i < keyBinds.size(); i++) {
+        keys.add(keyBinds.get("batchKey" + i));
+      }
+      m_sql.add(preprocessedSql);
+      m_statements.add(keys.toArray());
+      List<LookupRow> rows = new ArrayList<LookupRow>();
+      for (Object o : keys) {
+        long key = ((Long) o).longValue();
+        if (key > 0) {
+          Object rowKey = m_rowKeysAsBigDecimal ? (Object) new BigDecimal(key) : (Object) Long.valueOf(key);
+          rows.add(new LookupRow(rowKey, call.getMaster() + "-" + key));
+        }
+      }
+      return rows.toArray(new LookupRow[rows.size()]);
+    }
+  }
+}
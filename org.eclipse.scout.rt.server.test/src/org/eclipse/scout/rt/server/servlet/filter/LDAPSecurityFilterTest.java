@@ -0,0 +1,218 @@
+/*******************************************************************************
+ * Copyright (c) 2013 BSI Business Systems Integration AG.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     BSI Business Systems Integration AG - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.scout.rt.server.servlet.filter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Hashtable;
+import java.util.List;
+import java.util.Map;
+
+import javax.naming.AuthenticationException;
+import javax.naming.CommunicationException;
+import javax.naming.Context;
+import javax.naming.NamingException;
+import javax.naming.directory.BasicAttributes;
+import javax.naming.directory.DirContext;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletContext;
+import javax.servlet.ServletException;
+
+import org.eclipse.scout.http.servletfilter.security.LDAPSecurityFilter;
+import org.junit.Test;
+
+/**
+ * Tests the credential cache of {@link org.eclipse.scout.http.servletfilter.security.AbstractChainableSecurityFilter}
+ * and the connection handling of {@link LDAPSecurityFilter} against a fake directory.
+ */
+public class LDAPSecurityFilterTest {
+  private static final String POOL_PROPERTY = "com.sun.jndi.ldap.connect.pool";
+  private static final String USER_DN = "cn=alice,ou=users,o=test";
+
+  @Test
+  public void testPositiveCache() throws Exception {
+    P_LDAPSecurityFilter filter = createFilter(false);
+    assertTrue(filter.isValid("alice", "secret"));
+    assertTrue(filter.isValid("alice", "secret"));
+    assertEquals(1, filter.getUserBindCount());
+    // other credentials are verified
+    assertFalse(filter.isValid("alice", "wrong"));
+    assertEquals(2, filter.getUserBindCount());
+    filter.clearCredentialCache();
+    assertTrue(filter.isValid("alice", "secret"));
+    assertEquals(3, filter.getUserBindCount());
+  }
+
+  @Test
+  public void testNegativeCache() throws Exception {
+    P_LDAPSecurityFilter filter = createFilter(false);
+    assertFalse(filter.isValid("alice", "wrong"));
+    assertFalse(filter.isValid("alice", "wrong"));
+    assertEquals(1, filter.getUserBindCount());
+  }
+
+  @Test
+  public void testOutageIsNotCached() throws Exception {
+    P_LDAPSecurityFilter filter = createFilter(false);
+    filter.setOutage(true);
+    assertOutage(filter);
+    assertOutage(filter);
+    assertEquals(2, filter.getUserBindCount());
+    filter.setOutage(false);
+    assertTrue(filter.isValid("alice", "secret"));
+    assertEquals(3, filter.getUserBindCount());
+  }
+
+  @Test
+  public void testConnectionPool() throws Exception {
+    P_LDAPSecurityFilter filter = createFilter(true);
+    assertTrue(filter.isValid("alice", "secret"));
+    // the lookup of the user DN is pooled, the bind of the user is not
+    assertEquals(2, filter.getEnvironments().size());
+    assertEquals("true", filter.getEnvironments().get(0).get(POOL_PROPERTY));
+    assertEquals(USER_DN, filter.getEnvironments().get(1).get(Context.SECURITY_PRINCIPAL));
+    assertNull(filter.getEnvironments().get(1).get(POOL_PROPERTY));
+  }
+
+  @Test
+  public void testStalePooledConnection() throws Exception {
+    P_LDAPSecurityFilter filter = createFilter(true);
+    filter.setStaleLookupConnection(true);
+    assertTrue(filter.isValid("alice", "secret"));
+    // the lookup is retried once on a new connection
+    assertEquals(3, filter.getEnvironments().size());
+    assertEquals("true", filter.getEnvironments().get(0).get(POOL_PROPERTY));
+    assertNull(filter.getEnvironments().get(1).get(POOL_PROPERTY));
+    assertEquals(USER_DN, filter.getEnvironments().get(2).get(Context.SECURITY_PRINCIPAL));
+  }
+
+  private static void assertOutage(P_LDAPSecurityFilter filter) {
+    try {
+      filter.isValid("alice", "secret");
+      fail("an unavailable directory must not be reported as failed login");
+    }
+    catch (ServletException e) {
+      assertTrue(e.getCause() instanceof CommunicationException);
+    }
+  }
+
+  private static P_LDAPSecurityFilter createFilter(boolean connectionPool) throws ServletException {
+    Map<String, String> params = new HashMap<String, String>();
+    params.put("ldapServer", "ldap://localhost");
+    params.put("ldapBaseDN", "o=test");
+    params.put("lDAPgroupDN", "cn=users");
+    params.put("lDAPgroupAttributeId", "member");
+    params.put("ldapConnectionPool", Boolean.toString(connectionPool));
+    params.put("credentialCacheTimeout", "60000");
+    P_LDAPSecurityFilter filter = new P_LDAPSecurityFilter();
+    filter.init(new P_FilterConfig(params));
+    return filter;
+  }
+
+  private static class P_LDAPSecurityFilter extends LDAPSecurityFilter {
+    private final List<Hashtable> m_environments = new ArrayList<Hashtable>();
+    private int m_userBindCount;
+    private boolean m_outage;
+    private boolean m_staleLookupConnection;
+
+    public boolean isValid(String username, String password) throws ServletException {
+      return isValidCredentials(username, password);
+    }
+
+    public List<Hashtable> getEnvironments() {
+      return m_environments;
+    }
+
+    public int getUserBindCount() {
+      return m_userBindCount;
+    }
+
+    public void setOutage(boolean outage) {
+      m_outage = outage;
+    }
+
+    public void setStaleLookupConnection(boolean staleLookupConnection) {
+      m_staleLookupConnection = staleLookupConnection;
+    }
+
+    @Override
+    protected DirContext createDirContext(Hashtable env) throws NamingException {
+      m_environments.add(new Hashtable(env));
+      if (USER_DN.equals(env.get(Context.SECURITY_PRINCIPAL))) {
+        m_userBindCount++;
+        if (m_outage) {
+          throw new CommunicationException("directory not available");
+        }
+        if (!"secret".equals(env.get(Context.SECURITY_CREDENTIALS))) {
+          throw new AuthenticationException("invalid credentials");
+        }
+        return createContext(false);
+      }
+      boolean stale = m_staleLookupConnection;
+      m_staleLookupConnection = false;
+      return createContext(stale);
+    }
+
+    private DirContext createContext(final boolean stale) {
+      return (DirContext) Proxy.newProxyInstance(DirContext.class.getClassLoader(), new Class[]{DirContext.class}, new InvocationHandler() {
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+          if ("getAttributes".equals(method.getName())) {
+            if (stale) {
+              throw new CommunicationException("connection reset");
+            }
+            return new BasicAttributes("member", USER_DN);
+          }
+          return null;
+        }
+      });
+    }
+  }
+
+  private static class P_FilterConfig implements FilterConfig {
+    private final Map<String, String> m_params;
+
+    public P_FilterConfig(Map<String, String> params) {
+      m_params = params;
+    }
+
+    @Override
+    public String getFilterName() {
+      return "ldap";
+    }
+
+    @Override
+    public ServletContext getServletContext() {
+      return null;
+    }
+
+    @Override
+    public String getInitParameter(String name) {
+      return m_params.get(name);
+    }
+
+    @Override
+    public Enumeration getInitParameterNames() {
+      return Collections.enumeration(m_params.keySet());
+    }
+  }
+}
@@ -13,8 +13,10 @@ package org.eclipse.scout.rt.server;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
 import java.util.Date;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 
+import org.eclipse.scout.commons.CompositeObject;
 import org.eclipse.scout.commons.exception.ProcessingException;
 import org.eclipse.scout.commons.exception.VetoException;
 import org.eclipse.scout.commons.logger.IScoutLogger;
@@ -25,6 +27,7 @@ import org.eclipse.scout.rt.server.admin.inspector.SessionInspector;
 import org.eclipse.scout.rt.server.internal.Activator;
 import org.eclipse.scout.rt.server.services.common.clientnotification.IClientNotificationService;
 import org.eclipse.scout.rt.server.transaction.ITransaction;
+import org.eclipse.scout.rt.server.transaction.ReadOnlyTransaction;
 import org.eclipse.scout.rt.shared.ScoutTexts;
 import org.eclipse.scout.rt.shared.WebClientState;
 import org.eclipse.scout.rt.shared.security.RemoteServiceAccessPermission;
@@ -63,6 +66,13 @@ import org.osgi.framework.Version;
  *   org.eclipse.scout.rt.server.validateInput=true
  *   org.eclipse.scout.rt.server.validateOutput=false
  * </pre>
+ * <p>
+ * The resolution of service interface and operation and the validation strategies are cached in the
+ * {@link ServiceInvocationPlanCache}, see {@link #isInvocationPlanCacheEnabled()}. The verdicts of the interface and
+ * annotation access checks are only cached if the checks are not overridden, see {@link #isAccessCheckCacheable()}.
+ * <p>
+ * The duration and outcome of every call are recorded in the {@link ServiceTunnelMetrics}, calls that do not resolve
+ * to a permitted service interface operation in the shared unknown entry.
  */
 @SuppressWarnings("deprecation")
 public class DefaultTransactionDelegate {
@@ -73,11 +83,14 @@ public class DefaultTransactionDelegate {
   public static final Pattern DEFAULT_QUERY_NAMES_PATTERN = Pattern.compile("(get|is|has|load|read|find|select)([A-Z].*)?");
   public static final Pattern DEFAULT_PROCESS_NAMES_PATTERN = Pattern.compile("(set|put|add|remove|store|write|create|insert|update|delete)([A-Z].*)?");
 
+  private static final ConcurrentHashMap<Class<?>, Boolean> ACCESS_CHECKS_OVERRIDDEN = new ConcurrentHashMap<Class<?>, Boolean>();
+
   private final Version m_requestMinVersion;
   private final boolean m_debug;
   private final Bundle[] m_loaderBundles;
   private long m_requestStart;
   private long m_requestEnd;
+  private ServiceTunnelMetrics.OperationMetrics m_metrics;
 
   public DefaultTransactionDelegate(Bundle[] loaderBundles, Version requestMinVersion, boolean debug) {
     m_loaderBundles = loaderBundles;
@@ -86,7 +99,8 @@ public class DefaultTransactionDelegate {
   }
 
   public ServiceTunnelResponse invoke(ServiceTunnelRequest serviceReq) throws Exception {
-    ServiceTunnelResponse response;
+    ServiceTunnelResponse response = null;
+    m_metrics = null;
     m_requestStart = System.nanoTime();
     try {
       response = invokeImpl(serviceReq);
@@ -116,11 +130,18 @@ public class DefaultTransactionDelegate {
       response = new ServiceTunnelResponse(null, null, p);
     }
     finally {
+      m_requestEnd = System.nanoTime();
+      boolean failed = (response == null || response.getException() != null);
+      if (m_metrics != null) {
+        m_metrics.callEnded(m_requestEnd - m_requestStart, failed);
+      }
+      else {
+        ServiceTunnelMetrics.getInstance().getUnknownOperationMetrics().recordCall(m_requestEnd - m_requestStart, failed);
+      }
       if (m_debug) {
         LOG.debug("TIME " + serviceReq.getServiceInterfaceClassName() + "." + serviceReq.getOperation() + " " + (m_requestEnd - m_requestStart) / 1000000L + "ms");
       }
     }
-    m_requestEnd = System.nanoTime();
     response.setProcessingDuration((m_requestEnd - m_requestStart) / 1000000L);
     return response;
   }
@@ -177,38 +198,34 @@ public class DefaultTransactionDelegate {
       String virtualSessionId = serviceReq.getVirtualSessionId();
       WebClientState.setWebClientInCurrentThread(virtualSessionId != null);
       //do checks
-      Class<?> serviceInterfaceClass = null;
-      for (Bundle b : m_loaderBundles) {
-        try {
-          serviceInterfaceClass = b.loadClass(serviceReq.getServiceInterfaceClassName());
-          break;
-        }
-        catch (ClassNotFoundException e) {
-          // nop
-        }
-      }
-      //check access: existence
-      if (serviceInterfaceClass == null) {
-        throw new ClassNotFoundException(serviceReq.getServiceInterfaceClassName());
-      }
+      ServiceInvocationPlanCache.InterfacePlan interfacePlan = getInterfacePlan(serviceReq);
+      Class<?> serviceInterfaceClass = interfacePlan.getServiceInterfaceClass();
+      Method serviceOp = interfacePlan.getServiceOperation();
       //check access: service proxy allowed
-      Method serviceOp = ServiceUtility.getServiceOperation(serviceInterfaceClass, serviceReq.getOperation(), serviceReq.getParameterTypes());
-      checkRemoteServiceAccessByInterface(serviceInterfaceClass, serviceOp, serviceReq.getArgs());
+      interfacePlan.checkAccess();
+      //the operation is known and permitted, record it in its own metrics
+      m_metrics = ServiceTunnelMetrics.getInstance().getOperationMetrics(serviceInterfaceClass.getName(), serviceOp.getName());
+      m_metrics.callStarted();
       //check access: service impl exists
       Object service = SERVICES.getService(serviceInterfaceClass);
       if (service == null) {
         throw new SecurityException("service registry does not contain a service of type " + serviceReq.getServiceInterfaceClassName());
       }
-      checkRemoteServiceAccessByAnnotations(serviceInterfaceClass, service.getClass(), serviceOp, serviceReq.getArgs());
+      ServiceInvocationPlanCache.ImplementationPlan implementationPlan = getImplementationPlan(interfacePlan, service, serviceReq.getArgs());
+      implementationPlan.checkAccess();
       checkRemoteServiceAccessByPermission(serviceInterfaceClass, service.getClass(), serviceOp, serviceReq.getArgs());
       //all checks done
       //
+      if (implementationPlan.isReadOnlyTransaction()) {
+        ITransaction transaction = ThreadContext.getTransaction();
+        if (transaction != null) {
+          transaction.setReadOnly(true);
+        }
+      }
+      //
       //filter input
       if (serviceReq.getArgs() != null && serviceReq.getArgs().length > 0) {
-        Class<? extends IValidationStrategy> inputValidationStrategyClass = findInputValidationStrategyByAnnotation(service, serviceOp);
-        if (inputValidationStrategyClass == null) {
-          inputValidationStrategyClass = findInputValidationStrategyByPolicy(service, serviceOp);
-        }
+        Class<? extends IValidationStrategy> inputValidationStrategyClass = implementationPlan.getInputValidationStrategyClass();
         if (inputValidationStrategyClass == null) {
           throw new SecurityException("input validation failed (no strategy defined)");
         }
@@ -220,10 +237,7 @@ public class DefaultTransactionDelegate {
       //
       //filter output
       if (data != null || (outParameters != null && outParameters.length > 0)) {
-        Class<? extends IValidationStrategy> outputValidationStrategyClass = findOutputValidationStrategyByAnnotation(service, serviceOp);
-        if (outputValidationStrategyClass == null) {
-          outputValidationStrategyClass = findOutputValidationStrategyByPolicy(service, serviceOp);
-        }
+        Class<? extends IValidationStrategy> outputValidationStrategyClass = implementationPlan.getOutputValidationStrategyClass();
         if (outputValidationStrategyClass == null) {
           throw new SecurityException("output validation failed");
         }
@@ -262,6 +276,158 @@ public class DefaultTransactionDelegate {
     }
   }
 
+  /**
+   * Caching is enabled by default. Override and return false if one of the find methods of this delegate depends on
+   * anything else than the service interface, the operation and the service implementation class.
+   * 
+   * @return true if resolved interfaces, operations and validation strategies are cached in the
+   *         {@link ServiceInvocationPlanCache}
+   * @since 3.9.0
+   */
+  protected boolean isInvocationPlanCacheEnabled() {
+    return true;
+  }
+
+  /**
+   * The default implementations of {@link #checkRemoteServiceAccessByInterface(Class, Method, Object[])} and
+   * {@link #checkRemoteServiceAccessByAnnotations(Class, Class, Method, Object[])} only depend on the service interface,
+   * the operation and the service implementation class, so their verdicts are cached. Overridden checks may depend on
+   * the arguments or the session and are therefore run on every call. Override and return true if overridden checks
+   * do not depend on the arguments or the session.
+   * 
+   * @return true if the verdicts of the interface and annotation access checks are cached in the
+   *         {@link ServiceInvocationPlanCache}
+   * @since 3.9.0
+   */
+  protected boolean isAccessCheckCacheable() {
+    Boolean overridden = ACCESS_CHECKS_OVERRIDDEN.get(getClass());
+    if (overridden == null) {
+      overridden = isDeclaredBelowDefault("checkRemoteServiceAccessByInterface", Class.class, Method.class, Object[].class)
+          || isDeclaredBelowDefault("checkRemoteServiceAccessByAnnotations", Class.class, Class.class, Method.class, Object[].class);
+      ACCESS_CHECKS_OVERRIDDEN.put(getClass(), overridden);
+    }
+    return !overridden.booleanValue();
+  }
+
+  /**
+   * @return true if a subclass overrides the method of this class
+   */
+  private boolean isDeclaredBelowDefault(String methodName, Class<?>... parameterTypes) {
+    for (Class<?> c = getClass(); c != null && c != DefaultTransactionDelegate.class; c = c.getSuperclass()) {
+      try {
+        c.getDeclaredMethod(methodName, parameterTypes);
+        return true;
+      }
+      catch (NoSuchMethodException e) {
+        // nop
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Loads the service interface class and the operation and runs the check
+   * {@link #checkRemoteServiceAccessByInterface(Class, Method, Object[])}, or returns the cached result thereof.
+   * <p>
+   * If the check is not cacheable, it is run on every call and a {@link SecurityException} is thrown directly.
+   */
+  ServiceInvocationPlanCache.InterfacePlan getInterfacePlan(ServiceTunnelRequest serviceReq) throws ClassNotFoundException, ProcessingException {
+    CompositeObject key = null;
+    boolean checkCached = true;
+    if (isInvocationPlanCacheEnabled()) {
+      checkCached = isAccessCheckCacheable();
+      key = ServiceInvocationPlanCache.createKey(getClass(), serviceReq.getServiceInterfaceClassName(), serviceReq.getOperation(), serviceReq.getParameterTypes());
+      ServiceInvocationPlanCache.InterfacePlan plan = ServiceInvocationPlanCache.getInstance().get(key);
+      if (plan != null) {
+        if (!checkCached) {
+          checkRemoteServiceAccessByInterface(plan.getServiceInterfaceClass(), plan.getServiceOperation(), serviceReq.getArgs());
+        }
+        return plan;
+      }
+    }
+    Class<?> serviceInterfaceClass = null;
+    for (Bundle b : m_loaderBundles) {
+      try {
+        serviceInterfaceClass = b.loadClass(serviceReq.getServiceInterfaceClassName());
+        break;
+      }
+      catch (ClassNotFoundException e) {
+        // nop
+      }
+    }
+    //check access: existence
+    if (serviceInterfaceClass == null) {
+      throw new ClassNotFoundException(serviceReq.getServiceInterfaceClassName());
+    }
+    Method serviceOp = ServiceUtility.getServiceOperation(serviceInterfaceClass, serviceReq.getOperation(), serviceReq.getParameterTypes());
+    String accessDeniedMessage = null;
+    try {
+      checkRemoteServiceAccessByInterface(serviceInterfaceClass, serviceOp, serviceReq.getArgs());
+    }
+    catch (SecurityException e) {
+      if (!checkCached) {
+        throw e;
+      }
+      accessDeniedMessage = e.getMessage();
+    }
+    ServiceInvocationPlanCache.InterfacePlan plan = new ServiceInvocationPlanCache.InterfacePlan(serviceInterfaceClass, serviceOp, accessDeniedMessage);
+    if (key != null) {
+      plan = ServiceInvocationPlanCache.getInstance().put(key, plan);
+    }
+    return plan;
+  }
+
+  /**
+   * Runs the check {@link #checkRemoteServiceAccessByAnnotations(Class, Class, Method, Object[])} and finds the input
+   * and output validation strategies, or returns the cached result thereof.
+   * <p>
+   * If the check is not cacheable, it is run on every call and a {@link SecurityException} is thrown directly.
+   */
+  ServiceInvocationPlanCache.ImplementationPlan getImplementationPlan(ServiceInvocationPlanCache.InterfacePlan interfacePlan, Object service, Object[] args) {
+    boolean cacheEnabled = isInvocationPlanCacheEnabled();
+    boolean checkCached = !cacheEnabled || isAccessCheckCacheable();
+    Class<?> serviceInterfaceClass = interfacePlan.getServiceInterfaceClass();
+    Method serviceOp = interfacePlan.getServiceOperation();
+    if (!checkCached) {
+      checkRemoteServiceAccessByAnnotations(serviceInterfaceClass, service.getClass(), serviceOp, args);
+    }
+    if (cacheEnabled) {
+      ServiceInvocationPlanCache.ImplementationPlan plan = interfacePlan.getImplementationPlan(service.getClass());
+      if (plan != null) {
+        return plan;
+      }
+    }
+    String accessDeniedMessage = null;
+    if (checkCached) {
+      try {
+        checkRemoteServiceAccessByAnnotations(serviceInterfaceClass, service.getClass(), serviceOp, args);
+      }
+      catch (SecurityException e) {
+        accessDeniedMessage = e.getMessage();
+      }
+    }
+    Class<? extends IValidationStrategy> inputValidationStrategyClass = null;
+    Class<? extends IValidationStrategy> outputValidationStrategyClass = null;
+    boolean readOnlyTransaction = false;
+    if (accessDeniedMessage == null) {
+      inputValidationStrategyClass = findInputValidationStrategyByAnnotation(service, serviceOp);
+      if (inputValidationStrategyClass == null) {
+        inputValidationStrategyClass = findInputValidationStrategyByPolicy(service, serviceOp);
+      }
+      outputValidationStrategyClass = findOutputValidationStrategyByAnnotation(service, serviceOp);
+      if (outputValidationStrategyClass == null) {
+        outputValidationStrategyClass = findOutputValidationStrategyByPolicy(service, serviceOp);
+      }
+      Boolean readOnly = findReadOnlyTransactionByAnnotation(service, serviceOp);
+      readOnlyTransaction = (readOnly != null ? readOnly.booleanValue() : findReadOnlyTransactionByPolicy(service, serviceOp));
+    }
+    ServiceInvocationPlanCache.ImplementationPlan plan = new ServiceInvocationPlanCache.ImplementationPlan(accessDeniedMessage, inputValidationStrategyClass, outputValidationStrategyClass, readOnlyTransaction);
+    if (cacheEnabled) {
+      plan = interfacePlan.putImplementationPlan(service.getClass(), plan);
+    }
+    return plan;
+  }
+
   /**
    * Check pass 1 on type
    */
@@ -518,4 +684,60 @@ public class DefaultTransactionDelegate {
     return IValidationStrategy.NO_CHECK.class;
   }
 
+  /**
+   * Pass 1 tries to find a {@link ReadOnlyTransaction} annotation
+   * 
+   * @since 3.9.0
+   */
+  protected Boolean findReadOnlyTransactionByAnnotation(Object serviceImpl, Method op) {
+    Class<?> c = serviceImpl.getClass();
+    while (c != null) {
+      //method level
+      Method m = null;
+      try {
+        m = c.getMethod(op.getName(), op.getParameterTypes());
+      }
+      catch (Throwable t) {
+        //nop
+      }
+      if (m != null) {
+        ReadOnlyTransaction ann = m.getAnnotation(ReadOnlyTransaction.class);
+        if (ann != null) {
+          return ann.value();
+        }
+      }
+      //type level
+      ReadOnlyTransaction ann = c.getAnnotation(ReadOnlyTransaction.class);
+      if (ann != null) {
+        return ann.value();
+      }
+      //next
+      if (c == op.getDeclaringClass()) {
+        break;
+      }
+      c = c.getSuperclass();
+      if (c == Object.class) {
+        //use interface at last
+        c = op.getDeclaringClass();
+      }
+    }
+    //continue
+    return null;
+  }
+
+  /**
+   * Pass 2 decides by the input validation strategy: operations with an {@link InputValidation} annotation of
+   * {@link IValidationStrategy.QUERY} and operations without annotation that match {@link #DEFAULT_QUERY_NAMES_PATTERN}
+   * are read-only. The legacy QUERY fallback for unknown names is not read-only.
+   * 
+   * @since 3.9.0
+   */
+  protected boolean findReadOnlyTransactionByPolicy(Object serviceImpl, Method op) {
+    Class<? extends IValidationStrategy> s = findInputValidationStrategyByAnnotation(serviceImpl, op);
+    if (s != null) {
+      return s == IValidationStrategy.QUERY.class;
+    }
+    return DEFAULT_QUERY_NAMES_PATTERN.matcher(op.getName()).matches();
+  }
+
 }
@@ -25,6 +25,7 @@ import org.eclipse.scout.commons.exception.ProcessingException;
 import org.eclipse.scout.commons.logger.IScoutLogger;
 import org.eclipse.scout.commons.logger.ScoutLogManager;
 import org.eclipse.scout.http.servletfilter.HttpServletEx;
+import org.eclipse.scout.rt.shared.services.common.file.IRangeRemoteFileService;
 import org.eclipse.scout.rt.shared.services.common.file.IRemoteFileService;
 import org.eclipse.scout.rt.shared.services.common.file.RemoteFile;
 import org.eclipse.scout.service.SERVICES;
@@ -34,6 +35,9 @@ import org.eclipse.scout.service.SERVICES;
  * <p>
  * Init parameters:<br>
  * folder: folder inside external file location
+ * <p>
+ * Single byte ranges (<code>Range: bytes=...</code>, optionally with <code>If-Range</code>) are answered with a partial
+ * content response, multiple ranges are answered with the full content.
  */
 public class RemoteFileServlet extends HttpServletEx {
   private static final long serialVersionUID = 1L;
@@ -43,6 +47,11 @@ public class RemoteFileServlet extends HttpServletEx {
   private static final String IF_MODIFIED_SINCE = "If-Modified-Since"; //$NON-NLS-1$
   private static final String IF_NONE_MATCH = "If-None-Match"; //$NON-NLS-1$
   private static final String ETAG = "ETag"; //$NON-NLS-1$
+  private static final String ACCEPT_RANGES = "Accept-Ranges"; //$NON-NLS-1$
+  private static final String RANGE = "Range"; //$NON-NLS-1$
+  private static final String IF_RANGE = "If-Range"; //$NON-NLS-1$
+  private static final String CONTENT_RANGE = "Content-Range"; //$NON-NLS-1$
+  private static final String BYTES_UNIT = "bytes"; //$NON-NLS-1$
 
   private String m_folder = ""; //$NON-NLS-1$
 
@@ -138,16 +147,121 @@ public class RemoteFileServlet extends HttpServletEx {
     if (setResponseParameters(req, resp, resourcePath, remoteFile.getContentType(), lastModified, contentLength) == HttpServletResponse.SC_NOT_MODIFIED) {
       return true;
     }
+    // range requests are only served by remote file services that support them, all others stream the whole file
+    if (contentLength > 0 && rfs instanceof IRangeRemoteFileService) {
+      resp.setHeader(ACCEPT_RANGES, BYTES_UNIT);
+      String rangeHeader = req.getHeader(RANGE);
+      if (rangeHeader != null && isRangeApplicable(req, lastModified, contentLength)) {
+        long[] range = parseRange(rangeHeader, contentLength);
+        if (range == UNSATISFIABLE_RANGE) {
+          resp.setHeader(CONTENT_RANGE, BYTES_UNIT + " */" + contentLength); //$NON-NLS-1$
+          resp.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+          return true;
+        }
+        if (range != null) {
+          long length = range[1] - range[0] + 1;
+          resp.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+          resp.setHeader(CONTENT_RANGE, BYTES_UNIT + " " + range[0] + "-" + range[1] + "/" + contentLength); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+          resp.setContentLength((int) length);
+          ((IRangeRemoteFileService) rfs).streamRemoteFile(remoteFile, resp.getOutputStream(), range[0], length);
+          return true;
+        }
+      }
+    }
     rfs.streamRemoteFile(remoteFile, resp.getOutputStream());
     return true;
   }
 
-  protected int setResponseParameters(final HttpServletRequest req, final HttpServletResponse resp, final String resourcePath, String contentType, long lastModified, int contentLength) {
-    String etag = null;
-    if (lastModified != -1 && contentLength != -1)
-     {
-      etag = "W/\"" + contentLength + "-" + lastModified + "\""; //$NON-NLS-1$//$NON-NLS-2$//$NON-NLS-3$
+  /**
+   * A range request is only served if the <code>If-Range</code> validator, if any, matches the current file
+   */
+  private boolean isRangeApplicable(HttpServletRequest req, long lastModified, int contentLength) {
+    String ifRange = req.getHeader(IF_RANGE);
+    if (ifRange == null) {
+      return true;
+    }
+    ifRange = ifRange.trim();
+    if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) { //$NON-NLS-1$ //$NON-NLS-2$
+      // If-Range requires a strong comparison, weak entity tags never match
+      String etag = getETag(lastModified, contentLength);
+      return etag != null && !etag.startsWith("W/") && etag.equals(ifRange); //$NON-NLS-1$
+    }
+    try {
+      long ifRangeDate = req.getDateHeader(IF_RANGE);
+      return ifRangeDate > -1 && lastModified > 0 && lastModified <= (ifRangeDate + 999);
+    }
+    catch (IllegalArgumentException e) {
+      return false;
+    }
+  }
+
+  static final long[] UNSATISFIABLE_RANGE = new long[0];
+
+  /**
+   * @return the first and last byte position of a single byte range, {@link #UNSATISFIABLE_RANGE} if the range does
+   *         not overlap the content and null if the header is invalid or contains multiple ranges, in which case the
+   *         full content is sent
+   */
+  static long[] parseRange(String rangeHeader, long contentLength) {
+    String s = rangeHeader.trim();
+    if (!s.startsWith(BYTES_UNIT + "=")) { //$NON-NLS-1$
+      return null;
     }
+    s = s.substring(BYTES_UNIT.length() + 1).trim();
+    if (s.indexOf(',') >= 0) {
+      return null;
+    }
+    int dash = s.indexOf('-');
+    if (dash < 0) {
+      return null;
+    }
+    String first = s.substring(0, dash).trim();
+    String last = s.substring(dash + 1).trim();
+    long start;
+    long end;
+    try {
+      if (first.length() == 0) {
+        // suffix range: the last n bytes
+        if (last.length() == 0) {
+          return null;
+        }
+        long suffixLength = Long.parseLong(last);
+        if (suffixLength <= 0) {
+          return UNSATISFIABLE_RANGE;
+        }
+        start = Math.max(0, contentLength - suffixLength);
+        end = contentLength - 1;
+      }
+      else {
+        start = Long.parseLong(first);
+        end = (last.length() == 0 ? Long.MAX_VALUE : Long.parseLong(last));
+        if (start < 0 || end < start) {
+          return null;
+        }
+        if (start >= contentLength) {
+          return UNSATISFIABLE_RANGE;
+        }
+        end = Math.min(end, contentLength - 1);
+      }
+    }
+    catch (NumberFormatException e) {
+      return null;
+    }
+    return new long[]{start, end};
+  }
+
+  /**
+   * @return the weak entity tag of the file or null if last modified or length is unknown
+   */
+  protected String getETag(long lastModified, int contentLength) {
+    if (lastModified != -1 && contentLength != -1) {
+      return "W/\"" + contentLength + "-" + lastModified + "\""; //$NON-NLS-1$//$NON-NLS-2$//$NON-NLS-3$
+    }
+    return null;
+  }
+
+  protected int setResponseParameters(final HttpServletRequest req, final HttpServletResponse resp, final String resourcePath, String contentType, long lastModified, int contentLength) {
+    String etag = getETag(lastModified, contentLength);
 
     // Check for cache revalidation.
     // We should prefer ETag validation as the guarantees are stronger and all
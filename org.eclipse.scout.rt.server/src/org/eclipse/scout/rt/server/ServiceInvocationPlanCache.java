@@ -0,0 +1,215 @@
+/*******************************************************************************
+ * Copyright (c) 2013 BSI Business Systems Integration AG.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     BSI Business Systems Integration AG - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.scout.rt.server;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.scout.commons.CompositeObject;
+import org.eclipse.scout.rt.shared.validate.IValidationStrategy;
+
+/**
+ * Cache of resolved remote service invocations used by {@link DefaultTransactionDelegate}.
+ * <p>
+ * A {@link InterfacePlan} holds the loaded service interface class, the resolved operation and the verdict of the
+ * interface access check. Per service implementation class it holds an {@link ImplementationPlan} with the verdict of
+ * the annotation access check and the input/output validation strategy classes. The verdicts are only cached if the
+ * checks do not depend on the call, see {@link DefaultTransactionDelegate#isAccessCheckCacheable()}.
+ * <p>
+ * Only successfully resolved interfaces and operations are cached, so the size of the cache is bounded by the number
+ * of remote service operations. The cache is cleared by the server bundle activator whenever a bundle is updated,
+ * resolved, unresolved or uninstalled. When a service is unregistered, the plans of its service interfaces are
+ * removed.
+ *
+ * @since 3.9.0
+ */
+public final class ServiceInvocationPlanCache {
+  private static final ServiceInvocationPlanCache INSTANCE = new ServiceInvocationPlanCache();
+
+  public static ServiceInvocationPlanCache getInstance() {
+    return INSTANCE;
+  }
+
+  private final ConcurrentHashMap<CompositeObject, InterfacePlan> m_plans;
+
+  private ServiceInvocationPlanCache() {
+    m_plans = new ConcurrentHashMap<CompositeObject, InterfacePlan>();
+  }
+
+  /**
+   * @return the key of a plan. The delegate class is part of the key since subclasses of
+   *         {@link DefaultTransactionDelegate} may decide differently on access and validation.
+   */
+  public static CompositeObject createKey(Class<?> delegateClass, String serviceInterfaceClassName, String operation, Class<?>[] parameterTypes) {
+    StringBuilder buf = new StringBuilder();
+    if (parameterTypes != null) {
+      for (Class<?> c : parameterTypes) {
+        if (buf.length() > 0) {
+          buf.append(',');
+        }
+        buf.append(c != null ? c.getName() : null);
+      }
+    }
+    return new CompositeObject(delegateClass.getName(), serviceInterfaceClassName, operation, buf.toString());
+  }
+
+  /**
+   * @return the cached plan or null
+   */
+  public InterfacePlan get(CompositeObject key) {
+    return m_plans.get(key);
+  }
+
+  /**
+   * @return the plan that is cached after this call (which may be another plan that was added concurrently)
+   */
+  public InterfacePlan put(CompositeObject key, InterfacePlan plan) {
+    InterfacePlan existing = m_plans.putIfAbsent(key, plan);
+    return existing != null ? existing : plan;
+  }
+
+  /**
+   * Removes the plans of the given service interfaces
+   */
+  public void removeServiceInterfaces(String... serviceInterfaceClassNames) {
+    if (serviceInterfaceClassNames == null || serviceInterfaceClassNames.length == 0) {
+      return;
+    }
+    HashSet<String> names = new HashSet<String>(Arrays.asList(serviceInterfaceClassNames));
+    for (Iterator<InterfacePlan> it = m_plans.values().iterator(); it.hasNext();) {
+      if (names.contains(it.next().getServiceInterfaceClass().getName())) {
+        it.remove();
+      }
+    }
+  }
+
+  public int size() {
+    return m_plans.size();
+  }
+
+  public void clear() {
+    m_plans.clear();
+  }
+
+  /**
+   * Immutable interface part of a plan, see {@link ServiceInvocationPlanCache}
+   */
+  public static final class InterfacePlan {
+    private final Class<?> m_serviceInterfaceClass;
+    private final Method m_serviceOperation;
+    private final String m_accessDeniedMessage;
+    private final ConcurrentHashMap<Class<?>, ImplementationPlan> m_implementationPlans;
+
+    /**
+     * @param accessDeniedMessage
+     *          the message of the {@link SecurityException} thrown by the interface access check or null if access is
+     *          granted
+     */
+    public InterfacePlan(Class<?> serviceInterfaceClass, Method serviceOperation, String accessDeniedMessage) {
+      m_serviceInterfaceClass = serviceInterfaceClass;
+      m_serviceOperation = serviceOperation;
+      m_accessDeniedMessage = accessDeniedMessage;
+      m_implementationPlans = new ConcurrentHashMap<Class<?>, ImplementationPlan>();
+    }
+
+    public Class<?> getServiceInterfaceClass() {
+      return m_serviceInterfaceClass;
+    }
+
+    public Method getServiceOperation() {
+      return m_serviceOperation;
+    }
+
+    /**
+     * @throws SecurityException
+     *           if the interface access check denied access
+     */
+    public void checkAccess() {
+      if (m_accessDeniedMessage != null) {
+        throw new SecurityException(m_accessDeniedMessage);
+      }
+    }
+
+    public ImplementationPlan getImplementationPlan(Class<?> implementationClass) {
+      return m_implementationPlans.get(implementationClass);
+    }
+
+    public ImplementationPlan putImplementationPlan(Class<?> implementationClass, ImplementationPlan plan) {
+      ImplementationPlan existing = m_implementationPlans.putIfAbsent(implementationClass, plan);
+      return existing != null ? existing : plan;
+    }
+  }
+
+  /**
+   * Immutable implementation part of a plan, see {@link ServiceInvocationPlanCache}
+   */
+  public static final class ImplementationPlan {
+    private final String m_accessDeniedMessage;
+    private final Class<? extends IValidationStrategy> m_inputValidationStrategyClass;
+    private final Class<? extends IValidationStrategy> m_outputValidationStrategyClass;
+    private final boolean m_readOnlyTransaction;
+
+    /**
+     * @param accessDeniedMessage
+     *          the message of the {@link SecurityException} thrown by the annotation access check or null if access is
+     *          granted
+     */
+    public ImplementationPlan(String accessDeniedMessage, Class<? extends IValidationStrategy> inputValidationStrategyClass, Class<? extends IValidationStrategy> outputValidationStrategyClass) {
+      this(accessDeniedMessage, inputValidationStrategyClass, outputValidationStrategyClass, false);
+    }
+
+    /**
+     * @param readOnlyTransaction
+     *          true if the operation runs in a read-only transaction, see
+     *          {@link org.eclipse.scout.rt.server.transaction.ITransaction#setReadOnly(boolean)}
+     */
+    public ImplementationPlan(String accessDeniedMessage, Class<? extends IValidationStrategy> inputValidationStrategyClass, Class<? extends IValidationStrategy> outputValidationStrategyClass, boolean readOnlyTransaction) {
+      m_accessDeniedMessage = accessDeniedMessage;
+      m_inputValidationStrategyClass = inputValidationStrategyClass;
+      m_outputValidationStrategyClass = outputValidationStrategyClass;
+      m_readOnlyTransaction = readOnlyTransaction;
+    }
+
+    /**
+     * @throws SecurityException
+     *           if the annotation access check denied access
+     */
+    public void checkAccess() {
+      if (m_accessDeniedMessage != null) {
+        throw new SecurityException(m_accessDeniedMessage);
+      }
+    }
+
+    /**
+     * @return the input validation strategy or null if none was defined
+     */
+    public Class<? extends IValidationStrategy> getInputValidationStrategyClass() {
+      return m_inputValidationStrategyClass;
+    }
+
+    /**
+     * @return the output validation strategy or null if none was defined
+     */
+    public Class<? extends IValidationStrategy> getOutputValidationStrategyClass() {
+      return m_outputValidationStrategyClass;
+    }
+
+    /**
+     * @return true if the operation runs in a read-only transaction
+     */
+    public boolean isReadOnlyTransaction() {
+      return m_readOnlyTransaction;
+    }
+  }
+}
@@ -0,0 +1,285 @@
+/*******************************************************************************
+ * Copyright (c) 2013 BSI Business Systems Integration AG.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     BSI Business Systems Integration AG - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.scout.rt.server;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.scout.commons.CompositeObject;
+import org.eclipse.scout.commons.LatencyHistogram;
+
+/**
+ * Always-on metrics of the service tunnel per service interface and operation.
+ * <p>
+ * Per operation there is a {@link LatencyHistogram} of the call durations in microseconds, histograms of the request
+ * and response sizes in bytes, the number of failed calls and the number of calls in progress. Recording costs a few
+ * atomic operations and the memory footprint is constant per operation.
+ * <p>
+ * An operation gets its own entry only once {@link DefaultTransactionDelegate} resolved it to a method of a service
+ * interface and the interface access check passed. Calls of unknown or denied operations are recorded in the one shared
+ * entry {@link #getUnknownOperationMetrics()}, so names sent by a client cannot grow the metrics.
+ * <p>
+ * The calls are recorded by {@link DefaultTransactionDelegate}, the sizes by {@link ServiceTunnelServlet}. The metrics
+ * are shown in the admin html ui and are written as plain text by {@link ServiceTunnelServlet} on
+ * <code>GET ...?metrics</code>.
+ *
+ * @since 3.9.0
+ */
+public final class ServiceTunnelMetrics {
+  private static final ServiceTunnelMetrics INSTANCE = new ServiceTunnelMetrics();
+
+  public static ServiceTunnelMetrics getInstance() {
+    return INSTANCE;
+  }
+
+  /**
+   * operation name of the entry {@link #getUnknownOperationMetrics()}
+   */
+  public static final String UNKNOWN_OPERATION = "unknown";
+
+  private final ConcurrentHashMap<CompositeObject, OperationMetrics> m_operations;
+  private volatile OperationMetrics m_unknownOperation;
+  private volatile long m_resetTime;
+
+  private ServiceTunnelMetrics() {
+    m_operations = new ConcurrentHashMap<CompositeObject, OperationMetrics>();
+    m_unknownOperation = new OperationMetrics(null, UNKNOWN_OPERATION);
+    m_resetTime = System.currentTimeMillis();
+  }
+
+  /**
+   * Must only be called for resolved operations, see {@link #findOperationMetrics(String, String)} otherwise.
+   *
+   * @return the metrics of the operation, they are created on the first call
+   */
+  public OperationMetrics getOperationMetrics(String serviceInterfaceClassName, String operation) {
+    CompositeObject key = new CompositeObject(serviceInterfaceClassName, operation);
+    OperationMetrics m = m_operations.get(key);
+    if (m == null) {
+      m = new OperationMetrics(serviceInterfaceClassName, operation);
+      OperationMetrics existing = m_operations.putIfAbsent(key, m);
+      if (existing != null) {
+        m = existing;
+      }
+    }
+    return m;
+  }
+
+  /**
+   * @return the metrics of the operation if they were created by {@link #getOperationMetrics(String, String)}, the
+   *         metrics {@link #getUnknownOperationMetrics()} otherwise
+   */
+  public OperationMetrics findOperationMetrics(String serviceInterfaceClassName, String operation) {
+    OperationMetrics m = m_operations.get(new CompositeObject(serviceInterfaceClassName, operation));
+    return m != null ? m : m_unknownOperation;
+  }
+
+  /**
+   * @return the shared metrics of all calls whose operation could not be resolved or was denied
+   */
+  public OperationMetrics getUnknownOperationMetrics() {
+    return m_unknownOperation;
+  }
+
+  /**
+   * @return the metrics of all operations sorted by service interface and operation, followed by
+   *         {@link #getUnknownOperationMetrics()} if it recorded any call
+   */
+  public OperationMetrics[] getAllOperationMetrics() {
+    ArrayList<OperationMetrics> list = new ArrayList<OperationMetrics>(m_operations.values());
+    Collections.sort(list, new Comparator<OperationMetrics>() {
+      @Override
+      public int compare(OperationMetrics m1, OperationMetrics m2) {
+        return m1.getName().compareTo(m2.getName());
+      }
+    });
+    OperationMetrics unknown = m_unknownOperation;
+    if (unknown.getLatency().getCount() > 0 || unknown.getRequestSize().getCount() > 0) {
+      list.add(unknown);
+    }
+    return list.toArray(new OperationMetrics[list.size()]);
+  }
+
+  /**
+   * @return the time of the creation or the last {@link #reset()} of the metrics
+   */
+  public long getResetTime() {
+    return m_resetTime;
+  }
+
+  /**
+   * Removes the metrics of all operations. Calls in progress are recorded in the removed metrics.
+   */
+  public void reset() {
+    m_operations.clear();
+    m_unknownOperation = new OperationMetrics(null, UNKNOWN_OPERATION);
+    m_resetTime = System.currentTimeMillis();
+  }
+
+  /**
+   * Writes the metrics in the plain text exposition format (one sample per line, labels in braces) used by common
+   * monitoring scrapers.
+   */
+  public void writeText(Writer w) throws IOException {
+    w.write("# scout service tunnel metrics since " + getResetTime() + "\n");
+    for (OperationMetrics m : getAllOperationMetrics()) {
+      String labels = "{service=\"" + escapeLabel(m.getServiceInterfaceClassName()) + "\",operation=\"" + escapeLabel(m.getOperation()) + "\"";
+      LatencyHistogram latency = m.getLatency();
+      writeSample(w, "scout_service_calls_total", labels, latency.getCount());
+      writeSample(w, "scout_service_errors_total", labels, m.getErrorCount());
+      writeSample(w, "scout_service_in_flight", labels, m.getInFlightCount());
+      writeSample(w, "scout_service_latency_us_sum", labels, latency.getSum());
+      writeSample(w, "scout_service_latency_us_max", labels, latency.getMax());
+      writeSample(w, "scout_service_latency_us", labels + ",quantile=\"0.5\"", latency.getPercentile(50));
+      writeSample(w, "scout_service_latency_us", labels + ",quantile=\"0.9\"", latency.getPercentile(90));
+      writeSample(w, "scout_service_latency_us", labels + ",quantile=\"0.99\"", latency.getPercentile(99));
+      writeSample(w, "scout_service_request_bytes_sum", labels, m.getRequestSize().getSum());
+      writeSample(w, "scout_service_request_bytes_max", labels, m.getRequestSize().getMax());
+      writeSample(w, "scout_service_response_bytes_sum", labels, m.getResponseSize().getSum());
+      writeSample(w, "scout_service_response_bytes_max", labels, m.getResponseSize().getMax());
+    }
+  }
+
+  private static void writeSample(Writer w, String name, String labels, long value) throws IOException {
+    w.write(name);
+    w.write(labels);
+    w.write("} ");
+    w.write(Long.toString(value));
+    w.write('\n');
+  }
+
+  private static String escapeLabel(String s) {
+    if (s == null) {
+      return "";
+    }
+    return s.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+  }
+
+  /**
+   * Metrics of one service operation. This class is thread-safe.
+   */
+  public static final class OperationMetrics {
+    private final String m_serviceInterfaceClassName;
+    private final String m_operation;
+    private final LatencyHistogram m_latency;
+    private final LatencyHistogram m_requestSize;
+    private final LatencyHistogram m_responseSize;
+    private final AtomicLong m_errorCount;
+    private final AtomicInteger m_inFlightCount;
+
+    private OperationMetrics(String serviceInterfaceClassName, String operation) {
+      m_serviceInterfaceClassName = serviceInterfaceClassName;
+      m_operation = operation;
+      m_latency = new LatencyHistogram();
+      m_requestSize = new LatencyHistogram();
+      m_responseSize = new LatencyHistogram();
+      m_errorCount = new AtomicLong();
+      m_inFlightCount = new AtomicInteger();
+    }
+
+    public String getServiceInterfaceClassName() {
+      return m_serviceInterfaceClassName;
+    }
+
+    public String getOperation() {
+      return m_operation;
+    }
+
+    /**
+     * @return the simple name of the service interface and the operation
+     */
+    public String getName() {
+      if (m_serviceInterfaceClassName == null) {
+        return m_operation;
+      }
+      String s = m_serviceInterfaceClassName;
+      return s.substring(s.lastIndexOf('.') + 1) + "." + m_operation;
+    }
+
+    public void callStarted() {
+      m_inFlightCount.incrementAndGet();
+    }
+
+    /**
+     * @param durationNanos
+     *          the duration of the call, recorded in microseconds
+     * @param failed
+     *          true if the call threw an exception or returned a response with an exception
+     */
+    public void callEnded(long durationNanos, boolean failed) {
+      m_inFlightCount.decrementAndGet();
+      recordCall(durationNanos, failed);
+    }
+
+    /**
+     * Records a call that was not announced by {@link #callStarted()}.
+     *
+     * @param durationNanos
+     *          the duration of the call, recorded in microseconds
+     * @param failed
+     *          true if the call threw an exception or returned a response with an exception
+     */
+    public void recordCall(long durationNanos, boolean failed) {
+      m_latency.record(durationNanos / 1000L);
+      if (failed) {
+        m_errorCount.incrementAndGet();
+      }
+    }
+
+    public void recordRequestSize(long bytes) {
+      m_requestSize.record(bytes);
+    }
+
+    public void recordResponseSize(long bytes) {
+      m_responseSize.record(bytes);
+    }
+
+    /**
+     * @return the durations of the calls in microseconds
+     */
+    public LatencyHistogram getLatency() {
+      return m_latency;
+    }
+
+    /**
+     * @return the sizes of the requests in bytes
+     */
+    public LatencyHistogram getRequestSize() {
+      return m_requestSize;
+    }
+
+    /**
+     * @return the sizes of the responses in bytes
+     */
+    public LatencyHistogram getResponseSize() {
+      return m_responseSize;
+    }
+
+    public long getErrorCount() {
+      return m_errorCount.get();
+    }
+
+    public int getInFlightCount() {
+      return m_inFlightCount.get();
+    }
+
+    @Override
+    public String toString() {
+      return getName() + "[" + m_latency + ", errors=" + getErrorCount() + ", inFlight=" + getInFlightCount() + "]";
+    }
+  }
+}
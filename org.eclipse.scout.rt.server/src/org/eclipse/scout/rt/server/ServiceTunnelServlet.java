@@ -10,20 +10,26 @@
  ******************************************************************************/
 package org.eclipse.scout.rt.server;
 
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InterruptedIOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.net.SocketException;
 import java.security.AccessController;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.Callable;
 import java.util.concurrent.atomic.AtomicReference;
 
 import javax.security.auth.Subject;
 import javax.servlet.ServletConfig;
 import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
 import javax.servlet.http.HttpSession;
 
 import org.eclipse.core.runtime.CoreException;
@@ -47,6 +53,11 @@ import org.eclipse.scout.http.servletfilter.helper.HttpAuthJaasFilter;
 import org.eclipse.scout.rt.server.admin.html.AdminSession;
 import org.eclipse.scout.rt.server.internal.Activator;
 import org.eclipse.scout.rt.server.services.common.session.IServerSessionRegistryService;
+import org.eclipse.scout.rt.shared.security.RemoteServiceAccessPermission;
+import org.eclipse.scout.rt.shared.security.UpdateServiceConfigurationPermission;
+import org.eclipse.scout.rt.shared.services.common.clientnotification.IClientNotificationLongPollingService;
+import org.eclipse.scout.rt.shared.services.common.security.ACCESS;
+import org.eclipse.scout.rt.shared.servicetunnel.BinaryServiceTunnelContentHandler;
 import org.eclipse.scout.rt.shared.servicetunnel.DefaultServiceTunnelContentHandler;
 import org.eclipse.scout.rt.shared.servicetunnel.IServiceTunnelContentHandler;
 import org.eclipse.scout.rt.shared.servicetunnel.ServiceTunnelRequest;
@@ -73,13 +84,23 @@ import org.osgi.framework.Version;
  * <p>
  * When using RAP (rich ajax platform) as the ui web app then there must be a {@link WebSessionIdPrincipal} in the
  * subject, in order to map those requests to virtual sessions instead of (the unique) http session.
+ * <p>
+ * If enabled, requests with content type {@link BinaryServiceTunnelContentHandler#CONTENT_TYPE} are read using the
+ * binary content handler. The response is written in binary format whenever the request was binary or the client accepts the binary
+ * content type, otherwise the soap content handler is used.
+ * <p>
+ * The request and response sizes of every call are recorded in the {@link ServiceTunnelMetrics}. A GET request with
+ * the parameter <code>metrics</code> returns them as plain text, see {@link #writeMetrics(HttpServletRequest, HttpServletResponse)}.
  */
 public class ServiceTunnelServlet extends HttpServletEx {
   public static final String HTTP_DEBUG_PARAM = "org.eclipse.scout.rt.server.http.debug";
   private static final long serialVersionUID = 1L;
   private static final IScoutLogger LOG = ScoutLogManager.getLogger(ServiceTunnelServlet.class);
+  private static final String LONG_POLLING_SUPPORTED_KEY = ServiceTunnelServlet.class.getName() + ".clientNotificationLongPollingSupported";
 
   private transient IServiceTunnelContentHandler m_contentHandler;
+  private transient IServiceTunnelContentHandler m_binaryContentHandler;
+  private transient boolean m_binaryContentHandlerCreated;
   private transient Bundle[] m_orderedBundleList;
   private Object m_orderedBundleListLock = new Boolean(true);
   private VirtualSessionCache m_ajaxSessionCache = new VirtualSessionCache();
@@ -184,6 +205,25 @@ public class ServiceTunnelServlet extends HttpServletEx {
     return e;
   }
 
+  /**
+   * create the (reusable) binary content handler that is used when the client negotiates
+   * {@link BinaryServiceTunnelContentHandler#CONTENT_TYPE}.
+   * <p>
+   * This method is part of the protected api and can be overridden. Return null to disable binary content. By default
+   * binary content is only used if it is enabled and the {@link #createContentHandler(Class) soap content handler} is
+   * not customized, see {@link BinaryServiceTunnelContentHandler#isEnabledFor(IServiceTunnelContentHandler)}.
+   * 
+   * @since 3.9.0
+   */
+  protected IServiceTunnelContentHandler createBinaryContentHandler(Class<? extends IServerSession> sessionClass) {
+    if (!BinaryServiceTunnelContentHandler.isEnabledFor(getServiceTunnelContentHandler())) {
+      return null;
+    }
+    BinaryServiceTunnelContentHandler e = new BinaryServiceTunnelContentHandler();
+    e.initialize(getOrderedBundleList(), sessionClass.getClassLoader());
+    return e;
+  }
+
   private IServiceTunnelContentHandler getServiceTunnelContentHandler() {
     synchronized (m_msgEncoderLock) {
       if (m_contentHandler == null) {
@@ -193,6 +233,30 @@ public class ServiceTunnelServlet extends HttpServletEx {
     return m_contentHandler;
   }
 
+  private IServiceTunnelContentHandler getBinaryServiceTunnelContentHandler() {
+    synchronized (m_msgEncoderLock) {
+      if (!m_binaryContentHandlerCreated) {
+        m_binaryContentHandler = createBinaryContentHandler(m_serverSessionClass);
+        m_binaryContentHandlerCreated = true;
+      }
+    }
+    return m_binaryContentHandler;
+  }
+
+  /**
+   * @return true if the request body is a binary service tunnel message
+   */
+  protected boolean isBinaryRequest(HttpServletRequest req) {
+    return BinaryServiceTunnelContentHandler.isBinaryContentType(req.getContentType()) && getBinaryServiceTunnelContentHandler() != null;
+  }
+
+  /**
+   * @return true if the response may be sent as binary service tunnel message
+   */
+  protected boolean isBinaryResponseAccepted(HttpServletRequest req) {
+    return BinaryServiceTunnelContentHandler.isBinaryContentType(req.getHeader("Accept")) && getBinaryServiceTunnelContentHandler() != null;
+  }
+
   private Bundle[] getOrderedBundleList() {
     synchronized (m_orderedBundleListLock) {
       if (m_orderedBundleList == null) {
@@ -215,24 +279,25 @@ public class ServiceTunnelServlet extends HttpServletEx {
     }
   }
 
-  private IServerSession lookupScoutServerSessionOnVirtualSession(HttpServletRequest req, HttpServletResponse res, String ajaxSessionId, Subject subject, UserAgent userAgent) throws ProcessingException, ServletException {
-    synchronized (m_ajaxSessionCache) {
-      //update session timeout
-      int maxInactive = req.getSession().getMaxInactiveInterval();
-      if (maxInactive < 0) {
-        maxInactive = 3600;
-      }
-      m_ajaxSessionCache.setSessionTimeoutMillis(Math.max(1000L, 1000L * maxInactive));
-      IServerSession serverSession = m_ajaxSessionCache.get(ajaxSessionId);
-      if (serverSession == null) {
-        serverSession = SERVICES.getService(IServerSessionRegistryService.class).newServerSession(m_serverSessionClass, subject, userAgent);
-        m_ajaxSessionCache.put(ajaxSessionId, serverSession);
-      }
-      else {
-        m_ajaxSessionCache.touch(ajaxSessionId);
-      }
-      return serverSession;
+  private IServerSession lookupScoutServerSessionOnVirtualSession(HttpServletRequest req, HttpServletResponse res, String ajaxSessionId, final Subject subject, final UserAgent userAgent) throws ProcessingException, ServletException {
+    //update session timeout
+    int maxInactive = req.getSession().getMaxInactiveInterval();
+    if (maxInactive < 0) {
+      maxInactive = 3600;
     }
+    m_ajaxSessionCache.setSessionTimeoutMillis(Math.max(1000L, 1000L * maxInactive));
+    return m_ajaxSessionCache.getOrCreate(ajaxSessionId, new Callable<IServerSession>() {
+      @Override
+      public IServerSession call() throws Exception {
+        return SERVICES.getService(IServerSessionRegistryService.class).newServerSession(m_serverSessionClass, subject, userAgent);
+      }
+    });
+  }
+
+  @Override
+  public void destroy() {
+    m_ajaxSessionCache.dispose();
+    super.destroy();
   }
 
   @Override
@@ -281,7 +346,14 @@ public class ServiceTunnelServlet extends HttpServletEx {
         ThreadContext.putHttpServletRequest(req);
         ThreadContext.putHttpServletResponse(res);
         //read request
-        ServiceTunnelRequest serviceRequest = deserializeInput(req.getInputStream());
+        ServiceTunnelRequest serviceRequest;
+        P_CountingInputStream in = new P_CountingInputStream(req.getInputStream());
+        if (isBinaryRequest(req)) {
+          serviceRequest = getBinaryServiceTunnelContentHandler().readRequest(in);
+        }
+        else {
+          serviceRequest = deserializeInput(in);
+        }
         LocaleThreadLocal.set(serviceRequest.getLocale());
         //virtual or http session?
         IServerSession serverSession;
@@ -299,7 +371,19 @@ public class ServiceTunnelServlet extends HttpServletEx {
         job.setTransactionSequence(serviceRequest.getRequestSequence());
         job.runNow(new NullProgressMonitor());
         job.throwOnError();
-        serializeOutput(res, serviceResponseHolder.get());
+        if (job instanceof RemoteServiceJob && ((RemoteServiceJob) job).isClientNotificationLongPollingSupported()) {
+          res.setHeader(IClientNotificationLongPollingService.HTTP_HEADER, "true");
+        }
+        P_CountingResponse countingRes = new P_CountingResponse(res);
+        if (isBinaryRequest(req) || isBinaryResponseAccepted(req)) {
+          serializeBinaryOutput(countingRes, serviceResponseHolder.get());
+        }
+        else {
+          serializeOutput(countingRes, serviceResponseHolder.get());
+        }
+        ServiceTunnelMetrics.OperationMetrics metrics = ServiceTunnelMetrics.getInstance().findOperationMetrics(serviceRequest.getServiceInterfaceClassName(), serviceRequest.getOperation());
+        metrics.recordRequestSize(in.getCount());
+        metrics.recordResponseSize(countingRes.getCount());
       }
       finally {
         ThreadContext.restore(backup);
@@ -328,6 +412,61 @@ public class ServiceTunnelServlet extends HttpServletEx {
     }
   }
 
+  /**
+   * Called within the server job of the first service call of a server session, so permissions are checked against
+   * the calling session. The result is kept for the lifetime of the session.
+   *
+   * @return true if clients are told to fetch client notifications using the
+   *         {@link IClientNotificationLongPollingService} instead of polling. The default checks whether the service is
+   *         registered and the caller may call it.
+   * @since 3.9.0
+   */
+  protected boolean isClientNotificationLongPollingSupported() {
+    return SERVICES.getService(IClientNotificationLongPollingService.class) != null && ACCESS.check(new RemoteServiceAccessPermission(IClientNotificationLongPollingService.class.getName(), "waitForNotifications"));
+  }
+
+  private boolean isClientNotificationLongPollingSupported(IServerSession serverSession) {
+    Boolean supported = (Boolean) serverSession.getData(LONG_POLLING_SUPPORTED_KEY);
+    if (supported == null) {
+      supported = Boolean.valueOf(isClientNotificationLongPollingSupported());
+      serverSession.setData(LONG_POLLING_SUPPORTED_KEY, supported);
+    }
+    return supported.booleanValue();
+  }
+
+  /**
+   * @return true if the GET request asks for the plain text metrics, i.e. has the parameter <code>metrics</code>
+   * @since 3.9.0
+   */
+  protected boolean isMetricsRequest(HttpServletRequest req) {
+    return req.getParameter("metrics") != null;
+  }
+
+  /**
+   * Writes the {@link ServiceTunnelMetrics} and the counts of the virtual sessions as plain text. Like the admin views
+   * this requires the {@link UpdateServiceConfigurationPermission}.
+   * <p>
+   * This method is executed within a {@link IServerSession} context using a {@link ServerJob}
+   *
+   * @since 3.9.0
+   */
+  protected void writeMetrics(HttpServletRequest req, HttpServletResponse res) throws IOException {
+    if (!ACCESS.check(new UpdateServiceConfigurationPermission())) {
+      res.sendError(HttpServletResponse.SC_FORBIDDEN);
+      return;
+    }
+    res.setDateHeader("Expires", -1);
+    res.setHeader("Cache-Control", "no-cache");
+    res.setHeader("pragma", "no-cache");
+    res.setContentType("text/plain; charset=UTF-8");
+    Writer w = new OutputStreamWriter(res.getOutputStream(), "UTF-8");
+    ServiceTunnelMetrics.getInstance().writeText(w);
+    w.write("scout_virtual_sessions " + m_ajaxSessionCache.getLiveCount() + "\n");
+    w.write("scout_virtual_sessions_created_total " + m_ajaxSessionCache.getCreatedCount() + "\n");
+    w.write("scout_virtual_sessions_expired_total " + m_ajaxSessionCache.getExpiredCount() + "\n");
+    w.flush();
+  }
+
   protected ServiceTunnelRequest deserializeInput(InputStream in) throws Exception {
     ServiceTunnelRequest req = getServiceTunnelContentHandler().readRequest(in);
     return req;
@@ -346,6 +485,24 @@ public class ServiceTunnelServlet extends HttpServletEx {
     getServiceTunnelContentHandler().writeResponse(httpResponse.getOutputStream(), res);
   }
 
+  /**
+   * Streams the response using the binary content handler.
+   * 
+   * @since 3.9.0
+   */
+  protected void serializeBinaryOutput(HttpServletResponse httpResponse, ServiceTunnelResponse res) throws Exception {
+    // security: do not send back error stack trace
+    if (res.getException() != null) {
+      res.getException().setStackTrace(new StackTraceElement[0]);
+    }
+    //
+    httpResponse.setDateHeader("Expires", -1);
+    httpResponse.setHeader("Cache-Control", "no-cache");
+    httpResponse.setHeader("pragma", "no-cache");
+    httpResponse.setContentType(BinaryServiceTunnelContentHandler.CONTENT_TYPE);
+    getBinaryServiceTunnelContentHandler().writeResponse(httpResponse.getOutputStream(), res);
+  }
+
   private Bundle findServletContributor(String alias) throws CoreException {
     BundleContext context = Activator.getDefault().getBundle().getBundleContext();
     ServiceReference ref = context.getServiceReference(IExtensionRegistry.class.getName());
@@ -400,6 +557,7 @@ public class ServiceTunnelServlet extends HttpServletEx {
 
     private final ServiceTunnelRequest m_serviceRequest;
     private final AtomicReference<ServiceTunnelResponse> m_serviceResponseHolder;
+    private boolean m_clientNotificationLongPollingSupported;
 
     public RemoteServiceJob(IServerSession serverSession, ServiceTunnelRequest serviceRequest, AtomicReference<ServiceTunnelResponse> serviceResponseHolder, Subject subject) {
       super("RemoteServiceCall", serverSession, subject);
@@ -419,8 +577,13 @@ public class ServiceTunnelServlet extends HttpServletEx {
     protected IStatus runTransaction(IProgressMonitor monitor) throws Exception {
       ServiceTunnelResponse serviceRes = runServerJobTransaction(getServiceRequest());
       getServiceResponseHolder().set(serviceRes);
+      m_clientNotificationLongPollingSupported = ServiceTunnelServlet.this.isClientNotificationLongPollingSupported(getServerSession());
       return Status.OK_STATUS;
     }
+
+    public boolean isClientNotificationLongPollingSupported() {
+      return m_clientNotificationLongPollingSupported;
+    }
   }
 
   private class AdminServiceJob extends ServerJob {
@@ -436,6 +599,10 @@ public class ServiceTunnelServlet extends HttpServletEx {
 
     @Override
     protected IStatus runTransaction(IProgressMonitor monitor) throws Exception {
+      if (isMetricsRequest(m_request)) {
+        writeMetrics(m_request, m_response);
+        return Status.OK_STATUS;
+      }
       // get session
       HttpSession session = m_request.getSession();
       String key = AdminSession.class.getName();
@@ -449,4 +616,97 @@ public class ServiceTunnelServlet extends HttpServletEx {
     }
   }
 
+  private static class P_CountingInputStream extends FilterInputStream {
+    private long m_count;
+
+    public P_CountingInputStream(InputStream in) {
+      super(in);
+    }
+
+    public long getCount() {
+      return m_count;
+    }
+
+    @Override
+    public int read() throws IOException {
+      int b = super.read();
+      if (b >= 0) {
+        m_count++;
+      }
+      return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      int n = super.read(b, off, len);
+      if (n > 0) {
+        m_count += n;
+      }
+      return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+      long skipped = super.skip(n);
+      m_count += skipped;
+      return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+      return false;
+    }
+  }
+
+  private static class P_CountingResponse extends HttpServletResponseWrapper {
+    private P_CountingOutputStream m_out;
+
+    public P_CountingResponse(HttpServletResponse res) {
+      super(res);
+    }
+
+    public long getCount() {
+      return m_out != null ? m_out.m_count : 0L;
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+      if (m_out == null) {
+        m_out = new P_CountingOutputStream(super.getOutputStream());
+      }
+      return m_out;
+    }
+  }
+
+  private static class P_CountingOutputStream extends ServletOutputStream {
+    private final ServletOutputStream m_out;
+    private long m_count;
+
+    public P_CountingOutputStream(ServletOutputStream out) {
+      m_out = out;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+      m_out.write(b);
+      m_count++;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+      m_out.write(b, off, len);
+      m_count += len;
+    }
+
+    @Override
+    public void flush() throws IOException {
+      m_out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+      m_out.close();
+    }
+  }
+
 }
@@ -1,12 +1,34 @@
 package org.eclipse.scout.rt.server;
 
-import org.eclipse.scout.commons.AbstractDynamicHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLong;
 
-class VirtualSessionCache extends AbstractDynamicHashMap<String, IServerSession> {
-  private static final long serialVersionUID = 1L;
+import org.eclipse.scout.commons.StoppableThread;
+import org.eclipse.scout.commons.exception.ProcessingException;
+import org.eclipse.scout.commons.logger.IScoutLogger;
+import org.eclipse.scout.commons.logger.ScoutLogManager;
 
-  private long m_sessionTimeoutMillis = 300000L;//default 5 minutes
-  private long m_nextMaintenance = 0L;//default 5 minutes
+/**
+ * Server sessions of virtual (RAP) sessions.
+ * <p>
+ * A session is created once per virtual session id, concurrent requests of the same id wait for its creation while
+ * requests of other ids are not blocked. Accessing a session only updates its timestamp. Expired sessions are removed
+ * by a background thread.
+ */
+class VirtualSessionCache {
+  private static final IScoutLogger LOG = ScoutLogManager.getLogger(VirtualSessionCache.class);
+
+  private final ConcurrentHashMap<String, P_Entry> m_entries = new ConcurrentHashMap<String, P_Entry>();
+  private final AtomicLong m_createdCount = new AtomicLong();
+  private final AtomicLong m_expiredCount = new AtomicLong();
+  private final Object m_expiryThreadLock = new Object();
+  private volatile long m_sessionTimeoutMillis = 300000L;//default 5 minutes
+  private P_ExpiryThread m_expiryThread;
+  private boolean m_disposed;
 
   public long getSessionTimeoutMillis() {
     return m_sessionTimeoutMillis;
@@ -16,47 +38,178 @@ class VirtualSessionCache extends AbstractDynamicHashMap<String, IServerSession>
     m_sessionTimeoutMillis = sessionTimeoutMillis;
   }
 
-  @Override
-  protected void beforeAccessToInternalMap() {
-    if (System.currentTimeMillis() > m_nextMaintenance) {
-      validateInternalMap();
-      m_nextMaintenance = System.currentTimeMillis() + m_sessionTimeoutMillis / 2;
+  /**
+   * @return the session of the virtual session id, the session is created using the factory if there is none or it is
+   *         expired. If the factory fails, the next call will create the session again.
+   */
+  public IServerSession getOrCreate(String virtualSessionId, Callable<IServerSession> factory) throws ProcessingException {
+    while (true) {
+      P_Entry e = m_entries.get(virtualSessionId);
+      if (e == null) {
+        P_Entry newEntry = new P_Entry(factory, m_sessionTimeoutMillis);
+        e = m_entries.putIfAbsent(virtualSessionId, newEntry);
+        if (e == null) {
+          ensureExpiryThread();
+          newEntry.m_future.run();
+          IServerSession session = awaitSession(virtualSessionId, newEntry);
+          m_createdCount.incrementAndGet();
+          return session;
+        }
+      }
+      if (e.isExpired(System.currentTimeMillis())) {
+        if (m_entries.remove(virtualSessionId, e)) {
+          m_expiredCount.incrementAndGet();
+        }
+        continue;
+      }
+      e.touch();
+      return awaitSession(virtualSessionId, e);
     }
   }
 
-  @Override
-  protected DynamicEntry<IServerSession> createDynamicEntry(IServerSession value) {
-    return new VirtualSessionEntry(value, getSessionTimeoutMillis());
+  private IServerSession awaitSession(String virtualSessionId, P_Entry e) throws ProcessingException {
+    try {
+      IServerSession session = e.m_future.get();
+      if (session == null) {
+        m_entries.remove(virtualSessionId, e);
+      }
+      return session;
+    }
+    catch (InterruptedException ie) {
+      throw new ProcessingException("Interrupted", ie);
+    }
+    catch (ExecutionException ee) {
+      m_entries.remove(virtualSessionId, e);
+      Throwable cause = ee.getCause();
+      if (cause instanceof ProcessingException) {
+        throw (ProcessingException) cause;
+      }
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new ProcessingException("create server session of virtual session " + virtualSessionId, cause);
+    }
+  }
+
+  /**
+   * Removes all expired sessions
+   */
+  public void removeExpiredSessions() {
+    long now = System.currentTimeMillis();
+    int expired = 0;
+    for (Map.Entry<String, P_Entry> mapEntry : m_entries.entrySet()) {
+      P_Entry e = mapEntry.getValue();
+      if (e.isExpired(now) && m_entries.remove(mapEntry.getKey(), e)) {
+        m_expiredCount.incrementAndGet();
+        expired++;
+      }
+    }
+    if (expired > 0 && LOG.isInfoEnabled()) {
+      LOG.info("removed " + expired + " expired virtual sessions, " + this);
+    }
+  }
+
+  /**
+   * @return the number of sessions in the cache
+   */
+  public int getLiveCount() {
+    return m_entries.size();
+  }
+
+  /**
+   * @return the number of sessions created since this cache was created
+   */
+  public long getCreatedCount() {
+    return m_createdCount.get();
+  }
+
+  /**
+   * @return the number of expired sessions since this cache was created
+   */
+  public long getExpiredCount() {
+    return m_expiredCount.get();
+  }
+
+  /**
+   * Stops the expiry thread and removes all sessions
+   */
+  public void dispose() {
+    synchronized (m_expiryThreadLock) {
+      m_disposed = true;
+      if (m_expiryThread != null) {
+        m_expiryThread.setStopSignal();
+        m_expiryThread.interrupt();
+        m_expiryThread = null;
+      }
+    }
+    m_entries.clear();
+  }
+
+  private void ensureExpiryThread() {
+    synchronized (m_expiryThreadLock) {
+      if (m_expiryThread == null && !m_disposed) {
+        m_expiryThread = new P_ExpiryThread();
+        m_expiryThread.start();
+      }
+    }
   }
 
   @Override
-  protected boolean isEntryValid(DynamicEntry e) {
-    VirtualSessionEntry v = (VirtualSessionEntry) e;
-    return v.getTimestamp() + v.getInactivityTimeout() >= System.currentTimeMillis();
+  public String toString() {
+    return "VirtualSessionCache[live=" + getLiveCount() + ", created=" + getCreatedCount() + ", expired=" + getExpiredCount() + "]";
   }
 
-  static class VirtualSessionEntry extends DynamicEntry<IServerSession> {
-    private long m_time;
-    private long m_timeout;
+  private static final class P_Entry {
+    private final FutureTask<IServerSession> m_future;
+    private final long m_timeout;
+    private volatile long m_time;
 
-    public VirtualSessionEntry(IServerSession value, long timeout) {
-      super(value);
+    public P_Entry(Callable<IServerSession> factory, long timeout) {
+      m_future = new FutureTask<IServerSession>(factory);
       m_timeout = timeout;
       m_time = System.currentTimeMillis();
     }
 
-    public long getTimestamp() {
-      return m_time;
+    public void touch() {
+      m_time = System.currentTimeMillis();
     }
 
-    public long getInactivityTimeout() {
-      return m_timeout;
+    /**
+     * sessions still being created never expire
+     */
+    public boolean isExpired(long now) {
+      return m_future.isDone() && m_time + m_timeout < now;
     }
+  }
 
-    @Override
-    public void touch() {
-      m_time = System.currentTimeMillis();
+  private class P_ExpiryThread extends StoppableThread {
+
+    public P_ExpiryThread() {
+      super("VirtualSessionCache.Expiry");
+      setDaemon(true);
     }
 
+    @Override
+    public void run() {
+      while (!isStopSignal()) {
+        try {
+          sleep(Math.min(60000L, Math.max(1000L, getSessionTimeoutMillis() / 2)));
+        }
+        catch (InterruptedException ie) {
+          // nop
+        }
+        if (!isStopSignal()) {
+          try {
+            removeExpiredSessions();
+          }
+          catch (Throwable t) {
+            LOG.error("remove expired virtual sessions", t);
+          }
+        }
+      }
+    }
   }
 }
@@ -0,0 +1,113 @@
+/*******************************************************************************
+ * Copyright (c) 2013 BSI Business Systems Integration AG.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     BSI Business Systems Integration AG - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.scout.rt.server.admin.html.view;
+
+import java.util.Date;
+
+import org.eclipse.scout.commons.LatencyHistogram;
+import org.eclipse.scout.rt.server.ServiceTunnelMetrics;
+import org.eclipse.scout.rt.server.ServiceTunnelMetrics.OperationMetrics;
+import org.eclipse.scout.rt.server.admin.html.AbstractHtmlAction;
+import org.eclipse.scout.rt.server.admin.html.AdminSession;
+import org.eclipse.scout.rt.server.admin.html.widget.table.HtmlComponent;
+import org.eclipse.scout.rt.server.admin.html.widget.table.HtmlTable;
+import org.eclipse.scout.rt.server.admin.html.widget.table.SortInfo;
+import org.eclipse.scout.rt.server.admin.html.widget.table.VirtualRow;
+import org.eclipse.scout.rt.shared.security.UpdateServiceConfigurationPermission;
+import org.eclipse.scout.rt.shared.services.common.security.ACCESS;
+
+/**
+ * Shows the {@link ServiceTunnelMetrics} per service operation
+ *
+ * @since 3.9.0
+ */
+public class MetricsView extends DefaultView {
+  private SortInfo m_table1SortInfo;
+
+  public MetricsView(AdminSession as) {
+    super(as);
+    m_table1SortInfo = new SortInfo();
+  }
+
+  @Override
+  public boolean isVisible() {
+    return ACCESS.check(new UpdateServiceConfigurationPermission());
+  }
+
+  @Override
+  public void produceTitle(HtmlComponent p) {
+    p.print("Metrics");
+  }
+
+  @Override
+  public void produceBody(HtmlComponent p) {
+    p.print("Metrics since " + new Date(ServiceTunnelMetrics.getInstance().getResetTime()) + " [ ");
+    p.linkAction("reset", new AbstractHtmlAction("resetMetrics") {
+      @Override
+      public void run() {
+        ServiceTunnelMetrics.getInstance().reset();
+      }
+    });
+    p.print(" ]");
+    p.p();
+    //
+    renderMetricsTable(p);
+  }
+
+  private void renderMetricsTable(HtmlComponent p) {
+    OperationMetrics[] metrics = ServiceTunnelMetrics.getInstance().getAllOperationMetrics();
+    HtmlTable table1 = new HtmlTable(p, "table1", m_table1SortInfo);
+    table1.startTable(1, 0, 3);
+    table1.startTableRow();
+    table1.tableHeaderCell("Operation");
+    table1.tableHeaderCell("Calls");
+    table1.tableHeaderCell("Errors");
+    table1.tableHeaderCell("In&nbsp;progress");
+    table1.tableHeaderCell("Mean&nbsp;ms");
+    table1.tableHeaderCell("50%&nbsp;ms");
+    table1.tableHeaderCell("90%&nbsp;ms");
+    table1.tableHeaderCell("99%&nbsp;ms");
+    table1.tableHeaderCell("Max&nbsp;ms");
+    table1.tableHeaderCell("Mean&nbsp;request&nbsp;bytes");
+    table1.tableHeaderCell("Mean&nbsp;response&nbsp;bytes");
+    table1.tableHeaderCell("Max&nbsp;response&nbsp;bytes");
+    table1.endTableRow();
+    for (OperationMetrics m : metrics) {
+      VirtualRow vrow = table1.addVirtualRow();
+      renderMetricsRow(vrow, m);
+    }
+    table1.appendVirtualRows();
+    table1.endTable();
+    p.append(table1);
+  }
+
+  private void renderMetricsRow(HtmlComponent p, OperationMetrics m) {
+    LatencyHistogram latency = m.getLatency();
+    p.startTableRow();
+    p.tableCell(m.getServiceInterfaceClassName() + "." + m.getOperation());
+    p.tableCell("" + latency.getCount());
+    p.tableCell("" + m.getErrorCount());
+    p.tableCell("" + m.getInFlightCount());
+    p.tableCell(formatMillis(Math.round(latency.getMean())));
+    p.tableCell(formatMillis(latency.getPercentile(50)));
+    p.tableCell(formatMillis(latency.getPercentile(90)));
+    p.tableCell(formatMillis(latency.getPercentile(99)));
+    p.tableCell(formatMillis(latency.getMax()));
+    p.tableCell("" + Math.round(m.getRequestSize().getMean()));
+    p.tableCell("" + Math.round(m.getResponseSize().getMean()));
+    p.tableCell("" + m.getResponseSize().getMax());
+    p.endTableRow();
+  }
+
+  private static String formatMillis(long micros) {
+    return (micros / 1000L) + "." + ((micros % 1000L) / 100L);
+  }
+}
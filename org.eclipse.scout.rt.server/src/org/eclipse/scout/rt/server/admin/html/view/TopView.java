@@ -21,6 +21,7 @@ public class TopView extends DefaultView {
   private ServicesView m_servicesView;
   private SessionsView m_sessionsView;
   private CallsView m_callsView;
+  private MetricsView m_metricsView;
 
   private IView m_activeView;
 
@@ -31,6 +32,7 @@ public class TopView extends DefaultView {
     m_servicesView = new ServicesView(as);
     m_sessionsView = new SessionsView(as);
     m_callsView = new CallsView(as);
+    m_metricsView = new MetricsView(as);
 
     m_activeView = m_generalView;
   }
@@ -59,6 +61,10 @@ public class TopView extends DefaultView {
     m_activeView = m_callsView;
   }
 
+  public void showMetrics() {
+    m_activeView = m_metricsView;
+  }
+
   public GeneralView getGeneralView() {
     return m_generalView;
   }
@@ -75,11 +81,15 @@ public class TopView extends DefaultView {
     return m_callsView;
   }
 
+  public MetricsView getMetricsView() {
+    return m_metricsView;
+  }
+
   @Override
   public void produceBody(HtmlComponent p) {
     m_messagesView.produceBody(p);
     p.raw("[ ");
-    for (IView v : new IView[]{m_generalView, m_servicesView, m_sessionsView, m_callsView}) {
+    for (IView v : new IView[]{m_generalView, m_servicesView, m_sessionsView, m_callsView, m_metricsView}) {
       if (v.isVisible()) {
         p.raw("&nbsp;");
         if (v == m_activeView) {
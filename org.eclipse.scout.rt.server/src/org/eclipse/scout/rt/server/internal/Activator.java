@@ -25,10 +25,16 @@ import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.equinox.app.IApplication;
 import org.eclipse.scout.commons.logger.IScoutLogger;
 import org.eclipse.scout.commons.logger.ScoutLogManager;
+import org.eclipse.scout.rt.server.ServiceInvocationPlanCache;
 import org.eclipse.scout.rt.server.admin.inspector.ProcessInspector;
+import org.eclipse.scout.rt.server.services.common.jdbc.internal.pool.ConcurrentSqlConnectionPool;
 import org.eclipse.scout.service.SERVICES;
 import org.osgi.framework.BundleContext;
 import org.osgi.framework.BundleEvent;
+import org.osgi.framework.BundleListener;
+import org.osgi.framework.Constants;
+import org.osgi.framework.ServiceEvent;
+import org.osgi.framework.ServiceListener;
 import org.osgi.framework.SynchronousBundleListener;
 
 public class Activator extends Plugin {
@@ -42,6 +48,8 @@ public class Activator extends Plugin {
   }
 
   private ProcessInspector m_processInspector;
+  private BundleListener m_invocationPlanBundleListener;
+  private ServiceListener m_invocationPlanServiceListener;
 
   /*
    * (non-Javadoc)
@@ -53,6 +61,35 @@ public class Activator extends Plugin {
     super.start(context);
     plugin = this;
     m_processInspector = new ProcessInspector();
+    // invalidate cached remote service invocations whenever classes or services may have changed
+    m_invocationPlanBundleListener = new BundleListener() {
+      @Override
+      public void bundleChanged(BundleEvent event) {
+        switch (event.getType()) {
+          case BundleEvent.RESOLVED:
+          case BundleEvent.UNRESOLVED:
+          case BundleEvent.UPDATED:
+          case BundleEvent.UNINSTALLED: {
+            ServiceInvocationPlanCache.getInstance().clear();
+            break;
+          }
+        }
+      }
+    };
+    context.addBundleListener(m_invocationPlanBundleListener);
+    m_invocationPlanServiceListener = new ServiceListener() {
+      @Override
+      public void serviceChanged(ServiceEvent event) {
+        // plans are per implementation class, only unregistered services must not be referenced anymore
+        if (event.getType() == ServiceEvent.UNREGISTERING) {
+          Object objectClass = event.getServiceReference().getProperty(Constants.OBJECTCLASS);
+          if (objectClass instanceof String[]) {
+            ServiceInvocationPlanCache.getInstance().removeServiceInterfaces((String[]) objectClass);
+          }
+        }
+      }
+    };
+    context.addServiceListener(m_invocationPlanServiceListener);
     // workaround for bug in serverside equinox implementation with servletbridge
     // wait until done and launch product if one exists
     if (Platform.getBundle("org.eclipse.scout.sdk") == null) {
@@ -81,6 +118,16 @@ public class Activator extends Plugin {
    */
   @Override
   public void stop(BundleContext context) throws Exception {
+    if (m_invocationPlanBundleListener != null) {
+      context.removeBundleListener(m_invocationPlanBundleListener);
+      m_invocationPlanBundleListener = null;
+    }
+    if (m_invocationPlanServiceListener != null) {
+      context.removeServiceListener(m_invocationPlanServiceListener);
+      m_invocationPlanServiceListener = null;
+    }
+    ServiceInvocationPlanCache.getInstance().clear();
+    ConcurrentSqlConnectionPool.disposeAll();
     m_processInspector = null;
     plugin = null;
     super.stop(context);
@@ -13,7 +13,16 @@ package org.eclipse.scout.rt.server.scheduler;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.PriorityQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.security.auth.Subject;
 
@@ -29,9 +38,25 @@ import org.eclipse.scout.rt.server.ServerJob;
 import org.eclipse.scout.rt.server.services.common.session.IServerSessionRegistryService;
 import org.eclipse.scout.service.SERVICES;
 
+/**
+ * Runs {@link ISchedulerJob}s whenever they accept a tick of the {@link Ticker}.
+ * <p>
+ * By default every job is asked on every tick and every triggered job is run in a new thread. When created with a
+ * worker count, the scheduler runs in the indexed mode:
+ * <ul>
+ * <li>the next fire time of jobs with a formula ({@link #isNextFireTimeComputable(ISchedulerJob)}) is computed in
+ * advance and these jobs are only visited on that tick. All other jobs are still asked on every tick.</li>
+ * <li>triggered jobs are run by a pool of at most worker count threads, further triggered jobs are queued.</li>
+ * </ul>
+ */
 public class Scheduler implements IScheduler {
   private static final IScoutLogger LOG = ScoutLogManager.getLogger(Scheduler.class);
 
+  /**
+   * Number of ticks searched for the next fire time, one week with the default {@link Calendar#MINUTE} ticker
+   */
+  public static final int NEXT_FIRE_TIME_MAX_TICKS = 7 * 24 * 60;
+
   // dispatcher
   private P_Dispatcher m_dispatcher;
   // queue
@@ -44,20 +69,86 @@ public class Scheduler implements IScheduler {
   //
   private Subject m_subject;
   private IServerSession m_serverSession;
+  // indexed mode
+  private final int m_workerCount;
+  private ThreadPoolExecutor m_executor;
+  private PriorityQueue<P_FireTime> m_fireTimeQueue;
+  private HashMap<ISchedulerJob, P_FireTime> m_fireTimes;
+  private final AtomicLong m_launchCount = new AtomicLong();
+  private final AtomicLong m_overlapCount = new AtomicLong();
 
   public Scheduler(Subject subject, Class<? extends IServerSession> serverSessionType) throws ProcessingException {
     this(subject, serverSessionType, new Ticker(Calendar.MINUTE));
   }
 
   public Scheduler(Subject subject, Class<? extends IServerSession> serverSessionType, Ticker ticker) throws ProcessingException {
+    this(subject, serverSessionType, ticker, 0);
+  }
+
+  /**
+   * @param workerCount
+   *          if greater than 0, the scheduler runs in the indexed mode with at most this number of concurrently running
+   *          jobs, see {@link Scheduler}
+   * @since 3.9.0
+   */
+  public Scheduler(Subject subject, Class<? extends IServerSession> serverSessionType, Ticker ticker, int workerCount) throws ProcessingException {
     m_availableJobs = new HashSet<ISchedulerJob>();
     m_runningJobs = new HashSet<ISchedulerJob>();
     m_queueLock = new Object();
     m_ticker = ticker;
     m_subject = subject;
+    m_workerCount = Math.max(0, workerCount);
+    if (isIndexedMode()) {
+      m_fireTimeQueue = new PriorityQueue<P_FireTime>();
+      m_fireTimes = new HashMap<ISchedulerJob, P_FireTime>();
+      m_executor = createExecutor();
+    }
     m_serverSession = SERVICES.getService(IServerSessionRegistryService.class).newServerSession(serverSessionType, subject);
   }
 
+  /**
+   * @return true if the scheduler was created with a worker count
+   * @since 3.9.0
+   */
+  public boolean isIndexedMode() {
+    return m_workerCount > 0;
+  }
+
+  /**
+   * @return the maximum number of concurrently running jobs in the indexed mode, 0 otherwise
+   * @since 3.9.0
+   */
+  public int getWorkerCount() {
+    return m_workerCount;
+  }
+
+  /**
+   * @return the number of triggered jobs waiting for a free worker
+   * @since 3.9.0
+   */
+  public int getQueuedJobCount() {
+    synchronized (m_queueLock) {
+      return m_executor != null ? m_executor.getQueue().size() : 0;
+    }
+  }
+
+  /**
+   * @return the number of job runs triggered since the scheduler was created
+   * @since 3.9.0
+   */
+  public long getLaunchCount() {
+    return m_launchCount.get();
+  }
+
+  /**
+   * @return the number of triggers that were skipped since the job was still running. In the default mode they are
+   *         only counted if info logging is enabled.
+   * @since 3.9.0
+   */
+  public long getOverlapCount() {
+    return m_overlapCount.get();
+  }
+
   @Override
   public void setActive(boolean b) {
     m_active = b;
@@ -77,6 +168,9 @@ public class Scheduler implements IScheduler {
   public void start() {
     synchronized (m_queueLock) {
       if (m_dispatcher == null) {
+        if (isIndexedMode() && m_executor.isShutdown()) {
+          m_executor = createExecutor();
+        }
         m_dispatcher = new P_Dispatcher();
         m_dispatcher.start();
       }
@@ -89,6 +183,15 @@ public class Scheduler implements IScheduler {
       if (m_dispatcher != null) {
         m_dispatcher.setStopSignal();
         m_dispatcher = null;
+        if (m_executor != null) {
+          // queued jobs are not started anymore, running jobs are interrupted below
+          ArrayList<Runnable> queuedRunners = new ArrayList<Runnable>();
+          m_executor.getQueue().drainTo(queuedRunners);
+          for (Runnable r : queuedRunners) {
+            m_runningJobs.remove(((P_JobRunner) r).getJob());
+          }
+          m_executor.shutdown();
+        }
         for (ISchedulerJob job : m_runningJobs) {
           try {
             job.setInterrupted(true);
@@ -139,6 +242,9 @@ public class Scheduler implements IScheduler {
         TickSignal tick = m_ticker.getCurrentTick();
         visitJobWithoutLocking(newJob, tick);
       }
+      if (isIndexedMode() && isNextFireTimeComputable(newJob)) {
+        scheduleNextFireTimeWithoutLocking(newJob, m_ticker.getTime());
+      }
     }
   }
 
@@ -282,11 +388,97 @@ public class Scheduler implements IScheduler {
   }
 
   protected void visitAllJobsWithoutLocking(TickSignal tick) {
+    if (isIndexedMode()) {
+      visitIndexedJobsWithoutLocking(tick, m_ticker.getTime());
+      return;
+    }
     for (ISchedulerJob job : new ArrayList<ISchedulerJob>(m_availableJobs)) {
       visitJobWithoutLocking(job, tick);
     }
   }
 
+  /**
+   * Visits the jobs with a next fire time up to the time of the tick and all jobs without a next fire time
+   */
+  private void visitIndexedJobsWithoutLocking(TickSignal tick, long time) {
+    for (ISchedulerJob job : new ArrayList<ISchedulerJob>(m_availableJobs)) {
+      if (!m_fireTimes.containsKey(job)) {
+        visitJobWithoutLocking(job, tick);
+      }
+    }
+    P_FireTime f;
+    while ((f = m_fireTimeQueue.peek()) != null && f.m_time <= time) {
+      m_fireTimeQueue.poll();
+      ISchedulerJob job = f.m_job;
+      if (m_fireTimes.get(job) != f) {
+        // job was added again or removed
+        continue;
+      }
+      if (f.m_accepted && m_availableJobs.contains(job)) {
+        visitJobWithoutLocking(job, tick);
+      }
+      if (m_availableJobs.contains(job) && !job.isDisposed()) {
+        scheduleNextFireTimeWithoutLocking(job, time);
+      }
+      else {
+        m_fireTimes.remove(job);
+      }
+    }
+  }
+
+  /**
+   * Jobs whose {@link ISchedulerJob#acceptTick(TickSignal)} only depends on the tick signal may be evaluated in
+   * advance in the indexed mode. The default accepts {@link AbstractSchedulerJobWithFormula}.
+   *
+   * @since 3.9.0
+   */
+  protected boolean isNextFireTimeComputable(ISchedulerJob job) {
+    return job instanceof AbstractSchedulerJobWithFormula;
+  }
+
+  /**
+   * @return the time the job is visited next in the indexed mode or -1 if it is visited on every tick
+   */
+  long getNextFireTime(ISchedulerJob job) {
+    synchronized (m_queueLock) {
+      P_FireTime f = (m_fireTimes != null ? m_fireTimes.get(job) : null);
+      return f != null ? f.m_time : -1L;
+    }
+  }
+
+  private void scheduleNextFireTimeWithoutLocking(ISchedulerJob job, long time) {
+    P_FireTime f = computeNextFireTime(job, time);
+    m_fireTimes.put(job, f);
+    m_fireTimeQueue.add(f);
+  }
+
+  /**
+   * @return the first tick after time accepted by the job or the last tick searched if there is none within
+   *         {@link #NEXT_FIRE_TIME_MAX_TICKS}
+   */
+  private P_FireTime computeNextFireTime(ISchedulerJob job, long time) {
+    // same calendar as the ticker uses
+    Calendar cal = Calendar.getInstance();
+    cal.setTimeInMillis(time);
+    int tickField = m_ticker.getTickMode();
+    try {
+      for (int i = 0; i < NEXT_FIRE_TIME_MAX_TICKS; i++) {
+        cal.add(tickField, 1);
+        if (job.acceptTick(Ticker.createTickSignal(cal))) {
+          return new P_FireTime(job, cal.getTimeInMillis(), true);
+        }
+      }
+      return new P_FireTime(job, cal.getTimeInMillis(), false);
+    }
+    catch (Throwable t) {
+      LOG.error("" + job, t);
+      // visit again on the next tick
+      cal.setTimeInMillis(time);
+      cal.add(tickField, 1);
+      return new P_FireTime(job, cal.getTimeInMillis(), true);
+    }
+  }
+
   protected void visitJob(ISchedulerJob job, TickSignal tick) {
     synchronized (m_queueLock) {
       visitJobWithoutLocking(job, tick);
@@ -297,9 +489,12 @@ public class Scheduler implements IScheduler {
     try {
       if (m_runningJobs.contains(job)) {
         // still running
-        if (LOG.isInfoEnabled()) {
+        if (LOG.isInfoEnabled() || isIndexedMode()) {
           if (job.acceptTick(tick)) {
-            LOG.info("job " + job + " is still running at " + tick);
+            m_overlapCount.incrementAndGet();
+            if (LOG.isInfoEnabled()) {
+              LOG.info("job " + job + " is still running at " + tick);
+            }
           }
         }
       }
@@ -313,10 +508,7 @@ public class Scheduler implements IScheduler {
           if (LOG.isInfoEnabled()) {
             LOG.info("job " + job + " triggered at " + tick);
           }
-          P_JobRunner runner = new P_JobRunner(job, tick);
-          Thread t = new Thread(runner, "Scheduler.JobLauncher." + job.getGroupId() + "." + job.getJobId());
-          t.setDaemon(true);
-          t.start();
+          launchJobWithoutLocking(new P_JobRunner(job, tick));
         }
       }
     }
@@ -325,6 +517,29 @@ public class Scheduler implements IScheduler {
     }
   }
 
+  private void launchJobWithoutLocking(P_JobRunner runner) {
+    m_launchCount.incrementAndGet();
+    if (m_executor != null) {
+      try {
+        m_executor.execute(runner);
+        return;
+      }
+      catch (RejectedExecutionException e) {
+        // scheduler is stopped, run the job as in the default mode
+      }
+    }
+    ISchedulerJob job = runner.getJob();
+    Thread t = new Thread(runner, "Scheduler.JobLauncher." + job.getGroupId() + "." + job.getJobId());
+    t.setDaemon(true);
+    t.start();
+  }
+
+  private ThreadPoolExecutor createExecutor() {
+    ThreadPoolExecutor executor = new ThreadPoolExecutor(m_workerCount, m_workerCount, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), new P_WorkerThreadFactory());
+    executor.allowCoreThreadTimeOut(true);
+    return executor;
+  }
+
   @Override
   public void handleJobExecution(final ISchedulerJob job, final TickSignal signal) throws ProcessingException {
     ServerJob serverJob = new ServerJob("Scheduler", m_serverSession, m_subject) {
@@ -384,6 +599,50 @@ public class Scheduler implements IScheduler {
     }
   }// end private class
 
+  /**
+   * Next tick to visit a job in the indexed mode
+   */
+  private static class P_FireTime implements Comparable<P_FireTime> {
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    private final ISchedulerJob m_job;
+    private final long m_time;
+    private final long m_sequence;
+    /**
+     * false if no accepted tick was found within {@link Scheduler#NEXT_FIRE_TIME_MAX_TICKS}
+     */
+    private final boolean m_accepted;
+
+    public P_FireTime(ISchedulerJob job, long time, boolean accepted) {
+      m_job = job;
+      m_time = time;
+      m_accepted = accepted;
+      m_sequence = SEQUENCE.incrementAndGet();
+    }
+
+    @Override
+    public int compareTo(P_FireTime o) {
+      if (m_time != o.m_time) {
+        return m_time < o.m_time ? -1 : 1;
+      }
+      if (m_sequence != o.m_sequence) {
+        return m_sequence < o.m_sequence ? -1 : 1;
+      }
+      return 0;
+    }
+  }
+
+  private static class P_WorkerThreadFactory implements ThreadFactory {
+    private final AtomicInteger m_threadNumber = new AtomicInteger();
+
+    @Override
+    public Thread newThread(Runnable r) {
+      Thread t = new Thread(r, "Scheduler.Worker-" + m_threadNumber.incrementAndGet());
+      t.setDaemon(true);
+      return t;
+    }
+  }
+
   private class P_Dispatcher extends StoppableThread {
 
     public P_Dispatcher() {
@@ -37,6 +37,7 @@ public class Ticker {
    * create a copy of a ticker
    */
   public Ticker(Ticker other) {
+    m_cal = Calendar.getInstance();
     setTickMode(other.getTickMode());
     setTime(other.getTime());
   }
@@ -129,17 +130,25 @@ public class Ticker {
   }
 
   public TickSignal getCurrentTick() {
+    return createTickSignal(m_cal);
+  }
+
+  /**
+   * @return the tick signal of the time of the calendar
+   * @since 3.9.0
+   */
+  public static TickSignal createTickSignal(Calendar cal) {
     return new TickSignal(
-        m_cal.get(Calendar.SECOND),
-        m_cal.get(Calendar.MINUTE),
-        m_cal.get(Calendar.HOUR_OF_DAY),
-        ((7 + m_cal.get(Calendar.DAY_OF_WEEK) - Calendar.MONDAY) % 7) + 1,
-        m_cal.get(Calendar.DAY_OF_MONTH),
-        m_cal.getActualMaximum(Calendar.DAY_OF_MONTH) - m_cal.get(Calendar.DAY_OF_MONTH),
-        m_cal.get(Calendar.DAY_OF_YEAR),
-        m_cal.get(Calendar.WEEK_OF_YEAR),
-        ((12 + m_cal.get(Calendar.MONTH) - Calendar.JANUARY) % 12) + 1,
-        m_cal.get(Calendar.YEAR));
+        cal.get(Calendar.SECOND),
+        cal.get(Calendar.MINUTE),
+        cal.get(Calendar.HOUR_OF_DAY),
+        ((7 + cal.get(Calendar.DAY_OF_WEEK) - Calendar.MONDAY) % 7) + 1,
+        cal.get(Calendar.DAY_OF_MONTH),
+        cal.getActualMaximum(Calendar.DAY_OF_MONTH) - cal.get(Calendar.DAY_OF_MONTH),
+        cal.get(Calendar.DAY_OF_YEAR),
+        cal.get(Calendar.WEEK_OF_YEAR),
+        ((12 + cal.get(Calendar.MONTH) - Calendar.JANUARY) % 12) + 1,
+        cal.get(Calendar.YEAR));
   }
 
 }
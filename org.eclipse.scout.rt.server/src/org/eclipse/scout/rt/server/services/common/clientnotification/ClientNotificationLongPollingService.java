@@ -0,0 +1,57 @@
+/*******************************************************************************
+ * Copyright (c) 2013 BSI Business Systems Integration AG.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     BSI Business Systems Integration AG - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.scout.rt.server.services.common.clientnotification;
+
+import org.eclipse.scout.commons.annotations.Priority;
+import org.eclipse.scout.rt.shared.services.common.clientnotification.IClientNotification;
+import org.eclipse.scout.rt.shared.services.common.clientnotification.IClientNotificationLongPollingService;
+import org.eclipse.scout.rt.shared.validate.IValidationStrategy;
+import org.eclipse.scout.rt.shared.validate.InputValidation;
+import org.eclipse.scout.service.AbstractService;
+import org.eclipse.scout.service.SERVICES;
+
+/**
+ * Waits on the {@link IClientNotificationService} queue for notifications of the calling session.
+ * <p>
+ * The maximum time a request is held is defined by the config.ini property
+ * <code>org.eclipse.scout.rt.server.services.common.clientnotification.ClientNotificationLongPollingService#maxWaitTimeout</code>
+ * (default 60000ms). Every waiting client occupies a servlet container thread for that time.
+ * <p>
+ * Note that projects with explicit remote service permissions must grant
+ * <code>RemoteServiceAccessPermission(IClientNotificationLongPollingService, "waitForNotifications")</code>, otherwise
+ * the clients fall back to polling.
+ *
+ * @since 3.9.0
+ */
+@Priority(-1)
+public class ClientNotificationLongPollingService extends AbstractService implements IClientNotificationLongPollingService {
+  private long m_maxWaitTimeout = 60000L;
+
+  public long getMaxWaitTimeout() {
+    return m_maxWaitTimeout;
+  }
+
+  public void setMaxWaitTimeout(long maxWaitTimeout) {
+    m_maxWaitTimeout = maxWaitTimeout;
+  }
+
+  @Override
+  @InputValidation(IValidationStrategy.QUERY.class)
+  public IClientNotification[] waitForNotifications(long timeout) {
+    long t = Math.max(0L, Math.min(timeout, getMaxWaitTimeout()));
+    IClientNotification[] notifications = SERVICES.getService(IClientNotificationService.class).getNextNotifications(t);
+    if (notifications == null) {
+      return new IClientNotification[0];
+    }
+    return notifications;
+  }
+
+}
@@ -0,0 +1,37 @@
+/*******************************************************************************
+ * Copyright (c) 2013 BSI Business Systems Integration AG.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     BSI Business Systems Integration AG - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.scout.rt.server.services.common.clientnotification;
+
+import org.eclipse.scout.commons.LatencyHistogram;
+
+/**
+ * Runtime statistics of a client notification queue
+ *
+ * @since 3.9.0
+ */
+public interface IClientNotificationQueueStatistics {
+
+  /**
+   * @return the number of queued notifications (including multicast notifications that were already delivered to some
+   *         sessions and inactive notifications that were not yet removed)
+   */
+  int getQueueDepth();
+
+  /**
+   * @return the number of threads waiting for notifications
+   */
+  int getWaiterCount();
+
+  /**
+   * @return the time in milliseconds between putting a notification and delivering it to a session
+   */
+  LatencyHistogram getDeliveryLatencyHistogram();
+}
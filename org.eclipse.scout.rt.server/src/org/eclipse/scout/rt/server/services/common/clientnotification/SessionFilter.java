@@ -30,6 +30,14 @@ public class SessionFilter implements IClientNotificationFilter {
     m_validUntil = System.currentTimeMillis() + timeout;
   }
 
+  /**
+   * @return the session this filter accepts or null if it was garbage collected
+   * @since 3.9.0
+   */
+  public IServerSession getSession() {
+    return m_sessionRef != null ? m_sessionRef.get() : null;
+  }
+
   @Override
   public boolean isActive() {
     return m_sessionRef != null && m_sessionRef.get() != null && System.currentTimeMillis() <= m_validUntil;
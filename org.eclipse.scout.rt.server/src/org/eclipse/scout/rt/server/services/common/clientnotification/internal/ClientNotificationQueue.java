@@ -13,7 +13,6 @@ package org.eclipse.scout.rt.server.services.common.clientnotification.internal;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.LinkedList;
-import java.util.WeakHashMap;
 
 import org.eclipse.scout.commons.EventListenerList;
 import org.eclipse.scout.commons.logger.IScoutLogger;
@@ -28,17 +27,19 @@ import org.eclipse.scout.rt.shared.services.common.clientnotification.IClientNot
 /**
  * element type used in CTIStateCache
  */
-public class ClientNotificationQueue {
+public class ClientNotificationQueue implements IClientNotificationQueue {
   private static final IScoutLogger LOG = ScoutLogManager.getLogger(ClientNotificationQueue.class);
   private EventListenerList m_listenerList = new EventListenerList();
 
-  private LinkedList<QueueElement> m_queue;
+  private LinkedList<ClientNotificationQueueElement> m_queue;
   private Object m_queueLock = new Object();
+  private long m_sequence;
 
   public ClientNotificationQueue() {
-    m_queue = new LinkedList<QueueElement>();
+    m_queue = new LinkedList<ClientNotificationQueueElement>();
   }
 
+  @Override
   public void putNotification(IClientNotification notification, IClientNotificationFilter filter) {
     if (notification == null) {
       throw new IllegalArgumentException("notification must not be null");
@@ -50,8 +51,8 @@ public class ClientNotificationQueue {
       LOG.debug("put " + notification + " for " + filter);
     }
     synchronized (m_queueLock) {
-      for (Iterator<QueueElement> it = m_queue.iterator(); it.hasNext();) {
-        QueueElement e = it.next();
+      for (Iterator<ClientNotificationQueueElement> it = m_queue.iterator(); it.hasNext();) {
+        ClientNotificationQueueElement e = it.next();
         if (!e.getFilter().isActive()) {
           it.remove();
         }
@@ -62,20 +63,21 @@ public class ClientNotificationQueue {
           it.remove();
         }
       }
-      m_queue.add(new QueueElement(notification, filter));
+      m_queue.add(new ClientNotificationQueueElement(notification, filter, m_sequence++));
       m_queueLock.notifyAll();
     }
     fireEvent(notification, filter);
   }
 
+  @Override
   public IClientNotification[] getNextNotifications(long blockingTimeout) {
     long endTime = System.currentTimeMillis() + blockingTimeout;
     ArrayList<IClientNotification> list = new ArrayList<IClientNotification>();
     synchronized (m_queueLock) {
       while (true) {
         if (!m_queue.isEmpty()) {
-          for (Iterator<QueueElement> it = m_queue.iterator(); it.hasNext();) {
-            QueueElement e = it.next();
+          for (Iterator<ClientNotificationQueueElement> it = m_queue.iterator(); it.hasNext();) {
+            ClientNotificationQueueElement e = it.next();
             if (e.getFilter().isActive()) {
               IServerSession serverSession = ThreadContext.getServerSession();
               if (!e.isConsumedBy(serverSession)) {
@@ -111,71 +113,15 @@ public class ClientNotificationQueue {
     return list.toArray(new IClientNotification[list.size()]);
   }
 
-  private class QueueElement {
-    private IClientNotification m_notification;
-    private IClientNotificationFilter m_filter;
-    private Object m_consumedBySessionsLock;
-    private WeakHashMap<IServerSession, Object> m_consumedBySessions;
-
-    public QueueElement(IClientNotification notification, IClientNotificationFilter filter) {
-      m_notification = notification;
-      m_filter = filter;
-      m_consumedBySessionsLock = new Object();
-    }
-
-    public IClientNotification getClientNotification() {
-      return m_notification;
-    }
-
-    public IClientNotificationFilter getFilter() {
-      return m_filter;
-    }
-
-    /**
-     * @return true if this notifcation is already consumed by the session
-     *         specified
-     */
-    public boolean isConsumedBy(IServerSession session) {
-      // fast check
-      if (session == null) {
-        return false;
-      }
-      if (m_consumedBySessions == null) {
-        return false;
-      }
-      //
-      synchronized (m_consumedBySessionsLock) {
-        if (m_consumedBySessions != null) {
-          return m_consumedBySessions.containsKey(session);
-        }
-        else {
-          return false;
-        }
-      }
-    }
-
-    /**
-     * keeps in mind that this notifcation was consumed by the session specified
-     */
-    public void setConsumedBy(IServerSession session) {
-      if (session != null) {
-        synchronized (m_consumedBySessionsLock) {
-          if (m_consumedBySessions == null) {
-            m_consumedBySessions = new WeakHashMap<IServerSession, Object>();
-          }
-          m_consumedBySessions.put(session, null);
-        }
-      }
-    }
-  }
-
   /**
    * Model Observer
    */
+  @Override
   public void addClientNotificationQueueListener(IClientNotificationQueueListener listener) {
     m_listenerList.add(IClientNotificationQueueListener.class, listener);
   }
 
+  @Override
   public void removeClientNotificationQueueListener(IClientNotificationQueueListener listener) {
     m_listenerList.remove(IClientNotificationQueueListener.class, listener);
   }
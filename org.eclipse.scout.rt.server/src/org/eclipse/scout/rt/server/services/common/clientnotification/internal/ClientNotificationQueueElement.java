@@ -0,0 +1,91 @@
+/*******************************************************************************
+ * Copyright (c) 2013 BSI Business Systems Integration AG.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     BSI Business Systems Integration AG - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.scout.rt.server.services.common.clientnotification.internal;
+
+import java.util.WeakHashMap;
+
+import org.eclipse.scout.rt.server.IServerSession;
+import org.eclipse.scout.rt.server.services.common.clientnotification.IClientNotificationFilter;
+import org.eclipse.scout.rt.shared.services.common.clientnotification.IClientNotification;
+
+/**
+ * Element of a client notification queue with the sessions that already consumed a multicast notification
+ *
+ * @since 3.9.0
+ */
+class ClientNotificationQueueElement {
+  private final IClientNotification m_notification;
+  private final IClientNotificationFilter m_filter;
+  private final long m_sequence;
+  private final long m_createTime;
+  private final Object m_consumedBySessionsLock;
+  private WeakHashMap<IServerSession, Object> m_consumedBySessions;
+
+  public ClientNotificationQueueElement(IClientNotification notification, IClientNotificationFilter filter, long sequence) {
+    m_notification = notification;
+    m_filter = filter;
+    m_sequence = sequence;
+    m_createTime = System.currentTimeMillis();
+    m_consumedBySessionsLock = new Object();
+  }
+
+  public IClientNotification getClientNotification() {
+    return m_notification;
+  }
+
+  public IClientNotificationFilter getFilter() {
+    return m_filter;
+  }
+
+  /**
+   * @return the position of this element in the order of all put operations
+   */
+  public long getSequence() {
+    return m_sequence;
+  }
+
+  public long getCreateTime() {
+    return m_createTime;
+  }
+
+  /**
+   * @return true if this notifcation is already consumed by the session
+   *         specified
+   */
+  public boolean isConsumedBy(IServerSession session) {
+    // fast check
+    if (session == null) {
+      return false;
+    }
+    synchronized (m_consumedBySessionsLock) {
+      if (m_consumedBySessions != null) {
+        return m_consumedBySessions.containsKey(session);
+      }
+      else {
+        return false;
+      }
+    }
+  }
+
+  /**
+   * keeps in mind that this notifcation was consumed by the session specified
+   */
+  public void setConsumedBy(IServerSession session) {
+    if (session != null) {
+      synchronized (m_consumedBySessionsLock) {
+        if (m_consumedBySessions == null) {
+          m_consumedBySessions = new WeakHashMap<IServerSession, Object>();
+        }
+        m_consumedBySessions.put(session, null);
+      }
+    }
+  }
+}
@@ -12,8 +12,10 @@ package org.eclipse.scout.rt.server.services.common.clientnotification.internal;
 
 import org.eclipse.scout.commons.logger.IScoutLogger;
 import org.eclipse.scout.commons.logger.ScoutLogManager;
+import org.eclipse.scout.rt.server.internal.Activator;
 import org.eclipse.scout.rt.server.services.common.clientnotification.IClientNotificationFilter;
 import org.eclipse.scout.rt.server.services.common.clientnotification.IClientNotificationQueueListener;
+import org.eclipse.scout.rt.server.services.common.clientnotification.IClientNotificationQueueStatistics;
 import org.eclipse.scout.rt.server.services.common.clientnotification.IClientNotificationService;
 import org.eclipse.scout.rt.shared.services.common.clientnotification.IClientNotification;
 import org.eclipse.scout.rt.shared.servicetunnel.RemoteServiceAccessDenied;
@@ -22,10 +24,36 @@ import org.eclipse.scout.service.AbstractService;
 public class ClientNotificationService extends AbstractService implements IClientNotificationService {
   private static final IScoutLogger LOG = ScoutLogManager.getLogger(ClientNotificationService.class);
 
-  private ClientNotificationQueue m_clientNotificationQueue;
+  private IClientNotificationQueue m_clientNotificationQueue;
 
   public ClientNotificationService() {
-    m_clientNotificationQueue = new ClientNotificationQueue();
+    m_clientNotificationQueue = createClientNotificationQueue();
+  }
+
+  /**
+   * @return the queue holding the notifications. Default is a {@link ClientNotificationQueue} or an
+   *         {@link IndexedClientNotificationQueue} if the config.ini property
+   *         <code>org.eclipse.scout.rt.server.clientNotificationQueue.indexed</code> is true.
+   * @since 3.9.0
+   */
+  protected IClientNotificationQueue createClientNotificationQueue() {
+    String s = (Activator.getDefault() != null ? Activator.getDefault().getBundle().getBundleContext().getProperty("org.eclipse.scout.rt.server.clientNotificationQueue.indexed") : null);
+    if ("true".equalsIgnoreCase(s)) {
+      return new IndexedClientNotificationQueue();
+    }
+    return new ClientNotificationQueue();
+  }
+
+  /**
+   * @return queue depth and delivery latency of the queue or null if the queue does not record statistics
+   * @since 3.9.0
+   */
+  @RemoteServiceAccessDenied
+  public IClientNotificationQueueStatistics getQueueStatistics() {
+    if (m_clientNotificationQueue instanceof IClientNotificationQueueStatistics) {
+      return (IClientNotificationQueueStatistics) m_clientNotificationQueue;
+    }
+    return null;
   }
 
   @Override
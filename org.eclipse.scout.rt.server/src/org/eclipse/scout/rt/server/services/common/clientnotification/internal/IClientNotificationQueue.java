@@ -0,0 +1,35 @@
+/*******************************************************************************
+ * Copyright (c) 2013 BSI Business Systems Integration AG.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     BSI Business Systems Integration AG - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.scout.rt.server.services.common.clientnotification.internal;
+
+import org.eclipse.scout.rt.server.services.common.clientnotification.IClientNotificationFilter;
+import org.eclipse.scout.rt.server.services.common.clientnotification.IClientNotificationQueueListener;
+import org.eclipse.scout.rt.shared.services.common.clientnotification.IClientNotification;
+
+/**
+ * Queue of client notifications used by {@link ClientNotificationService}
+ *
+ * @since 3.9.0
+ */
+public interface IClientNotificationQueue {
+
+  void putNotification(IClientNotification notification, IClientNotificationFilter filter);
+
+  /**
+   * @return the notifications accepted by the server session of the current thread, waits at most blockingTimeout
+   *         milliseconds until there is at least one
+   */
+  IClientNotification[] getNextNotifications(long blockingTimeout);
+
+  void addClientNotificationQueueListener(IClientNotificationQueueListener listener);
+
+  void removeClientNotificationQueueListener(IClientNotificationQueueListener listener);
+}
@@ -0,0 +1,484 @@
+/*******************************************************************************
+ * Copyright (c) 2013 BSI Business Systems Integration AG.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     BSI Business Systems Integration AG - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.scout.rt.server.services.common.clientnotification.internal;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.scout.commons.EventListenerList;
+import org.eclipse.scout.commons.LatencyHistogram;
+import org.eclipse.scout.commons.logger.IScoutLogger;
+import org.eclipse.scout.commons.logger.ScoutLogManager;
+import org.eclipse.scout.rt.server.IServerSession;
+import org.eclipse.scout.rt.server.ThreadContext;
+import org.eclipse.scout.rt.server.services.common.clientnotification.ClientNotificationQueueEvent;
+import org.eclipse.scout.rt.server.services.common.clientnotification.IClientNotificationFilter;
+import org.eclipse.scout.rt.server.services.common.clientnotification.IClientNotificationQueueListener;
+import org.eclipse.scout.rt.server.services.common.clientnotification.IClientNotificationQueueStatistics;
+import org.eclipse.scout.rt.server.services.common.clientnotification.SessionFilter;
+import org.eclipse.scout.rt.server.services.common.clientnotification.SingleUserFilter;
+import org.eclipse.scout.rt.shared.services.common.clientnotification.IClientNotification;
+
+/**
+ * Client notification queue that is partitioned by filter kind.
+ * <p>
+ * Notifications with a {@link SessionFilter} are queued per session, notifications with a {@link SingleUserFilter} per
+ * user id (case insensitive) and all other notifications (for example
+ * {@link org.eclipse.scout.rt.server.services.common.clientnotification.AllUserFilter AllUserFilter}) in a common
+ * broadcast partition. A session only scans its own session partition, its user partition and the broadcast partition,
+ * each under its own lock. Waiting sessions are woken up only if a notification is put into one of their partitions.
+ * Session partitions reference their session weakly like {@link SessionFilter} does, partitions of expired filters and
+ * garbage collected sessions are removed periodically.
+ * <p>
+ * The semantics of {@link IClientNotificationFilter} are kept: {@link IClientNotificationFilter#accept()} is still
+ * evaluated for every candidate, multicast notifications are remembered per consuming session and
+ * {@link IClientNotification#coalesce(IClientNotification)} is applied to notifications with equal filters (which are
+ * always in the same partition). Notifications are delivered in the order they were put.
+ * <p>
+ * This class is thread-safe
+ *
+ * @since 3.9.0
+ */
+public class IndexedClientNotificationQueue implements IClientNotificationQueue, IClientNotificationQueueStatistics {
+  private static final IScoutLogger LOG = ScoutLogManager.getLogger(IndexedClientNotificationQueue.class);
+  private static final long SWEEP_INTERVAL = 10000L;
+  private static final Comparator<ClientNotificationQueueElement> SEQUENCE_COMPARATOR = new Comparator<ClientNotificationQueueElement>() {
+    @Override
+    public int compare(ClientNotificationQueueElement a, ClientNotificationQueueElement b) {
+      return a.getSequence() < b.getSequence() ? -1 : (a.getSequence() == b.getSequence() ? 0 : 1);
+    }
+  };
+
+  private final EventListenerList m_listenerList = new EventListenerList();
+  private final ConcurrentHashMap<P_SessionKey, P_Partition> m_sessionPartitions = new ConcurrentHashMap<P_SessionKey, P_Partition>();
+  private final ConcurrentHashMap<String, P_Partition> m_userPartitions = new ConcurrentHashMap<String, P_Partition>();
+  private final P_Partition m_broadcastPartition = new P_Partition();
+  private final AtomicLong m_sequence = new AtomicLong();
+  private final AtomicLong m_lastSweep = new AtomicLong(System.currentTimeMillis());
+  private final LatencyHistogram m_deliveryLatency = new LatencyHistogram();
+  // waiters
+  private final Object m_waiterLock = new Object();
+  private final HashMap<Object, Set<P_Waiter>> m_waitersByKey = new HashMap<Object, Set<P_Waiter>>();
+  private final HashSet<P_Waiter> m_waiters = new HashSet<P_Waiter>();
+
+  public IndexedClientNotificationQueue() {
+  }
+
+  @Override
+  public void putNotification(IClientNotification notification, IClientNotificationFilter filter) {
+    if (notification == null) {
+      throw new IllegalArgumentException("notification must not be null");
+    }
+    if (filter == null) {
+      throw new IllegalArgumentException("filter must not be null");
+    }
+    if (LOG.isDebugEnabled()) {
+      LOG.debug("put " + notification + " for " + filter);
+    }
+    ClientNotificationQueueElement element = new ClientNotificationQueueElement(notification, filter, m_sequence.getAndIncrement());
+    if (filter.getClass() == SessionFilter.class) {
+      IServerSession session = ((SessionFilter) filter).getSession();
+      if (session != null) {
+        addToKeyedPartition(m_sessionPartitions, new P_SessionKey(session), element);
+        signalWaiters(session);
+      }
+    }
+    else if (filter.getClass() == SingleUserFilter.class) {
+      String userKey = toUserKey(((SingleUserFilter) filter).getUserId());
+      if (userKey != null) {
+        addToKeyedPartition(m_userPartitions, userKey, element);
+        signalWaiters(userKey);
+      }
+    }
+    else {
+      m_broadcastPartition.add(element);
+      signalWaiters(null);
+    }
+    sweepIfNecessary();
+    fireEvent(notification, filter);
+  }
+
+  @Override
+  public IClientNotification[] getNextNotifications(long blockingTimeout) {
+    long endTime = System.currentTimeMillis() + blockingTimeout;
+    IServerSession session = ThreadContext.getServerSession();
+    P_SessionKey sessionKey = (session != null ? new P_SessionKey(session) : null);
+    String userKey = (session != null ? toUserKey(session.getUserId()) : null);
+    ArrayList<ClientNotificationQueueElement> list = new ArrayList<ClientNotificationQueueElement>();
+    P_Waiter waiter = null;
+    try {
+      while (true) {
+        if (session != null) {
+          collectFromKeyedPartition(m_sessionPartitions, sessionKey, session, list);
+        }
+        if (userKey != null) {
+          collectFromKeyedPartition(m_userPartitions, userKey, session, list);
+        }
+        m_broadcastPartition.collect(session, list);
+        long dt = endTime - System.currentTimeMillis();
+        if (list.size() > 0 || dt <= 0) {
+          break;
+        }
+        if (waiter == null) {
+          // register and scan again, so a notification put in between is not missed
+          waiter = registerWaiter(session, userKey);
+        }
+        else {
+          waiter.await(dt);
+        }
+      }
+    }
+    finally {
+      if (waiter != null) {
+        unregisterWaiter(waiter);
+      }
+    }
+    if (list.size() > 1) {
+      Collections.sort(list, SEQUENCE_COMPARATOR);
+    }
+    long now = System.currentTimeMillis();
+    IClientNotification[] a = new IClientNotification[list.size()];
+    for (int i = 0; i < a.length; i++) {
+      ClientNotificationQueueElement e = list.get(i);
+      m_deliveryLatency.record(now - e.getCreateTime());
+      a[i] = e.getClientNotification();
+    }
+    return a;
+  }
+
+  @Override
+  public int getQueueDepth() {
+    int n = m_broadcastPartition.size();
+    for (P_Partition p : m_sessionPartitions.values()) {
+      n += p.size();
+    }
+    for (P_Partition p : m_userPartitions.values()) {
+      n += p.size();
+    }
+    return n;
+  }
+
+  @Override
+  public int getWaiterCount() {
+    synchronized (m_waiterLock) {
+      return m_waiters.size();
+    }
+  }
+
+  @Override
+  public LatencyHistogram getDeliveryLatencyHistogram() {
+    return m_deliveryLatency;
+  }
+
+  private static String toUserKey(String userId) {
+    return userId != null ? userId.toLowerCase(Locale.ENGLISH) : null;
+  }
+
+  private static <K> void addToKeyedPartition(ConcurrentHashMap<K, P_Partition> map, K key, ClientNotificationQueueElement element) {
+    while (true) {
+      P_Partition p = map.get(key);
+      if (p == null) {
+        P_Partition newPartition = new P_Partition();
+        p = map.putIfAbsent(key, newPartition);
+        if (p == null) {
+          p = newPartition;
+        }
+      }
+      if (p.add(element)) {
+        return;
+      }
+      // the partition was discarded concurrently, retry with a new one
+    }
+  }
+
+  private static <K> void collectFromKeyedPartition(ConcurrentHashMap<K, P_Partition> map, K key, IServerSession session, ArrayList<ClientNotificationQueueElement> list) {
+    P_Partition p = map.get(key);
+    if (p != null) {
+      p.collect(session, list);
+      if (p.discardIfEmpty()) {
+        map.remove(key, p);
+      }
+    }
+  }
+
+  /**
+   * Removes inactive notifications from all partitions, at most every {@link #SWEEP_INTERVAL} milliseconds. This frees
+   * partitions of sessions and users that stopped polling. The filters of a garbage collected session are inactive, so
+   * its partition is removed as well.
+   */
+  private void sweepIfNecessary() {
+    long last = m_lastSweep.get();
+    long now = System.currentTimeMillis();
+    if (now - last < SWEEP_INTERVAL || !m_lastSweep.compareAndSet(last, now)) {
+      return;
+    }
+    m_broadcastPartition.removeInactive();
+    sweep(m_sessionPartitions);
+    sweep(m_userPartitions);
+  }
+
+  private static <K> void sweep(ConcurrentHashMap<K, P_Partition> map) {
+    for (Iterator<Map.Entry<K, P_Partition>> it = map.entrySet().iterator(); it.hasNext();) {
+      Map.Entry<K, P_Partition> e = it.next();
+      P_Partition p = e.getValue();
+      p.removeInactive();
+      if (p.discardIfEmpty()) {
+        map.remove(e.getKey(), p);
+      }
+    }
+  }
+
+  private P_Waiter registerWaiter(IServerSession session, String userKey) {
+    P_Waiter w = new P_Waiter(session, userKey);
+    synchronized (m_waiterLock) {
+      m_waiters.add(w);
+      if (session != null) {
+        addWaiterKey(session, w);
+      }
+      if (userKey != null) {
+        addWaiterKey(userKey, w);
+      }
+    }
+    return w;
+  }
+
+  private void unregisterWaiter(P_Waiter w) {
+    synchronized (m_waiterLock) {
+      m_waiters.remove(w);
+      if (w.getSession() != null) {
+        removeWaiterKey(w.getSession(), w);
+      }
+      if (w.getUserKey() != null) {
+        removeWaiterKey(w.getUserKey(), w);
+      }
+    }
+  }
+
+  private void addWaiterKey(Object key, P_Waiter w) {
+    Set<P_Waiter> set = m_waitersByKey.get(key);
+    if (set == null) {
+      set = new HashSet<P_Waiter>();
+      m_waitersByKey.put(key, set);
+    }
+    set.add(w);
+  }
+
+  private void removeWaiterKey(Object key, P_Waiter w) {
+    Set<P_Waiter> set = m_waitersByKey.get(key);
+    if (set != null) {
+      set.remove(w);
+      if (set.isEmpty()) {
+        m_waitersByKey.remove(key);
+      }
+    }
+  }
+
+  /**
+   * @param key
+   *          the session or user key of the partition that changed, null for the broadcast partition
+   */
+  private void signalWaiters(Object key) {
+    P_Waiter[] waiters;
+    synchronized (m_waiterLock) {
+      if (key == null) {
+        waiters = m_waiters.toArray(new P_Waiter[m_waiters.size()]);
+      }
+      else {
+        Set<P_Waiter> set = m_waitersByKey.get(key);
+        if (set == null) {
+          return;
+        }
+        waiters = set.toArray(new P_Waiter[set.size()]);
+      }
+    }
+    for (P_Waiter w : waiters) {
+      w.signal();
+    }
+  }
+
+  /**
+   * Model Observer
+   */
+  @Override
+  public void addClientNotificationQueueListener(IClientNotificationQueueListener listener) {
+    m_listenerList.add(IClientNotificationQueueListener.class, listener);
+  }
+
+  @Override
+  public void removeClientNotificationQueueListener(IClientNotificationQueueListener listener) {
+    m_listenerList.remove(IClientNotificationQueueListener.class, listener);
+  }
+
+  private void fireEvent(IClientNotification notification, IClientNotificationFilter filter) {
+    IClientNotificationQueueListener[] listeners = m_listenerList.getListeners(IClientNotificationQueueListener.class);
+    if (listeners != null && listeners.length > 0) {
+      for (int i = 0; i < listeners.length; i++) {
+        (listeners[i]).queueChanged(new ClientNotificationQueueEvent(notification, filter, ClientNotificationQueueEvent.TYPE_NOTIFICATION_ADDED));
+      }
+    }
+  }
+
+  /**
+   * Notifications of one session, one user or the broadcast notifications
+   */
+  private static class P_Partition {
+    private final LinkedList<ClientNotificationQueueElement> m_elements = new LinkedList<ClientNotificationQueueElement>();
+    private boolean m_discarded;
+
+    /**
+     * @return false if the partition was discarded and must not be used anymore
+     */
+    public synchronized boolean add(ClientNotificationQueueElement element) {
+      if (m_discarded) {
+        return false;
+      }
+      IClientNotification notification = element.getClientNotification();
+      IClientNotificationFilter filter = element.getFilter();
+      for (Iterator<ClientNotificationQueueElement> it = m_elements.iterator(); it.hasNext();) {
+        ClientNotificationQueueElement e = it.next();
+        if (!e.getFilter().isActive()) {
+          it.remove();
+        }
+        else if (e.getClientNotification() == notification) {
+          it.remove();
+        }
+        else if (e.getClientNotification().getClass() == notification.getClass() && filter.equals(e.getFilter()) && notification.coalesce(e.getClientNotification())) {
+          it.remove();
+        }
+      }
+      m_elements.add(element);
+      return true;
+    }
+
+    public synchronized void collect(IServerSession session, ArrayList<ClientNotificationQueueElement> list) {
+      for (Iterator<ClientNotificationQueueElement> it = m_elements.iterator(); it.hasNext();) {
+        ClientNotificationQueueElement e = it.next();
+        if (e.getFilter().isActive()) {
+          if (!e.isConsumedBy(session)) {
+            if (e.getFilter().accept()) {
+              list.add(e);
+              if (e.getFilter().isMulticast()) {
+                e.setConsumedBy(session);
+              }
+              else {
+                it.remove();
+              }
+            }
+          }
+        }
+        else {
+          it.remove();
+        }
+      }
+    }
+
+    public synchronized void removeInactive() {
+      for (Iterator<ClientNotificationQueueElement> it = m_elements.iterator(); it.hasNext();) {
+        if (!it.next().getFilter().isActive()) {
+          it.remove();
+        }
+      }
+    }
+
+    /**
+     * @return true if the partition is empty and was discarded
+     */
+    public synchronized boolean discardIfEmpty() {
+      if (m_elements.isEmpty()) {
+        m_discarded = true;
+      }
+      return m_discarded;
+    }
+
+    public synchronized int size() {
+      return m_elements.size();
+    }
+  }
+
+  /**
+   * Identity key of a session that does not prevent the session from being garbage collected
+   */
+  private static final class P_SessionKey {
+    private final WeakReference<IServerSession> m_sessionRef;
+    private final int m_hashCode;
+
+    public P_SessionKey(IServerSession session) {
+      m_sessionRef = new WeakReference<IServerSession>(session);
+      m_hashCode = System.identityHashCode(session);
+    }
+
+    @Override
+    public int hashCode() {
+      return m_hashCode;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (obj == this) {
+        return true;
+      }
+      if (obj == null || obj.getClass() != this.getClass()) {
+        return false;
+      }
+      IServerSession session = m_sessionRef.get();
+      return session != null && session == ((P_SessionKey) obj).m_sessionRef.get();
+    }
+  }
+
+  /**
+   * A thread waiting in {@link IndexedClientNotificationQueue#getNextNotifications(long)}
+   */
+  private static class P_Waiter {
+    private final IServerSession m_session;
+    private final String m_userKey;
+    private boolean m_signaled;
+
+    public P_Waiter(IServerSession session, String userKey) {
+      m_session = session;
+      m_userKey = userKey;
+    }
+
+    public IServerSession getSession() {
+      return m_session;
+    }
+
+    public String getUserKey() {
+      return m_userKey;
+    }
+
+    public synchronized void signal() {
+      m_signaled = true;
+      notifyAll();
+    }
+
+    public synchronized void await(long timeout) {
+      if (!m_signaled) {
+        try {
+          wait(timeout);
+        }
+        catch (InterruptedException ie) {
+        }
+      }
+      m_signaled = false;
+    }
+  }
+}
@@ -11,6 +11,13 @@
 package org.eclipse.scout.rt.server.services.common.code;
 
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
 
 import org.eclipse.scout.commons.exception.ProcessingException;
 import org.eclipse.scout.commons.holders.Holder;
@@ -25,12 +32,30 @@ import org.eclipse.scout.service.SERVICES;
 /**
  * Maintains a cache of ICodeType objects that can be (re)loaded using the
  * methods reloadCodeType, reloadCodeTypes
+ * <p>
+ * A code type is loaded at most once at a time: concurrent callers asking for the same code type wait for the thread
+ * that loads it, callers asking for other code types are not blocked. Loaded code types are indexed by their id and
+ * all codes that are declared as inner classes of the code type are indexed by their class, so
+ * {@link #findCodeTypeById(Object)} and {@link #getCode(Class)} do not need to scan the cache.
+ * <p>
+ * A code type that asks for another code type while it is being created (for example in its constructor) must not
+ * wait for a load that is in progress: that load may be waiting for the code type itself. In that case an uncached
+ * instance is created instead.
+ * <p>
+ * This class is thread-safe
  */
 public class CodeTypeCache {
   private static final IScoutLogger LOG = ScoutLogManager.getLogger(CodeTypeCache.class);
 
-  private Object m_cacheLock = new Object();
-  private HashMap<Class<? extends ICodeType>, ICodeType> m_cache = new HashMap<Class<? extends ICodeType>, ICodeType>();
+  private final ConcurrentHashMap<Class<? extends ICodeType>, P_CodeTypeEntry> m_cache = new ConcurrentHashMap<Class<? extends ICodeType>, P_CodeTypeEntry>();
+  private final ConcurrentHashMap<Object, ICodeType> m_idIndex = new ConcurrentHashMap<Object, ICodeType>();
+  private final ConcurrentHashMap<Class<? extends ICode>, ICode> m_codeIndex = new ConcurrentHashMap<Class<? extends ICode>, ICode>();
+  private final ThreadLocal<Set<Class<? extends ICodeType>>> m_loadingTypes = new ThreadLocal<Set<Class<? extends ICodeType>>>() {
+    @Override
+    protected Set<Class<? extends ICodeType>> initialValue() {
+      return new HashSet<Class<? extends ICodeType>>();
+    }
+  };
 
   public CodeTypeCache() {
   }
@@ -39,31 +64,28 @@ public class CodeTypeCache {
     if (id == null) {
       return null;
     }
-    synchronized (m_cacheLock) {
-      for (ICodeType ct : m_cache.values()) {
-        if (id.equals(ct.getId())) {
-          return ct;
-        }
-      }
-    }
-    return null;
+    return m_idIndex.get(id);
   }
 
+  @SuppressWarnings("unchecked")
   public <T extends ICodeType> T getCodeType(Class<T> type) {
-    synchronized (m_cacheLock) {
-      @SuppressWarnings("unchecked")
-      T instance = (T) m_cache.get(type);
-      if (instance == null) {
-        try {
-          instance = type.newInstance();
-          m_cache.put(type, instance);
-        }
-        catch (Throwable t) {
-          SERVICES.getService(IExceptionHandlerService.class).handleException(new ProcessingException("create " + type.getName(), t));
-        }
+    if (type == null) {
+      return null;
+    }
+    P_CodeTypeEntry entry = m_cache.get(type);
+    if (entry == null) {
+      P_CodeTypeEntry newEntry = new P_CodeTypeEntry(type);
+      entry = m_cache.putIfAbsent(type, newEntry);
+      if (entry == null) {
+        entry = newEntry;
+        loadCodeType(entry);
       }
-      return instance;
     }
+    if (!entry.isDone() && !m_loadingTypes.get().isEmpty()) {
+      // called while creating a code type, waiting could deadlock
+      return (T) createUncachedCodeType(type);
+    }
+    return (T) entry.getCodeType();
   }
 
   @SuppressWarnings("unchecked")
@@ -80,15 +102,11 @@ public class CodeTypeCache {
     if (type == null) {
       return null;
     }
-    Class declaringCodeTypeClass = null;
-    if (type.getDeclaringClass() != null) {
-      // code is inner type of code type or another code
-      Class c = type.getDeclaringClass();
-      while (c != null && !(ICodeType.class.isAssignableFrom(c))) {
-        c = c.getDeclaringClass();
-      }
-      declaringCodeTypeClass = c;
+    ICode code = m_codeIndex.get(type);
+    if (code != null) {
+      return (T) code;
     }
+    Class declaringCodeTypeClass = getDeclaringCodeTypeClass(type);
     if (declaringCodeTypeClass == null) {
       try {
         declaringCodeTypeClass = type.newInstance().getCodeType().getClass();
@@ -98,12 +116,20 @@ public class CodeTypeCache {
       }
     }
     ICodeType codeType = getCodeType(declaringCodeTypeClass);
+    if (codeType == null) {
+      return null;
+    }
+    code = m_codeIndex.get(type);
+    if (code != null) {
+      return (T) code;
+    }
+    // not an inner class of the code type (for example a dynamic code)
     final Holder<ICode> codeHolder = new Holder<ICode>(ICode.class);
     ICodeVisitor v = new ICodeVisitor() {
       @Override
-      public boolean visit(ICode code, int treeLevel) {
-        if (code.getClass() == type) {
-          codeHolder.setValue(code);
+      public boolean visit(ICode c, int treeLevel) {
+        if (c.getClass() == type) {
+          codeHolder.setValue(c);
           return false;
         }
         return true;
@@ -124,10 +150,165 @@ public class CodeTypeCache {
   }
 
   protected void unloadCodeTypes(Class[] types) {
-    synchronized (m_cacheLock) {
-      for (int i = 0; i < types.length; i++) {
-        m_cache.remove(types[i]);
+    for (int i = 0; i < types.length; i++) {
+      P_CodeTypeEntry entry = m_cache.remove(types[i]);
+      if (entry != null) {
+        removeIndexes(entry);
+      }
+    }
+  }
+
+  private ICodeType createUncachedCodeType(Class<? extends ICodeType> type) {
+    if (LOG.isDebugEnabled()) {
+      LOG.debug("create uncached " + type.getName() + ", it is loaded by another code type");
+    }
+    try {
+      return type.newInstance();
+    }
+    catch (Throwable t) {
+      SERVICES.getService(IExceptionHandlerService.class).handleException(new ProcessingException("create " + type.getName(), t));
+      return null;
+    }
+  }
+
+  private void loadCodeType(P_CodeTypeEntry entry) {
+    Set<Class<? extends ICodeType>> loadingTypes = m_loadingTypes.get();
+    loadingTypes.add(entry.getType());
+    try {
+      entry.run();
+    }
+    finally {
+      loadingTypes.remove(entry.getType());
+    }
+    try {
+      entry.get();
+      publishIndexes(entry);
+    }
+    catch (Throwable t) {
+      m_cache.remove(entry.getType(), entry);
+      Throwable cause = (t instanceof ExecutionException && t.getCause() != null ? t.getCause() : t);
+      SERVICES.getService(IExceptionHandlerService.class).handleException(new ProcessingException("create " + entry.getType().getName(), cause));
+    }
+  }
+
+  /**
+   * Adds the indexes of a loaded entry. An entry that was unloaded in the meantime must not leave indexes behind, and
+   * must not remove the indexes of the entry that replaced it.
+   */
+  private void publishIndexes(P_CodeTypeEntry entry) {
+    addIndexes(entry, entry.getCodeTypeIfDone());
+    if (m_cache.get(entry.getType()) != entry) {
+      // unloaded while loading
+      removeIndexes(entry);
+      P_CodeTypeEntry current = m_cache.get(entry.getType());
+      if (current != null && current.getIndexedCodes() != null) {
+        // a newer entry may have been indexed before this one was
+        addIndexes(current, current.getCodeTypeIfDone());
       }
     }
   }
+
+  private void addIndexes(P_CodeTypeEntry entry, final ICodeType codeType) {
+    if (codeType == null) {
+      return;
+    }
+    if (codeType.getId() != null) {
+      m_idIndex.put(codeType.getId(), codeType);
+    }
+    final Map<Class<? extends ICode>, ICode> codes = new HashMap<Class<? extends ICode>, ICode>();
+    codeType.visit(new ICodeVisitor() {
+      @Override
+      public boolean visit(ICode code, int treeLevel) {
+        Class<? extends ICode> c = code.getClass();
+        // only inner classes are unique within a code type, the first code wins like in a visit
+        if (!codes.containsKey(c) && getDeclaringCodeTypeClass(c) == codeType.getClass()) {
+          codes.put(c, code);
+        }
+        return true;
+      }
+    });
+    entry.setIndexedCodes(codes);
+    for (Map.Entry<Class<? extends ICode>, ICode> e : codes.entrySet()) {
+      m_codeIndex.put(e.getKey(), e.getValue());
+    }
+  }
+
+  private void removeIndexes(P_CodeTypeEntry entry) {
+    ICodeType codeType = entry.getCodeTypeIfDone();
+    if (codeType == null) {
+      return;
+    }
+    if (codeType.getId() != null) {
+      m_idIndex.remove(codeType.getId(), codeType);
+    }
+    Map<Class<? extends ICode>, ICode> codes = entry.getIndexedCodes();
+    if (codes != null) {
+      for (Map.Entry<Class<? extends ICode>, ICode> e : codes.entrySet()) {
+        m_codeIndex.remove(e.getKey(), e.getValue());
+      }
+    }
+  }
+
+  private static Class getDeclaringCodeTypeClass(Class<?> codeClass) {
+    // code is inner type of code type or another code
+    Class c = codeClass.getDeclaringClass();
+    while (c != null && !(ICodeType.class.isAssignableFrom(c))) {
+      c = c.getDeclaringClass();
+    }
+    return c;
+  }
+
+  /**
+   * Single-flight loader of one code type
+   */
+  private static class P_CodeTypeEntry extends FutureTask<ICodeType> {
+    private final Class<? extends ICodeType> m_type;
+    private volatile Map<Class<? extends ICode>, ICode> m_indexedCodes;
+
+    public P_CodeTypeEntry(final Class<? extends ICodeType> type) {
+      super(new Callable<ICodeType>() {
+        @Override
+        public ICodeType call() throws Exception {
+          return type.newInstance();
+        }
+      });
+      m_type = type;
+    }
+
+    public Class<? extends ICodeType> getType() {
+      return m_type;
+    }
+
+    /**
+     * @return the loaded code type, waits while it is being loaded. null if loading failed.
+     */
+    public ICodeType getCodeType() {
+      try {
+        return get();
+      }
+      catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return null;
+      }
+      catch (ExecutionException e) {
+        // handled by the loading thread
+        return null;
+      }
+    }
+
+    public ICodeType getCodeTypeIfDone() {
+      if (!isDone()) {
+        return null;
+      }
+      return getCodeType();
+    }
+
+    public Map<Class<? extends ICode>, ICode> getIndexedCodes() {
+      return m_indexedCodes;
+    }
+
+    public void setIndexedCodes(Map<Class<? extends ICode>, ICode> codes) {
+      m_indexedCodes = codes;
+    }
+  }
 }
@@ -16,9 +16,9 @@ package org.eclipse.scout.rt.server.services.common.code;
  * @version 3.x
  */
 
-import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.scout.commons.logger.IScoutLogger;
 import org.eclipse.scout.commons.logger.ScoutLogManager;
@@ -36,12 +36,10 @@ import org.eclipse.scout.service.SERVICES;
 public class CodeTypeStore {
   private static final IScoutLogger LOG = ScoutLogManager.getLogger(CodeTypeStore.class);
 
-  private Object m_storeLock;
-  private HashMap<PartitionLanguageComposite, CodeTypeCache> m_store;
+  private ConcurrentHashMap<PartitionLanguageComposite, CodeTypeCache> m_store;
 
   public CodeTypeStore() {
-    m_storeLock = new Object();
-    m_store = new HashMap<PartitionLanguageComposite, CodeTypeCache>();
+    m_store = new ConcurrentHashMap<PartitionLanguageComposite, CodeTypeCache>();
   }
 
   public CodeTypeCache getCodeTypeCache(Locale locale) {
@@ -54,19 +52,24 @@ public class CodeTypeStore {
   }
 
   public CodeTypeCache getCodeTypeCache(Long partitionId, Locale locale) {
-    synchronized (m_storeLock) {
-      String key = locale.toString();
-      PartitionLanguageComposite comp = new PartitionLanguageComposite(partitionId, key);
-
-      CodeTypeCache cache = m_store.get(comp);
-      if (cache == null) {
-        cache = new CodeTypeCache();
-        m_store.put(comp, cache);
+    String key = locale.toString();
+    PartitionLanguageComposite comp = new PartitionLanguageComposite(partitionId, key);
+
+    CodeTypeCache cache = m_store.get(comp);
+    if (cache == null) {
+      cache = new CodeTypeCache();
+      CodeTypeCache existing = m_store.putIfAbsent(comp, cache);
+      if (existing != null) {
+        cache = existing;
       }
-      return cache;
     }
+    return cache;
   }
 
+  /**
+   * Unloads the code types from all partition and language caches (including their id and code indexes) and notifies
+   * all clients.
+   */
   @SuppressWarnings("unchecked")
   public void unloadCodeTypeCache(Class... types) {
     for (CodeTypeCache cache : m_store.values()) {
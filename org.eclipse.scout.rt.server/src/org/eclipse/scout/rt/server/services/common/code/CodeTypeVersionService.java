@@ -0,0 +1,95 @@
+/*******************************************************************************
+ * Copyright (c) 2013 BSI Business Systems Integration AG.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     BSI Business Systems Integration AG - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.scout.rt.server.services.common.code;
+
+import java.security.MessageDigest;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.eclipse.scout.commons.Base64Utility;
+import org.eclipse.scout.commons.CompareUtility;
+import org.eclipse.scout.commons.annotations.Priority;
+import org.eclipse.scout.commons.logger.IScoutLogger;
+import org.eclipse.scout.commons.logger.ScoutLogManager;
+import org.eclipse.scout.commons.serialization.SerializationUtility;
+import org.eclipse.scout.rt.shared.services.common.code.ICodeService;
+import org.eclipse.scout.rt.shared.services.common.code.ICodeType;
+import org.eclipse.scout.rt.shared.services.common.code.ICodeTypeVersionService;
+import org.eclipse.scout.rt.shared.services.common.code.VersionedCodeType;
+import org.eclipse.scout.service.AbstractService;
+import org.eclipse.scout.service.SERVICES;
+
+/**
+ * Loads the code types by the {@link ICodeService} and compares their versions with the versions known by the caller.
+ * <p>
+ * The version is a SHA-1 hash of the serialized code type. It is computed once per code type instance, so a code type
+ * that is reloaded by {@link ICodeService#reloadCodeType(Class)} gets a new version as soon as its content differs.
+ * Since the hash only depends on the content, all server nodes of a cluster compute the same versions.
+ * 
+ * @since 3.9.0
+ */
+@Priority(-1)
+public class CodeTypeVersionService extends AbstractService implements ICodeTypeVersionService {
+  private static final IScoutLogger LOG = ScoutLogManager.getLogger(CodeTypeVersionService.class);
+
+  private final Map<ICodeType, String> m_versions = Collections.synchronizedMap(new WeakHashMap<ICodeType, String>());
+
+  @Override
+  public VersionedCodeType[] getCodeTypesIfModified(Class[] types, String[] knownVersions) {
+    if (types == null) {
+      return new VersionedCodeType[0];
+    }
+    ICodeType[] codeTypes = SERVICES.getService(ICodeService.class).getCodeTypes(types);
+    VersionedCodeType[] result = new VersionedCodeType[types.length];
+    for (int i = 0; i < types.length; i++) {
+      ICodeType codeType = codeTypes[i];
+      if (codeType == null) {
+        result[i] = new VersionedCodeType(null, null);
+        continue;
+      }
+      String version = getVersion(codeType);
+      String knownVersion = (knownVersions != null && i < knownVersions.length ? knownVersions[i] : null);
+      if (version != null && CompareUtility.equals(version, knownVersion)) {
+        result[i] = new VersionedCodeType(version, null);
+      }
+      else {
+        result[i] = new VersionedCodeType(version, codeType);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * @return the version of the code type instance or null if it cannot be computed
+   */
+  protected String getVersion(ICodeType codeType) {
+    String version = m_versions.get(codeType);
+    if (version == null) {
+      version = computeVersion(codeType);
+      if (version != null) {
+        m_versions.put(codeType, version);
+      }
+    }
+    return version;
+  }
+
+  protected String computeVersion(ICodeType codeType) {
+    try {
+      byte[] data = SerializationUtility.createObjectSerializer().serialize(codeType);
+      return Base64Utility.encode(MessageDigest.getInstance("SHA-1").digest(data));
+    }
+    catch (Throwable t) {
+      LOG.warn("computing version of " + codeType.getClass().getName(), t);
+      return null;
+    }
+  }
+}
@@ -0,0 +1,64 @@
+/*******************************************************************************
+ * Copyright (c) 2013 BSI Business Systems Integration AG.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     BSI Business Systems Integration AG - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.scout.rt.server.services.common.csv;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.List;
+
+import org.eclipse.scout.commons.csv.CsvWriter;
+import org.eclipse.scout.commons.exception.ProcessingException;
+import org.eclipse.scout.rt.server.services.common.jdbc.ISelectStreamHandler;
+import org.eclipse.scout.rt.server.services.common.jdbc.SqlBind;
+
+/**
+ * Writes the rows of a streaming select directly to a {@link CsvWriter}, no row or result matrix is built.
+ * <p>
+ * Usage: <code>sqlService.selectStreaming(sql, new CsvSelectStreamHandler(csvHelper.createCsvWriter(writer)), binds)</code>
+ *
+ * @since 3.9.0
+ */
+public class CsvSelectStreamHandler implements ISelectStreamHandler {
+  private final CsvWriter m_writer;
+
+  public CsvSelectStreamHandler(CsvWriter writer) {
+    m_writer = writer;
+  }
+
+  public CsvWriter getWriter() {
+    return m_writer;
+  }
+
+  @Override
+  public void handleRow(Connection con, PreparedStatement stm, ResultSet rs, int rowIndex, List<SqlBind> values) throws ProcessingException {
+    try {
+      for (int i = 0, n = values.size(); i < n; i++) {
+        m_writer.writeCell(values.get(i).getValue());
+      }
+      m_writer.endRow();
+    }
+    catch (IOException e) {
+      throw new ProcessingException("row " + rowIndex, e);
+    }
+  }
+
+  @Override
+  public void finished(Connection con, PreparedStatement stm, ResultSet rs, int rowCount) throws ProcessingException {
+    try {
+      m_writer.flush();
+    }
+    catch (IOException e) {
+      throw new ProcessingException("flush", e);
+    }
+  }
+}
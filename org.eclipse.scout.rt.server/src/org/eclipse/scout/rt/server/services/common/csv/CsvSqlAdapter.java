@@ -14,6 +14,7 @@ package org.eclipse.scout.rt.server.services.common.csv;
  * Title: BSI Scout V3
  */
 
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
@@ -21,9 +22,6 @@ import java.io.InputStreamReader;
 import java.io.OutputStreamWriter;
 import java.io.Reader;
 import java.io.Writer;
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
@@ -35,9 +33,7 @@ import org.eclipse.scout.commons.exception.ProcessingException;
 import org.eclipse.scout.commons.holders.NVPair;
 import org.eclipse.scout.commons.logger.IScoutLogger;
 import org.eclipse.scout.commons.logger.ScoutLogManager;
-import org.eclipse.scout.rt.server.services.common.jdbc.ISelectStreamHandler;
 import org.eclipse.scout.rt.server.services.common.jdbc.ISqlService;
-import org.eclipse.scout.rt.server.services.common.jdbc.SqlBind;
 
 public class CsvSqlAdapter {
   private static final IScoutLogger LOG = ScoutLogManager.getLogger(CsvSqlAdapter.class);
@@ -171,7 +167,7 @@ public class CsvSqlAdapter {
    * @throws ProcessingException
    */
   public void exportData(CsvSqlSettings params) throws ProcessingException {
-    final CsvHelper h = new CsvHelper(params.getContentLocale(), params.getColSeparator(), params.getTextDelimiter(), "\n");
+    CsvHelper h = new CsvHelper(params.getContentLocale(), params.getColSeparator(), params.getTextDelimiter(), "\n");
     if (params.getCsvColumnTypes() != null) {
       h.setColumnTypes(params.getCsvColumnTypes());
     }
@@ -215,24 +211,10 @@ public class CsvSqlAdapter {
           base[0] = new NVPair("groupKeyColumnValue", params.getGroupKeyValue());
         }
       }
-      final Writer w = new OutputStreamWriter(new FileOutputStream(params.getFile()), params.getEncoding());
+      final Writer w = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(params.getFile()), params.getEncoding()));
       try {
         h.exportHeaderRows(w, params.getWriteColumnNames(), params.getWriteColumnTypes());
-        ISelectStreamHandler handler = new ISelectStreamHandler() {
-          @Override
-          public void handleRow(Connection con, PreparedStatement stm, ResultSet rs, int rowIndex, List<SqlBind> values) throws ProcessingException {
-            Object[] row = new Object[values.size()];
-            for (int i = 0; i < row.length; i++) {
-              row[i] = values.get(i).getValue();
-            }
-            h.exportDataRow(row, w, false);
-          }
-
-          @Override
-          public void finished(Connection con, PreparedStatement stm, ResultSet rs, int rowCount) throws ProcessingException {
-          }
-        };
-        m_sqlService.selectStreaming(sqlText, handler, base);
+        m_sqlService.selectStreaming(sqlText, new CsvSelectStreamHandler(h.createCsvWriter(w)), base);
       }
       finally {
         try {
@@ -10,13 +10,15 @@
  ******************************************************************************/
 package org.eclipse.scout.rt.server.services.common.file;
 
-import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.FilenameFilter;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.regex.Pattern;
@@ -27,13 +29,13 @@ import org.eclipse.scout.commons.StringUtility;
 import org.eclipse.scout.commons.annotations.ConfigProperty;
 import org.eclipse.scout.commons.annotations.Priority;
 import org.eclipse.scout.commons.exception.ProcessingException;
-import org.eclipse.scout.rt.shared.services.common.file.IRemoteFileService;
+import org.eclipse.scout.rt.shared.services.common.file.IRangeRemoteFileService;
 import org.eclipse.scout.rt.shared.services.common.file.RemoteFile;
 import org.eclipse.scout.rt.shared.servicetunnel.RemoteServiceAccessDenied;
 import org.eclipse.scout.service.AbstractService;
 
 @Priority(-1)
-public class RemoteFileService extends AbstractService implements IRemoteFileService {
+public class RemoteFileService extends AbstractService implements IRangeRemoteFileService {
   private String m_rootPath;
 
   public RemoteFileService() throws ProcessingException {
@@ -322,6 +324,15 @@ public class RemoteFileService extends AbstractService implements IRemoteFileSer
 
   @Override
   public void streamRemoteFile(RemoteFile spec, OutputStream out) throws ProcessingException {
+    streamRemoteFile(spec, out, 0, -1);
+  }
+
+  /**
+   * The file is transferred using {@link FileChannel#transferTo(long, long, WritableByteChannel)}, so no content is
+   * copied to the heap when the destination supports it.
+   */
+  @Override
+  public void streamRemoteFile(RemoteFile spec, OutputStream out, long startPosition, long length) throws ProcessingException {
     if (m_rootPath == null) {
       throw new SecurityException("invalid path for file service: path may not be null");
     }
@@ -330,17 +341,21 @@ public class RemoteFileService extends AbstractService implements IRemoteFileSer
       throw new ProcessingException("remote file does not exist: " + spec.getPath());
     }
     try {
-      int len = (int) file.length();
-      byte[] buf = new byte[Math.min(102400, len)];
-      int written = 0;
-      int delta = 0;
-      BufferedInputStream in = new BufferedInputStream(new FileInputStream(file));
+      FileInputStream in = new FileInputStream(file);
       try {
-        while (written < len) {
-          delta = in.read(buf);
-          out.write(buf, 0, delta);
-          written += delta;
+        FileChannel channel = in.getChannel();
+        long size = channel.size();
+        long pos = Math.max(0, startPosition);
+        long end = (length < 0 ? size : Math.min(size, pos + length));
+        WritableByteChannel target = Channels.newChannel(out);
+        while (pos < end) {
+          long n = channel.transferTo(pos, end - pos, target);
+          if (n <= 0) {
+            break;
+          }
+          pos += n;
         }
+        out.flush();
       }
       finally {
         in.close();
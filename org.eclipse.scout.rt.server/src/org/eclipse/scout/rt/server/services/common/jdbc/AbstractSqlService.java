@@ -38,6 +38,8 @@ import org.eclipse.scout.rt.server.ThreadContext;
 import org.eclipse.scout.rt.server.services.common.jdbc.internal.exec.PreparedStatementCache;
 import org.eclipse.scout.rt.server.services.common.jdbc.internal.exec.StatementProcessor;
 import org.eclipse.scout.rt.server.services.common.jdbc.internal.legacy.LegacyStatementBuilder;
+import org.eclipse.scout.rt.server.services.common.jdbc.internal.pool.ConcurrentSqlConnectionPool;
+import org.eclipse.scout.rt.server.services.common.jdbc.internal.pool.ISqlConnectionPool;
 import org.eclipse.scout.rt.server.services.common.jdbc.internal.pool.SqlConnectionBuilder;
 import org.eclipse.scout.rt.server.services.common.jdbc.internal.pool.SqlConnectionPool;
 import org.eclipse.scout.rt.server.services.common.jdbc.style.ISqlStyle;
@@ -58,8 +60,11 @@ import org.eclipse.scout.service.SERVICES;
 public abstract class AbstractSqlService extends AbstractService implements ISqlService, ILegacySqlQueryService, IAdaptable {
   private static final IScoutLogger LOG = ScoutLogManager.getLogger(AbstractSqlService.class);
   public static final int DEFAULT_MEMORY_PREFETCH_SIZE = 1048576; // = 1MB default
+  private static final long READ_REPLICA_CHECK_INTERVAL = 1000L;
+  private static final long READ_REPLICA_SUSPEND_INTERVAL = 10000L;
 
-  private SqlConnectionPool m_pool;
+  private ISqlConnectionPool m_pool;
+  private ISqlConnectionPool m_readReplicaPool;
   private Class<? extends ScoutTexts> m_nlsProvider;
   private ISqlStyle m_sqlStyle;
   private String m_transactionMemberId;
@@ -74,6 +79,15 @@ public abstract class AbstractSqlService extends AbstractService implements ISql
   private int m_jdbcPoolSize;
   private long m_jdbcPoolConnectionLifetime;
   private long m_jdbcPoolConnectionBusyTimeout;
+  private boolean m_jdbcPoolConcurrent;
+  private int m_jdbcPoolMinIdle;
+  private boolean m_jdbcStatementCachePerConnection;
+  private int m_jdbcBatchSize;
+  private String m_readReplicaJdbcMappingName;
+  private String m_readReplicaJndiName;
+  private long m_readReplicaMaxLag;
+  private volatile long m_readReplicaCheckedUntil;
+  private volatile long m_readReplicaSuspendedUntil;
   private String m_defaultUser;
   private String m_defaultPass;
   private int m_queryCacheSize;
@@ -229,6 +243,45 @@ public abstract class AbstractSqlService extends AbstractService implements ISql
     return 21600000L;
   }
 
+  /**
+   * @return true to use a connection pool without a pool-wide lock that creates and tests connections outside of any
+   *         shared lock and records wait, lease and usage statistics, see
+   *         {@link #getSqlConnectionPoolStatistics()}. Default is false.
+   * @since 3.9.0
+   */
+  @ConfigProperty(ConfigProperty.BOOLEAN)
+  @Order(152)
+  @ConfigPropertyValue("false")
+  protected boolean getConfiguredJdbcPoolConcurrent() {
+    return false;
+  }
+
+  /**
+   * @return the number of idle connections that are kept open in the background, only used when
+   *         {@link #getConfiguredJdbcPoolConcurrent()} is true
+   * @since 3.9.0
+   */
+  @ConfigProperty(ConfigProperty.INTEGER)
+  @Order(154)
+  @ConfigPropertyValue("0")
+  protected int getConfiguredJdbcPoolMinIdle() {
+    return 0;
+  }
+
+  /**
+   * @return the maximum number of rows that are sent to the database in one JDBC batch by
+   *         {@link #insertBatch(String, Object...)}, {@link #updateBatch(String, Object...)} and
+   *         {@link #deleteBatch(String, Object...)}. A value &lt;= 0 sends all rows with the same SQL text in one batch.
+   *         Default is 100.
+   * @since 3.9.0
+   */
+  @ConfigProperty(ConfigProperty.INTEGER)
+  @Order(156)
+  @ConfigPropertyValue("100")
+  protected int getConfiguredJdbcBatchSize() {
+    return 100;
+  }
+
   @ConfigProperty(ConfigProperty.INTEGER)
   @Order(160)
   @ConfigPropertyValue("25")
@@ -236,6 +289,67 @@ public abstract class AbstractSqlService extends AbstractService implements ISql
     return 25;
   }
 
+  /**
+   * @return true to cache the prepared statements per pooled connection instead of per transaction. The statements are
+   *         then reused across transactions and are cached on first use, at most
+   *         {@link #getConfiguredJdbcStatementCacheSize()} per connection. They are closed when the pool evicts the
+   *         connection. The hit rates are shown in the pool inventory. Only used with
+   *         {@link #getConfiguredDirectJdbcConnection()}. Default is false.
+   * @since 3.9.0
+   */
+  @ConfigProperty(ConfigProperty.BOOLEAN)
+  @Order(162)
+  @ConfigPropertyValue("false")
+  protected boolean getConfiguredJdbcStatementCachePerConnection() {
+    return false;
+  }
+
+  /**
+   * @return the jdbc url of a read-only replica of the database or null if there is none. Used with
+   *         {@link #getConfiguredDirectJdbcConnection()}, the replica has its own connection pool with the same
+   *         settings and credentials as the primary pool.
+   *         <p>
+   *         In a read-only transaction (see {@link ITransaction#isReadOnly()}) the selects run on the replica until
+   *         the transaction issues any other statement or asks for {@link #getConnection()}, from then on all
+   *         statements run on the primary database. Modifications, stored procedures, {@link #commit()} and
+   *         {@link #rollback()} always run on the primary database. If the replica is not available or lags behind
+   *         more than {@link #getConfiguredReadReplicaMaxLag()} the primary database is used instead.
+   *         <p>
+   *         {@link #execBeginTransaction()} and {@link #execEndTransaction(boolean)} are not called for replica
+   *         connections.
+   * @since 3.9.0
+   */
+  @ConfigProperty(ConfigProperty.STRING)
+  @Order(164)
+  @ConfigPropertyValue("null")
+  protected String getConfiguredReadReplicaJdbcMappingName() {
+    return null;
+  }
+
+  /**
+   * @return the jndi name of the data source of a read-only replica of the database or null if there is none. Used
+   *         without {@link #getConfiguredDirectJdbcConnection()}, see {@link #getConfiguredReadReplicaJdbcMappingName()}
+   * @since 3.9.0
+   */
+  @ConfigProperty(ConfigProperty.STRING)
+  @Order(166)
+  @ConfigPropertyValue("null")
+  protected String getConfiguredReadReplicaJndiName() {
+    return null;
+  }
+
+  /**
+   * @return the maximum replication lag in milliseconds as reported by {@link #execGetReadReplicaLag(Connection)} that
+   *         is accepted for reads on the replica. A value &lt;= 0 disables the check. Default is 30000.
+   * @since 3.9.0
+   */
+  @ConfigProperty(ConfigProperty.LONG)
+  @Order(168)
+  @ConfigPropertyValue("30000L")
+  protected long getConfiguredReadReplicaMaxLag() {
+    return 30000L;
+  }
+
   @ConfigProperty(ConfigProperty.STRING)
   @Order(170)
   @ConfigPropertyValue("null")
@@ -298,6 +412,24 @@ public abstract class AbstractSqlService extends AbstractService implements ISql
     releaseConnectionInternal(conn);
   }
 
+  /**
+   * Called at most once per second when a connection to the read replica is leased, see
+   * {@link #getConfiguredReadReplicaMaxLag()}. The check is database specific, e.g. on PostgreSQL
+   * <code>SELECT EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000</code>.
+   * <p>
+   * Default returns 0.
+   * 
+   * @param conn
+   *          a connection to the read replica
+   * @return the replication lag of the read replica in milliseconds
+   * @since 3.9.0
+   */
+  @ConfigOperation
+  @Order(37)
+  protected long execGetReadReplicaLag(Connection conn) throws Throwable {
+    return 0L;
+  }
+
   /**
    * Custom functions that can be used in sql statements as binds or sql style independent functions
    * <p>
@@ -425,9 +557,16 @@ public abstract class AbstractSqlService extends AbstractService implements ISql
     setJdbcDriverName(getConfiguredJdbcDriverName());
     setJdbcProperties(getConfiguredJdbcProperties());
     setJdbcStatementCacheSize(getConfiguredJdbcStatementCacheSize());
+    setJdbcStatementCachePerConnection(getConfiguredJdbcStatementCachePerConnection());
     setJdbcPoolSize(getConfiguredJdbcPoolSize());
     setJdbcPoolConnectionBusyTimeout(getConfiguredJdbcPoolConnectionBusyTimeout());
     setJdbcPoolConnectionLifetime(getConfiguredJdbcPoolConnectionLifetime());
+    setJdbcPoolConcurrent(getConfiguredJdbcPoolConcurrent());
+    setJdbcPoolMinIdle(getConfiguredJdbcPoolMinIdle());
+    setJdbcBatchSize(getConfiguredJdbcBatchSize());
+    setReadReplicaJdbcMappingName(getConfiguredReadReplicaJdbcMappingName());
+    setReadReplicaJndiName(getConfiguredReadReplicaJndiName());
+    setReadReplicaMaxLag(getConfiguredReadReplicaMaxLag());
     setNlsProvider(getConfiguredNlsProvider());
     // sql style
     Class<? extends ISqlStyle> styleClass = getConfiguredSqlStyle();
@@ -472,6 +611,10 @@ public abstract class AbstractSqlService extends AbstractService implements ISql
     return m_queryCacheSize;
   }
 
+  public boolean isJdbcStatementCachePerConnection() {
+    return m_jdbcStatementCachePerConnection;
+  }
+
   public String getJndiName() {
     return m_jndiName;
   }
@@ -520,6 +663,38 @@ public abstract class AbstractSqlService extends AbstractService implements ISql
     return m_jdbcPoolConnectionBusyTimeout;
   }
 
+  public boolean isJdbcPoolConcurrent() {
+    return m_jdbcPoolConcurrent;
+  }
+
+  public int getJdbcPoolMinIdle() {
+    return m_jdbcPoolMinIdle;
+  }
+
+  public int getJdbcBatchSize() {
+    return m_jdbcBatchSize;
+  }
+
+  public String getReadReplicaJdbcMappingName() {
+    return m_readReplicaJdbcMappingName;
+  }
+
+  public String getReadReplicaJndiName() {
+    return m_readReplicaJndiName;
+  }
+
+  public long getReadReplicaMaxLag() {
+    return m_readReplicaMaxLag;
+  }
+
+  /**
+   * @return true if a read replica is configured for the connection type of this service
+   * @since 3.9.0
+   */
+  public boolean isReadReplicaEnabled() {
+    return isDirectJdbcConnection() ? getReadReplicaJdbcMappingName() != null : getReadReplicaJndiName() != null;
+  }
+
   public int getMaxFetchMemorySize() {
     return m_maxFetchMemorySize;
   }
@@ -536,6 +711,10 @@ public abstract class AbstractSqlService extends AbstractService implements ISql
     m_queryCacheSize = n;
   }
 
+  public void setJdbcStatementCachePerConnection(boolean b) {
+    m_jdbcStatementCachePerConnection = b;
+  }
+
   public void setJndiName(String s) {
     m_jndiName = s;
   }
@@ -587,6 +766,33 @@ public abstract class AbstractSqlService extends AbstractService implements ISql
     m_jdbcPoolConnectionBusyTimeout = t;
   }
 
+  public void setJdbcPoolConcurrent(boolean b) {
+    m_jdbcPoolConcurrent = b;
+  }
+
+  public void setJdbcPoolMinIdle(int n) {
+    m_jdbcPoolMinIdle = n;
+  }
+
+  public void setJdbcBatchSize(int n) {
+    m_jdbcBatchSize = n;
+  }
+
+  /**
+   * Supports ${...} variables resolved by {@link BundleContextUtility#resolve(String)}
+   */
+  public void setReadReplicaJdbcMappingName(String s) {
+    m_readReplicaJdbcMappingName = BundleContextUtility.resolve(s);
+  }
+
+  public void setReadReplicaJndiName(String s) {
+    m_readReplicaJndiName = s;
+  }
+
+  public void setReadReplicaMaxLag(long t) {
+    m_readReplicaMaxLag = t;
+  }
+
   public void setMaxFetchMemorySize(int maxFetchMemorySize) {
     m_maxFetchMemorySize = maxFetchMemorySize;
   }
@@ -598,6 +804,22 @@ public abstract class AbstractSqlService extends AbstractService implements ISql
         return m_pool.getInventory();
       }
     }
+    if (adapter == ISqlConnectionPoolStatistics.class) {
+      return getSqlConnectionPoolStatistics();
+    }
+    return null;
+  }
+
+  /**
+   * @return the statistics of the connection pool or null if the pool does not record statistics (see
+   *         {@link #getConfiguredJdbcPoolConcurrent()}) or was not used yet
+   * @since 3.9.0
+   */
+  public ISqlConnectionPoolStatistics getSqlConnectionPoolStatistics() {
+    ISqlConnectionPool pool = m_pool;
+    if (pool instanceof ISqlConnectionPoolStatistics) {
+      return (ISqlConnectionPoolStatistics) pool;
+    }
     return null;
   }
 
@@ -677,13 +899,87 @@ public abstract class AbstractSqlService extends AbstractService implements ISql
     }
   }
 
-  private synchronized SqlConnectionPool getSqlConnectionPool() {
+  private synchronized ISqlConnectionPool getSqlConnectionPool() {
     if (m_pool == null) {
-      m_pool = SqlConnectionPool.getPool(getClass(), getJdbcPoolSize(), getJdbcPoolConnectionLifetime(), getJdbcPoolConnectionBusyTimeout());
+      if (isJdbcPoolConcurrent()) {
+        m_pool = ConcurrentSqlConnectionPool.getPool(this, getJdbcPoolSize(), getJdbcPoolMinIdle(), getJdbcPoolConnectionLifetime(), getJdbcPoolConnectionBusyTimeout());
+      }
+      else {
+        m_pool = SqlConnectionPool.getPool(getClass(), getJdbcPoolSize(), getJdbcPoolConnectionLifetime(), getJdbcPoolConnectionBusyTimeout());
+      }
     }
     return m_pool;
   }
 
+  private synchronized ISqlConnectionPool getReadReplicaConnectionPool() {
+    if (m_readReplicaPool == null) {
+      if (isJdbcPoolConcurrent()) {
+        m_readReplicaPool = ConcurrentSqlConnectionPool.getPool(this, getReadReplicaJdbcMappingName(), getJdbcPoolSize(), getJdbcPoolMinIdle(), getJdbcPoolConnectionLifetime(), getJdbcPoolConnectionBusyTimeout());
+      }
+      else {
+        m_readReplicaPool = SqlConnectionPool.getPool(getClass(), getReadReplicaJdbcMappingName(), getJdbcPoolSize(), getJdbcPoolConnectionLifetime(), getJdbcPoolConnectionBusyTimeout());
+      }
+    }
+    return m_readReplicaPool;
+  }
+
+  /**
+   * @return a connection to the read replica or null if the replica is not available or lags behind, then the replica is
+   *         not used for the next {@link #READ_REPLICA_SUSPEND_INTERVAL} milliseconds
+   */
+  private Connection leaseReadReplicaConnection() {
+    long now = System.currentTimeMillis();
+    if (now < m_readReplicaSuspendedUntil) {
+      return null;
+    }
+    Connection conn = null;
+    try {
+      if (isDirectJdbcConnection()) {
+        conn = getReadReplicaConnectionPool().leaseConnection(this);
+      }
+      else {
+        conn = new SqlConnectionBuilder().createJndiConnection(this, getReadReplicaJndiName());
+      }
+      if (getReadReplicaMaxLag() > 0 && now >= m_readReplicaCheckedUntil) {
+        long lag = execGetReadReplicaLag(conn);
+        if (lag > getReadReplicaMaxLag()) {
+          LOG.warn("read replica of " + getClass().getName() + " lags " + lag + " ms behind, using the primary database");
+          m_readReplicaSuspendedUntil = now + READ_REPLICA_SUSPEND_INTERVAL;
+          releaseReadReplicaConnection(conn);
+          return null;
+        }
+        m_readReplicaCheckedUntil = now + READ_REPLICA_CHECK_INTERVAL;
+      }
+      return conn;
+    }
+    catch (Throwable t) {
+      LOG.warn("read replica of " + getClass().getName() + " is not available, using the primary database", t);
+      m_readReplicaSuspendedUntil = now + READ_REPLICA_SUSPEND_INTERVAL;
+      if (conn != null) {
+        releaseReadReplicaConnection(conn);
+      }
+      return null;
+    }
+  }
+
+  private void releaseReadReplicaConnection(Connection conn) {
+    try {
+      if (isDirectJdbcConnection()) {
+        getReadReplicaConnectionPool().releaseConnection(conn);
+      }
+      else {
+        conn.close();
+      }
+    }
+    catch (Throwable e) {
+      LOG.error(null, e);
+    }
+  }
+
+  private String getReadReplicaTransactionMemberId() {
+    return getTransactionMemberId() + ".readReplica";
+  }
+
   @Override
   public Connection getConnection() throws ProcessingException {
     return getTransaction();
@@ -699,7 +995,7 @@ public abstract class AbstractSqlService extends AbstractService implements ISql
       Connection conn;
       try {
         conn = leaseConnection();
-        member = new SqlTransactionMember(getTransactionMemberId(), conn);
+        member = new SqlTransactionMember(getTransactionMemberId(), conn, false);
         reg.registerMember(member);
         // this is the start of the transaction
         execBeginTransaction();
@@ -715,16 +1011,69 @@ public abstract class AbstractSqlService extends AbstractService implements ISql
   }
 
   /**
-   * @return the statement cache used for this {@link ITransaction} transaction
+   * @return the connection for selects: a connection to the read replica if the transaction is read-only and has not
+   *         used the primary connection yet, otherwise {@link #getTransaction()}. See
+   *         {@link #getConfiguredReadReplicaJdbcMappingName()}.
+   * @since 3.9.0
+   */
+  protected Connection getReadTransaction() throws ProcessingException {
+    ITransaction reg = ThreadContext.getTransaction();
+    if (reg == null || !reg.isReadOnly() || !isReadReplicaEnabled() || reg.getMember(getTransactionMemberId()) != null) {
+      return getTransaction();
+    }
+    SqlTransactionMember member = (SqlTransactionMember) reg.getMember(getReadReplicaTransactionMemberId());
+    if (member == null) {
+      Connection conn = leaseReadReplicaConnection();
+      if (conn == null) {
+        return getTransaction();
+      }
+      member = new SqlTransactionMember(getReadReplicaTransactionMemberId(), conn, true);
+      reg.registerMember(member);
+    }
+    return member.getConnection();
+  }
+
+  /**
+   * @return the statement cache of the pooled connection if {@link #isJdbcStatementCachePerConnection()}, otherwise the
+   *         statement cache used for this {@link ITransaction} transaction
    */
   protected final IStatementCache getStatementCache() throws ProcessingException {
+    return getStatementCache(null);
+  }
+
+  /**
+   * @param conn
+   *          the connection returned by {@link #getReadTransaction()} or null for the connection of
+   *          {@link #getTransaction()}
+   */
+  private IStatementCache getStatementCache(Connection conn) throws ProcessingException {
     ITransaction reg = ThreadContext.getTransaction();
     if (reg == null) {
       throw new ProcessingException("no ITransaction available, use ServerJob to run truncactions");
     }
-    IStatementCache res = (IStatementCache) reg.getMember(PreparedStatementCache.TRANSACTION_MEMBER_ID);
+    boolean readReplica = false;
+    if (conn != null) {
+      SqlTransactionMember member = (SqlTransactionMember) reg.getMember(getReadReplicaTransactionMemberId());
+      readReplica = (member != null && member.getConnection() == conn);
+    }
+    if (isJdbcStatementCachePerConnection() && isDirectJdbcConnection()) {
+      // null if the connection is not from the pool, see execCreateConnection
+      IStatementCache connectionCache;
+      if (readReplica) {
+        connectionCache = getReadReplicaConnectionPool().getStatementCache(conn, getJdbcStatementCacheSize());
+      }
+      else {
+        connectionCache = getSqlConnectionPool().getStatementCache(getTransaction(), getJdbcStatementCacheSize());
+      }
+      if (connectionCache != null) {
+        return connectionCache;
+      }
+    }
+    // statements of the replica must not be cached together with the statements of the primary connection
+    String cacheId = readReplica ? getReadReplicaTransactionMemberId() + "." + PreparedStatementCache.TRANSACTION_MEMBER_ID : PreparedStatementCache.TRANSACTION_MEMBER_ID;
+    IStatementCache res = (IStatementCache) reg.getMember(cacheId);
     if (res == null) {
-      res = new PreparedStatementCache(getJdbcStatementCacheSize());
+      res = new PreparedStatementCache(cacheId, getJdbcStatementCacheSize());
       reg.registerMember((ITransactionMember) res);
     }
     return res;
@@ -736,32 +1085,38 @@ public abstract class AbstractSqlService extends AbstractService implements ISql
 
   @Override
   public Object[][] select(String s, Object... bindBases) throws ProcessingException {
-    return createStatementProcessor(s, bindBases, 0).processSelect(getTransaction(), getStatementCache(), null);
+    Connection conn = getReadTransaction();
+    return createStatementProcessor(s, bindBases, 0).processSelect(conn, getStatementCache(conn), null);
   }
 
   @Override
   public Object[][] selectLimited(String s, int maxRowCount, Object... bindBases) throws ProcessingException {
-    return createStatementProcessor(s, bindBases, maxRowCount).processSelect(getTransaction(), getStatementCache(), null);
+    Connection conn = getReadTransaction();
+    return createStatementProcessor(s, bindBases, maxRowCount).processSelect(conn, getStatementCache(conn), null);
   }
 
   @Override
   public void selectInto(String s, Object... bindBases) throws ProcessingException {
-    createStatementProcessor(s, bindBases, 0).processSelectInto(getTransaction(), getStatementCache(), null);
+    Connection conn = getReadTransaction();
+    createStatementProcessor(s, bindBases, 0).processSelectInto(conn, getStatementCache(conn), null);
   }
 
   @Override
   public void selectIntoLimited(String s, int maxRowCount, Object... bindBases) throws ProcessingException {
-    createStatementProcessor(s, bindBases, maxRowCount).processSelectInto(getTransaction(), getStatementCache(), null);
+    Connection conn = getReadTransaction();
+    createStatementProcessor(s, bindBases, maxRowCount).processSelectInto(conn, getStatementCache(conn), null);
   }
 
   @Override
   public void selectStreaming(String s, ISelectStreamHandler handler, Object... bindBases) throws ProcessingException {
-    createStatementProcessor(s, bindBases, 0).processSelectStreaming(getTransaction(), getStatementCache(), handler);
+    Connection conn = getReadTransaction();
+    createStatementProcessor(s, bindBases, 0).processSelectStreaming(conn, getStatementCache(conn), handler);
   }
 
   @Override
   public void selectStreamingLimited(String s, ISelectStreamHandler handler, int maxRowCount, Object... bindBases) throws ProcessingException {
-    createStatementProcessor(s, bindBases, maxRowCount).processSelectStreaming(getTransaction(), getStatementCache(), handler);
+    Connection conn = getReadTransaction();
+    createStatementProcessor(s, bindBases, maxRowCount).processSelectStreaming(conn, getStatementCache(conn), handler);
   }
 
   @Override
@@ -779,6 +1134,21 @@ public abstract class AbstractSqlService extends AbstractService implements ISql
     return createStatementProcessor(s, bindBases, 0).processModification(getTransaction(), getStatementCache(), null);
   }
 
+  @Override
+  public int[] insertBatch(String s, Object... bindBases) throws ProcessingException {
+    return createStatementProcessor(s, bindBases, 0).processModificationBatch(getTransaction(), getStatementCache(), null, getJdbcBatchSize());
+  }
+
+  @Override
+  public int[] updateBatch(String s, Object... bindBases) throws ProcessingException {
+    return createStatementProcessor(s, bindBases, 0).processModificationBatch(getTransaction(), getStatementCache(), null, getJdbcBatchSize());
+  }
+
+  @Override
+  public int[] deleteBatch(String s, Object... bindBases) throws ProcessingException {
+    return createStatementProcessor(s, bindBases, 0).processModificationBatch(getTransaction(), getStatementCache(), null, getJdbcBatchSize());
+  }
+
   @Override
   public boolean callStoredProcedure(String s, Object... bindBases) throws ProcessingException {
     return createStatementProcessor(s, bindBases, 0).processStoredProcedure(getTransaction(), getStatementCache(), null);
@@ -899,10 +1269,12 @@ public abstract class AbstractSqlService extends AbstractService implements ISql
 
   private class SqlTransactionMember extends AbstractSqlTransactionMember {
     private final Connection m_conn;
+    private final boolean m_readReplica;
 
-    public SqlTransactionMember(String transactionMemberId, Connection conn) {
+    public SqlTransactionMember(String transactionMemberId, Connection conn, boolean readReplica) {
       super(transactionMemberId);
       m_conn = conn;
+      m_readReplica = readReplica;
     }
 
     public Connection getConnection() {
@@ -913,12 +1285,14 @@ public abstract class AbstractSqlService extends AbstractService implements ISql
     public void commitPhase2() {
       try {
         // this is the end of the transaction
-        try {
-          setFinishingTransaction(true);
-          execEndTransaction(false);
-        }
-        finally {
-          setFinishingTransaction(false);
+        if (!m_readReplica) {
+          try {
+            setFinishingTransaction(true);
+            execEndTransaction(false);
+          }
+          finally {
+            setFinishingTransaction(false);
+          }
         }
         m_conn.commit();
       }
@@ -931,12 +1305,14 @@ public abstract class AbstractSqlService extends AbstractService implements ISql
     public void rollback() {
       try {
         // this is the end of the transaction
-        try {
-          setFinishingTransaction(true);
-          execEndTransaction(false);
-        }
-        finally {
-          setFinishingTransaction(false);
+        if (!m_readReplica) {
+          try {
+            setFinishingTransaction(true);
+            execEndTransaction(false);
+          }
+          finally {
+            setFinishingTransaction(false);
+          }
         }
         m_conn.rollback();
       }
@@ -949,7 +1325,12 @@ public abstract class AbstractSqlService extends AbstractService implements ISql
 
     @Override
     public void release() {
-      releaseConnection(m_conn);
+      if (m_readReplica) {
+        releaseReadReplicaConnection(m_conn);
+      }
+      else {
+        releaseConnection(m_conn);
+      }
     }
   }// end private class
 
@@ -0,0 +1,46 @@
+/*******************************************************************************
+ * Copyright (c) 2013 BSI Business Systems Integration AG.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     BSI Business Systems Integration AG - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.scout.rt.server.services.common.jdbc;
+
+import org.eclipse.scout.commons.LatencyHistogram;
+
+/**
+ * Statistics of a jdbc connection pool, see {@link AbstractSqlService#getSqlConnectionPoolStatistics()}.
+ * 
+ * @since 3.9.0
+ */
+public interface ISqlConnectionPoolStatistics {
+
+  /**
+   * @return number of pooled connections not leased at the moment
+   */
+  int getIdleCount();
+
+  /**
+   * @return number of connections leased at the moment
+   */
+  int getBusyCount();
+
+  /**
+   * @return milliseconds a lease waited for a free slot in the pool
+   */
+  LatencyHistogram getWaitTimeHistogram();
+
+  /**
+   * @return milliseconds a connection was leased
+   */
+  LatencyHistogram getLeaseTimeHistogram();
+
+  /**
+   * @return number of connections in use, sampled at every lease
+   */
+  LatencyHistogram getInUseHistogram();
+}
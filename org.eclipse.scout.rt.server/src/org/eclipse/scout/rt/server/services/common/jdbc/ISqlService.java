@@ -262,6 +262,45 @@ public interface ISqlService extends IService {
    */
   int delete(String s, Object... bindBases) throws ProcessingException;
 
+  /**
+   * insert rows using JDBC batches
+   * <p>
+   * Same as {@link #insert(String, Object...)} but array, table holder and bean array holder binds are not executed
+   * row by row. Consecutive rows with the same SQL text are collected with {@link java.sql.PreparedStatement#addBatch()}
+   * and sent to the database with one {@link java.sql.PreparedStatement#executeBatch()} per batch.
+   * </p>
+   * <p>
+   * See the interface comment of {@link ISqlService} for description of how to use bind variables
+   * </p>
+   * 
+   * @return the update count of every row in bind order. A driver may report
+   *         {@link java.sql.Statement#SUCCESS_NO_INFO} instead of the real count.
+   * @since 3.9.0
+   */
+  int[] insertBatch(String s, Object... bindBases) throws ProcessingException;
+
+  /**
+   * update rows using JDBC batches
+   * <p>
+   * See {@link #insertBatch(String, Object...)}
+   * </p>
+   * 
+   * @return the update count of every row in bind order
+   * @since 3.9.0
+   */
+  int[] updateBatch(String s, Object... bindBases) throws ProcessingException;
+
+  /**
+   * delete rows using JDBC batches
+   * <p>
+   * See {@link #insertBatch(String, Object...)}
+   * </p>
+   * 
+   * @return the update count of every row in bind order
+   * @since 3.9.0
+   */
+  int[] deleteBatch(String s, Object... bindBases) throws ProcessingException;
+
   /**
    * call a stored procedure
    * <p>
@@ -24,6 +24,17 @@ public interface IStatementProcessor {
 
   int processModification(Connection conn, IStatementCache cache, IStatementProcessorMonitor monitor) throws ProcessingException;
 
+  /**
+   * Same as {@link #processModification(Connection, IStatementCache, IStatementProcessorMonitor)} but consecutive input
+   * batches with the same SQL text are executed as JDBC batches.
+   * 
+   * @param batchSize
+   *          maximum number of rows per JDBC batch, a value &lt;= 0 means unlimited
+   * @return the update count of every input batch
+   * @since 3.9.0
+   */
+  int[] processModificationBatch(Connection conn, IStatementCache cache, IStatementProcessorMonitor monitor, int batchSize) throws ProcessingException;
+
   boolean processStoredProcedure(Connection conn, IStatementCache cache, IStatementProcessorMonitor monitor) throws ProcessingException;
 
   String createPlainText() throws ProcessingException;
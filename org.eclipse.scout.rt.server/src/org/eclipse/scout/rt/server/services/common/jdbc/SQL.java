@@ -133,6 +133,14 @@ public final class SQL {
     return service.insert(s, bindBases);
   }
 
+  /**
+   * @see ISqlService#insertBatch(String, Object...)
+   */
+  public static int[] insertBatch(String s, Object... bindBases) throws ProcessingException {
+    ISqlService service = SERVICES.getService(usedServiceType);
+    return service.insertBatch(s, bindBases);
+  }
+
   /**
    * @see ISqlService#update(String, Object...)
    */
@@ -141,6 +149,14 @@ public final class SQL {
     return service.update(s, bindBases);
   }
 
+  /**
+   * @see ISqlService#updateBatch(String, Object...)
+   */
+  public static int[] updateBatch(String s, Object... bindBases) throws ProcessingException {
+    ISqlService service = SERVICES.getService(usedServiceType);
+    return service.updateBatch(s, bindBases);
+  }
+
   /**
    * @see ISqlService#delete(String, Object...)
    */
@@ -149,6 +165,14 @@ public final class SQL {
     return service.delete(s, bindBases);
   }
 
+  /**
+   * @see ISqlService#deleteBatch(String, Object...)
+   */
+  public static int[] deleteBatch(String s, Object... bindBases) throws ProcessingException {
+    ISqlService service = SERVICES.getService(usedServiceType);
+    return service.deleteBatch(s, bindBases);
+  }
+
   /**
    * @see ISqlService#callStoredProcedure(String, Object...)
    */
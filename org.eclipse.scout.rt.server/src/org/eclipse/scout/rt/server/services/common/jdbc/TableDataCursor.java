@@ -0,0 +1,278 @@
+/*******************************************************************************
+ * Copyright (c) 2013 BSI Business Systems Integration AG.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     BSI Business Systems Integration AG - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.scout.rt.server.services.common.jdbc;
+
+import java.security.AccessController;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import javax.security.auth.Subject;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.scout.commons.exception.ProcessingException;
+import org.eclipse.scout.commons.logger.IScoutLogger;
+import org.eclipse.scout.commons.logger.ScoutLogManager;
+import org.eclipse.scout.rt.server.IServerSession;
+import org.eclipse.scout.rt.server.ServerJob;
+import org.eclipse.scout.rt.server.ThreadContext;
+import org.eclipse.scout.rt.server.transaction.ITransaction;
+import org.eclipse.scout.rt.shared.services.common.jdbc.ITableDataCursorService;
+import org.eclipse.scout.rt.shared.services.common.jdbc.TableDataChunk;
+
+/**
+ * Server-side cursor that streams the result of a select to the client in chunks, see {@link TableDataChunk}.
+ * <p>
+ * {@link #open(ISqlService, String, int, Object...)} starts the select in a background {@link ServerJob} with its
+ * own transaction using {@link ISqlService#selectStreaming(String, ISelectStreamHandler, Object...)} and returns the
+ * first chunk as soon as it is available. The next chunks are fetched by the {@link ITableDataCursorService}. The
+ * background job reads at most one chunk ahead, so the memory used per cursor is bounded by two chunks.
+ * <p>
+ * While a cursor is open its background job holds a connection of the pool of the {@link ISqlService} and keeps its
+ * transaction open. The job and its connection are released after the last chunk, when the cursor is closed or when
+ * the client does not fetch the next chunk within {@link #IDLE_TIMEOUT} milliseconds. Abandoned cursors of the session
+ * are also closed whenever a cursor is opened or fetched from, and a session has at most
+ * {@link #MAX_CURSORS_PER_SESSION} open cursors, opening one more closes the least recently used one.
+ * <p>
+ * Example of a server service that backs an incrementally loaded table page:
+ * 
+ * <pre>
+ * public TableDataChunk getPersonTableData(PersonSearchFormData formData) throws ProcessingException {
+ *   return TableDataCursor.open(SERVICES.getService(ISqlService.class), &quot;SELECT ... FROM PERSON WHERE ...&quot;, 500, formData);
+ * }
+ * </pre>
+ * 
+ * @since 3.9.0
+ */
+public final class TableDataCursor {
+  private static final IScoutLogger LOG = ScoutLogManager.getLogger(TableDataCursor.class);
+  private static final String SESSION_DATA_KEY = TableDataCursor.class.getName();
+  private static final long FETCH_POLL_INTERVAL = 1000L;
+
+  public static final long IDLE_TIMEOUT = 300000L;
+  public static final int MAX_CURSORS_PER_SESSION = 8;
+
+  /**
+   * Opens a cursor on the result of the select and waits for the first chunk.
+   * 
+   * @param chunkSize
+   *          the maximum number of rows per chunk
+   * @return the first chunk, the cursor is already closed if it is the last one
+   */
+  public static TableDataChunk open(final ISqlService sqlService, final String sql, int chunkSize, final Object... bindBases) throws ProcessingException {
+    IServerSession session = ThreadContext.getServerSession();
+    if (session == null) {
+      throw new ProcessingException("no server session available, use ServerJob to open table data cursors");
+    }
+    ConcurrentHashMap<String, TableDataCursor> map = getCursorMap(session);
+    closeAbandonedCursors(session, System.currentTimeMillis());
+    while (map.size() >= MAX_CURSORS_PER_SESSION) {
+      TableDataCursor lru = null;
+      for (TableDataCursor c : map.values()) {
+        if (lru == null || c.m_lastAccess < lru.m_lastAccess) {
+          lru = c;
+        }
+      }
+      if (lru == null) {
+        break;
+      }
+      LOG.warn("too many table data cursors in session, closing " + lru.m_id);
+      lru.close();
+    }
+    final TableDataCursor cursor = new TableDataCursor(UUID.randomUUID().toString(), chunkSize, session);
+    map.put(cursor.m_id, cursor);
+    ITransaction transaction = ThreadContext.getTransaction();
+    final boolean readOnly = (transaction != null && transaction.isReadOnly());
+    ServerJob job = new ServerJob("TableDataCursor " + cursor.m_id, session, Subject.getSubject(AccessController.getContext())) {
+      @Override
+      protected IStatus runTransaction(IProgressMonitor monitor) throws Exception {
+        ThreadContext.getTransaction().setReadOnly(readOnly);
+        cursor.produce(sqlService, sql, bindBases);
+        return Status.OK_STATUS;
+      }
+    };
+    job.setSystem(true);
+    job.schedule();
+    return fetchNextChunk(cursor.m_id);
+  }
+
+  /**
+   * Waits until the next chunk of a cursor of the current server session is available.
+   */
+  public static TableDataChunk fetchNextChunk(String cursorId) throws ProcessingException {
+    IServerSession session = ThreadContext.getServerSession();
+    TableDataCursor cursor = (session != null && cursorId != null ? getCursorMap(session).get(cursorId) : null);
+    if (cursor == null) {
+      throw new ProcessingException("table data cursor " + cursorId + " does not exist or was closed");
+    }
+    cursor.m_lastAccess = System.currentTimeMillis();
+    closeAbandonedCursors(session, cursor.m_lastAccess);
+    Object item = null;
+    while (item == null) {
+      // waiting for a slow select is no idle time
+      cursor.m_lastAccess = System.currentTimeMillis();
+      ITransaction transaction = ThreadContext.getTransaction();
+      if (cursor.m_closed || (transaction != null && transaction.isCancelled())) {
+        closeCursor(cursorId);
+        throw new ProcessingException("Interrupted", new InterruptedException());
+      }
+      try {
+        item = cursor.m_queue.poll(FETCH_POLL_INTERVAL, TimeUnit.MILLISECONDS);
+      }
+      catch (InterruptedException e) {
+        closeCursor(cursorId);
+        throw new ProcessingException("Interrupted", e);
+      }
+    }
+    if (item instanceof Throwable) {
+      closeCursor(cursorId);
+      if (item instanceof ProcessingException) {
+        throw (ProcessingException) item;
+      }
+      throw new ProcessingException("table data cursor " + cursorId, (Throwable) item);
+    }
+    TableDataChunk chunk = (TableDataChunk) item;
+    if (chunk.isLast()) {
+      getCursorMap(session).remove(cursorId);
+    }
+    return chunk;
+  }
+
+  /**
+   * Closes a cursor of the current server session and cancels its select. Does nothing if the cursor does not exist.
+   */
+  public static void closeCursor(String cursorId) {
+    IServerSession session = ThreadContext.getServerSession();
+    if (session == null || cursorId == null) {
+      return;
+    }
+    TableDataCursor cursor = getCursorMap(session).get(cursorId);
+    if (cursor != null) {
+      cursor.close();
+    }
+  }
+
+  /**
+   * Closes the cursors of the session that were not fetched from within {@link #IDLE_TIMEOUT}, for example because the
+   * client was disconnected.
+   */
+  static void closeAbandonedCursors(IServerSession session, long now) {
+    for (TableDataCursor cursor : getCursorMap(session).values()) {
+      if (cursor.m_closed || now - cursor.m_lastAccess > IDLE_TIMEOUT) {
+        cursor.close();
+      }
+    }
+  }
+
+  /**
+   * @return the number of open cursors of the session
+   */
+  static int getCursorCount(IServerSession session) {
+    return getCursorMap(session).size();
+  }
+
+  @SuppressWarnings("unchecked")
+  private static ConcurrentHashMap<String, TableDataCursor> getCursorMap(IServerSession session) {
+    synchronized (TableDataCursor.class) {
+      ConcurrentHashMap<String, TableDataCursor> map = (ConcurrentHashMap<String, TableDataCursor>) session.getData(SESSION_DATA_KEY);
+      if (map == null) {
+        map = new ConcurrentHashMap<String, TableDataCursor>();
+        session.setData(SESSION_DATA_KEY, map);
+      }
+      return map;
+    }
+  }
+
+  private final String m_id;
+  private final int m_chunkSize;
+  private final IServerSession m_session;
+  private final BlockingQueue<Object> m_queue;
+  private volatile boolean m_closed;
+  private volatile long m_lastAccess;
+
+  private TableDataCursor(String id, int chunkSize, IServerSession session) {
+    m_id = id;
+    m_chunkSize = Math.max(1, chunkSize);
+    m_session = session;
+    // the chunk the client is waiting for and one chunk ahead
+    m_queue = new ArrayBlockingQueue<Object>(2);
+    m_lastAccess = System.currentTimeMillis();
+  }
+
+  /**
+   * Removes the cursor from its session and stops the producer at its next chunk
+   */
+  private void close() {
+    m_closed = true;
+    getCursorMap(m_session).remove(m_id, this);
+    // unblock the producer
+    m_queue.clear();
+  }
+
+  private void produce(ISqlService sqlService, String sql, Object[] bindBases) {
+    final ArrayList<Object[]> buffer = new ArrayList<Object[]>(m_chunkSize);
+    try {
+      sqlService.selectStreaming(sql, new ISelectStreamHandler() {
+        @Override
+        public void handleRow(Connection con, PreparedStatement stm, ResultSet rs, int rowIndex, List<SqlBind> values) throws ProcessingException {
+          Object[] row = new Object[values.size()];
+          for (int i = 0; i < row.length; i++) {
+            row[i] = values.get(i).getValue();
+          }
+          buffer.add(row);
+          if (buffer.size() >= m_chunkSize) {
+            put(new TableDataChunk(m_id, buffer.toArray(new Object[buffer.size()][]), false));
+            buffer.clear();
+          }
+        }
+
+        @Override
+        public void finished(Connection con, PreparedStatement stm, ResultSet rs, int rowCount) throws ProcessingException {
+        }
+      }, bindBases);
+      put(new TableDataChunk(m_id, buffer.toArray(new Object[buffer.size()][]), true));
+    }
+    catch (Throwable t) {
+      if (m_closed) {
+        return;
+      }
+      try {
+        put(t);
+      }
+      catch (ProcessingException e) {
+        LOG.warn("table data cursor " + m_id + " failed", t);
+      }
+    }
+  }
+
+  private void put(Object item) throws ProcessingException {
+    try {
+      if (!m_closed && m_queue.offer(item, IDLE_TIMEOUT, TimeUnit.MILLISECONDS) && !m_closed) {
+        return;
+      }
+    }
+    catch (InterruptedException e) {
+      // fall through
+    }
+    // closed or idle timeout, the client does not fetch anymore
+    close();
+    throw new ProcessingException("Interrupted", new InterruptedException());
+  }
+}
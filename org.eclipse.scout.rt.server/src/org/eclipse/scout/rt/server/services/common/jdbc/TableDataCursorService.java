@@ -0,0 +1,36 @@
+/*******************************************************************************
+ * Copyright (c) 2013 BSI Business Systems Integration AG.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     BSI Business Systems Integration AG - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.scout.rt.server.services.common.jdbc;
+
+import org.eclipse.scout.commons.annotations.Priority;
+import org.eclipse.scout.commons.exception.ProcessingException;
+import org.eclipse.scout.rt.shared.services.common.jdbc.ITableDataCursorService;
+import org.eclipse.scout.rt.shared.services.common.jdbc.TableDataChunk;
+import org.eclipse.scout.service.AbstractService;
+
+/**
+ * Delivers the chunks of the {@link TableDataCursor}s of the current server session
+ * 
+ * @since 3.9.0
+ */
+@Priority(-1)
+public class TableDataCursorService extends AbstractService implements ITableDataCursorService {
+
+  @Override
+  public TableDataChunk fetchNextChunk(String cursorId) throws ProcessingException {
+    return TableDataCursor.fetchNextChunk(cursorId);
+  }
+
+  @Override
+  public void closeCursor(String cursorId) throws ProcessingException {
+    TableDataCursor.closeCursor(cursorId);
+  }
+}
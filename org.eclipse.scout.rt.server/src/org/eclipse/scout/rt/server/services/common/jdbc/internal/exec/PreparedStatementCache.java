@@ -14,8 +14,11 @@ import java.sql.CallableStatement;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
 
-import org.eclipse.scout.commons.LRUCache;
+import org.eclipse.scout.commons.SegmentedLRUCache;
 import org.eclipse.scout.commons.logger.IScoutLogger;
 import org.eclipse.scout.commons.logger.ScoutLogManager;
 import org.eclipse.scout.rt.server.services.common.jdbc.IStatementCache;
@@ -26,17 +29,29 @@ public class PreparedStatementCache extends AbstractTransactionMember implements
 
   public static final String TRANSACTION_MEMBER_ID = "PreparedStatementCache";
 
-  private LRUCache<String, Integer> m_countCache;
-  private LRUCache<String, PreparedStatement> m_statementCache;
+  private SegmentedLRUCache<String, Integer> m_countCache;
+  private SegmentedLRUCache<String, PreparedStatement> m_statementCache;
+  private final Set<PreparedStatement> m_cachedStatements = Collections.newSetFromMap(new IdentityHashMap<PreparedStatement, Boolean>());
 
   public PreparedStatementCache(int statementCacheSize) {
-    super(TRANSACTION_MEMBER_ID);
-    m_countCache = new LRUCache<String, Integer>(200, 120000L);
-    m_statementCache = new LRUCache<String, PreparedStatement>(statementCacheSize, 3600000L);
-    m_statementCache.addDisposeListener(new LRUCache.DisposeListener() {
+    this(TRANSACTION_MEMBER_ID, statementCacheSize);
+  }
+
+  /**
+   * @param transactionMemberId
+   *          the member id of a cache that is used for another connection than the default one of
+   *          {@link #TRANSACTION_MEMBER_ID}
+   * @since 3.9.0
+   */
+  public PreparedStatementCache(String transactionMemberId, int statementCacheSize) {
+    super(transactionMemberId);
+    m_countCache = new SegmentedLRUCache<String, Integer>(200, 120000L);
+    m_statementCache = new SegmentedLRUCache<String, PreparedStatement>(statementCacheSize, 3600000L);
+    m_statementCache.addDisposeListener(new SegmentedLRUCache.DisposeListener() {
       @Override
       public void valueDisposed(Object key, Object value) {
         PreparedStatement ps = (PreparedStatement) value;
+        m_cachedStatements.remove(ps);
         try {
           ps.close();
         }
@@ -59,7 +74,10 @@ public class PreparedStatementCache extends AbstractTransactionMember implements
       m_countCache.put(s, count);
       if (count >= 2) {
         // second access, cache it
-        m_statementCache.put(s, ps);
+        if (m_statementCache.getTargetSize() > 0) {
+          m_cachedStatements.add(ps);
+          m_statementCache.put(s, ps);
+        }
       }
     }
     else {
@@ -73,7 +91,7 @@ public class PreparedStatementCache extends AbstractTransactionMember implements
   public void releasePreparedStatement(PreparedStatement ps) {
     // close statement when it is not cached
     if (ps != null) {
-      if (!m_statementCache.containsValue(ps)) {
+      if (!m_cachedStatements.contains(ps)) {
         try {
           ps.close();
         }
@@ -95,7 +113,10 @@ public class PreparedStatementCache extends AbstractTransactionMember implements
       m_countCache.put(s, count);
       if (count >= 2) {
         // second access, cache it
-        m_statementCache.put(s, cs);
+        if (m_statementCache.getTargetSize() > 0) {
+          m_cachedStatements.add(cs);
+          m_statementCache.put(s, cs);
+        }
       }
     }
     return cs;
@@ -105,7 +126,7 @@ public class PreparedStatementCache extends AbstractTransactionMember implements
   public void releaseCallableStatement(CallableStatement cs) {
     // close statement when it is not cached
     if (cs != null) {
-      if (!m_statementCache.containsValue(cs)) {
+      if (!m_cachedStatements.contains(cs)) {
         try {
           cs.close();
         }
@@ -26,6 +26,7 @@ import java.util.Map;
 import java.util.TreeMap;
 
 import org.eclipse.scout.commons.BeanUtility;
+import org.eclipse.scout.commons.CompositeObject;
 import org.eclipse.scout.commons.TriState;
 import org.eclipse.scout.commons.beans.FastPropertyDescriptor;
 import org.eclipse.scout.commons.exception.ProcessingException;
@@ -58,6 +59,7 @@ import org.eclipse.scout.rt.server.services.common.jdbc.IStatementCache;
 import org.eclipse.scout.rt.server.services.common.jdbc.IStatementProcessor;
 import org.eclipse.scout.rt.server.services.common.jdbc.IStatementProcessorMonitor;
 import org.eclipse.scout.rt.server.services.common.jdbc.SqlBind;
+import org.eclipse.scout.rt.server.services.common.jdbc.internal.exec.StatementTemplateCache.StatementTemplate;
 import org.eclipse.scout.rt.server.services.common.jdbc.style.ISqlStyle;
 import org.eclipse.scout.rt.server.services.common.jdbc.style.OracleSqlStyle;
 import org.eclipse.scout.rt.server.transaction.ITransaction;
@@ -126,10 +128,8 @@ public class StatementProcessor implements IStatementProcessor {
       m_inputList = new ArrayList<IBindInput>();
       m_outputList = new ArrayList<IBindOutput>();
       //
-      IntoModel intoModel = new IntoParser(m_originalStm).parse();
-      String stmWithoutSelectInto = intoModel.getFilteredStatement();
-      //
-      m_bindModel = new BindParser(stmWithoutSelectInto).parse();
+      StatementTemplate template = getStatementTemplate(callerService.getSqlStyle());
+      m_bindModel = template.createBindModel();
       m_ioTokens = m_bindModel.getIOTokens();
       //
       int jdbcBindIndex = 1;
@@ -155,13 +155,8 @@ public class StatementProcessor implements IStatementProcessor {
           jdbcBindIndex++;
         }
       }
-      for (IToken t : m_bindModel.getAllTokens()) {
-        if (t instanceof DatabaseSpecificToken) {
-          processDatabaseSpecificToken((DatabaseSpecificToken) t, callerService.getSqlStyle());
-        }
-      }
       // add select into out binds
-      for (IToken t : intoModel.getOutputTokens()) {
+      for (IToken t : template.createIntoTokens()) {
         IBindOutput out = createOutput(t, m_bindBases);
         if (!out.isSelectInto()) {
           throw new ProcessingException("out parameter is not a 'select into': " + out);
@@ -182,6 +177,30 @@ public class StatementProcessor implements IStatementProcessor {
     }
   }
 
+  /**
+   * @return the parse result of the original statement with database specific tokens replaced, from the
+   *         {@link StatementTemplateCache} if available
+   */
+  private StatementTemplate getStatementTemplate(ISqlStyle sqlStyle) {
+    StatementTemplateCache cache = StatementTemplateCache.getInstance();
+    CompositeObject key = StatementTemplateCache.createKey(getClass(), sqlStyle != null ? sqlStyle.getClass() : null, m_originalStm);
+    StatementTemplate template = cache.get(key);
+    if (template == null) {
+      IntoModel intoModel = new IntoParser(m_originalStm).parse();
+      String stmWithoutSelectInto = intoModel.getFilteredStatement();
+      //
+      BindModel bindModel = new BindParser(stmWithoutSelectInto).parse();
+      for (IToken t : bindModel.getAllTokens()) {
+        if (t instanceof DatabaseSpecificToken) {
+          processDatabaseSpecificToken((DatabaseSpecificToken) t, sqlStyle);
+        }
+      }
+      template = new StatementTemplate(bindModel, intoModel.getOutputTokens());
+      cache.put(key, template);
+    }
+    return template;
+  }
+
   protected TreeMap<Integer, SqlBind> getCurrentInputBindMap() {
     return m_currentInputBindMap;
   }
@@ -454,6 +473,96 @@ public class StatementProcessor implements IStatementProcessor {
     }
   }
 
+  @Override
+  public int[] processModificationBatch(Connection conn, IStatementCache cache, IStatementProcessorMonitor monitor, int batchSize) throws ProcessingException {
+    PreparedStatement ps = null;
+    String psStm = null;
+    int pendingCount = 0;
+    int[] rowCounts = new int[16];
+    int rowCountSize = 0;
+    try {
+      while (hasNextInputBatch()) {
+        nextInputBatch();
+        prepareInputStatementAndBinds();
+        if (ps != null && !psStm.equals(m_currentInputStm)) {
+          // sql text changed (for example by an array bind that was expanded inline), start a new group
+          int[] counts = executeBatch(ps);
+          rowCounts = appendCounts(rowCounts, rowCountSize, counts);
+          // drivers may return fewer counts than statements, e.g. a single SUCCESS_NO_INFO
+          rowCountSize += counts.length;
+          pendingCount = 0;
+          cache.releasePreparedStatement(ps);
+          ps = null;
+        }
+        if (ps == null) {
+          dump();
+          ps = cache.getPreparedStatement(conn, m_currentInputStm);
+          psStm = m_currentInputStm;
+        }
+        else if (LOG.isDebugEnabled()) {
+          dump();
+        }
+        bindBatch(ps);
+        ps.addBatch();
+        pendingCount++;
+        if (batchSize > 0 && pendingCount >= batchSize) {
+          int[] counts = executeBatch(ps);
+          rowCounts = appendCounts(rowCounts, rowCountSize, counts);
+          rowCountSize += counts.length;
+          pendingCount = 0;
+        }
+      }
+      if (ps != null && pendingCount > 0) {
+        int[] counts = executeBatch(ps);
+        rowCounts = appendCounts(rowCounts, rowCountSize, counts);
+        rowCountSize += counts.length;
+        pendingCount = 0;
+      }
+      int[] result = new int[rowCountSize];
+      System.arraycopy(rowCounts, 0, result, 0, rowCountSize);
+      return result;
+    }
+    catch (ProcessingException e) {
+      e.addContextMessage(createSqlDump(true, false));
+      throw e;
+    }
+    catch (Throwable e) {
+      throw new ProcessingException(createSqlDump(true, false), e);
+    }
+    finally {
+      if (ps != null && pendingCount > 0) {
+        // the statement may be cached, do not leave rows of a failed batch behind
+        try {
+          ps.clearBatch();
+        }
+        catch (Throwable t) {
+          // nop
+        }
+      }
+      cache.releasePreparedStatement(ps);
+    }
+  }
+
+  private int[] executeBatch(PreparedStatement ps) throws SQLException {
+    registerActiveStatement(ps);
+    try {
+      return ps.executeBatch();
+    }
+    finally {
+      unregisterActiveStatement(ps);
+    }
+  }
+
+  private static int[] appendCounts(int[] counts, int size, int[] batchCounts) {
+    if (size + batchCounts.length > counts.length) {
+      int[] tmp = new int[Math.max(counts.length * 2, size + batchCounts.length)];
+      System.arraycopy(counts, 0, tmp, 0, size);
+      counts = tmp;
+    }
+    System.arraycopy(batchCounts, 0, counts, size, batchCounts.length);
+    return counts;
+  }
+
   /*
    * (non-Javadoc)
    * @seeorg.eclipse.scout.rt.server.services.common.sql.internal.exec.
@@ -0,0 +1,126 @@
+/*******************************************************************************
+ * Copyright (c) 2013 BSI Business Systems Integration AG.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     BSI Business Systems Integration AG - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.scout.rt.server.services.common.jdbc.internal.exec;
+
+import org.eclipse.scout.commons.CompositeObject;
+import org.eclipse.scout.commons.SegmentedLRUCache;
+import org.eclipse.scout.commons.parsers.BindModel;
+import org.eclipse.scout.commons.parsers.token.ValueOutputToken;
+import org.eclipse.scout.rt.server.internal.Activator;
+
+/**
+ * Bounded cache of parsed sql statements used by {@link StatementProcessor}.
+ * <p>
+ * A {@link StatementTemplate} holds the result of {@link org.eclipse.scout.commons.parsers.IntoParser} and
+ * {@link org.eclipse.scout.commons.parsers.BindParser} with all database specific tokens already replaced. Templates
+ * are never modified, every statement execution works on a copy of the tokens.
+ * <p>
+ * The maximum number of templates is defined by the config.ini property
+ * <code>org.eclipse.scout.rt.server.statementTemplateCacheSize</code> (default 1000, 0 disables the cache). When the
+ * cache is full, templates are evicted by the {@link SegmentedLRUCache} policy, so frequently executed statements
+ * survive a burst of statements executed only once.
+ * <p>
+ * This class is thread-safe
+ *
+ * @since 3.9.0
+ */
+public final class StatementTemplateCache {
+  private static final int DEFAULT_MAX_SIZE = 1000;
+  private static final StatementTemplateCache INSTANCE = new StatementTemplateCache(readMaxSize());
+
+  public static StatementTemplateCache getInstance() {
+    return INSTANCE;
+  }
+
+  private static int readMaxSize() {
+    String s = Activator.getDefault() != null ? Activator.getDefault().getBundle().getBundleContext().getProperty("org.eclipse.scout.rt.server.statementTemplateCacheSize") : null;
+    if (s != null) {
+      try {
+        return Integer.parseInt(s.trim());
+      }
+      catch (NumberFormatException e) {
+        // use default
+      }
+    }
+    return DEFAULT_MAX_SIZE;
+  }
+
+  private final SegmentedLRUCache<CompositeObject, StatementTemplate> m_templates;
+
+  StatementTemplateCache(int maxSize) {
+    m_templates = new SegmentedLRUCache<CompositeObject, StatementTemplate>(maxSize, 0L);
+  }
+
+  /**
+   * @return the key of a template. The processor class is part of the key since subclasses of
+   *         {@link StatementProcessor} may replace database specific tokens differently.
+   */
+  public static CompositeObject createKey(Class<?> processorClass, Class<?> sqlStyleClass, String stm) {
+    return new CompositeObject(processorClass.getName(), sqlStyleClass != null ? sqlStyleClass.getName() : "", stm);
+  }
+
+  /**
+   * @return the cached template or null
+   */
+  public StatementTemplate get(CompositeObject key) {
+    return m_templates.get(key);
+  }
+
+  public void put(CompositeObject key, StatementTemplate template) {
+    m_templates.put(key, template);
+  }
+
+  public int size() {
+    return m_templates.size();
+  }
+
+  public void clear() {
+    m_templates.clear();
+  }
+
+  /**
+   * Immutable parse result of a sql statement, see {@link StatementTemplateCache}
+   */
+  public static final class StatementTemplate {
+    private final BindModel m_bindModel;
+    private final ValueOutputToken[] m_intoTokens;
+
+    /**
+     * @param bindModel
+     *          the parsed statement without select into tokens, database specific tokens already replaced. The model
+     *          must not be modified afterwards.
+     * @param intoTokens
+     *          the select into tokens
+     */
+    public StatementTemplate(BindModel bindModel, ValueOutputToken[] intoTokens) {
+      m_bindModel = bindModel;
+      m_intoTokens = intoTokens;
+    }
+
+    /**
+     * @return a new bind model for one statement execution
+     */
+    public BindModel createBindModel() {
+      return m_bindModel.copy();
+    }
+
+    /**
+     * @return new select into tokens for one statement execution
+     */
+    public ValueOutputToken[] createIntoTokens() {
+      ValueOutputToken[] a = new ValueOutputToken[m_intoTokens.length];
+      for (int i = 0; i < a.length; i++) {
+        a[i] = m_intoTokens[i].copy();
+      }
+      return a;
+    }
+  }
+}
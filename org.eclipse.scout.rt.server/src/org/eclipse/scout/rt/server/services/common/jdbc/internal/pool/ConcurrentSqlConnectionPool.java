@@ -0,0 +1,434 @@
+/*******************************************************************************
+ * Copyright (c) 2013 BSI Business Systems Integration AG.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     BSI Business Systems Integration AG - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.scout.rt.server.services.common.jdbc.internal.pool;
+
+import java.sql.Connection;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+
+import org.eclipse.scout.commons.CompositeObject;
+import org.eclipse.scout.commons.LatencyHistogram;
+import org.eclipse.scout.commons.logger.IScoutLogger;
+import org.eclipse.scout.commons.logger.ScoutLogManager;
+import org.eclipse.scout.rt.server.services.common.jdbc.AbstractSqlService;
+import org.eclipse.scout.rt.server.services.common.jdbc.ISqlConnectionPoolStatistics;
+import org.eclipse.scout.rt.server.services.common.jdbc.IStatementCache;
+import org.eclipse.scout.service.IServiceInventory;
+
+/**
+ * System-wide connection pool for pooling connections. There is one pool for every ISqlService sub class type.
+ * <p>
+ * In contrast to {@link SqlConnectionPool} there is no pool-wide lock: the capacity is guarded by a {@link Semaphore},
+ * idle connections are kept in a deque (most recently used first) and leased connections in a concurrent map. Creating
+ * and testing connections is done by the leasing thread without holding any shared lock, so one slow database
+ * handshake does not stall other threads.
+ * <p>
+ * A background thread closes connections that exceeded their lifetime or busy timeout and keeps at least
+ * <code>minIdle</code> idle connections open.
+ * <p>
+ * This class is thread-safe
+ *
+ * @since 3.9.0
+ */
+public final class ConcurrentSqlConnectionPool implements ISqlConnectionPool, ISqlConnectionPoolStatistics {
+  private static final IScoutLogger LOG = ScoutLogManager.getLogger(ConcurrentSqlConnectionPool.class);
+  private static final long MANAGE_INTERVAL = 10000L;
+
+  /*
+   * Pool factory per service type (top-level class)
+   */
+  private static final ConcurrentHashMap<CompositeObject, ConcurrentSqlConnectionPool> poolStore = new ConcurrentHashMap<CompositeObject, ConcurrentSqlConnectionPool>();
+
+  public static ConcurrentSqlConnectionPool getPool(AbstractSqlService service, int poolSize, int minIdle, long connectionLifetime, long connectionBusyTimeout) {
+    return getPool(service, null, poolSize, minIdle, connectionLifetime, connectionBusyTimeout);
+  }
+
+  /**
+   * The pool is created on first use and starts warming up <code>minIdle</code> connections right away.
+   *
+   * @param jdbcMappingName
+   *          the jdbc url of the connections or null to use {@link AbstractSqlService#getJdbcMappingName()}. There is
+   *          one pool per service type and jdbc url, e.g. for a read replica.
+   */
+  public static ConcurrentSqlConnectionPool getPool(AbstractSqlService service, String jdbcMappingName, int poolSize, int minIdle, long connectionLifetime, long connectionBusyTimeout) {
+    CompositeObject key = new CompositeObject(service.getClass(), jdbcMappingName != null ? jdbcMappingName : "");
+    ConcurrentSqlConnectionPool pool = poolStore.get(key);
+    if (pool == null) {
+      pool = new ConcurrentSqlConnectionPool(service.getClass(), jdbcMappingName, poolSize, minIdle, connectionLifetime, connectionBusyTimeout);
+      pool.m_service = service;
+      ConcurrentSqlConnectionPool existing = poolStore.putIfAbsent(key, pool);
+      if (existing != null) {
+        return existing;
+      }
+      pool.m_key = key;
+      pool.startManager();
+    }
+    return pool;
+  }
+
+  /**
+   * Disposes all pools, see {@link #dispose()}. Called when the server bundle is stopped.
+   */
+  public static void disposeAll() {
+    for (ConcurrentSqlConnectionPool pool : poolStore.values()) {
+      pool.dispose();
+    }
+  }
+
+  /*
+   * Instance
+   */
+  private final Semaphore m_permits;
+  private final LinkedBlockingDeque<PoolEntry> m_idleEntries = new LinkedBlockingDeque<PoolEntry>();
+  private final ConcurrentHashMap<Connection, PoolEntry> m_busyEntries = new ConcurrentHashMap<Connection, PoolEntry>();
+  private final ConcurrentHashMap<Connection, PoolEntry> m_timedOutEntries = new ConcurrentHashMap<Connection, PoolEntry>();
+  private final LatencyHistogram m_waitTime = new LatencyHistogram();
+  private final LatencyHistogram m_leaseTime = new LatencyHistogram();
+  private final LatencyHistogram m_inUse = new LatencyHistogram();
+  //
+  private final Class m_serviceType;
+  private final String m_jdbcMappingName;
+  private final int m_poolSize;
+  private final int m_minIdle;
+  private final long m_connectionLifetime;
+  private final long m_connectionBusyTimeout;
+  private volatile AbstractSqlService m_service;
+  private volatile boolean m_disposed;
+  private CompositeObject m_key;
+  private Thread m_manager;
+
+  ConcurrentSqlConnectionPool(Class serviceType, String jdbcMappingName, int poolSize, int minIdle, long connectionLifetime, long connectionBusyTimeout) {
+    m_serviceType = serviceType;
+    m_jdbcMappingName = jdbcMappingName;
+    m_poolSize = Math.max(1, poolSize);
+    m_minIdle = Math.max(0, Math.min(minIdle, m_poolSize));
+    m_connectionLifetime = connectionLifetime;
+    m_connectionBusyTimeout = connectionBusyTimeout;
+    m_permits = new Semaphore(m_poolSize, true);
+  }
+
+  private synchronized void startManager() {
+    m_manager = new Thread("ConcurrentSqlConnectionPool[" + m_serviceType.getName() + "].managePool") {
+      @Override
+      public void run() {
+        // the first run warms up the min idle connections
+        while (!m_disposed) {
+          managePool();
+          try {
+            Thread.sleep(MANAGE_INTERVAL);
+          }
+          catch (InterruptedException ie) {
+            // disposed or spurious wakeup, the loop condition decides
+          }
+        }
+      }
+    };
+    m_manager.setDaemon(true);
+    m_manager.start();
+  }
+
+  /**
+   * Stops the manager thread, closes all idle connections and removes the pool from the pool store. Busy connections
+   * are closed when they are released. A subsequent {@link #getPool} call creates a new pool.
+   */
+  public void dispose() {
+    m_disposed = true;
+    synchronized (this) {
+      if (m_key != null) {
+        poolStore.remove(m_key, this);
+      }
+      if (m_manager != null) {
+        m_manager.interrupt();
+        m_manager = null;
+      }
+    }
+    PoolEntry e;
+    while ((e = m_idleEntries.pollFirst()) != null) {
+      e.disposeStatementCache();
+      closeQuietly(e.conn);
+    }
+  }
+
+  @Override
+  public Connection leaseConnection(AbstractSqlService service) throws Exception {
+    if (m_disposed) {
+      throw new IllegalStateException("pool of " + m_serviceType.getName() + " is disposed");
+    }
+    m_service = service;
+    long waitBegin = System.nanoTime();
+    m_permits.acquire();
+    boolean success = false;
+    try {
+      m_waitTime.record((System.nanoTime() - waitBegin) / 1000000L);
+      PoolEntry candidate = null;
+      while (candidate == null) {
+        candidate = m_idleEntries.pollFirst();
+        if (candidate == null) {
+          // a permit is held, so there is room for a new connection
+          candidate = createEntry(service);
+          break;
+        }
+        if (isLifetimeExceeded(candidate, System.currentTimeMillis())) {
+          new ConnectionCloseThread("CloseOldIdleConnection for " + m_serviceType.getName(), candidate.conn, candidate.statementCache).start();
+          candidate = null;
+          continue;
+        }
+        // test candidate connection
+        try {
+          service.callbackTestConnection(candidate.conn);
+        }
+        catch (Throwable t) {
+          LOG.warn("closing dirty connection: " + candidate.description);
+          candidate.disposeStatementCache();
+          closeQuietly(candidate.conn);
+          candidate = null;
+        }
+      }
+      candidate.leaseBegin = System.currentTimeMillis();
+      candidate.leaseCount++;
+      m_busyEntries.put(candidate.conn, candidate);
+      m_inUse.record(m_busyEntries.size());
+      if (LOG.isDebugEnabled()) {
+        LOG.debug("lease   " + candidate.description);
+      }
+      success = true;
+      return candidate.conn;
+    }
+    finally {
+      if (!success) {
+        m_permits.release();
+      }
+    }
+  }
+
+  @Override
+  public void releaseConnection(Connection conn) {
+    PoolEntry candidate = m_busyEntries.remove(conn);
+    if (candidate == null) {
+      PoolEntry timedOut = m_timedOutEntries.remove(conn);
+      if (timedOut != null) {
+        // the eviction released the permit and its close thread owns the connection, do not touch it anymore
+        LOG.warn("released connection after its busy timeout: " + timedOut.description);
+        return;
+      }
+      LOG.warn("closing unknown connection: " + conn);
+      closeQuietly(conn);
+      return;
+    }
+    if (LOG.isDebugEnabled()) {
+      LOG.debug("release " + candidate.description);
+    }
+    PoolEntry entry = candidate;
+    try {
+      m_leaseTime.record(System.currentTimeMillis() - candidate.leaseBegin);
+      // check close status of connection
+      try {
+        if (candidate.conn.isClosed()) {
+          candidate = null;
+        }
+      }
+      catch (Throwable e) {
+        // ignore
+        candidate = null;
+      }
+      // check error status of connection
+      if (candidate != null) {
+        try {
+          if (candidate.conn.getWarnings() != null) {
+            // connection is normally valid again after clearing the warnings.
+            candidate.conn.clearWarnings();
+          }
+        }
+        catch (Throwable e) {
+          // ignore
+          candidate = null;
+        }
+      }
+      if (candidate != null && !m_disposed) {
+        // move to idle pool, most recently used first
+        candidate.leaseBegin = 0;
+        m_idleEntries.offerFirst(candidate);
+      }
+      else {
+        LOG.warn("closing dirty connection: " + entry.description);
+        entry.disposeStatementCache();
+        closeQuietly(conn);
+      }
+    }
+    finally {
+      m_permits.release();
+    }
+  }
+
+  @Override
+  public IStatementCache getStatementCache(Connection conn, int maxSize) {
+    if (maxSize <= 0) {
+      return null;
+    }
+    // only the leasing thread accesses the entry
+    PoolEntry e = m_busyEntries.get(conn);
+    return e != null ? e.getStatementCache(maxSize) : null;
+  }
+
+  @Override
+  public int getIdleCount() {
+    return m_idleEntries.size();
+  }
+
+  @Override
+  public int getBusyCount() {
+    return m_busyEntries.size();
+  }
+
+  @Override
+  public LatencyHistogram getWaitTimeHistogram() {
+    return m_waitTime;
+  }
+
+  @Override
+  public LatencyHistogram getLeaseTimeHistogram() {
+    return m_leaseTime;
+  }
+
+  @Override
+  public LatencyHistogram getInUseHistogram() {
+    return m_inUse;
+  }
+
+  @Override
+  public IServiceInventory getInventory() {
+    StringBuffer buf = new StringBuffer();
+    SimpleDateFormat fmt = new SimpleDateFormat("dd.MM.yyyy HH:mm:ss.SSSS");
+    PoolEntry[] busy = m_busyEntries.values().toArray(new PoolEntry[0]);
+    PoolEntry[] idle = m_idleEntries.toArray(new PoolEntry[0]);
+    buf.append("Total connections: " + (busy.length + idle.length) + " (max " + m_poolSize + ", min idle " + m_minIdle + ")");
+    buf.append("\n");
+    buf.append("Wait time [ms]: " + m_waitTime);
+    buf.append("\n");
+    buf.append("Lease time [ms]: " + m_leaseTime);
+    buf.append("\n");
+    buf.append("In use: " + m_inUse);
+    buf.append("\n");
+    buf.append("Busy: " + busy.length);
+    buf.append("\n");
+    for (PoolEntry e : busy) {
+      buf.append("  class=" + e.conn.getClass().getName() + ", created=" + fmt.format(new Date(e.createTime)) + ", leaseCount=" + e.leaseCount + ", leaseBegin=" + fmt.format(new Date(e.leaseBegin)));
+      appendStatementCache(buf, e);
+      buf.append("\n");
+    }
+    buf.append("Idle: " + idle.length);
+    buf.append("\n");
+    for (PoolEntry e : idle) {
+      buf.append("  class=" + e.conn.getClass().getName() + ", created=" + fmt.format(new Date(e.createTime)) + ", leaseCount=" + e.leaseCount);
+      appendStatementCache(buf, e);
+      buf.append("\n");
+    }
+    final String f = buf.toString();
+    return new IServiceInventory() {
+      @Override
+      public String getInventory() {
+        return new String(f);
+      }
+    };
+  }
+
+  private static void appendStatementCache(StringBuffer buf, PoolEntry e) {
+    ConnectionStatementCache cache = e.statementCache;
+    if (cache != null) {
+      buf.append(", " + cache);
+    }
+  }
+
+  private PoolEntry createEntry(AbstractSqlService service) throws Exception {
+    PoolEntry e = new PoolEntry();
+    e.conn = new SqlConnectionBuilder().createJdbcConnection(service, m_jdbcMappingName);
+    e.description = String.valueOf(e.conn);
+    if (LOG.isInfoEnabled()) {
+      LOG.info("created jdbc connection " + e.description);
+    }
+    try {
+      service.callbackAfterConnectionCreated(e.conn);
+    }
+    catch (Exception ex) {
+      closeQuietly(e.conn);
+      throw ex;
+    }
+    e.createTime = System.currentTimeMillis();
+    return e;
+  }
+
+  private boolean isLifetimeExceeded(PoolEntry e, long now) {
+    return now - e.createTime > m_connectionLifetime;
+  }
+
+  private static void closeQuietly(Connection conn) {
+    try {
+      conn.close();
+    }
+    catch (Throwable fatal) {
+      // ignored
+    }
+  }
+
+  /**
+   * Thread worker to manage pool
+   */
+  void managePool() {
+    managePool(System.currentTimeMillis());
+  }
+
+  /**
+   * @param now
+   *          the time lifetime and busy timeout are checked against
+   */
+  void managePool(long now) {
+    try {
+      // close old idle connections
+      for (PoolEntry e : m_idleEntries) {
+        if (isLifetimeExceeded(e, now) && m_idleEntries.remove(e)) {
+          if (LOG.isInfoEnabled()) {
+            LOG.info("close connection " + e.description);
+          }
+          e.disposeStatementCache();
+          closeQuietly(e.conn);
+        }
+      }
+      // close timed out busy connections
+      for (Map.Entry<Connection, PoolEntry> entry : m_busyEntries.entrySet()) {
+        PoolEntry e = entry.getValue();
+        if (now - e.leaseBegin > m_connectionBusyTimeout && m_busyEntries.remove(entry.getKey(), e)) {
+          m_timedOutEntries.put(e.conn, e);
+          m_permits.release();
+          new ConnectionCloseThread("CloseTimeoutBusyConnection for " + m_serviceType.getName(), e.conn, e.statementCache).start();
+        }
+      }
+      // keep min idle connections open
+      AbstractSqlService service = m_service;
+      if (service != null && !m_disposed) {
+        while (m_idleEntries.size() < m_minIdle && m_idleEntries.size() + m_busyEntries.size() < m_poolSize && m_permits.tryAcquire()) {
+          try {
+            m_idleEntries.offerLast(createEntry(service));
+          }
+          finally {
+            m_permits.release();
+          }
+        }
+      }
+    }
+    catch (Throwable t) {
+      LOG.warn(null, t);
+    }
+  }
+}
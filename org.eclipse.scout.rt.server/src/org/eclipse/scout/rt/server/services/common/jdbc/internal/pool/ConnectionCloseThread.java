@@ -20,10 +20,20 @@ class ConnectionCloseThread extends Thread {
   private static final IScoutLogger LOG = ScoutLogManager.getLogger(SqlConnectionPool.class);
 
   private Connection m_conn;
+  private ConnectionStatementCache m_statementCache;
 
   public ConnectionCloseThread(String name, Connection conn) {
+    this(name, conn, null);
+  }
+
+  /**
+   * @param statementCache
+   *          the statement cache of the connection whose statements are closed before the connection, may be null
+   */
+  public ConnectionCloseThread(String name, Connection conn, ConnectionStatementCache statementCache) {
     super(name);
     m_conn = conn;
+    m_statementCache = statementCache;
     setDaemon(true);
   }
 
@@ -32,6 +42,9 @@ class ConnectionCloseThread extends Thread {
     if (LOG.isInfoEnabled()) {
       LOG.info("close connection " + m_conn);
     }
+    if (m_statementCache != null) {
+      m_statementCache.dispose();
+    }
     try {
       m_conn.close();
     }
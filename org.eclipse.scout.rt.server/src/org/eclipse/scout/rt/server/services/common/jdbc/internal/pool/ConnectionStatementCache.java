@@ -0,0 +1,184 @@
+/*******************************************************************************
+ * Copyright (c) 2013 BSI Business Systems Integration AG.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     BSI Business Systems Integration AG - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.scout.rt.server.services.common.jdbc.internal.pool;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.scout.commons.CompositeObject;
+import org.eclipse.scout.commons.logger.IScoutLogger;
+import org.eclipse.scout.commons.logger.ScoutLogManager;
+import org.eclipse.scout.rt.server.services.common.jdbc.IStatementCache;
+
+/**
+ * Statement cache of a pooled connection. In contrast to the transaction bound
+ * {@link org.eclipse.scout.rt.server.services.common.jdbc.internal.exec.PreparedStatementCache PreparedStatementCache}
+ * it lives as long as the connection, so statements are reused across transactions and are cached on first use.
+ * <p>
+ * The cache holds at most <code>maxSize</code> statements, the least recently used statement is closed when the cache
+ * is full. A cached statement that is still in use (for example by a nested select with the same sql) is not handed
+ * out again, a new uncached statement is prepared instead. All statements are closed by {@link #dispose()} when the
+ * pool evicts the connection.
+ * <p>
+ * This class is thread-safe, although it is normally only used by the thread that leased the connection.
+ *
+ * @since 3.9.0
+ */
+public class ConnectionStatementCache implements IStatementCache {
+  private static final IScoutLogger LOG = ScoutLogManager.getLogger(ConnectionStatementCache.class);
+
+  private final Connection m_conn;
+  private final int m_maxSize;
+  private final LinkedHashMap<CompositeObject, PreparedStatement> m_statements;
+  private final Set<PreparedStatement> m_cachedStatements;
+  private final Set<PreparedStatement> m_usedStatements;
+  private long m_hitCount;
+  private long m_missCount;
+  private boolean m_disposed;
+
+  public ConnectionStatementCache(Connection conn, int maxSize) {
+    m_conn = conn;
+    m_maxSize = maxSize;
+    m_cachedStatements = Collections.newSetFromMap(new IdentityHashMap<PreparedStatement, Boolean>());
+    m_usedStatements = Collections.newSetFromMap(new IdentityHashMap<PreparedStatement, Boolean>());
+    m_statements = new LinkedHashMap<CompositeObject, PreparedStatement>(16, 0.75f, true) {
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<CompositeObject, PreparedStatement> eldest) {
+        if (size() <= m_maxSize) {
+          return false;
+        }
+        PreparedStatement ps = eldest.getValue();
+        m_cachedStatements.remove(ps);
+        if (!m_usedStatements.contains(ps)) {
+          closeQuietly(ps);
+        }
+        return true;
+      }
+    };
+  }
+
+  @Override
+  public PreparedStatement getPreparedStatement(Connection conn, String s) throws SQLException {
+    return getStatement(conn, s, false);
+  }
+
+  @Override
+  public void releasePreparedStatement(PreparedStatement ps) {
+    releaseStatement(ps);
+  }
+
+  @Override
+  public CallableStatement getCallableStatement(Connection conn, String s) throws SQLException {
+    return (CallableStatement) getStatement(conn, s, true);
+  }
+
+  @Override
+  public void releaseCallableStatement(CallableStatement cs) {
+    releaseStatement(cs);
+  }
+
+  private synchronized PreparedStatement getStatement(Connection conn, String s, boolean callable) throws SQLException {
+    if (conn != m_conn || m_disposed) {
+      // not the connection of this cache
+      m_missCount++;
+      return callable ? conn.prepareCall(s) : conn.prepareStatement(s);
+    }
+    CompositeObject key = new CompositeObject(callable, s);
+    PreparedStatement ps = m_statements.get(key);
+    if (ps != null && !m_usedStatements.contains(ps)) {
+      m_hitCount++;
+      ps.clearParameters();
+      ps.clearWarnings();
+      m_usedStatements.add(ps);
+      return ps;
+    }
+    m_missCount++;
+    PreparedStatement newPs = callable ? conn.prepareCall(s) : conn.prepareStatement(s);
+    if (ps == null && m_maxSize > 0) {
+      m_cachedStatements.add(newPs);
+      m_statements.put(key, newPs);
+    }
+    m_usedStatements.add(newPs);
+    return newPs;
+  }
+
+  private synchronized void releaseStatement(PreparedStatement ps) {
+    if (ps == null) {
+      return;
+    }
+    m_usedStatements.remove(ps);
+    if (!m_cachedStatements.contains(ps)) {
+      closeQuietly(ps);
+    }
+  }
+
+  /**
+   * Closes all cached statements, called when the connection is evicted from the pool. Statements used afterwards are
+   * not cached anymore.
+   */
+  public void dispose() {
+    ArrayList<PreparedStatement> list;
+    synchronized (this) {
+      m_disposed = true;
+      list = new ArrayList<PreparedStatement>(m_statements.values());
+      m_statements.clear();
+      m_cachedStatements.clear();
+    }
+    for (PreparedStatement ps : list) {
+      closeQuietly(ps);
+    }
+  }
+
+  public synchronized int getSize() {
+    return m_statements.size();
+  }
+
+  public synchronized long getHitCount() {
+    return m_hitCount;
+  }
+
+  public synchronized long getMissCount() {
+    return m_missCount;
+  }
+
+  /**
+   * @return the percentage of statements that were taken from the cache
+   */
+  public synchronized double getHitRate() {
+    long total = m_hitCount + m_missCount;
+    return total > 0 ? 100d * m_hitCount / total : 0d;
+  }
+
+  private static void closeQuietly(Statement s) {
+    try {
+      s.close();
+    }
+    catch (Throwable t) {
+      LOG.debug("closing statement", t);
+    }
+  }
+
+  @Override
+  public synchronized String toString() {
+    return "statements=" + m_statements.size() + "/" + m_maxSize + ", hits=" + m_hitCount + ", misses=" + m_missCount + ", hitRate=" + Math.round(getHitRate()) + "%";
+  }
+}
@@ -0,0 +1,45 @@
+/*******************************************************************************
+ * Copyright (c) 2013 BSI Business Systems Integration AG.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     BSI Business Systems Integration AG - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.scout.rt.server.services.common.jdbc.internal.pool;
+
+import java.sql.Connection;
+
+import org.eclipse.scout.rt.server.services.common.jdbc.AbstractSqlService;
+import org.eclipse.scout.rt.server.services.common.jdbc.IStatementCache;
+import org.eclipse.scout.service.IServiceInventory;
+
+/**
+ * Pool of jdbc connections used by an {@link AbstractSqlService} with a direct jdbc connection.
+ * <p>
+ * Implementations must be thread-safe.
+ */
+public interface ISqlConnectionPool {
+
+  /**
+   * Leases a connection, waits until one is available if the pool is exhausted.
+   */
+  Connection leaseConnection(AbstractSqlService service) throws Exception;
+
+  /**
+   * Returns a connection that was leased by {@link #leaseConnection(AbstractSqlService)}.
+   */
+  void releaseConnection(Connection conn);
+
+  /**
+   * @return the statement cache of a leased connection, it lives as long as the connection and holds at most
+   *         <code>maxSize</code> statements. Returns null if the connection was not leased from this pool or maxSize
+   *         is &lt;= 0.
+   * @since 3.9.0
+   */
+  IStatementCache getStatementCache(Connection conn, int maxSize);
+
+  IServiceInventory getInventory();
+}
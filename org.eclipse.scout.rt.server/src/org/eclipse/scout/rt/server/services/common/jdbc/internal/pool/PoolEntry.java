@@ -17,4 +17,29 @@ class PoolEntry {
   public long createTime;
   public long leaseBegin;
   public int leaseCount;
+  public ConnectionStatementCache statementCache;
+  /**
+   * the text of the connection captured while it was open, used for logging once the connection may be closed
+   */
+  public String description;
+
+  /**
+   * @return the statement cache of the connection, it is created on the first call
+   */
+  public ConnectionStatementCache getStatementCache(int maxSize) {
+    if (statementCache == null) {
+      statementCache = new ConnectionStatementCache(conn, maxSize);
+    }
+    return statementCache;
+  }
+
+  /**
+   * Closes the cached statements of the connection
+   */
+  public void disposeStatementCache() {
+    if (statementCache != null) {
+      statementCache.dispose();
+      statementCache = null;
+    }
+  }
 }
@@ -30,13 +30,23 @@ public class SqlConnectionBuilder {
   private static final IScoutLogger LOG = ScoutLogManager.getLogger(SqlConnectionBuilder.class);
 
   public Connection createJdbcConnection(AbstractSqlService sqlService) throws ClassNotFoundException, SQLException, InstantiationException, IllegalAccessException {
+    return createJdbcConnection(sqlService, null);
+  }
+
+  /**
+   * @param jdbcMappingName
+   *          the jdbc url to connect to or null to use {@link AbstractSqlService#getJdbcMappingName()}
+   * @since 3.9.0
+   */
+  public Connection createJdbcConnection(AbstractSqlService sqlService, String jdbcMappingName) throws ClassNotFoundException, SQLException, InstantiationException, IllegalAccessException {
+    String url = jdbcMappingName != null ? jdbcMappingName : sqlService.getJdbcMappingName();
     String user = sqlService.getUsername();
     String pass = sqlService.getPassword();
     Class.forName(sqlService.getJdbcDriverName());
     //
     Connection conn;
     if (user != null && pass != null) {
-      conn = DriverManager.getConnection(sqlService.getJdbcMappingName(), user, pass);
+      conn = DriverManager.getConnection(url, user, pass);
     }
     else {
       Properties p = null;
@@ -56,10 +66,10 @@ public class SqlConnectionBuilder {
         }
       }
       if (p != null) {
-        conn = DriverManager.getConnection(sqlService.getJdbcMappingName(), p);
+        conn = DriverManager.getConnection(url, p);
       }
       else {
-        conn = DriverManager.getConnection(sqlService.getJdbcMappingName());
+        conn = DriverManager.getConnection(url);
       }
     }
     conn.setAutoCommit(false);
@@ -67,11 +77,22 @@ public class SqlConnectionBuilder {
   }
 
   public Connection createJndiConnection(AbstractSqlService sqlService) throws NamingException, SQLException {
+    return createJndiConnection(sqlService, null);
+  }
+
+  /**
+   * @param jndiName
+   *          the jndi name of the data source or null to use {@link AbstractSqlService#getJndiName()}
+   * @since 3.9.0
+   */
+  public Connection createJndiConnection(AbstractSqlService sqlService, String jndiName) throws NamingException, SQLException {
     InitialContext initialContext = null;
     try {
       String user = sqlService.getUsername();
       String pass = sqlService.getPassword();
-      String jndiName = sqlService.getJndiName();
+      if (jndiName == null) {
+        jndiName = sqlService.getJndiName();
+      }
       String jndiInitialContextFactory = sqlService.getJndiInitialContextFactory();
       String jndiProviderUrl = sqlService.getJndiProviderUrl();
       String jndiUrlPkgPrefixes = sqlService.getJndiUrlPkgPrefixes();
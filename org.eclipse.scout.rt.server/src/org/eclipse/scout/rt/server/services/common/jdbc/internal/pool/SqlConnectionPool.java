@@ -18,9 +18,11 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 
+import org.eclipse.scout.commons.CompositeObject;
 import org.eclipse.scout.commons.logger.IScoutLogger;
 import org.eclipse.scout.commons.logger.ScoutLogManager;
 import org.eclipse.scout.rt.server.services.common.jdbc.AbstractSqlService;
+import org.eclipse.scout.rt.server.services.common.jdbc.IStatementCache;
 import org.eclipse.scout.service.IServiceInventory;
 
 /**
@@ -29,21 +31,32 @@ import org.eclipse.scout.service.IServiceInventory;
  * with always the same connection it had in the last request this class is
  * thread-safe
  */
-public final class SqlConnectionPool {
+public final class SqlConnectionPool implements ISqlConnectionPool {
   private static final IScoutLogger LOG = ScoutLogManager.getLogger(SqlConnectionPool.class);
 
   /*
    * Pool factory per service type (top-level class)
    */
   private static Object poolStoreLock = new Object();
-  private static HashMap<Class, SqlConnectionPool> poolStore = new HashMap<Class, SqlConnectionPool>();
+  private static HashMap<CompositeObject, SqlConnectionPool> poolStore = new HashMap<CompositeObject, SqlConnectionPool>();
 
   public static SqlConnectionPool getPool(Class serviceType, int poolSize, long connectionLifetime, long connectionBusyTimeout) {
+    return getPool(serviceType, null, poolSize, connectionLifetime, connectionBusyTimeout);
+  }
+
+  /**
+   * @param jdbcMappingName
+   *          the jdbc url of the connections or null to use {@link AbstractSqlService#getJdbcMappingName()}. There is
+   *          one pool per service type and jdbc url, e.g. for a read replica.
+   * @since 3.9.0
+   */
+  public static SqlConnectionPool getPool(Class serviceType, String jdbcMappingName, int poolSize, long connectionLifetime, long connectionBusyTimeout) {
+    CompositeObject key = new CompositeObject(serviceType, jdbcMappingName != null ? jdbcMappingName : "");
     synchronized (poolStoreLock) {
-      SqlConnectionPool pool = poolStore.get(serviceType);
+      SqlConnectionPool pool = poolStore.get(key);
       if (pool == null) {
-        pool = new SqlConnectionPool(serviceType, poolSize, connectionLifetime, connectionBusyTimeout);
-        poolStore.put(serviceType, pool);
+        pool = new SqlConnectionPool(serviceType, jdbcMappingName, poolSize, connectionLifetime, connectionBusyTimeout);
+        poolStore.put(key, pool);
       }
       return pool;
     }
@@ -57,12 +70,14 @@ public final class SqlConnectionPool {
   private HashSet<PoolEntry> m_busyEntries = new HashSet<PoolEntry>();
   //
   private Class m_serviceType;
+  private String m_jdbcMappingName;
   private int m_poolSize;
   private long m_connectionLifetime;
   private long m_connectionBusyTimeout;
 
-  private SqlConnectionPool(Class serviceType, int poolSize, long connectionLifetime, long connectionBusyTimeout) {
+  private SqlConnectionPool(Class serviceType, String jdbcMappingName, int poolSize, long connectionLifetime, long connectionBusyTimeout) {
     m_serviceType = serviceType;
+    m_jdbcMappingName = jdbcMappingName;
     m_poolSize = poolSize;
     m_connectionLifetime = connectionLifetime;
     m_connectionBusyTimeout = connectionBusyTimeout;
@@ -83,6 +98,7 @@ public final class SqlConnectionPool {
     t.start();
   }
 
+  @Override
   public Connection leaseConnection(AbstractSqlService service) throws Exception {
     managePool();
     synchronized (m_poolLock) {
@@ -99,7 +115,7 @@ public final class SqlConnectionPool {
           if (m_idleEntries.size() + m_busyEntries.size() < m_poolSize) {
             // create new connection
             PoolEntry test = new PoolEntry();
-            test.conn = new SqlConnectionBuilder().createJdbcConnection(service);
+            test.conn = new SqlConnectionBuilder().createJdbcConnection(service, m_jdbcMappingName);
             if (LOG.isInfoEnabled()) {
               LOG.info("created jdbc connection " + test.conn);
             }
@@ -127,6 +143,7 @@ public final class SqlConnectionPool {
             // remove candidate from idle pool and close it
             m_idleEntries.remove(candidate);
             LOG.warn("closing dirty connection: " + candidate.conn);
+            candidate.disposeStatementCache();
             try {
               candidate.conn.close();
             }
@@ -148,6 +165,7 @@ public final class SqlConnectionPool {
     }
   }
 
+  @Override
   public void releaseConnection(Connection conn) {
     if (LOG.isDebugEnabled()) {
       LOG.debug("release " + conn);
@@ -162,6 +180,7 @@ public final class SqlConnectionPool {
           break;
         }
       }
+      PoolEntry entry = candidate;
       // check close status of connection
       if (candidate != null) {
         try {
@@ -201,6 +220,9 @@ public final class SqlConnectionPool {
       }
       else {
         LOG.warn("closing dirty connection: " + conn);
+        if (entry != null) {
+          entry.disposeStatementCache();
+        }
         try {
           conn.close();
         }
@@ -213,6 +235,22 @@ public final class SqlConnectionPool {
     managePool();
   }
 
+  @Override
+  public IStatementCache getStatementCache(Connection conn, int maxSize) {
+    if (maxSize <= 0) {
+      return null;
+    }
+    synchronized (m_poolLock) {
+      for (PoolEntry e : m_busyEntries) {
+        if (e.conn == conn) {
+          return e.getStatementCache(maxSize);
+        }
+      }
+    }
+    return null;
+  }
+
+  @Override
   public IServiceInventory getInventory() {
     StringBuffer buf = new StringBuffer();
     synchronized (m_poolLock) {
@@ -223,12 +261,18 @@ public final class SqlConnectionPool {
       buf.append("\n");
       for (PoolEntry e : m_busyEntries) {
         buf.append("  class=" + e.conn.getClass().getName() + ", created=" + fmt.format(new Date(e.createTime)) + ", leaseCount=" + e.leaseCount + ", leaseBegin=" + fmt.format(new Date(e.leaseBegin)));
+        if (e.statementCache != null) {
+          buf.append(", " + e.statementCache);
+        }
         buf.append("\n");
       }
       buf.append("Idle: " + m_idleEntries.size());
       buf.append("\n");
       for (PoolEntry e : m_idleEntries) {
         buf.append("  class=" + e.conn.getClass().getName() + ", created=" + fmt.format(new Date(e.createTime)) + ", leaseCount=" + e.leaseCount);
+        if (e.statementCache != null) {
+          buf.append(", " + e.statementCache);
+        }
         buf.append("\n");
       }
     }
@@ -251,7 +295,8 @@ public final class SqlConnectionPool {
         for (Iterator it = m_idleEntries.iterator(); it.hasNext();) {
           PoolEntry e = (PoolEntry) it.next();
           if (System.currentTimeMillis() - e.createTime > m_connectionLifetime) {
-            ConnectionCloseThread t = new ConnectionCloseThread("CloseOldIdleConnection for " + m_serviceType.getName(), e.conn);
+            ConnectionCloseThread t = new ConnectionCloseThread("CloseOldIdleConnection for " + m_serviceType.getName(), e.conn, e.statementCache);
+            e.statementCache = null;
             t.start();
             e.conn = null;
             it.remove();
@@ -261,7 +306,8 @@ public final class SqlConnectionPool {
         for (Iterator it = m_busyEntries.iterator(); it.hasNext();) {
           PoolEntry e = (PoolEntry) it.next();
           if (System.currentTimeMillis() - e.leaseBegin > m_connectionBusyTimeout) {
-            ConnectionCloseThread t = new ConnectionCloseThread("CloseTimeoutBusyConnection for " + m_serviceType.getName(), e.conn);
+            ConnectionCloseThread t = new ConnectionCloseThread("CloseTimeoutBusyConnection for " + m_serviceType.getName(), e.conn, e.statementCache);
+            e.statementCache = null;
             t.start();
             e.conn = null;
             it.remove();
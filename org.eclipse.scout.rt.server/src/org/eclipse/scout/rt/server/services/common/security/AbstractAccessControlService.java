@@ -12,7 +12,6 @@ package org.eclipse.scout.rt.server.services.common.security;
 
 import java.lang.reflect.Method;
 import java.security.AccessController;
-import java.security.AllPermission;
 import java.security.Permission;
 import java.security.Permissions;
 import java.security.Principal;
@@ -29,6 +28,7 @@ import org.eclipse.scout.commons.logger.IScoutLogger;
 import org.eclipse.scout.commons.logger.ScoutLogManager;
 import org.eclipse.scout.rt.server.services.common.security.internal.AccessControlStore;
 import org.eclipse.scout.rt.shared.security.BasicHierarchyPermission;
+import org.eclipse.scout.rt.shared.security.PermissionIndex;
 import org.eclipse.scout.rt.shared.security.RemoteServiceAccessPermission;
 import org.eclipse.scout.rt.shared.services.common.ping.IPingService;
 import org.eclipse.scout.rt.shared.services.common.security.IAccessControlService;
@@ -121,12 +121,12 @@ public class AbstractAccessControlService extends AbstractService implements IAc
     if (p == null) {
       return true;
     }
-    Permissions c = getPermissions();
-    if (c == null) {
+    PermissionIndex index = getPermissionIndex();
+    if (index == null) {
       return true;
     }
     else {
-      return c.implies(p);
+      return index.implies(p);
     }
   }
 
@@ -144,49 +144,37 @@ public class AbstractAccessControlService extends AbstractService implements IAc
       }
     }
     BasicHierarchyPermission hp = (BasicHierarchyPermission) p;
-    Permissions c = getPermissions();
-    if (c == null) {
+    PermissionIndex index = getPermissionIndex();
+    if (index == null) {
       List<Integer> levels = hp.getValidLevels();
       return levels.get(levels.size() - 1);
     }
     else {
-      int maxLevel = BasicHierarchyPermission.LEVEL_UNDEFINED;
-      Enumeration<Permission> en = c.elements();
-      while (en.hasMoreElements()) {
-        Permission grantedPermission = en.nextElement();
-
-        // catch AllPermission
-        if (grantedPermission instanceof AllPermission) {
-          return BasicHierarchyPermission.LEVEL_ALL;
-        }
-
-        // process basic hierarchy permissions
-        if (grantedPermission instanceof BasicHierarchyPermission) {
-          BasicHierarchyPermission hgrantedPermission = (BasicHierarchyPermission) grantedPermission;
-          if (hgrantedPermission.getClass().isAssignableFrom(hp.getClass())) {
-            maxLevel = Math.max(maxLevel, hgrantedPermission.getLevel());
-            if (maxLevel >= BasicHierarchyPermission.LEVEL_ALL) {
-              break;
-            }
-          }
-        }
-      }
-      return maxLevel;
+      return index.getPermissionLevel(hp);
     }
   }
 
   @Override
   public Permissions getPermissions() {
-    Permissions permSet = m_accessControlStore.getPermissionsOfCurrentSubject();
+    PermissionIndex index = getPermissionIndex();
+    return index != null ? index.getPermissions() : null;
+  }
+
+  /**
+   * @return the index of the permissions of the current subject, loads the permissions if necessary
+   * @since 3.9.0
+   */
+  protected PermissionIndex getPermissionIndex() {
+    PermissionIndex index = m_accessControlStore.getPermissionIndexOfCurrentSubject();
 
-    if (permSet != null) {
-      return permSet;
+    if (index != null) {
+      return index;
     }
 
     setPermissions(execLoadPermissions());
-    permSet = m_accessControlStore.getPermissionsOfCurrentSubject();
+    index = m_accessControlStore.getPermissionIndexOfCurrentSubject();
 
-    return permSet;
+    return index;
   }
 
   /**
@@ -17,6 +17,7 @@ import org.eclipse.scout.commons.logger.IScoutLogger;
 import org.eclipse.scout.commons.logger.ScoutLogManager;
 import org.eclipse.scout.rt.server.services.common.clientnotification.IClientNotificationService;
 import org.eclipse.scout.rt.server.services.common.clientnotification.SingleUserFilter;
+import org.eclipse.scout.rt.shared.security.PermissionIndex;
 import org.eclipse.scout.rt.shared.services.common.security.AccessControlChangedNotification;
 import org.eclipse.scout.rt.shared.services.common.security.IAccessControlService;
 import org.eclipse.scout.rt.shared.services.common.security.ResetAccessControlChangedNotification;
@@ -33,6 +34,9 @@ import org.eclipse.scout.service.SERVICES;
  * <p>
  * The userId is case insensitive, case does not matter.
  * </p>
+ * <p>
+ * A {@link PermissionIndex} is built whenever the permissions of a userId are set.
+ * </p>
  */
 public class AccessControlStore {
   private static final IScoutLogger LOG = ScoutLogManager.getLogger(AccessControlStore.class);
@@ -40,12 +44,12 @@ public class AccessControlStore {
   /**
    * the internal store, the {@link String} used as key is always lower case
    */
-  private TTLCache<String/* userId */, Permissions> m_store;
+  private TTLCache<String/* userId */, PermissionIndex> m_store;
   private Object m_storeLock;
 
   public AccessControlStore() {
     m_storeLock = new Object();
-    m_store = new TTLCache<String, Permissions>(3600000L);
+    m_store = new TTLCache<String, PermissionIndex>(3600000L);
   }
 
   /**
@@ -59,6 +63,18 @@ public class AccessControlStore {
     return getPermissions(userId);
   }
 
+  /**
+   * @return the permission index that is associated with the current subject
+   * @since 3.9.0
+   */
+  public PermissionIndex getPermissionIndexOfCurrentSubject() {
+    String userId = SERVICES.getService(IAccessControlService.class).getUserIdOfCurrentSubject();
+    if (userId == null) {
+      return null;
+    }
+    return getPermissionIndex(userId);
+  }
+
   /**
    * sets permission collection that is associated with the current subject
    * 
@@ -80,6 +96,18 @@ public class AccessControlStore {
    *         <code>null</code>
    */
   public Permissions getPermissions(String userId) {
+    PermissionIndex index = getPermissionIndex(userId);
+    return index != null ? index.getPermissions() : null;
+  }
+
+  /**
+   * @param userId
+   *          of Subject
+   * @return the permission index that is associated with this userId, <code>null</code> if the parameter is
+   *         <code>null</code>
+   * @since 3.9.0
+   */
+  public PermissionIndex getPermissionIndex(String userId) {
     if (userId == null) {
       return null;
     }
@@ -98,12 +126,13 @@ public class AccessControlStore {
     if (userId == null) {
       return;
     }
+    if (p == null) {
+      p = new Permissions();
+      p.setReadOnly();
+    }
+    PermissionIndex index = new PermissionIndex(p);
     synchronized (m_storeLock) {
-      if (p == null) {
-        p = new Permissions();
-        p.setReadOnly();
-      }
-      m_store.put(userId.toLowerCase(), p);
+      m_store.put(userId.toLowerCase(), index);
     }
     // notify clients
     SERVICES.getService(IClientNotificationService.class).putNotification(new AccessControlChangedNotification(p), new SingleUserFilter(userId, 120000L));
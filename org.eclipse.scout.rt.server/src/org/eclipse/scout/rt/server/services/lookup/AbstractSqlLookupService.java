@@ -10,11 +10,17 @@
  ******************************************************************************/
 package org.eclipse.scout.rt.server.services.lookup;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import org.eclipse.scout.commons.StringUtility;
 import org.eclipse.scout.commons.TriState;
+import org.eclipse.scout.commons.TypeCastUtility;
 import org.eclipse.scout.commons.annotations.ConfigOperation;
 import org.eclipse.scout.commons.annotations.ConfigProperty;
 import org.eclipse.scout.commons.annotations.ConfigPropertyValue;
@@ -49,6 +55,11 @@ import org.eclipse.scout.service.SERVICES;
  * Valid xml tags are: &lt;key&gt;, &lt;text&gt;, &lt;all&gt;, &lt;rec&gt;
  */
 public abstract class AbstractSqlLookupService extends AbstractLookupService {
+  /**
+   * maximum number of keys loaded by one statement of {@link #getBatchDataByKey(LookupCall[])}
+   */
+  private static final int MAX_BATCH_KEYS = 512;
+  private static final String BATCH_KEY_BIND_PREFIX = "batchKey";
 
   public AbstractSqlLookupService() {
   }
@@ -73,6 +84,21 @@ public abstract class AbstractSqlLookupService extends AbstractLookupService {
     return 1;
   }
 
+  /**
+   * Sql expression of the key column, for example <code>P.PERSON_NR</code>.
+   * <p>
+   * When set, the {@link BatchLookupService} loads all lookups by key of this service which only differ in their key
+   * with one statement, see {@link #getBatchDataByKey(LookupCall[])}. The content of the &lt;key&gt; tag is then
+   * replaced by <code>AND</code> and an IN list of key binds over this column. The first column of the select must
+   * return keys of the same type as the keys of the lookup calls.
+   */
+  @ConfigProperty(ConfigProperty.STRING)
+  @Order(30)
+  @ConfigPropertyValue("null")
+  protected String getConfiguredBatchKeyColumn() {
+    return null;
+  }
+
   /**
    * This method is called on server side to load lookup rows.
    */
@@ -86,12 +112,135 @@ public abstract class AbstractSqlLookupService extends AbstractLookupService {
     return createLookupRowArray(data, call);
   }
 
+  /**
+   * This method is called on server side to load the lookup rows of several keys with one statement, see
+   * {@link #getBatchDataByKey(LookupCall[])}.
+   * <p>
+   * The keys are jdbc binds named <code>batchKey0</code>, <code>batchKey1</code>, ... contained in <code>keyBinds</code>.
+   * Services overriding {@link #execLoadLookupRows(String, String, LookupCall)} and enabling
+   * {@link #getConfiguredBatchKeyColumn()} must override this method accordingly.
+   * 
+   * @since 3.9.0
+   */
+  @ConfigOperation
+  @Order(20)
+  protected LookupRow[] execLoadBatchLookupRows(String originalSql, String preprocessedSql, LookupCall call, Map<String, Object> keyBinds) throws ProcessingException {
+    Object[][] data = SQL.selectLimited(preprocessedSql, call.getMaxRowCount(), keyBinds, call);
+    if (getConfiguredSortColumn() >= 0) {
+      sortData(data, getConfiguredSortColumn());
+    }
+    return createLookupRowArray(data, call);
+  }
+
   @Override
   public LookupRow[] getDataByKey(LookupCall call) throws ProcessingException {
     String sql = getConfiguredSqlSelect();
     return execLoadLookupRows(sql, filterSqlByKey(sql), call);
   }
 
+  /**
+   * @return true if {@link #getBatchDataByKey(LookupCall[])} loads all keys with one statement, see
+   *         {@link #getConfiguredBatchKeyColumn()}
+   * @since 3.9.0
+   */
+  public boolean isBatchDataByKeySupported() {
+    return getConfiguredBatchKeyColumn() != null;
+  }
+
+  /**
+   * Loads the lookup rows of calls which are equal except for their key. When {@link #isBatchDataByKeySupported()}
+   * all keys are loaded with one statement and the rows are split back to the calls by their key. Otherwise
+   * {@link #getDataByKey(LookupCall)} is called for every call.
+   * <p>
+   * {@link #execLoadBatchLookupRows(String, String, LookupCall, Map)} is called with a copy of the first call having no
+   * key and no row limit, once per 512 keys. The keys are passed as jdbc binds. Their number is
+   * rounded up to the next power of two by repeating the last key, so only a few distinct statements are prepared and
+   * cached. The keys of the loaded rows are converted to the type of the call keys before they are matched, since the
+   * database may return another number type than the one used in the calls.
+   * 
+   * @return the lookup rows of each call
+   * @since 3.9.0
+   */
+  public LookupRow[][] getBatchDataByKey(LookupCall[] calls) throws ProcessingException {
+    LookupRow[][] result = new LookupRow[calls.length][];
+    if (!isBatchDataByKeySupported() || calls.length <= 1) {
+      for (int i = 0; i < calls.length; i++) {
+        result[i] = getDataByKey(calls[i]);
+      }
+      return result;
+    }
+    Class<?> keyType = null;
+    LinkedHashSet<Object> keys = new LinkedHashSet<Object>();
+    for (LookupCall call : calls) {
+      if (call.getKey() != null) {
+        if (keyType == null) {
+          keyType = call.getKey().getClass();
+        }
+        keys.add(normalizeBatchKey(call.getKey(), keyType));
+      }
+    }
+    HashMap<Object, List<LookupRow>> rowsByKey = new HashMap<Object, List<LookupRow>>();
+    if (keys.size() > 0) {
+      LookupCall template = (LookupCall) calls[0].clone();
+      template.setKey(null);
+      template.setMaxRowCount(0);
+      String sql = getConfiguredSqlSelect();
+      Object[] keyArray = keys.toArray();
+      for (int begin = 0; begin < keyArray.length; begin += MAX_BATCH_KEYS) {
+        int end = Math.min(begin + MAX_BATCH_KEYS, keyArray.length);
+        int bindCount = getBatchKeyBindCount(end - begin);
+        HashMap<String, Object> keyBinds = new HashMap<String, Object>(bindCount * 2);
+        for (int i = 0; i < bindCount; i++) {
+          keyBinds.put(BATCH_KEY_BIND_PREFIX + i, keyArray[Math.min(begin + i, end - 1)]);
+        }
+        for (LookupRow row : execLoadBatchLookupRows(sql, filterSqlByKeys(sql, bindCount), template, keyBinds)) {
+          Object key = normalizeBatchKey(row.getKey(), keyType);
+          List<LookupRow> list = rowsByKey.get(key);
+          if (list == null) {
+            list = new ArrayList<LookupRow>(1);
+            rowsByKey.put(key, list);
+          }
+          list.add(row);
+        }
+      }
+    }
+    for (int i = 0; i < calls.length; i++) {
+      List<LookupRow> list = rowsByKey.get(normalizeBatchKey(calls[i].getKey(), keyType));
+      if (list == null) {
+        result[i] = LookupRow.EMPTY_ARRAY;
+      }
+      else {
+        int n = calls[i].getMaxRowCount() > 0 ? Math.min(calls[i].getMaxRowCount(), list.size()) : list.size();
+        result[i] = list.subList(0, n).toArray(new LookupRow[n]);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * @return the smallest power of two not less than keyCount
+   */
+  private static int getBatchKeyBindCount(int keyCount) {
+    int n = 1;
+    while (n < keyCount) {
+      n <<= 1;
+    }
+    return n;
+  }
+
+  private static Object normalizeBatchKey(Object key, Class<?> keyType) {
+    if (key == null || keyType == null || keyType.isInstance(key)) {
+      return key;
+    }
+    try {
+      return TypeCastUtility.castValue(key, keyType);
+    }
+    catch (RuntimeException e) {
+      // not convertible, cannot match any call
+      return key;
+    }
+  }
+
   @Override
   public LookupRow[] getDataByText(LookupCall call) throws ProcessingException {
     // change wildcards * in text to db specific wildcards
@@ -129,6 +278,27 @@ public abstract class AbstractSqlLookupService extends AbstractLookupService {
     return StringUtility.removeTagBounds(StringUtility.removeTags(sqlSelect, new String[]{"text", "all", "rec"}), "key");
   }
 
+  /**
+   * Process xml tags.<br>
+   * Replace "key" tag by an IN list of the binds <code>:batchKey0</code> to <code>:batchKey{bindCount-1}</code> over
+   * {@link #getConfiguredBatchKeyColumn()}.<br>
+   * Remove text,all,rec tags.
+   * 
+   * @since 3.9.0
+   */
+  protected String filterSqlByKeys(String sqlSelect, int bindCount) {
+    StringBuilder inList = new StringBuilder();
+    inList.append(getConfiguredBatchKeyColumn()).append(" IN (");
+    for (int i = 0; i < bindCount; i++) {
+      if (i > 0) {
+        inList.append(",");
+      }
+      inList.append(":").append(BATCH_KEY_BIND_PREFIX).append(i);
+    }
+    inList.append(")");
+    return StringUtility.replaceTags(StringUtility.removeTags(sqlSelect, new String[]{"text", "all", "rec"}), "key", " AND " + inList + " ");
+  }
+
   /**
    * Process xml tags.<br>
    * Keep content of "text" tag.<br>
@@ -10,6 +10,11 @@
  ******************************************************************************/
 package org.eclipse.scout.rt.server.services.lookup;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 import org.eclipse.scout.commons.annotations.Priority;
 import org.eclipse.scout.commons.exception.ProcessingException;
 import org.eclipse.scout.rt.shared.services.lookup.BatchLookupCall;
@@ -25,17 +30,61 @@ public class BatchLookupService extends AbstractService implements IBatchLookupS
   public BatchLookupService() {
   }
 
+  /**
+   * Calls of an {@link AbstractSqlLookupService} supporting {@link AbstractSqlLookupService#isBatchDataByKeySupported()}
+   * which only differ in their key are grouped and loaded with one statement per group.
+   */
   @Override
   public LookupRow[][] getBatchDataByKey(BatchLookupCall batch) throws ProcessingException {
     LookupCall[] calls = batch.getCallBatch();
     LookupRow[][] resultArray = new LookupRow[calls.length][];
     BatchLookupResultCache cache = new BatchLookupResultCache();
+    LinkedHashMap<LookupCall, List<Integer>> groups = new LinkedHashMap<LookupCall, List<Integer>>();
     for (int i = 0; i < calls.length; i++) {
-      resultArray[i] = cache.getDataByKey(calls[i]);
+      LookupCall call = calls[i];
+      if (call != null && call.getKey() != null && isBatchDataByKeySupported(call)) {
+        LookupCall groupKey = (LookupCall) call.clone();
+        groupKey.setKey(null);
+        List<Integer> indexes = groups.get(groupKey);
+        if (indexes == null) {
+          indexes = new ArrayList<Integer>();
+          groups.put(groupKey, indexes);
+        }
+        indexes.add(i);
+      }
+      else {
+        resultArray[i] = cache.getDataByKey(call);
+      }
+    }
+    for (Map.Entry<LookupCall, List<Integer>> e : groups.entrySet()) {
+      List<Integer> indexes = e.getValue();
+      if (indexes.size() == 1) {
+        int i = indexes.get(0);
+        resultArray[i] = cache.getDataByKey(calls[i]);
+        continue;
+      }
+      LookupCall[] groupCalls = new LookupCall[indexes.size()];
+      for (int k = 0; k < groupCalls.length; k++) {
+        groupCalls[k] = calls[indexes.get(k)];
+      }
+      LookupRow[][] groupResult = ((AbstractSqlLookupService) e.getKey().getLookupService()).getBatchDataByKey(groupCalls);
+      for (int k = 0; k < groupCalls.length; k++) {
+        resultArray[indexes.get(k)] = groupResult[k];
+      }
     }
     return resultArray;
   }
 
+  /**
+   * @return true if the call may be grouped with other calls only differing in their key
+   */
+  protected boolean isBatchDataByKeySupported(LookupCall call) {
+    if (!BatchLookupResultCache.isCacheable(call.getClass())) {
+      return false;
+    }
+    return call.getLookupService() instanceof AbstractSqlLookupService && ((AbstractSqlLookupService) call.getLookupService()).isBatchDataByKeySupported();
+  }
+
   @Override
   public LookupRow[][] getBatchDataByText(BatchLookupCall batch) throws ProcessingException {
     LookupCall[] calls = batch.getCallBatch();
@@ -27,6 +27,7 @@ public class BasicTransaction implements ITransaction {
   private ArrayList<Throwable> m_failures = new ArrayList<Throwable>();
   private boolean m_commitPhase;
   private boolean m_cancelled;
+  private volatile boolean m_readOnly;
 
   public BasicTransaction() {
     this(0L);
@@ -251,4 +252,14 @@ public class BasicTransaction implements ITransaction {
       return m_cancelled;
     }
   }
+
+  @Override
+  public boolean isReadOnly() {
+    return m_readOnly;
+  }
+
+  @Override
+  public void setReadOnly(boolean b) {
+    m_readOnly = b;
+  }
 }
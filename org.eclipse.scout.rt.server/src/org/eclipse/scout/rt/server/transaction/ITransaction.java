@@ -107,4 +107,23 @@ public interface ITransaction {
 
   boolean isCancelled();
 
+  /**
+   * A read-only transaction only queries data. Sql services with a read replica may run its selects on the replica,
+   * see {@link org.eclipse.scout.rt.server.services.common.jdbc.AbstractSqlService#getConfiguredReadReplicaJdbcMappingName()
+   * AbstractSqlService#getConfiguredReadReplicaJdbcMappingName()}.
+   * 
+   * @return true if the transaction was marked read-only by {@link #setReadOnly(boolean)}
+   * @since 3.9.0
+   */
+  boolean isReadOnly();
+
+  /**
+   * Marks the transaction as read-only, normally called by the DefaultTransactionDelegate before the service operation
+   * is invoked, see {@link ReadOnlyTransaction}. Modifications are still possible, they always run on the primary
+   * database.
+   * 
+   * @since 3.9.0
+   */
+  void setReadOnly(boolean b);
+
 }
@@ -0,0 +1,35 @@
+/*******************************************************************************
+ * Copyright (c) 2013 BSI Business Systems Integration AG.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     BSI Business Systems Integration AG - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.scout.rt.server.transaction;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Method or type annotation on server service implementations. This annotation is read by the
+ * DefaultTransactionDelegate to mark the transaction of a remote service call as read-only, see
+ * {@link ITransaction#setReadOnly(boolean)}.
+ * <p>
+ * Without this annotation operations with the input validation strategy QUERY (by annotation or by name) are
+ * read-only. Use <code>@ReadOnlyTransaction(false)</code> on query operations that must read their data from the
+ * primary database.
+ * 
+ * @since 3.9.0
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+public @interface ReadOnlyTransaction {
+
+  boolean value() default true;
+
+}
@@ -0,0 +1,171 @@
+/*******************************************************************************
+ * Copyright (c) 2013 BSI Business Systems Integration AG.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     BSI Business Systems Integration AG - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.scout.rt.shared.security;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.security.AllPermission;
+import java.security.Permission;
+import java.security.Permissions;
+
+import org.junit.Test;
+
+/**
+ * Tests for {@link PermissionIndex}
+ */
+public class PermissionIndexTest {
+
+  @Test
+  public void testPermissionLevel() {
+    Permissions permissions = new Permissions();
+    permissions.add(new ReadFixturePermission(ReadFixturePermission.LEVEL_OWN));
+    permissions.add(new UpdateFixturePermission(UpdateFixturePermission.LEVEL_ALL));
+    PermissionIndex index = new PermissionIndex(permissions);
+    assertEquals(ReadFixturePermission.LEVEL_OWN, index.getPermissionLevel(new ReadFixturePermission()));
+    // granted super class
+    assertEquals(ReadFixturePermission.LEVEL_OWN, index.getPermissionLevel(new ReadFixtureSubPermission()));
+    assertEquals(BasicHierarchyPermission.LEVEL_ALL, index.getPermissionLevel(new UpdateFixturePermission()));
+    assertEquals(BasicHierarchyPermission.LEVEL_UNDEFINED, index.getPermissionLevel(new DeleteFixturePermission()));
+  }
+
+  @Test
+  public void testImplies() {
+    Permissions permissions = new Permissions();
+    permissions.add(new ReadFixturePermission(ReadFixturePermission.LEVEL_OWN));
+    PermissionIndex index = new PermissionIndex(permissions);
+    assertTrue(index.implies(new ReadFixturePermission(ReadFixturePermission.LEVEL_OWN)));
+    assertFalse(index.implies(new ReadFixturePermission(ReadFixturePermission.LEVEL_ALL)));
+    // cached results
+    assertTrue(index.implies(new ReadFixturePermission(ReadFixturePermission.LEVEL_OWN)));
+    assertFalse(index.implies(new ReadFixturePermission(ReadFixturePermission.LEVEL_ALL)));
+    assertFalse(index.implies(new UpdateFixturePermission(UpdateFixturePermission.LEVEL_ALL)));
+  }
+
+  @Test
+  public void testSubClassIsCachedSeparately() {
+    Permissions permissions = new Permissions();
+    permissions.add(new ReadFixtureSubPermission(ReadFixturePermission.LEVEL_OWN));
+    PermissionIndex index = new PermissionIndex(permissions);
+    // equal by name and level but of another class
+    assertTrue(index.implies(new ReadFixtureSubPermission(ReadFixturePermission.LEVEL_OWN)));
+    assertFalse(index.implies(new ReadFixturePermission(ReadFixturePermission.LEVEL_OWN)));
+  }
+
+  @Test
+  public void testOtherPermissionsAreNotCached() {
+    Permissions permissions = new Permissions();
+    permissions.add(new MutableFixturePermission("a"));
+    PermissionIndex index = new PermissionIndex(permissions);
+    MutableFixturePermission p = new MutableFixturePermission("a");
+    assertTrue(index.implies(p));
+    // same instance, therefore equal, but it does not imply the same anymore
+    p.setTarget("b");
+    assertFalse(index.implies(p));
+  }
+
+  @Test
+  public void testAllPermission() {
+    Permissions permissions = new Permissions();
+    permissions.add(new ReadFixturePermission(ReadFixturePermission.LEVEL_NONE));
+    permissions.add(new AllPermission());
+    PermissionIndex index = new PermissionIndex(permissions);
+    assertEquals(BasicHierarchyPermission.LEVEL_ALL, index.getPermissionLevel(new ReadFixturePermission()));
+    assertTrue(index.implies(new DeleteFixturePermission(DeleteFixturePermission.LEVEL_ALL)));
+  }
+
+  public static class ReadFixturePermission extends BasicHierarchyPermission {
+    private static final long serialVersionUID = 1L;
+    public static final int LEVEL_OWN = 10;
+
+    public ReadFixturePermission() {
+      super("ReadFixture");
+    }
+
+    public ReadFixturePermission(int level) {
+      super("ReadFixture", level);
+    }
+  }
+
+  public static class ReadFixtureSubPermission extends ReadFixturePermission {
+    private static final long serialVersionUID = 1L;
+
+    public ReadFixtureSubPermission() {
+      super();
+    }
+
+    public ReadFixtureSubPermission(int level) {
+      super(level);
+    }
+  }
+
+  public static class UpdateFixturePermission extends BasicHierarchyPermission {
+    private static final long serialVersionUID = 1L;
+
+    public UpdateFixturePermission() {
+      super("UpdateFixture");
+    }
+
+    public UpdateFixturePermission(int level) {
+      super("UpdateFixture", level);
+    }
+  }
+
+  public static class DeleteFixturePermission extends BasicHierarchyPermission {
+    private static final long serialVersionUID = 1L;
+
+    public DeleteFixturePermission() {
+      super("DeleteFixture");
+    }
+
+    public DeleteFixturePermission(int level) {
+      super("DeleteFixture", level);
+    }
+  }
+
+  /**
+   * Permission with identity equality whose target may change
+   */
+  public static class MutableFixturePermission extends Permission {
+    private static final long serialVersionUID = 1L;
+    private String m_target;
+
+    public MutableFixturePermission(String target) {
+      super("MutableFixture");
+      m_target = target;
+    }
+
+    public void setTarget(String target) {
+      m_target = target;
+    }
+
+    @Override
+    public boolean implies(Permission p) {
+      return p instanceof MutableFixturePermission && m_target.equals(((MutableFixturePermission) p).m_target);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      return obj == this;
+    }
+
+    @Override
+    public int hashCode() {
+      return System.identityHashCode(this);
+    }
+
+    @Override
+    public String getActions() {
+      return "";
+    }
+  }
+}
@@ -0,0 +1,47 @@
+/*******************************************************************************
+ * Copyright (c) 2013 BSI Business Systems Integration AG.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     BSI Business Systems Integration AG - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.scout.rt.shared.services.lookup;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+import org.junit.Test;
+
+/**
+ * Tests for {@link LookupChangedNotification}
+ */
+public class LookupChangedNotificationTest {
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testCoalesce() {
+    LookupChangedNotification n = new LookupChangedNotification(IFooLookupService.class);
+    assertFalse(n.isAllLookupServices());
+    assertTrue(n.coalesce(new LookupChangedNotification(IBarLookupService.class, IFooLookupService.class)));
+    assertEquals(new HashSet<Object>(Arrays.<Object> asList(IFooLookupService.class, IBarLookupService.class)), new HashSet<Object>(Arrays.asList(n.getLookupServices())));
+
+    // a notification for all lookup services absorbs specific ones
+    assertTrue(n.coalesce(new LookupChangedNotification()));
+    assertTrue(n.isAllLookupServices());
+    assertTrue(n.coalesce(new LookupChangedNotification(IBarLookupService.class)));
+    assertTrue(n.isAllLookupServices());
+  }
+
+  private interface IFooLookupService extends ILookupService {
+  }
+
+  private interface IBarLookupService extends ILookupService {
+  }
+}
@@ -0,0 +1,80 @@
+/*******************************************************************************
+ * Copyright (c) 2013 BSI Business Systems Integration AG.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     BSI Business Systems Integration AG - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.scout.rt.shared.servicetunnel;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * JUnit test for {@link BinaryServiceTunnelContentHandler}
+ */
+public class BinaryServiceTunnelContentHandlerTest {
+  private BinaryServiceTunnelContentHandler m_handler;
+
+  @Before
+  public void setUp() {
+    m_handler = new BinaryServiceTunnelContentHandler();
+    m_handler.initialize(null, null);
+  }
+
+  @Test
+  public void testRequestRoundTrip() throws Exception {
+    ServiceTunnelRequest req = new ServiceTunnelRequest("1.0.0", "com.example.IService", "load", new Class[]{String.class, Long.class}, new Object[]{"abc", 42L});
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    m_handler.writeRequest(out, req);
+    ServiceTunnelRequest actual = m_handler.readRequest(new ByteArrayInputStream(out.toByteArray()));
+    assertEquals("com.example.IService", actual.getServiceInterfaceClassName());
+    assertEquals("load", actual.getOperation());
+    assertArrayEquals(new Object[]{"abc", 42L}, actual.getArgs());
+  }
+
+  @Test
+  public void testResponseRoundTrip() throws Exception {
+    Object[][] data = new Object[1000][];
+    for (int i = 0; i < data.length; i++) {
+      data[i] = new Object[]{i, "row " + i};
+    }
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    m_handler.writeResponse(out, new ServiceTunnelResponse(data, null, null));
+    ServiceTunnelResponse actual = m_handler.readResponse(new ByteArrayInputStream(out.toByteArray()));
+    assertNull(actual.getException());
+    assertArrayEquals(data, (Object[][]) actual.getData());
+  }
+
+  @Test(expected = IOException.class)
+  public void testRejectSoapContent() throws Exception {
+    m_handler.readResponse(new ByteArrayInputStream("<soapenv:Envelope/>".getBytes("UTF-8")));
+  }
+
+  @Test
+  public void testBinaryContentType() {
+    assertEquals(true, BinaryServiceTunnelContentHandler.isBinaryContentType(BinaryServiceTunnelContentHandler.CONTENT_TYPE));
+    assertEquals(true, BinaryServiceTunnelContentHandler.isBinaryContentType(BinaryServiceTunnelContentHandler.CONTENT_TYPE + ", text/xml"));
+    assertEquals(false, BinaryServiceTunnelContentHandler.isBinaryContentType("text/xml"));
+    assertEquals(false, BinaryServiceTunnelContentHandler.isBinaryContentType(null));
+  }
+
+  @Test
+  public void testNotEnabledForCustomContentHandler() {
+    assertEquals(false, BinaryServiceTunnelContentHandler.isEnabledFor(null));
+    assertEquals(false, BinaryServiceTunnelContentHandler.isEnabledFor(new DefaultServiceTunnelContentHandler() {
+    }));
+    assertEquals(BinaryServiceTunnelContentHandler.isEnabled(), BinaryServiceTunnelContentHandler.isEnabledFor(new DefaultServiceTunnelContentHandler()));
+  }
+}
@@ -40,9 +40,7 @@ public abstract class AbstractFormFieldData implements Serializable {
   }
 
   private Class<? extends AbstractFormFieldData>[] getConfiguredFieldDatas() {
-    Class[] dca = ConfigurationUtility.getDeclaredPublicClasses(getClass());
-    Class<AbstractFormFieldData>[] fca = ConfigurationUtility.filterClasses(dca, AbstractFormFieldData.class);
-    return ConfigurationUtility.removeReplacedClasses(fca);
+    return ConfigurationUtility.getFilteredInnerClasses(getClass(), AbstractFormFieldData.class);
   }
 
   protected void initConfig() {
@@ -0,0 +1,154 @@
+/*******************************************************************************
+ * Copyright (c) 2013 BSI Business Systems Integration AG.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     BSI Business Systems Integration AG - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.scout.rt.shared.security;
+
+import java.security.AllPermission;
+import java.security.Permission;
+import java.security.Permissions;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.scout.commons.SegmentedLRUCache;
+
+/**
+ * Index of a {@link Permissions} collection for fast evaluation of
+ * {@link org.eclipse.scout.rt.shared.services.common.security.IAccessControlService#checkPermission(Permission)} and
+ * {@link org.eclipse.scout.rt.shared.services.common.security.IAccessControlService#getPermissionLevel(Permission)}.
+ * <p>
+ * The maximum granted level of the {@link BasicHierarchyPermission}s is computed once per permission class, the
+ * results of {@link #implies(Permission)} for {@link BasicHierarchyPermission}s are kept in a bounded cache, keyed by
+ * the class, name and level of the permission. Permissions with level {@link BasicHierarchyPermission#LEVEL_UNDEFINED}
+ * are checked against data and are therefore never cached, neither are other permission types since their
+ * {@link Permission#equals(Object)} and {@link Permission#hashCode()} need not reflect what they imply.
+ * <p>
+ * The index is a snapshot, changes of the permission collection after the index was built are not reflected.
+ *
+ * @since 3.9.0
+ */
+public class PermissionIndex {
+  public static final int DEFAULT_IMPLIES_CACHE_SIZE = 1000;
+
+  private final Permissions m_permissions;
+  private final boolean m_allPermission;
+  private final Map<Class<?>, Integer> m_grantedLevels;
+  private final ConcurrentHashMap<Class<?>, Integer> m_levelCache;
+  private final SegmentedLRUCache<P_ImpliesKey, Boolean> m_impliesCache;
+
+  public PermissionIndex(Permissions permissions) {
+    this(permissions, DEFAULT_IMPLIES_CACHE_SIZE);
+  }
+
+  public PermissionIndex(Permissions permissions, int impliesCacheSize) {
+    m_permissions = permissions;
+    m_grantedLevels = new HashMap<Class<?>, Integer>();
+    m_levelCache = new ConcurrentHashMap<Class<?>, Integer>();
+    m_impliesCache = new SegmentedLRUCache<P_ImpliesKey, Boolean>(impliesCacheSize, -1);
+    boolean allPermission = false;
+    for (Enumeration<Permission> en = permissions.elements(); en.hasMoreElements();) {
+      Permission p = en.nextElement();
+      if (p instanceof AllPermission) {
+        allPermission = true;
+      }
+      else if (p instanceof BasicHierarchyPermission) {
+        Integer level = m_grantedLevels.get(p.getClass());
+        int grantedLevel = ((BasicHierarchyPermission) p).getLevel();
+        if (level == null || level.intValue() < grantedLevel) {
+          m_grantedLevels.put(p.getClass(), grantedLevel);
+        }
+      }
+    }
+    m_allPermission = allPermission;
+  }
+
+  public Permissions getPermissions() {
+    return m_permissions;
+  }
+
+  /**
+   * Same as {@link Permissions#implies(Permission)}
+   */
+  public boolean implies(Permission p) {
+    if (m_allPermission) {
+      return true;
+    }
+    if (!(p instanceof BasicHierarchyPermission)) {
+      return m_permissions.implies(p);
+    }
+    int level = ((BasicHierarchyPermission) p).getLevel();
+    if (level == BasicHierarchyPermission.LEVEL_UNDEFINED) {
+      return m_permissions.implies(p);
+    }
+    P_ImpliesKey key = new P_ImpliesKey(p.getClass(), p.getName(), level);
+    Boolean b = m_impliesCache.get(key);
+    if (b == null) {
+      b = m_permissions.implies(p);
+      m_impliesCache.put(key, b);
+    }
+    return b.booleanValue();
+  }
+
+  /**
+   * @return the maximum level of the granted permissions whose class is the class or a super class of the permission
+   *         p, {@link BasicHierarchyPermission#LEVEL_ALL} if {@link AllPermission} is granted and
+   *         {@link BasicHierarchyPermission#LEVEL_UNDEFINED} if none is granted
+   */
+  public int getPermissionLevel(BasicHierarchyPermission p) {
+    if (m_allPermission) {
+      return BasicHierarchyPermission.LEVEL_ALL;
+    }
+    Integer level = m_levelCache.get(p.getClass());
+    if (level == null) {
+      int maxLevel = BasicHierarchyPermission.LEVEL_UNDEFINED;
+      for (Class<?> c = p.getClass(); c != null && c != Object.class; c = c.getSuperclass()) {
+        Integer grantedLevel = m_grantedLevels.get(c);
+        if (grantedLevel != null) {
+          maxLevel = Math.max(maxLevel, grantedLevel.intValue());
+        }
+      }
+      level = maxLevel;
+      m_levelCache.put(p.getClass(), level);
+    }
+    return level.intValue();
+  }
+
+  /**
+   * Immutable snapshot of the class, name and level of a {@link BasicHierarchyPermission}
+   */
+  private static final class P_ImpliesKey {
+    private final Class<?> m_permissionClass;
+    private final String m_name;
+    private final int m_level;
+
+    P_ImpliesKey(Class<?> permissionClass, String name, int level) {
+      m_permissionClass = permissionClass;
+      m_name = name;
+      m_level = level;
+    }
+
+    @Override
+    public int hashCode() {
+      int h = m_permissionClass.hashCode();
+      h = 31 * h + (m_name != null ? m_name.hashCode() : 0);
+      return 31 * h + m_level;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (!(obj instanceof P_ImpliesKey)) {
+        return false;
+      }
+      P_ImpliesKey other = (P_ImpliesKey) obj;
+      return m_permissionClass == other.m_permissionClass && m_level == other.m_level && (m_name == null ? other.m_name == null : m_name.equals(other.m_name));
+    }
+  }
+}
@@ -0,0 +1,48 @@
+/*******************************************************************************
+ * Copyright (c) 2013 BSI Business Systems Integration AG.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     BSI Business Systems Integration AG - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.scout.rt.shared.services.common.clientnotification;
+
+import org.eclipse.scout.commons.annotations.Priority;
+import org.eclipse.scout.rt.shared.validate.IValidationStrategy;
+import org.eclipse.scout.rt.shared.validate.InputValidation;
+import org.eclipse.scout.service.IService;
+
+/**
+ * Long polling channel for client notifications.
+ * <p>
+ * Instead of polling the server periodically (see <code>IPingService</code>), the client calls
+ * {@link #waitForNotifications(long)} in a loop. The server holds the request until a notification for the calling
+ * session is available or the timeout has passed.
+ * <p>
+ * A server supporting this service advertises it with the http response header {@link #HTTP_HEADER} on every service
+ * tunnel response. Clients of older servers keep using the polling job.
+ *
+ * @since 3.9.0
+ */
+@Priority(-3)
+@InputValidation(IValidationStrategy.PROCESS.class)
+public interface IClientNotificationLongPollingService extends IService {
+
+  /**
+   * Http response header set by servers supporting long polling of client notifications, the value is "true"
+   */
+  String HTTP_HEADER = "X-Scout-ClientNotification-LongPolling";
+
+  /**
+   * Blocks until client notifications for the calling session are available or the timeout has passed.
+   *
+   * @param timeout
+   *          the maximum wait time in milliseconds, the server may use a shorter timeout
+   * @return the notifications for the calling session, an empty array if the timeout passed
+   */
+  IClientNotification[] waitForNotifications(long timeout);
+
+}
@@ -0,0 +1,42 @@
+/*******************************************************************************
+ * Copyright (c) 2013 BSI Business Systems Integration AG.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     BSI Business Systems Integration AG - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.scout.rt.shared.services.common.code;
+
+import org.eclipse.scout.commons.annotations.Priority;
+import org.eclipse.scout.rt.shared.validate.InputValidation;
+import org.eclipse.scout.rt.shared.validate.IValidationStrategy;
+import org.eclipse.scout.service.IService;
+
+/**
+ * Validates code types cached by a client against the versions of the server-side code types, so that a client can
+ * keep code types across sessions and only downloads the code types that changed.
+ * <p>
+ * The version of a code type is a hash of its serialized content in the locale and partition of the calling session.
+ * 
+ * @since 3.9.0
+ */
+@Priority(-3)
+@InputValidation(IValidationStrategy.PROCESS.class)
+public interface ICodeTypeVersionService extends IService {
+
+  /**
+   * Loads a set of code types in one call.
+   * 
+   * @param types
+   *          the code type classes
+   * @param knownVersions
+   *          the versions of the code types cached by the caller in the same order as <code>types</code>, null (or a
+   *          null element) if the caller does not have the code type
+   * @return one entry per code type in the same order as <code>types</code>, an entry contains the code type only if
+   *         the known version is outdated
+   */
+  VersionedCodeType[] getCodeTypesIfModified(Class[] types, String[] knownVersions);
+}
@@ -0,0 +1,54 @@
+/*******************************************************************************
+ * Copyright (c) 2013 BSI Business Systems Integration AG.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     BSI Business Systems Integration AG - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.scout.rt.shared.services.common.code;
+
+import java.io.Serializable;
+
+/**
+ * Result of {@link ICodeTypeVersionService#getCodeTypesIfModified(Class[], String[])}: the current version of a code
+ * type and, if the caller's version is outdated, the code type itself.
+ * 
+ * @since 3.9.0
+ */
+public class VersionedCodeType implements Serializable {
+  private static final long serialVersionUID = 1L;
+
+  private final String m_version;
+  private final ICodeType m_codeType;
+
+  public VersionedCodeType(String version, ICodeType codeType) {
+    m_version = version;
+    m_codeType = codeType;
+  }
+
+  /**
+   * @return the current version of the code type, null if the code type could not be loaded
+   */
+  public String getVersion() {
+    return m_version;
+  }
+
+  /**
+   * @return the code type or null if the version known by the caller is still current
+   */
+  public ICodeType getCodeType() {
+    return m_codeType;
+  }
+
+  public boolean isModified() {
+    return m_codeType != null;
+  }
+
+  @Override
+  public String toString() {
+    return getClass().getSimpleName() + "[version=" + m_version + ", modified=" + isModified() + "]";
+  }
+}
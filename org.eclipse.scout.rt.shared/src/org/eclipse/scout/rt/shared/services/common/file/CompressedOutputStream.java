@@ -28,9 +28,19 @@ public class CompressedOutputStream extends OutputStream {
   private CRC32 m_crc32;
 
   public CompressedOutputStream(RemoteFile f) {
+    this(f, Deflater.BEST_COMPRESSION);
+  }
+
+  /**
+   * @param level
+   *          the {@link Deflater} compression level, {@link Deflater#NO_COMPRESSION} stores the data without compressing
+   *          it, the stream remains readable by {@link DecompressedInputStream}
+   * @since 3.9.0
+   */
+  public CompressedOutputStream(RemoteFile f, int level) {
     m_remoteFile = f;
     m_buffer = new ByteArrayOutputStream();
-    m_deflater = new Deflater(Deflater.BEST_COMPRESSION);
+    m_deflater = new Deflater(level);
     m_deflaterOutputStream = new DeflaterOutputStream(m_buffer, m_deflater); // schreibt
     // die
     // komprimierten
@@ -0,0 +1,35 @@
+/*******************************************************************************
+ * Copyright (c) 2013 BSI Business Systems Integration AG.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     BSI Business Systems Integration AG - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.scout.rt.shared.services.common.file;
+
+import java.io.OutputStream;
+
+import org.eclipse.scout.commons.annotations.Priority;
+import org.eclipse.scout.commons.exception.ProcessingException;
+import org.eclipse.scout.rt.shared.validate.IValidationStrategy;
+import org.eclipse.scout.rt.shared.validate.InputValidation;
+
+/**
+ * {@link IRemoteFileService} that is able to stream a byte range of a file. Callers check whether the registered
+ * {@link IRemoteFileService} implements this interface and otherwise stream the whole file.
+ *
+ * @since 3.9.0
+ */
+@Priority(-3)
+@InputValidation(IValidationStrategy.PROCESS.class)
+public interface IRangeRemoteFileService extends IRemoteFileService {
+
+  /**
+   * Same as {@link #streamRemoteFile(RemoteFile, OutputStream)} but only streams the byte range of the file starting at
+   * startPosition with the length (-1 for all remaining bytes). Used to serve HTTP range requests.
+   */
+  void streamRemoteFile(RemoteFile spec, OutputStream out, long startPosition, long length) throws ProcessingException;
+}
@@ -27,7 +27,9 @@ import java.io.Writer;
 import java.net.URL;
 import java.net.URLConnection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Locale;
+import java.util.zip.Deflater;
 
 import org.eclipse.scout.commons.FileUtility;
 import org.eclipse.scout.commons.LocaleThreadLocal;
@@ -260,7 +262,14 @@ public class RemoteFile implements Serializable {
     return new DecompressedReader(this, m_charsetName);
   }
 
+  /**
+   * Content of already compressed content types (see {@link #isCompressedContentType(String)}) is stored without
+   * compressing it again.
+   */
   public OutputStream getCompressedOutputStream() throws IOException {
+    if (isCompressedContentType(getContentType())) {
+      return new CompressedOutputStream(this, Deflater.NO_COMPRESSION);
+    }
     return new CompressedOutputStream(this);
   }
 
@@ -320,6 +329,31 @@ public class RemoteFile implements Serializable {
     return getCRC();
   }
 
+  /**
+   * Writes the decompressed content to the stream without buffering the whole content. In contrast to
+   * {@link #writeData(OutputStream)} the stream is not closed.
+   *
+   * @return the number of bytes written
+   * @since 3.9.0
+   */
+  public long transferData(OutputStream out) throws IOException {
+    InputStream in = getDecompressedInputStream();
+    long count = 0;
+    try {
+      byte[] b = new byte[8192];
+      int len;
+      while ((len = in.read(b)) > 0) {
+        out.write(b, 0, len);
+        count += len;
+      }
+      out.flush();
+    }
+    finally {
+      in.close();
+    }
+    return count;
+  }
+
   public long/* crc */readData(File f) throws IOException {
     return readData(new FileInputStream(f));
   }
@@ -611,6 +645,44 @@ public class RemoteFile implements Serializable {
     FILE_EXTENSION_TO_MIME_TYPE_MAP.put("zip", "application/zip");
   }
 
+  /**
+   * Content types whose data is already compressed
+   *
+   * @since 3.9.0
+   */
+  private static final HashSet<String> COMPRESSED_CONTENT_TYPES;
+  static {
+    COMPRESSED_CONTENT_TYPES = new HashSet<String>();
+    COMPRESSED_CONTENT_TYPES.add("application/pdf");
+    COMPRESSED_CONTENT_TYPES.add("application/zip");
+    COMPRESSED_CONTENT_TYPES.add("application/x-gzip");
+    COMPRESSED_CONTENT_TYPES.add("application/x-gtar");
+    COMPRESSED_CONTENT_TYPES.add("application/x-stuffit");
+    COMPRESSED_CONTENT_TYPES.add("application/x-shockwave-flash");
+    COMPRESSED_CONTENT_TYPES.add("image/gif");
+    COMPRESSED_CONTENT_TYPES.add("image/jpeg");
+    COMPRESSED_CONTENT_TYPES.add("image/png");
+    COMPRESSED_CONTENT_TYPES.add("audio/mpeg");
+  }
+
+  /**
+   * @return true if content of this type is already compressed, e.g. pdf, zip, jpeg, png, mpeg and the office open xml
+   *         formats
+   * @since 3.9.0
+   */
+  public static boolean isCompressedContentType(String contentType) {
+    if (contentType == null) {
+      return false;
+    }
+    String type = contentType.toLowerCase();
+    int i = type.indexOf(';');
+    if (i >= 0) {
+      type = type.substring(0, i);
+    }
+    type = type.trim();
+    return COMPRESSED_CONTENT_TYPES.contains(type) || type.startsWith("video/") || type.startsWith("application/vnd.openxmlformats-");
+  }
+
   /**
    * @since 2.7
    */
@@ -0,0 +1,43 @@
+/*******************************************************************************
+ * Copyright (c) 2013 BSI Business Systems Integration AG.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     BSI Business Systems Integration AG - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.scout.rt.shared.services.common.jdbc;
+
+import org.eclipse.scout.commons.annotations.Priority;
+import org.eclipse.scout.commons.exception.ProcessingException;
+import org.eclipse.scout.rt.shared.validate.IValidationStrategy;
+import org.eclipse.scout.rt.shared.validate.InputValidation;
+import org.eclipse.scout.service.IService;
+
+/**
+ * Delivers the chunks of a server-side table data cursor to the client, see {@link TableDataChunk}. The cursor is
+ * opened by an application service that returns the first chunk. Cursors belong to the server session that opened
+ * them.
+ * 
+ * @since 3.9.0
+ */
+@Priority(-3)
+@InputValidation(IValidationStrategy.QUERY.class)
+public interface ITableDataCursorService extends IService {
+
+  /**
+   * Waits until the next chunk of the cursor is available. The cursor is closed after the last chunk.
+   * 
+   * @throws ProcessingException
+   *           if the cursor does not exist, was closed or the query failed
+   */
+  TableDataChunk fetchNextChunk(String cursorId) throws ProcessingException;
+
+  /**
+   * Closes the cursor and cancels its query. Does nothing if the cursor does not exist.
+   */
+  void closeCursor(String cursorId) throws ProcessingException;
+
+}
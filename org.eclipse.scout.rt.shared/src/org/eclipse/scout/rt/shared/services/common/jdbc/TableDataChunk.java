@@ -0,0 +1,59 @@
+/*******************************************************************************
+ * Copyright (c) 2013 BSI Business Systems Integration AG.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     BSI Business Systems Integration AG - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.scout.rt.shared.services.common.jdbc;
+
+import java.io.Serializable;
+
+/**
+ * A chunk of the rows of a table page that is loaded incrementally. The first chunk is returned by the service that
+ * opens the cursor, the next chunks are fetched by {@link ITableDataCursorService#fetchNextChunk(String)} until
+ * {@link #isLast()}.
+ * 
+ * @since 3.9.0
+ */
+public class TableDataChunk implements Serializable {
+  private static final long serialVersionUID = 1L;
+
+  private final String m_cursorId;
+  private final Object[][] m_rows;
+  private final boolean m_last;
+
+  /**
+   * @param cursorId
+   *          the handle of the server-side cursor that delivers the next chunks
+   * @param rows
+   *          the rows of this chunk
+   * @param last
+   *          true if there are no more rows after this chunk
+   */
+  public TableDataChunk(String cursorId, Object[][] rows, boolean last) {
+    m_cursorId = cursorId;
+    m_rows = rows != null ? rows : new Object[0][];
+    m_last = last;
+  }
+
+  public String getCursorId() {
+    return m_cursorId;
+  }
+
+  public Object[][] getRows() {
+    return m_rows;
+  }
+
+  public boolean isLast() {
+    return m_last;
+  }
+
+  @Override
+  public String toString() {
+    return getClass().getSimpleName() + "[cursor=" + m_cursorId + ", rows=" + m_rows.length + ", last=" + m_last + "]";
+  }
+}
@@ -0,0 +1,61 @@
+/*******************************************************************************
+ * Copyright (c) 2013 BSI Business Systems Integration AG.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     BSI Business Systems Integration AG - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.scout.rt.shared.services.lookup;
+
+import org.eclipse.scout.commons.annotations.Priority;
+import org.eclipse.scout.commons.exception.ProcessingException;
+import org.eclipse.scout.service.IService;
+
+/**
+ * Session cache of lookup results. It is used by {@link LookupCall#getDataByKey()} and
+ * {@link LookupCall#getDataByAll()} of lookup calls that enable it, see
+ * {@link LookupCall#getConfiguredResultCacheEnabled()}.
+ * <p>
+ * Results are associated with {@link LookupCall#equals(Object)}, lookup calls that are not
+ * {@link BatchLookupResultCache#isCacheable(Class) cacheable} are not cached. Cached results are removed by a
+ * {@link LookupChangedNotification}.
+ * 
+ * @since 3.9.0
+ */
+@Priority(-3)
+public interface ILookupCallResultCacheService extends IService {
+
+  /**
+   * @return the same as {@link ILookupService#getDataByKey(LookupCall)} of the call's lookup service, a cached result
+   *         if available
+   */
+  LookupRow[] getDataByKey(LookupCall call) throws ProcessingException;
+
+  /**
+   * @return the same as {@link ILookupService#getDataByAll(LookupCall)} of the call's lookup service, a cached result
+   *         if available
+   */
+  LookupRow[] getDataByAll(LookupCall call) throws ProcessingException;
+
+  /**
+   * @return a cached result of {@link #getDataByKey(LookupCall)} or null if there is none, the lookup service is not
+   *         called
+   */
+  LookupRow[] getCachedDataByKey(LookupCall call) throws ProcessingException;
+
+  /**
+   * Caches a result of {@link ILookupService#getDataByKey(LookupCall)} the caller loaded itself, e.g. in a batch
+   */
+  void putDataByKey(LookupCall call, LookupRow[] rows) throws ProcessingException;
+
+  /**
+   * Removes the cached results of the current session of the given lookup services
+   * 
+   * @param lookupServices
+   *          the lookup service interfaces, none to remove all cached results
+   */
+  void invalidate(Class<? extends ILookupService>... lookupServices);
+}
@@ -104,6 +104,47 @@ public class LookupCall implements Cloneable, Serializable {
     return null;
   }
 
+  /**
+   * Configures whether the results of {@link #getDataByKey()} are kept in the session cache of the
+   * {@link ILookupCallResultCacheService}, so that opening a form again does not fetch the same key texts again. Cached
+   * results are removed when they expire or when the server sends a {@link LookupChangedNotification} for the lookup
+   * service.
+   * <p>
+   * Only lookup calls that are {@link BatchLookupResultCache#isCacheable(Class) cacheable} are cached.
+   * 
+   * @return true to cache the results of key lookups, default is false
+   * @since 3.9.0
+   */
+  @ConfigProperty(ConfigProperty.BOOLEAN)
+  @ConfigPropertyValue("false")
+  @Order(40)
+  protected boolean getConfiguredResultCacheEnabled() {
+    return false;
+  }
+
+  /**
+   * Configures whether the results of {@link #getDataByAll()} are cached as well, see
+   * {@link #getConfiguredResultCacheEnabled()}.
+   * 
+   * @return true to cache the results of "all" lookups, default is false
+   * @since 3.9.0
+   */
+  @ConfigProperty(ConfigProperty.BOOLEAN)
+  @ConfigPropertyValue("false")
+  @Order(50)
+  protected boolean getConfiguredResultCacheByAllEnabled() {
+    return false;
+  }
+
+  /**
+   * @return true if the results of {@link #getDataByKey()} are kept in the {@link ILookupCallResultCacheService}, see
+   *         {@link #getConfiguredResultCacheEnabled()}
+   * @since 3.9.0
+   */
+  public boolean isResultCacheEnabled() {
+    return getConfiguredResultCacheEnabled() && BatchLookupResultCache.isCacheable(getClass());
+  }
+
   public ILookupService getLookupService() {
     if (m_serviceCached == null) {
       m_serviceCached = createLookupService();
@@ -284,6 +325,10 @@ public class LookupCall implements Cloneable, Serializable {
       return LookupRow.EMPTY_ARRAY;
     }
     if (getLookupService() != null) {
+      ILookupCallResultCacheService cache = getResultCacheService(getConfiguredResultCacheEnabled());
+      if (cache != null) {
+        return cache.getDataByKey(this);
+      }
       return getLookupService().getDataByKey(this);
     }
     return LookupRow.EMPTY_ARRAY;
@@ -401,6 +446,10 @@ public class LookupCall implements Cloneable, Serializable {
   public LookupRow[] getDataByAll() throws ProcessingException {
     boolean masterValid = ((!getConfiguredMasterRequired()) || getMaster() != null);
     if (masterValid && getLookupService() != null) {
+      ILookupCallResultCacheService cache = getResultCacheService(getConfiguredResultCacheByAllEnabled());
+      if (cache != null) {
+        return cache.getDataByAll(this);
+      }
       return getLookupService().getDataByAll(this);
     }
     else {
@@ -512,6 +561,16 @@ public class LookupCall implements Cloneable, Serializable {
     }
   }
 
+  /**
+   * @return the result cache or null if the lookup is not cached
+   */
+  private ILookupCallResultCacheService getResultCacheService(boolean enabled) {
+    if (!enabled || !BatchLookupResultCache.isCacheable(getClass())) {
+      return null;
+    }
+    return SERVICES.getService(ILookupCallResultCacheService.class);
+  }
+
   private JobEx createAsyncJob(String name, IJobRunnable runnable) {
     ISessionService service = SERVICES.getService(ISessionService.class);
     if (service == null) {
@@ -0,0 +1,88 @@
+/*******************************************************************************
+ * Copyright (c) 2013 BSI Business Systems Integration AG.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     BSI Business Systems Integration AG - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.scout.rt.shared.services.lookup;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+import org.eclipse.scout.rt.shared.services.common.clientnotification.AbstractClientNotification;
+import org.eclipse.scout.rt.shared.services.common.clientnotification.IClientNotification;
+
+/**
+ * Notification is sent from server to client to notify that the data of lookup services has changed and the client
+ * should clear its lookup result cache, see {@link ILookupCallResultCacheService}.
+ * <p>
+ * Example:
+ * 
+ * <pre>
+ * SERVICES.getService(IClientNotificationService.class).putNotification(new LookupChangedNotification(ICompanyLookupService.class), new AllUserFilter(AllUserFilter.DEFAULT_TIMEOUT));
+ * </pre>
+ * 
+ * @since 3.9.0
+ */
+public class LookupChangedNotification extends AbstractClientNotification {
+  private static final long serialVersionUID = 1L;
+  private Class<? extends ILookupService>[] m_lookupServices;
+
+  /**
+   * @param lookupServices
+   *          the lookup service interfaces whose data changed, none to clear the results of all lookup services
+   */
+  public LookupChangedNotification(Class<? extends ILookupService>... lookupServices) {
+    m_lookupServices = lookupServices;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public boolean coalesce(IClientNotification existingNotification) {
+    LookupChangedNotification n = (LookupChangedNotification) existingNotification;
+    if (this.isAllLookupServices() || n.isAllLookupServices()) {
+      m_lookupServices = new Class[0];
+    }
+    else {
+      HashSet<Class<? extends ILookupService>> set = new HashSet<Class<? extends ILookupService>>();
+      set.addAll(Arrays.asList(this.m_lookupServices));
+      set.addAll(Arrays.asList(n.m_lookupServices));
+      m_lookupServices = set.toArray(new Class[set.size()]);
+    }
+    if (this.getOriginNode() != existingNotification.getOriginNode()) {
+      this.setOriginNode(0);
+    }
+    return true;
+  }
+
+  /**
+   * @return the lookup service interfaces whose data changed, an empty array if the data of all lookup services changed
+   */
+  public Class<? extends ILookupService>[] getLookupServices() {
+    return m_lookupServices;
+  }
+
+  public boolean isAllLookupServices() {
+    return m_lookupServices == null || m_lookupServices.length == 0;
+  }
+
+  @Override
+  public String toString() {
+    StringBuffer b = new StringBuffer(getClass().getSimpleName());
+    b.append("[");
+    if (m_lookupServices != null) {
+      for (int i = 0; i < m_lookupServices.length; i++) {
+        if (i > 0) {
+          b.append(", ");
+        }
+        b.append(m_lookupServices[i].getSimpleName());
+      }
+    }
+    b.append("]");
+    return b.toString();
+  }
+}
@@ -0,0 +1,240 @@
+/*******************************************************************************
+ * Copyright (c) 2013 BSI Business Systems Integration AG.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     BSI Business Systems Integration AG - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.scout.rt.shared.servicetunnel;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+import org.eclipse.scout.commons.logger.IScoutLogger;
+import org.eclipse.scout.commons.logger.ScoutLogManager;
+import org.eclipse.scout.commons.serialization.IObjectSerializer;
+import org.eclipse.scout.commons.serialization.SerializationUtility;
+import org.eclipse.scout.rt.shared.Activator;
+import org.osgi.framework.Bundle;
+
+/**
+ * Streams {@link ServiceTunnelRequest} and {@link ServiceTunnelResponse} objects as plain java serialization data,
+ * optionally deflated, without building an intermediate SOAP envelope.
+ * <p>
+ * Every message starts with a small header:
+ *
+ * <pre>
+ * byte[4] magic   'S' 'C' 'T' 'B'
+ * byte    version (currently 1)
+ * byte    flags   (bit 0: compressed)
+ * </pre>
+ *
+ * followed by the (deflated) serialization data of the message object. Nothing is buffered besides the stream buffers,
+ * neither on the writing nor on the reading side.
+ * <p>
+ * This handler is negotiated using the http content type {@link #CONTENT_TYPE}. A client sends its first requests with
+ * the {@link DefaultServiceTunnelContentHandler} and adds {@link #CONTENT_TYPE} to the http <code>Accept</code>
+ * header. A server supporting this handler answers with {@link #CONTENT_TYPE}, whereupon the client switches to binary
+ * requests. Servers that do not know this handler keep on answering with <code>text/xml</code>, so the soap handler
+ * remains the fallback.
+ * <p>
+ * The negotiation is opt-in: set the system property or config.ini property
+ * <code>org.eclipse.scout.serviceTunnel.binary=true</code> to enable it. The default is false. Binary content is only
+ * negotiated as long as the installed soap content handler is exactly the {@link DefaultServiceTunnelContentHandler},
+ * a customized content handler (signing, encryption, ...) is never bypassed.
+ * <p>
+ * Compression is controlled by the same property as in the {@link DefaultServiceTunnelContentHandler}:
+ * <code>org.eclipse.scout.serviceTunnel.compress=true</code>
+ *
+ * @since 3.9.0
+ */
+public class BinaryServiceTunnelContentHandler implements IServiceTunnelContentHandler {
+  private static final IScoutLogger LOG = ScoutLogManager.getLogger(BinaryServiceTunnelContentHandler.class);
+
+  /**
+   * http content type of messages written by this content handler
+   */
+  public static final String CONTENT_TYPE = "application/x-scout-servicetunnel";
+
+  private static final byte[] MAGIC = new byte[]{'S', 'C', 'T', 'B'};
+  private static final int VERSION = 1;
+  private static final int FLAG_COMPRESSED = 0x01;
+  private static final int BUFFER_SIZE = 8192;
+
+  private static final Boolean COMPRESS;
+  private static final boolean ENABLED;
+
+  static {
+    String compressText = null;
+    String enabledText = null;
+    if (Activator.getDefault() != null) {
+      compressText = Activator.getDefault().getBundle().getBundleContext().getProperty("org.eclipse.scout.serviceTunnel.compress");
+      enabledText = Activator.getDefault().getBundle().getBundleContext().getProperty("org.eclipse.scout.serviceTunnel.binary");
+    }
+    if ("true".equals(compressText)) {
+      COMPRESS = true;
+    }
+    else if ("false".equals(compressText)) {
+      COMPRESS = false;
+    }
+    else {
+      COMPRESS = null;
+    }
+    ENABLED = "true".equals(enabledText);
+  }
+
+  private Boolean m_sendCompressed;
+  private Boolean m_receivedCompressed;
+  private IObjectSerializer m_objectSerializer;
+
+  /**
+   * @return true if the binary content handler may be negotiated, see config.ini property
+   *         <code>org.eclipse.scout.serviceTunnel.binary</code>
+   */
+  public static boolean isEnabled() {
+    return ENABLED;
+  }
+
+  /**
+   * @return true if the binary content handler is enabled and may replace the given soap content handler. This is only
+   *         the case for the plain {@link DefaultServiceTunnelContentHandler}, subclasses and other handlers may add
+   *         behavior (signing, encryption, ...) the binary format does not know about.
+   */
+  public static boolean isEnabledFor(IServiceTunnelContentHandler contentHandler) {
+    return ENABLED && contentHandler != null && contentHandler.getClass() == DefaultServiceTunnelContentHandler.class;
+  }
+
+  /**
+   * @return true if the given http content type (or accept header value) denotes the binary format of this handler
+   */
+  public static boolean isBinaryContentType(String contentType) {
+    return contentType != null && contentType.indexOf(CONTENT_TYPE) >= 0;
+  }
+
+  @Override
+  public void initialize(Bundle[] classResolveBundles, ClassLoader rawClassLoader) {
+    m_sendCompressed = COMPRESS;
+    m_objectSerializer = createObjectSerializer();
+  }
+
+  /**
+   * @return Creates an {@link IObjectSerializer} instance used for serializing and deserializing data.
+   */
+  protected IObjectSerializer createObjectSerializer() {
+    return SerializationUtility.createObjectSerializer(new ServiceTunnelObjectReplacer());
+  }
+
+  @Override
+  public void writeRequest(OutputStream out, ServiceTunnelRequest msg) throws Exception {
+    write(out, msg);
+  }
+
+  @Override
+  public void writeResponse(OutputStream out, ServiceTunnelResponse msg) throws Exception {
+    write(out, msg);
+  }
+
+  @Override
+  public ServiceTunnelRequest readRequest(InputStream in) throws Exception {
+    return (ServiceTunnelRequest) read(in);
+  }
+
+  @Override
+  public ServiceTunnelResponse readResponse(InputStream in) throws Exception {
+    return (ServiceTunnelResponse) read(in);
+  }
+
+  protected void write(OutputStream out, Object msg) throws IOException {
+    boolean compressed = isUseCompression();
+    long y = System.nanoTime();
+    Deflater deflater = null;
+    try {
+      out = new BufferedOutputStream(out, BUFFER_SIZE);
+      out.write(MAGIC);
+      out.write(VERSION);
+      out.write(compressed ? FLAG_COMPRESSED : 0);
+      if (compressed) {
+        deflater = new Deflater(Deflater.BEST_SPEED);
+        out = new DeflaterOutputStream(out, deflater, BUFFER_SIZE);
+      }
+      // the serializer flushes and closes the stream, which also finishes the deflater
+      m_objectSerializer.serialize(out, msg);
+    }
+    finally {
+      if (deflater != null) {
+        try {
+          deflater.end();
+        }
+        catch (Throwable fatal) {
+        }
+      }
+    }
+    y = System.nanoTime() - y;
+    if (LOG.isDebugEnabled()) {
+      LOG.debug("message encoding took " + y + " nanoseconds");
+    }
+  }
+
+  protected Object/* msg */read(InputStream in) throws IOException, ClassNotFoundException {
+    long y = System.nanoTime();
+    Inflater inflater = null;
+    Object res;
+    try {
+      in = new BufferedInputStream(in, BUFFER_SIZE);
+      DataInputStream header = new DataInputStream(in);
+      byte[] magic = new byte[MAGIC.length];
+      header.readFully(magic);
+      for (int i = 0; i < MAGIC.length; i++) {
+        if (magic[i] != MAGIC[i]) {
+          throw new IOException("not a binary service tunnel message");
+        }
+      }
+      int version = header.readUnsignedByte();
+      if (version != VERSION) {
+        throw new IOException("unsupported binary service tunnel message version " + version);
+      }
+      boolean compressed = (header.readUnsignedByte() & FLAG_COMPRESSED) != 0;
+      m_receivedCompressed = compressed;
+      if (compressed) {
+        inflater = new Inflater();
+        in = new InflaterInputStream(in, inflater, BUFFER_SIZE);
+      }
+      res = m_objectSerializer.deserialize(in, null);
+    }
+    finally {
+      if (inflater != null) {
+        try {
+          inflater.end();
+        }
+        catch (Throwable fatal) {
+        }
+      }
+    }
+    y = System.nanoTime() - y;
+    if (LOG.isDebugEnabled()) {
+      LOG.debug("message decoding took " + y + " nanoseconds");
+    }
+    return res;
+  }
+
+  protected boolean isUseCompression() {
+    if (m_sendCompressed != null) {
+      return m_sendCompressed;
+    }
+    if (m_receivedCompressed != null) {
+      return m_receivedCompressed;
+    }
+    return true;
+  }
+}
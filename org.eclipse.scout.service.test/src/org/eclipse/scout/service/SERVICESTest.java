@@ -110,6 +110,22 @@ public class SERVICESTest {
     assertEquals("Service count should be 1 (filtered)", 1, services.length);
   }
 
+  /**
+   * Test for {@link SERVICES#getService(Class)} after services are unregistered or change their ranking.
+   */
+  @Test
+  public void testGetServiceAfterServiceEvents() {
+    assertEquals(TestService3.class, SERVICES.getService(ITestService.class).getClass());
+    m_testReg3.unregister();
+    m_testReg3 = registerService(ITestService.class.getName(), new TestService3(), -1);
+    assertEquals(TestService2.class, SERVICES.getService(ITestService.class).getClass());
+    Dictionary<String, Object> map = new Hashtable<String, Object>();
+    map.put(Constants.SERVICE_RANKING, 10);
+    m_testReg1.setProperties(map);
+    assertEquals(TestService1.class, SERVICES.getService(ITestService.class).getClass());
+    assertEquals(TestService3.class, SERVICES.getServices(ITestService.class)[2].getClass());
+  }
+
   /* Test data*/
 
   /**
@@ -12,15 +12,12 @@ package org.eclipse.scout.service;
 
 import java.lang.reflect.Array;
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Comparator;
 
 import org.eclipse.scout.commons.logger.IScoutLogger;
 import org.eclipse.scout.commons.logger.ScoutLogManager;
 import org.eclipse.scout.service.internal.Activator;
+import org.eclipse.scout.service.internal.ServiceReferenceCache;
 import org.osgi.framework.BundleContext;
-import org.osgi.framework.Constants;
-import org.osgi.framework.InvalidSyntaxException;
 import org.osgi.framework.ServiceReference;
 
 /**
@@ -29,6 +26,10 @@ import org.osgi.framework.ServiceReference;
  * There might be log warnings when a service returns null due to factory visiblity decisions. see bug
  * https://bugs.eclipse.org/bugs/show_bug.cgi?id=299351 (solved with eclipse 3.6)
  * <p>
+ * The service references are cached ordered by ranking and invalidated on every service event. Service instances are
+ * only cached for services marked with {@link ServiceConstants#SERVICE_CONTEXT_INDEPENDENT}, all other services are
+ * resolved using their service factory on every call.
+ * <p>
  * see also {@link INullService}
  */
 public final class SERVICES {
@@ -64,57 +65,45 @@ public final class SERVICES {
     if (context == null) {
       return null;
     }
-
-    ServiceReference serviceReference = null;
-    if (filter == null) {
-      //If no filter is specified directly get the serviceReference with the highest ranking
-      serviceReference = context.getServiceReference(serviceInterfaceClass.getName());
-
-      if (serviceReference != null) {
-        T service = resolveService(serviceInterfaceClass, context, serviceReference);
-        if (service != null) {
-          return service;
-        }
-      }
-    }
-
-    ServiceReference[] refs = null;
-    try {
-      refs = context.getAllServiceReferences(serviceInterfaceClass.getName(), filter);
-    }
-    catch (InvalidSyntaxException e) {
-      // nop
-    }
-
-    if (refs != null) {
-      for (ServiceReference ref : refs) {
-        T service = resolveService(serviceInterfaceClass, context, ref);
-        if (service != null) {
-          return service;
-        }
+    ServiceReferenceCache.Entry entry = a.getServiceReferenceCache().getEntry(context, serviceInterfaceClass.getName(), filter);
+    ServiceReference[] refs = entry.getReferences();
+    for (int i = 0; i < refs.length; i++) {
+      T service = resolveService(serviceInterfaceClass, context, entry, i);
+      if (service != null) {
+        return service;
       }
     }
     return null;
   }
 
   /**
-   * safely get and immediately unget the service in an atomic section using the service reference as lock
+   * Returns the cached instance of a context independent service. Otherwise safely get and immediately unget the
+   * service in an atomic section using the service reference as lock, service factories may return a different
+   * instance for every call.
    */
   @SuppressWarnings("unchecked")
-  private static <T extends Object> T resolveService(Class<T> serviceInterfaceClass, BundleContext context, ServiceReference ref) {
-    if (ref == null) {
-      return null;
-    }
-    synchronized (ref) {
-      try {
-        Object s = safeGetService(context, ref);
-        if (s != null && serviceInterfaceClass.isAssignableFrom(s.getClass())) {
-          return (T) s;
+  private static <T extends Object> T resolveService(Class<T> serviceInterfaceClass, BundleContext context, ServiceReferenceCache.Entry entry, int index) {
+    Object s = entry.getInstance(index);
+    if (s == null) {
+      ServiceReference ref = entry.getReferences()[index];
+      synchronized (ref) {
+        try {
+          s = context.getService(ref);
+        }
+        finally {
+          context.ungetService(ref);
         }
       }
-      finally {
-        context.ungetService(ref);
+      if (s == null) {
+        return null;
       }
+      entry.setInstance(index, s);
+    }
+    if (s instanceof INullService) {
+      return null;
+    }
+    if (serviceInterfaceClass.isAssignableFrom(s.getClass())) {
+      return (T) s;
     }
     return null;
   }
@@ -146,38 +135,15 @@ public final class SERVICES {
     if (context == null) {
       return (T[]) Array.newInstance(serviceInterfaceClass, 0);
     }
-    ServiceReference[] refs = null;
-    try {
-      refs = context.getAllServiceReferences(serviceInterfaceClass.getName(), filter);
-    }
-    catch (InvalidSyntaxException e) {
-      // nop
-    }
-    if (refs != null) {
-      Arrays.sort(refs, new Comparator<ServiceReference>() {
-        @Override
-        public int compare(ServiceReference ref1, ServiceReference ref2) {
-          return ((Comparable) ref2.getProperty(Constants.SERVICE_RANKING)).compareTo(((Comparable) ref1.getProperty(Constants.SERVICE_RANKING)));
-        }
-      });
-      ArrayList<T> list = new ArrayList<T>(refs.length);
-      for (ServiceReference ref : refs) {
-        T s = resolveService(serviceInterfaceClass, context, ref);
-        if (s != null) {
-          list.add((T) s);
-        }
+    ServiceReferenceCache.Entry entry = a.getServiceReferenceCache().getEntry(context, serviceInterfaceClass.getName(), filter);
+    ServiceReference[] refs = entry.getReferences();
+    ArrayList<T> list = new ArrayList<T>(refs.length);
+    for (int i = 0; i < refs.length; i++) {
+      T s = resolveService(serviceInterfaceClass, context, entry, i);
+      if (s != null) {
+        list.add(s);
       }
-      return list.toArray((T[]) Array.newInstance(serviceInterfaceClass, list.size()));
-    }
-    return (T[]) Array.newInstance(serviceInterfaceClass, 0);
-  }
-
-  private static Object safeGetService(BundleContext context, ServiceReference ref) {
-    @SuppressWarnings("unchecked")
-    Object o = context.getService(ref);
-    if (o instanceof INullService) {
-      o = null;
     }
-    return o;
+    return list.toArray((T[]) Array.newInstance(serviceInterfaceClass, list.size()));
   }
 }
@@ -34,4 +34,14 @@ public interface ServiceConstants {
    */
   String SERVICE_CREATE_IMMEDIATELY = "service.createImmediately";
 
+  /**
+   * osgi service init parameter that marks a service which resolves to the same instance regardless of the calling
+   * context (session, job, tier). {@link SERVICES} caches the instance of such a service.
+   * Set by scout for services registered with the {@link DefaultServiceFactory}.
+   * The value is of type Boolean with default value false.
+   * 
+   * @since 3.9.0
+   */
+  String SERVICE_CONTEXT_INDEPENDENT = "service.contextIndependent";
+
 }
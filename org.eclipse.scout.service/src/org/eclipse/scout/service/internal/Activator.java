@@ -33,6 +33,7 @@ public class Activator extends Plugin {
   private static Activator plugin;
 
   private ServicesExtensionManager m_servicesExtensionManager;
+  private ServiceReferenceCache m_serviceReferenceCache;
 
   /**
    * The constructor
@@ -48,6 +49,8 @@ public class Activator extends Plugin {
   @Override
   public void start(BundleContext context) throws Exception {
     super.start(context);
+    m_serviceReferenceCache = new ServiceReferenceCache();
+    context.addServiceListener(m_serviceReferenceCache);
     plugin = this;
     ServiceReference ref = context.getServiceReference(IExtensionRegistry.class.getName());
     @SuppressWarnings("unchecked")
@@ -80,6 +83,10 @@ public class Activator extends Plugin {
       m_servicesExtensionManager.stop();
       m_servicesExtensionManager = null;
     }
+    if (m_serviceReferenceCache != null) {
+      context.removeServiceListener(m_serviceReferenceCache);
+      m_serviceReferenceCache = null;
+    }
     plugin = null;
     super.stop(context);
   }
@@ -97,4 +104,11 @@ public class Activator extends Plugin {
     return m_servicesExtensionManager;
   }
 
+  /**
+   * @since 3.9.0
+   */
+  public ServiceReferenceCache getServiceReferenceCache() {
+    return m_serviceReferenceCache;
+  }
+
 }
@@ -0,0 +1,161 @@
+/*******************************************************************************
+ * Copyright (c) 2013 BSI Business Systems Integration AG.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     BSI Business Systems Integration AG - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.scout.service.internal;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.eclipse.scout.commons.CompositeObject;
+import org.eclipse.scout.service.SERVICES;
+import org.eclipse.scout.service.ServiceConstants;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.Constants;
+import org.osgi.framework.InvalidSyntaxException;
+import org.osgi.framework.ServiceEvent;
+import org.osgi.framework.ServiceListener;
+import org.osgi.framework.ServiceReference;
+
+/**
+ * Cache of the service references used by {@link SERVICES}, ordered by ranking.
+ * <p>
+ * Every service event (register, unregister, modified properties such as the ranking) invalidates all entries, so
+ * the steady state lookup is a map access and a volatile read.
+ * <p>
+ * Service factories may return a different instance for every call depending on the calling context (e.g. the
+ * session of the current job), therefore service instances are only cached for registrations with
+ * {@link ServiceConstants#SERVICE_CONTEXT_INDEPENDENT}.
+ *
+ * @since 3.9.0
+ */
+public class ServiceReferenceCache implements ServiceListener {
+  private static final ServiceReference[] NO_REFERENCES = new ServiceReference[0];
+  private static final Comparator<ServiceReference> RANKING_COMPARATOR = new P_RankingComparator();
+
+  private final AtomicLong m_generation = new AtomicLong();
+  private final ConcurrentHashMap<String, Entry> m_entries = new ConcurrentHashMap<String, Entry>();
+  private final ConcurrentHashMap<CompositeObject, Entry> m_filteredEntries = new ConcurrentHashMap<CompositeObject, Entry>();
+
+  /**
+   * @param filter
+   *          the filter expression or {@code null}. Invalid filter expressions are ignored.
+   * @return the registered services ordered by ranking (highest first) and service id
+   */
+  public Entry getEntry(BundleContext context, String className, String filter) {
+    long generation = m_generation.get();
+    Entry e;
+    CompositeObject filteredKey = null;
+    if (filter == null) {
+      e = m_entries.get(className);
+    }
+    else {
+      filteredKey = new CompositeObject(className, filter);
+      e = m_filteredEntries.get(filteredKey);
+    }
+    if (e != null && e.m_generation == generation) {
+      return e;
+    }
+    ServiceReference[] refs = null;
+    try {
+      refs = context.getAllServiceReferences(className, filter);
+    }
+    catch (InvalidSyntaxException ex) {
+      // nop
+    }
+    if (refs == null) {
+      refs = NO_REFERENCES;
+    }
+    else {
+      Arrays.sort(refs, RANKING_COMPARATOR);
+    }
+    e = new Entry(generation, refs);
+    if (filteredKey == null) {
+      m_entries.put(className, e);
+    }
+    else {
+      m_filteredEntries.put(filteredKey, e);
+    }
+    return e;
+  }
+
+  @Override
+  public void serviceChanged(ServiceEvent event) {
+    m_generation.incrementAndGet();
+    m_entries.clear();
+    m_filteredEntries.clear();
+  }
+
+  /**
+   * Resolved service references of one service type and filter
+   */
+  public static final class Entry {
+    private final long m_generation;
+    private final ServiceReference[] m_references;
+    private final AtomicReferenceArray<Object> m_instances;
+
+    private Entry(long generation, ServiceReference[] references) {
+      m_generation = generation;
+      m_references = references;
+      m_instances = new AtomicReferenceArray<Object>(references.length);
+    }
+
+    public ServiceReference[] getReferences() {
+      return m_references;
+    }
+
+    /**
+     * @return the cached service instance of the reference at index i or null
+     */
+    public Object getInstance(int i) {
+      return m_instances.get(i);
+    }
+
+    /**
+     * Caches the service instance if the reference at index i is marked with
+     * {@link ServiceConstants#SERVICE_CONTEXT_INDEPENDENT}
+     */
+    public void setInstance(int i, Object service) {
+      if (Boolean.TRUE.equals(m_references[i].getProperty(ServiceConstants.SERVICE_CONTEXT_INDEPENDENT))) {
+        m_instances.set(i, service);
+      }
+    }
+  }
+
+  /**
+   * Same order as {@link BundleContext#getServiceReference(String)}: highest ranking first, then lowest service id
+   */
+  private static class P_RankingComparator implements Comparator<ServiceReference> {
+    @Override
+    public int compare(ServiceReference ref1, ServiceReference ref2) {
+      int r1 = getInt(ref1.getProperty(Constants.SERVICE_RANKING));
+      int r2 = getInt(ref2.getProperty(Constants.SERVICE_RANKING));
+      if (r1 != r2) {
+        return r1 > r2 ? -1 : 1;
+      }
+      long id1 = getLong(ref1.getProperty(Constants.SERVICE_ID));
+      long id2 = getLong(ref2.getProperty(Constants.SERVICE_ID));
+      if (id1 != id2) {
+        return id1 < id2 ? -1 : 1;
+      }
+      return 0;
+    }
+
+    private static int getInt(Object o) {
+      return o instanceof Integer ? ((Integer) o).intValue() : 0;
+    }
+
+    private static long getLong(Object o) {
+      return o instanceof Long ? ((Long) o).longValue() : 0L;
+    }
+  }
+}
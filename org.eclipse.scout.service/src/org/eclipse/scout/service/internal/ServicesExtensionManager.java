@@ -142,6 +142,9 @@ public class ServicesExtensionManager implements Listener {
           if (factory == null) {
             factory = new DefaultServiceFactory(serviceClass);
           }
+          if (factory.getClass() == DefaultServiceFactory.class) {
+            initParams.put(ServiceConstants.SERVICE_CONTEXT_INDEPENDENT, true);
+          }
           ArrayList<String> clazzes = new ArrayList<String>();
           clazzes.add(serviceClass.getName());
           for (Class c : ServiceUtility.getInterfacesHierarchy(serviceClass, Object.class)) {